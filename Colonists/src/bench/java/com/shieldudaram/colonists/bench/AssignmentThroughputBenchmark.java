@@ -0,0 +1,122 @@
+package com.shieldudaram.colonists.bench;
+
+import com.shieldudaram.colonists.events.ColonyEventBus;
+import com.shieldudaram.colonists.model.CitizenState;
+import com.shieldudaram.colonists.model.ColonyState;
+import com.shieldudaram.colonists.model.ColonyTask;
+import com.shieldudaram.colonists.model.Role;
+import com.shieldudaram.colonists.model.TaskType;
+import com.shieldudaram.colonists.sim.ColonistsConstants;
+import com.shieldudaram.colonists.systems.AgentScheduler;
+import com.shieldudaram.colonists.systems.AssignmentMode;
+import com.shieldudaram.colonists.systems.TaskBroker;
+import com.shieldudaram.colonists.systems.TaskMatcher;
+import com.shieldudaram.colonists.systems.TaskRetentionSystem;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+public final class AssignmentThroughputBenchmark {
+    private static final int CITIZENS = 40;
+    private static final int QUEUE_DEPTH = 400;
+    private static final int SIMULATED_SECONDS = 3600;
+    private static final double TASK_WORK_SECONDS = 45.0;
+    private static final TaskType[] WORK_TYPES = {
+            TaskType.BUILD, TaskType.FARM, TaskType.GATHER, TaskType.HAUL, TaskType.DEFEND, TaskType.REPAIR
+    };
+
+    private AssignmentThroughputBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 7L;
+        run(AssignmentMode.GREEDY, seed);
+        run(AssignmentMode.BATCH, seed);
+        Result greedy = run(AssignmentMode.GREEDY, seed);
+        Result batch = run(AssignmentMode.BATCH, seed);
+        print(greedy);
+        print(batch);
+        System.out.printf(
+                Locale.ROOT,
+                "batch/greedy output ratio=%.3f completed ratio=%.3f%n",
+                batch.output / greedy.output,
+                (double) batch.completed / greedy.completed
+        );
+    }
+
+    private static Result run(AssignmentMode mode, long seed) {
+        Random random = new Random(seed);
+        ColonyState state = new ColonyState();
+        for (int index = 0; index < CITIZENS; index++) {
+            CitizenState citizen = new CitizenState("citizen-" + index, Role.values()[index % Role.values().length]);
+            for (Role role : Role.values()) {
+                citizen.setSkill(role, 1 + random.nextInt(10));
+            }
+            citizen.needs().setFood(40 + random.nextInt(61));
+            citizen.needs().setRest(40 + random.nextInt(61));
+            state.addCitizen(citizen);
+        }
+
+        TaskBroker broker = new TaskBroker(
+                AgentScheduler.unstaggered(),
+                mode,
+                new TaskMatcher(ColonistsConstants.MATCH_BUDGET_MICROS * 1_000L)
+        );
+        TaskRetentionSystem retention = new TaskRetentionSystem();
+        ColonyEventBus events = new ColonyEventBus();
+        Map<ColonyTask, double[]> progress = new HashMap<>();
+        double tickSeconds = 1.0 / ColonistsConstants.TICK_HZ;
+        long assignNanos = 0L;
+        long completed = 0L;
+        double output = 0.0;
+
+        int ticks = SIMULATED_SECONDS * ColonistsConstants.TICK_HZ;
+        for (int tick = 1; tick <= ticks; tick++) {
+            state.setWorldTimeSec(tick / ColonistsConstants.TICK_HZ);
+            while (state.taskQueue().size() < QUEUE_DEPTH) {
+                TaskType type = WORK_TYPES[random.nextInt(WORK_TYPES.length)];
+                broker.createTask(state, type, "target-" + tick, 0.5 + random.nextDouble(), false, events);
+            }
+
+            long startedAt = System.nanoTime();
+            broker.assignTasks(state, events);
+            assignNanos += System.nanoTime() - startedAt;
+
+            for (CitizenState citizen : state.citizens()) {
+                ColonyTask task = state.taskReservations().activeTask(citizen.id());
+                if (task == null) {
+                    continue;
+                }
+                double[] done = progress.computeIfAbsent(task, ignored -> new double[1]);
+                done[0] += tickSeconds * TaskMatcher.matchWeight(1.0, citizen, task.type());
+                if (done[0] >= TASK_WORK_SECONDS) {
+                    output += state.taskQueue().scoredPriority(task);
+                    completed += 1;
+                    progress.remove(task);
+                    broker.completeTask(task, citizen.id(), events);
+                }
+            }
+            retention.tick(state);
+        }
+
+        return new Result(mode, completed, output, assignNanos / ticks, broker.matcher().fallbackCount());
+    }
+
+    private static void print(Result result) {
+        double hours = SIMULATED_SECONDS / 3600.0;
+        System.out.printf(
+                Locale.ROOT,
+                "%-6s completed/h=%d output/h=%.1f assign=%dns/tick matcherFallbacks=%d%n",
+                result.mode,
+                (long) (result.completed / hours),
+                result.output / hours,
+                result.assignNanosPerTick,
+                result.fallbacks
+        );
+    }
+
+    private record Result(AssignmentMode mode, long completed, double output, long assignNanosPerTick, long fallbacks) {
+    }
+}
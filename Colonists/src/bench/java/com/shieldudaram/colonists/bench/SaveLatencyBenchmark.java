@@ -0,0 +1,149 @@
+package com.shieldudaram.colonists.bench;
+
+import com.shieldudaram.colonists.events.ColonyEventBus;
+import com.shieldudaram.colonists.model.BlueprintId;
+import com.shieldudaram.colonists.model.CitizenState;
+import com.shieldudaram.colonists.model.ColonyState;
+import com.shieldudaram.colonists.model.ColonyZone;
+import com.shieldudaram.colonists.model.HotspotFamily;
+import com.shieldudaram.colonists.model.HotspotState;
+import com.shieldudaram.colonists.model.PlacedStructure;
+import com.shieldudaram.colonists.model.Role;
+import com.shieldudaram.colonists.model.TaskType;
+import com.shieldudaram.colonists.model.ZoneType;
+import com.shieldudaram.colonists.save.ColonySaveService;
+import com.shieldudaram.colonists.save.ColonySaveV1;
+import com.shieldudaram.colonists.save.SaveFormat;
+import com.shieldudaram.colonists.systems.TaskBroker;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+public final class SaveLatencyBenchmark {
+    private static final int CITIZENS = 200;
+    private static final int HOTSPOTS = 4_000;
+    private static final int TASKS = 8_000;
+    private static final int ZONES = 500;
+    private static final int STRUCTURES = 2_000;
+    private static final int WARMUP = 20;
+    private static final int SAMPLES = 100;
+
+    private SaveLatencyBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        ColonyState state = populate();
+        for (SaveFormat format : SaveFormat.values()) {
+            run(format, state);
+        }
+    }
+
+    private static void run(SaveFormat format, ColonyState state) throws IOException {
+        Path saveDir = Files.createTempDirectory("colonists-save-bench");
+        try {
+            ColonySaveService service = new ColonySaveService(format);
+            ColonySaveV1 snapshot = service.snapshot(state);
+
+            for (int index = 0; index < WARMUP; index++) {
+                service.write(snapshot, saveDir);
+                service.load(new ColonyState(), saveDir);
+                service.decode(service.encode(snapshot));
+            }
+            long[] writes = new long[SAMPLES];
+            long[] loads = new long[SAMPLES];
+            long[] encodes = new long[SAMPLES];
+            long[] decodes = new long[SAMPLES];
+            for (int index = 0; index < SAMPLES; index++) {
+                long startedAt = System.nanoTime();
+                byte[] encoded = service.encode(snapshot);
+                encodes[index] = System.nanoTime() - startedAt;
+                startedAt = System.nanoTime();
+                service.decode(encoded);
+                decodes[index] = System.nanoTime() - startedAt;
+                startedAt = System.nanoTime();
+                service.write(snapshot, saveDir);
+                writes[index] = System.nanoTime() - startedAt;
+                startedAt = System.nanoTime();
+                service.load(new ColonyState(), saveDir);
+                loads[index] = System.nanoTime() - startedAt;
+            }
+            long bytes = Files.size(saveDir.resolve("active-save.sav"));
+            System.out.printf(Locale.ROOT, "%s save size=%d bytes%n", format, bytes);
+            print("encode", encodes);
+            print("decode", decodes);
+            print("write", writes);
+            print("load", loads);
+        } finally {
+            try (Stream<Path> files = Files.walk(saveDir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static ColonyState populate() {
+        ColonyState state = new ColonyState();
+        for (int index = 0; index < CITIZENS; index++) {
+            state.addCitizen(new CitizenState("citizen-" + index, Role.values()[index % Role.values().length]));
+        }
+        HotspotFamily[] families = HotspotFamily.values();
+        for (int index = 0; index < HOTSPOTS; index++) {
+            state.addHotspot(new HotspotState(
+                    "hotspot-" + index,
+                    families[index % families.length],
+                    1,
+                    20,
+                    20,
+                    0.0,
+                    null,
+                    null,
+                    "zone-" + (index % ZONES),
+                    (index % 100) * 12,
+                    (index / 100) * 12
+            ));
+        }
+        ZoneType[] zoneTypes = ZoneType.values();
+        for (int index = 0; index < ZONES; index++) {
+            int x = (index % 25) * 48;
+            int z = (index / 25) * 48;
+            state.addZone(new ColonyZone("zone-" + index, zoneTypes[index % zoneTypes.length], x, z, x + 40, z + 40));
+        }
+        BlueprintId[] blueprints = BlueprintId.values();
+        for (int index = 0; index < STRUCTURES; index++) {
+            state.addStructure(new PlacedStructure(
+                    "structure-" + index,
+                    blueprints[index % blueprints.length],
+                    (index % 50) * 8,
+                    (index / 50) * 8,
+                    (index % 4) * 90,
+                    index % 3 != 0,
+                    index,
+                    index + 120L
+            ));
+        }
+        TaskBroker broker = new TaskBroker();
+        ColonyEventBus events = new ColonyEventBus();
+        TaskType[] types = TaskType.values();
+        for (int index = 0; index < TASKS; index++) {
+            broker.createTask(state, types[index % types.length], "target-" + index, 1.0, false, events);
+        }
+        return state;
+    }
+
+    private static void print(String label, long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        System.out.printf(
+                Locale.ROOT,
+                "%-6s p50=%.2fms p99=%.2fms max=%.2fms%n",
+                label,
+                sorted[sorted.length / 2] / 1e6,
+                sorted[(int) Math.min(sorted.length - 1, Math.ceil(sorted.length * 0.99) - 1)] / 1e6,
+                sorted[sorted.length - 1] / 1e6
+        );
+    }
+}
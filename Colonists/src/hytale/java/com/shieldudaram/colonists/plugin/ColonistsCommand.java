@@ -11,7 +11,7 @@ import javax.annotation.Nonnull;
 
 public final class ColonistsCommand extends CommandBase {
     private static final Message MSG_USAGE = Message.raw(
-            "Usage: /colony <status|tasks|hotspots|raid|priority|policy|pause|resume|save|build|hotspot|zone|crisis|telemetry>"
+            "Usage: /colony [@colonyId] <open|close|status|tasks|hotspots|raid|priority|policy|pause|resume|save|build|hotspot|zone|crisis|telemetry|perf>"
     );
 
     private final ColonistsRuntime runtime;
@@ -32,7 +32,26 @@ public final class ColonistsCommand extends CommandBase {
             return;
         }
 
-        CommandResult result = runtime.handleCommand(normalizeRawCommand(args));
+        if (args.length > 1 && args[1].startsWith("@")) {
+            String colonyId = args[1].substring(1);
+            if (args.length == 3 && args[2].equalsIgnoreCase("open")) {
+                runtime.openColony(colonyId).thenAccept(result -> reply(ctx, result));
+                return;
+            }
+            if (args.length == 3 && args[2].equalsIgnoreCase("close")) {
+                runtime.closeColony(colonyId).thenAccept(result -> reply(ctx, result));
+                return;
+            }
+            String[] routed = new String[args.length - 1];
+            routed[0] = args[0];
+            System.arraycopy(args, 2, routed, 1, args.length - 2);
+            runtime.handleCommand(colonyId, normalizeRawCommand(routed)).thenAccept(result -> reply(ctx, result));
+            return;
+        }
+        runtime.handleCommand(normalizeRawCommand(args)).thenAccept(result -> reply(ctx, result));
+    }
+
+    private static void reply(CommandContext ctx, CommandResult result) {
         String message = result.message();
         if (message == null || message.isBlank()) {
             message = result.success() ? "OK" : "Command failed.";
@@ -30,4 +30,16 @@ public final class ColonistsPlugin extends JavaPlugin {
             throw exception;
         }
     }
+
+    @Override
+    protected void shutdown() {
+        if (this.runtime == null) {
+            return;
+        }
+        try {
+            this.runtime.shutdown();
+        } catch (RuntimeException exception) {
+            LOGGER.atWarning().withCause(exception).log("[Colonists] Failed to flush colony save on shutdown.");
+        }
+    }
 }
@@ -5,14 +5,22 @@ import com.shieldudaram.colonists.commands.CommandResult;
 import com.shieldudaram.colonists.content.ColonistsConfig;
 import com.shieldudaram.colonists.content.ConfigLoader;
 import com.shieldudaram.colonists.content.ContentPackValidator;
+import com.shieldudaram.colonists.content.ItemCatalogLoader;
+import com.shieldudaram.colonists.host.ColonyHost;
+import com.shieldudaram.colonists.model.ItemRegistry;
 import com.shieldudaram.colonists.sim.ColonyCallbacks;
 import com.shieldudaram.colonists.sim.ColonySimulationEngine;
+import com.shieldudaram.colonists.sim.ColonySnapshot;
+import com.shieldudaram.colonists.sim.SimulationLoop;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 public final class ColonistsRuntime {
     private static final List<String> DEFAULT_CONTENT_RESOURCES = List.of(
@@ -24,36 +32,158 @@ public final class ColonistsRuntime {
             "content/colonists/recipes/basic_recipes.json"
     );
 
+    private final Path root;
+    private final boolean headless;
+    private final ColonistsConfig config;
+    private final ItemRegistry items;
     private final ColonySimulationEngine engine;
     private final ColonyCommandRouter commandRouter;
+    private final SimulationLoop loop;
+    private final Queue<Runnable> replies = new ConcurrentLinkedQueue<>();
+    private volatile ColonyHost host;
 
     public ColonistsRuntime(Path runtimeRoot) {
-        Path root = runtimeRoot == null ? Path.of(".") : runtimeRoot;
+        this(runtimeRoot, false);
+    }
+
+    private ColonistsRuntime(Path runtimeRoot, boolean headless) {
+        this.root = runtimeRoot == null ? Path.of(".") : runtimeRoot;
+        this.headless = headless;
         Path logsDir = root.resolve("logs/colonists");
         Path saveDir = root.resolve("saves/colonists");
         Path configPath = root.resolve("config/colonists-config.json");
         Path contentRoot = root.resolve("content/colonists");
-        ColonistsConfig config = bootstrapConfig(configPath);
-        boolean autosaveEnabled = (config.save == null) || config.save.autosaveEnabled;
+        this.config = bootstrapConfig(configPath);
+
+        bootstrapContent(contentRoot);
+        validateContent(contentRoot);
+        this.items = new ItemCatalogLoader().load(contentRoot);
 
         this.engine = new ColonySimulationEngine(logsDir, saveDir, new ColonyCallbacks() {
-        }, autosaveEnabled);
+        }, config, items.copy());
         this.commandRouter = new ColonyCommandRouter(engine);
+        if (config.sim.dedicatedThread && !headless) {
+            this.loop = new SimulationLoop(engine);
+            loop.start();
+        } else {
+            this.loop = null;
+        }
+    }
 
-        bootstrapContent(contentRoot);
-        validateContent(contentRoot);
+    public static ColonistsRuntime headless(Path runtimeRoot) {
+        return new ColonistsRuntime(runtimeRoot, true);
     }
 
     public ColonySimulationEngine engine() {
         return engine;
     }
 
-    public CommandResult handleCommand(String rawCommand) {
-        return commandRouter.execute(rawCommand);
+    public SimulationLoop simulationLoop() {
+        return loop;
+    }
+
+    public ColonyHost host() {
+        ColonyHost current = host;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (host == null) {
+                ColonyHost created = new ColonyHost(root.resolve("colonies"), config, items);
+                if (config.sim.dedicatedThread && !headless) {
+                    created.start();
+                }
+                host = created;
+            }
+            return host;
+        }
+    }
+
+    public boolean dedicatedThread() {
+        return loop != null;
+    }
+
+    public ColonySnapshot snapshot() {
+        if (loop != null) {
+            return loop.snapshot();
+        }
+        return ColonySnapshot.capture(engine.state(), engine.tickCount());
+    }
+
+    public CompletableFuture<CommandResult> handleCommand(String rawCommand) {
+        return replyOnTick(commandRouter.submit(rawCommand));
+    }
+
+    public CompletableFuture<CommandResult> handleCommand(String colonyId, String rawCommand) {
+        ColonyHost current = host;
+        if (current == null) {
+            return CompletableFuture.completedFuture(CommandResult.error("Unknown colony: " + colonyId));
+        }
+        return replyOnTick(current.handleCommand(colonyId, rawCommand));
+    }
+
+    public CompletableFuture<CommandResult> openColony(String colonyId) {
+        return replyOnTick(host().openColonyAsync(colonyId));
+    }
+
+    public CompletableFuture<CommandResult> closeColony(String colonyId) {
+        ColonyHost current = host;
+        if (current == null) {
+            return CompletableFuture.completedFuture(CommandResult.error("Unknown colony: " + colonyId));
+        }
+        return replyOnTick(current.closeColonyAsync(colonyId));
     }
 
     public void tick() {
-        engine.tick();
+        try {
+            ColonyHost current = host;
+            if (current != null && !current.running()) {
+                current.tick();
+            }
+            if (loop != null) {
+                Throwable death = loop.takeUnreportedDeath();
+                if (death != null) {
+                    throw new IllegalStateException("Colony simulation thread died", death);
+                }
+                return;
+            }
+            engine.tick();
+        } finally {
+            deliverReplies();
+        }
+    }
+
+    public void shutdown() {
+        try {
+            if (loop != null) {
+                loop.close();
+            }
+            engine.shutdown();
+            deliverReplies();
+        } finally {
+            ColonyHost current = host;
+            if (current != null) {
+                current.close();
+            }
+        }
+    }
+
+    private CompletableFuture<CommandResult> replyOnTick(CompletableFuture<CommandResult> pending) {
+        CompletableFuture<CommandResult> reply = new CompletableFuture<>();
+        pending.whenComplete((result, error) -> replies.add(() -> {
+            if (error != null) {
+                reply.completeExceptionally(error);
+            } else {
+                reply.complete(result);
+            }
+        }));
+        return reply;
+    }
+
+    private void deliverReplies() {
+        for (Runnable reply = replies.poll(); reply != null; reply = replies.poll()) {
+            reply.run();
+        }
     }
 
     private ColonistsConfig bootstrapConfig(Path configPath) {
@@ -64,9 +194,21 @@ public final class ColonistsRuntime {
             if (config == null) {
                 return new ColonistsConfig();
             }
+            if (config.sim == null) {
+                config.sim = new ColonistsConfig.Sim();
+            }
             if (config.save == null) {
                 config.save = new ColonistsConfig.Save();
             }
+            if (config.tasks == null) {
+                config.tasks = new ColonistsConfig.Tasks();
+            }
+            if (config.telemetry == null) {
+                config.telemetry = new ColonistsConfig.Telemetry();
+            }
+            if (config.host == null) {
+                config.host = new ColonistsConfig.Host();
+            }
             return config;
         } catch (IOException exception) {
             throw new IllegalStateException("Failed to initialize config", exception);
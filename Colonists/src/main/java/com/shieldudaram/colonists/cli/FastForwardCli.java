@@ -0,0 +1,76 @@
+package com.shieldudaram.colonists.cli;
+
+import com.shieldudaram.colonists.ColonistsRuntime;
+import com.shieldudaram.colonists.sim.AdvanceReport;
+import com.shieldudaram.colonists.sim.ColonySimulationEngine;
+import com.shieldudaram.colonists.telemetry.TelemetryMode;
+
+import java.nio.file.Path;
+
+public final class FastForwardCli {
+    private static final String USAGE =
+            "Usage: FastForwardCli [--root <dir>] (--to <worldTimeSec> | --for <seconds>) [--fresh] [--save]";
+
+    private FastForwardCli() {
+    }
+
+    public static void main(String[] args) {
+        Path root = Path.of(".");
+        Long to = null;
+        Long duration = null;
+        boolean fresh = false;
+        boolean save = false;
+        try {
+            for (int index = 0; index < args.length; index++) {
+                switch (args[index]) {
+                    case "--root" -> root = Path.of(value(args, ++index));
+                    case "--to" -> to = Long.parseLong(value(args, ++index));
+                    case "--for" -> duration = Long.parseLong(value(args, ++index));
+                    case "--fresh" -> fresh = true;
+                    case "--save" -> save = true;
+                    default -> throw new IllegalArgumentException("Unknown argument: " + args[index]);
+                }
+            }
+            if ((to == null) == (duration == null)) {
+                throw new IllegalArgumentException("Exactly one of --to or --for is required");
+            }
+            if (to != null && to > ColonySimulationEngine.MAX_WORLD_TIME_SEC) {
+                throw new IllegalArgumentException("--to must not exceed " + ColonySimulationEngine.MAX_WORLD_TIME_SEC);
+            }
+            if (duration != null && duration < 0L) {
+                throw new IllegalArgumentException("--for must not be negative");
+            }
+        } catch (IllegalArgumentException exception) {
+            System.err.println(exception.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        ColonistsRuntime runtime = ColonistsRuntime.headless(root);
+        try {
+            ColonySimulationEngine engine = runtime.engine();
+            if (!fresh && engine.hasSave()) {
+                engine.load();
+            }
+            long now = engine.state().worldTimeSec();
+            long target = to != null ? to : now + Math.min(duration, ColonySimulationEngine.MAX_WORLD_TIME_SEC - now);
+            AdvanceReport report = engine.advanceTo(target);
+            System.out.println(report.describe());
+            System.out.println(engine.status(TelemetryMode.BRIEF));
+            if (save) {
+                engine.saveNow();
+                System.out.println("Saved colony at t=" + engine.state().worldTimeSec() + "s");
+            }
+        } finally {
+            runtime.shutdown();
+        }
+    }
+
+    private static String value(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + args[index - 1]);
+        }
+        return args[index];
+    }
+}
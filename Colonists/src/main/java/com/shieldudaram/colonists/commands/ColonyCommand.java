@@ -0,0 +1,25 @@
+package com.shieldudaram.colonists.commands;
+
+import com.shieldudaram.colonists.sim.ColonySimulationEngine;
+
+import java.util.Objects;
+
+@FunctionalInterface
+public interface ColonyCommand {
+    CommandResult apply(ColonySimulationEngine engine);
+
+    default String coalesceKey() {
+        return null;
+    }
+
+    static ColonyCommand coalescing(String key, ColonyCommand command) {
+        return new Coalescing(Objects.requireNonNull(key, "key"), Objects.requireNonNull(command, "command"));
+    }
+
+    record Coalescing(String coalesceKey, ColonyCommand command) implements ColonyCommand {
+        @Override
+        public CommandResult apply(ColonySimulationEngine engine) {
+            return command.apply(engine);
+        }
+    }
+}
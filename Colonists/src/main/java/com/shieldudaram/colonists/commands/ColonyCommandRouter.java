@@ -9,6 +9,7 @@ import com.shieldudaram.colonists.sim.ColonySimulationEngine;
 import com.shieldudaram.colonists.telemetry.TelemetryMode;
 
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
 
 public final class ColonyCommandRouter {
     private final ColonySimulationEngine engine;
@@ -23,187 +24,241 @@ public final class ColonyCommandRouter {
 
     public CommandResult execute(String rawCommand) {
         try {
-            String[] parts = rawCommand.trim().split("\\s+");
-            if (parts.length == 0 || parts[0].isBlank()) {
-                return CommandResult.error("Empty command");
-            }
+            return parse(rawCommand).apply(engine);
+        } catch (Exception exception) {
+            return CommandResult.error(exception.getMessage());
+        }
+    }
 
-            if (!"/colony".equalsIgnoreCase(parts[0])) {
-                return CommandResult.error("Unsupported namespace. Use /colony");
-            }
+    public CompletableFuture<CommandResult> submit(String rawCommand) {
+        ColonyCommand command;
+        try {
+            command = parse(rawCommand);
+        } catch (Exception exception) {
+            return CompletableFuture.completedFuture(CommandResult.error(exception.getMessage()));
+        }
+        return engine.submit(command);
+    }
 
-            if (parts.length == 1) {
-                return CommandResult.ok(engine.status(TelemetryMode.BRIEF));
-            }
+    public ColonyCommand parse(String rawCommand) {
+        String[] parts = rawCommand.trim().split("\\s+");
+        if (parts.length == 0 || parts[0].isBlank()) {
+            throw new IllegalArgumentException("Empty command");
+        }
 
-            String sub = parts[1].toLowerCase(Locale.ROOT);
-            return switch (sub) {
-                case "status" -> CommandResult.ok(engine.status(parseModeArg(parts, 2)));
-                case "tasks" -> CommandResult.ok(engine.status(parseModeArg(parts, 2)));
-                case "hotspots" -> CommandResult.ok(engine.status(parseModeArg(parts, 2)));
-                case "raid" -> CommandResult.ok(engine.status(parseModeArg(parts, 2)));
-                case "pause" -> handlePause();
-                case "resume" -> handleResume();
-                case "save" -> handleSave();
-                case "priority" -> handlePriority(parts);
-                case "policy" -> handlePolicy(parts);
-                case "build" -> handleBuild(parts);
-                case "hotspot" -> handleHotspot(parts);
-                case "zone" -> handleZone(parts);
-                case "crisis" -> handleCrisis(parts);
-                case "telemetry" -> handleTelemetry(parts);
-                default -> CommandResult.error("Unknown /colony subcommand: " + sub);
-            };
-        } catch (Exception exception) {
-            return CommandResult.error(exception.getMessage());
+        if (!"/colony".equalsIgnoreCase(parts[0])) {
+            throw new IllegalArgumentException("Unsupported namespace. Use /colony");
         }
+
+        if (parts.length == 1) {
+            return sim -> CommandResult.ok(sim.status(TelemetryMode.BRIEF));
+        }
+
+        String sub = parts[1].toLowerCase(Locale.ROOT);
+        return switch (sub) {
+            case "status", "tasks", "hotspots", "raid" -> parseStatus(parts);
+            case "pause" -> parsePause(true);
+            case "resume" -> parsePause(false);
+            case "save" -> parseSave(parts);
+            case "priority" -> parsePriority(parts);
+            case "policy" -> parsePolicy(parts);
+            case "build" -> parseBuild(parts);
+            case "hotspot" -> parseHotspot(parts);
+            case "zone" -> parseZone(parts);
+            case "crisis" -> parseCrisis(parts);
+            case "telemetry" -> parseTelemetry(parts);
+            case "perf" -> parsePerf(parts);
+            default -> throw new IllegalArgumentException("Unknown /colony subcommand: " + sub);
+        };
     }
 
-    private CommandResult handlePause() {
-        engine.setPaused(true);
-        return CommandResult.ok("Simulation paused.");
+    private ColonyCommand parseStatus(String[] parts) {
+        TelemetryMode mode = parseModeArg(parts, 2);
+        return sim -> CommandResult.ok(sim.status(mode));
     }
 
-    private CommandResult handleResume() {
-        engine.setPaused(false);
-        return CommandResult.ok("Simulation resumed.");
+    private ColonyCommand parsePause(boolean paused) {
+        return ColonyCommand.coalescing("paused", sim -> {
+            sim.setPaused(paused);
+            return CommandResult.ok(paused ? "Simulation paused." : "Simulation resumed.");
+        });
     }
 
-    private CommandResult handleSave() {
-        engine.saveNow();
-        return CommandResult.ok("Save completed.");
+    private ColonyCommand parseSave(String[] parts) {
+        if (parts.length >= 3) {
+            if (!"export-json".equalsIgnoreCase(parts[2])) {
+                throw new IllegalArgumentException("Usage: /colony save [export-json]");
+            }
+            return sim -> CommandResult.ok("Save exported to " + sim.exportSaveJson());
+        }
+        return ColonyCommand.coalescing("save", sim -> {
+            sim.saveNow();
+            return CommandResult.ok("Save completed.");
+        });
     }
 
-    private CommandResult handlePriority(String[] parts) {
+    private ColonyCommand parsePriority(String[] parts) {
         if (parts.length < 5 || !"set".equalsIgnoreCase(parts[2])) {
-            return CommandResult.error("Usage: /colony priority set <build|farm|gather|haul|defend|repair> <0.50-2.00>");
+            throw new IllegalArgumentException("Usage: /colony priority set <build|farm|gather|haul|defend|repair> <0.50-2.00>");
         }
         TaskType type = engine.parseTaskType(parts[3]);
         double value = Double.parseDouble(parts[4]);
         if (value < 0.5 || value > 2.0) {
-            return CommandResult.error("Priority value must be between 0.50 and 2.00");
+            throw new IllegalArgumentException("Priority value must be between 0.50 and 2.00");
         }
-        engine.setPriority(type, value);
-        return CommandResult.ok("Priority updated: " + type.name() + "=" + value);
+        return ColonyCommand.coalescing("priority:" + type.name(), sim -> {
+            sim.setPriority(type, value);
+            return CommandResult.ok("Priority updated: " + type.name() + "=" + value);
+        });
     }
 
-    private CommandResult handlePolicy(String[] parts) {
+    private ColonyCommand parsePolicy(String[] parts) {
         if (parts.length < 4 || !"set".equalsIgnoreCase(parts[2])) {
-            return CommandResult.error("Usage: /colony policy set <Fortify|HarvestRush|Recovery>");
+            throw new IllegalArgumentException("Usage: /colony policy set <Fortify|HarvestRush|Recovery>");
         }
         PolicyId policyId = engine.parsePolicyId(parts[3]);
-        engine.applyPolicy(policyId);
-        return CommandResult.ok("Policy updated: " + policyId.name());
+        return ColonyCommand.coalescing("policy", sim -> {
+            sim.applyPolicy(policyId);
+            return CommandResult.ok("Policy updated: " + policyId.name());
+        });
     }
 
-    private CommandResult handleBuild(String[] parts) {
+    private ColonyCommand parseBuild(String[] parts) {
+        if (parts.length == 4 && "cancel".equalsIgnoreCase(parts[2])) {
+            String structureId = parts[3];
+            return sim -> sim.abandonStructure(structureId)
+                    ? CommandResult.ok("Blueprint cancelled: " + structureId)
+                    : CommandResult.error("Unknown structure: " + structureId);
+        }
         if (parts.length < 7 || !"place".equalsIgnoreCase(parts[2])) {
-            return CommandResult.error("Usage: /colony build place <TownCore|House|Stockpile|Watchtower|TrapPost|FarmShed|Workshop|Infirmary> <x> <z> <rotation>");
+            throw new IllegalArgumentException("Usage: /colony build place <TownCore|House|Stockpile|Watchtower|TrapPost|FarmShed|Workshop|Infirmary> <x> <z> <rotation> | /colony build cancel <structureId>");
         }
         BlueprintId blueprintId = engine.parseBlueprintId(parts[3]);
         int x = Integer.parseInt(parts[4]);
         int z = Integer.parseInt(parts[5]);
         int rotation = Integer.parseInt(parts[6]);
-        var structure = engine.placeBlueprint(blueprintId, x, z, rotation);
-        return CommandResult.ok("Blueprint queued: " + structure.id());
+        return sim -> {
+            var structure = sim.placeBlueprint(blueprintId, x, z, rotation);
+            return CommandResult.ok("Blueprint queued: " + structure.id());
+        };
     }
 
-    private CommandResult handleHotspot(String[] parts) {
+    private ColonyCommand parseHotspot(String[] parts) {
         if (parts.length < 3) {
-            return CommandResult.error("Usage: /colony hotspot <place|upgrade> ...");
+            throw new IllegalArgumentException("Usage: /colony hotspot <place|upgrade> ...");
         }
         String action = parts[2].toLowerCase(Locale.ROOT);
         if ("place".equals(action)) {
             if (parts.length < 6) {
-                return CommandResult.error("Usage: /colony hotspot place <family> <x> <z>");
+                throw new IllegalArgumentException("Usage: /colony hotspot place <family> <x> <z>");
             }
             HotspotFamily family = engine.parseFamily(parts[3]);
             int x = Integer.parseInt(parts[4]);
             int z = Integer.parseInt(parts[5]);
-            var hotspot = engine.placeHotspot(family, x, z);
-            return CommandResult.ok("Hotspot placed: " + hotspot.id());
+            return sim -> CommandResult.ok("Hotspot placed: " + sim.placeHotspot(family, x, z).id());
         }
         if ("upgrade".equals(action)) {
             if (parts.length < 4) {
-                return CommandResult.error("Usage: /colony hotspot upgrade <hotspotId>");
+                throw new IllegalArgumentException("Usage: /colony hotspot upgrade <hotspotId>");
             }
-            var hotspot = engine.upgradeHotspot(parts[3]);
-            return CommandResult.ok("Hotspot upgraded: " + hotspot.id() + " tier=" + hotspot.tier());
+            String hotspotId = parts[3];
+            return sim -> {
+                var hotspot = sim.upgradeHotspot(hotspotId);
+                return CommandResult.ok("Hotspot upgraded: " + hotspot.id() + " tier=" + hotspot.tier());
+            };
         }
-        return CommandResult.error("Unknown hotspot action: " + action);
+        throw new IllegalArgumentException("Unknown hotspot action: " + action);
     }
 
-    private CommandResult handleZone(String[] parts) {
+    private ColonyCommand parseZone(String[] parts) {
         if (parts.length < 3) {
-            return CommandResult.error("Usage: /colony zone <mark1|mark2|create|clear> ...");
+            throw new IllegalArgumentException("Usage: /colony zone <mark1|mark2|create|clear> ...");
         }
         String action = parts[2].toLowerCase(Locale.ROOT);
         return switch (action) {
-            case "mark1" -> setMark(parts, true);
-            case "mark2" -> setMark(parts, false);
-            case "create" -> createZone(parts);
-            case "clear" -> clearZone(parts);
-            default -> CommandResult.error("Unknown zone action: " + action);
+            case "mark1" -> parseMark(parts, true);
+            case "mark2" -> parseMark(parts, false);
+            case "create" -> parseCreateZone(parts);
+            case "clear" -> parseClearZone(parts);
+            default -> throw new IllegalArgumentException("Unknown zone action: " + action);
         };
     }
 
-    private CommandResult setMark(String[] parts, boolean first) {
+    private ColonyCommand parseMark(String[] parts, boolean first) {
         if (parts.length < 5) {
-            return CommandResult.error("Usage: /colony zone mark1 <x> <z> OR /colony zone mark2 <x> <z>");
+            throw new IllegalArgumentException("Usage: /colony zone mark1 <x> <z> OR /colony zone mark2 <x> <z>");
         }
         int x = Integer.parseInt(parts[3]);
         int z = Integer.parseInt(parts[4]);
-        if (first) {
-            mark1x = x;
-            mark1z = z;
-            return CommandResult.ok("mark1 set");
-        }
-        mark2x = x;
-        mark2z = z;
-        return CommandResult.ok("mark2 set");
+        return sim -> {
+            if (first) {
+                mark1x = x;
+                mark1z = z;
+                return CommandResult.ok("mark1 set");
+            }
+            mark2x = x;
+            mark2z = z;
+            return CommandResult.ok("mark2 set");
+        };
     }
 
-    private CommandResult createZone(String[] parts) {
+    private ColonyCommand parseCreateZone(String[] parts) {
         if (parts.length < 4) {
-            return CommandResult.error("Usage: /colony zone create <Home|Farm|Defense|Hotspot|Storage>");
-        }
-        if (mark1x == null || mark2x == null || mark1z == null || mark2z == null) {
-            return CommandResult.error("Set mark1 and mark2 first");
+            throw new IllegalArgumentException("Usage: /colony zone create <Home|Farm|Defense|Hotspot|Storage>");
         }
         ZoneType zoneType = engine.parseZoneType(parts[3]);
-        var zone = engine.createZone(zoneType, mark1x, mark1z, mark2x, mark2z);
-        return CommandResult.ok("Zone created: " + zone.id() + " type=" + zone.type());
+        return sim -> {
+            if (mark1x == null || mark2x == null || mark1z == null || mark2z == null) {
+                return CommandResult.error("Set mark1 and mark2 first");
+            }
+            var zone = sim.createZone(zoneType, mark1x, mark1z, mark2x, mark2z);
+            return CommandResult.ok("Zone created: " + zone.id() + " type=" + zone.type());
+        };
     }
 
-    private CommandResult clearZone(String[] parts) {
+    private ColonyCommand parseClearZone(String[] parts) {
         if (parts.length < 4) {
-            return CommandResult.error("Usage: /colony zone clear <zoneId>");
-        }
-        boolean removed = engine.clearZone(parts[3]);
-        if (!removed) {
-            return CommandResult.error("Zone not found: " + parts[3]);
+            throw new IllegalArgumentException("Usage: /colony zone clear <zoneId>");
         }
-        return CommandResult.ok("Zone cleared: " + parts[3]);
+        String zoneId = parts[3];
+        return sim -> {
+            if (!sim.clearZone(zoneId)) {
+                return CommandResult.error("Zone not found: " + zoneId);
+            }
+            return CommandResult.ok("Zone cleared: " + zoneId);
+        };
     }
 
-    private CommandResult handleCrisis(String[] parts) {
+    private ColonyCommand parseCrisis(String[] parts) {
         if (parts.length < 4 || !"start".equalsIgnoreCase(parts[2])) {
-            return CommandResult.error("Usage: /colony crisis start bandit_assault");
+            throw new IllegalArgumentException("Usage: /colony crisis start bandit_assault");
         }
         if (!"bandit_assault".equalsIgnoreCase(parts[3])) {
-            return CommandResult.error("Only bandit_assault is supported in v1");
+            throw new IllegalArgumentException("Only bandit_assault is supported in v1");
         }
-        engine.createTask(TaskType.DEFEND, "crisis-bandit-assault", 2.0, true);
-        return CommandResult.ok("Bandit assault crisis started.");
+        return sim -> {
+            sim.createTask(TaskType.DEFEND, "crisis-bandit-assault", 2.0, true);
+            return CommandResult.ok("Bandit assault crisis started.");
+        };
     }
 
-    private CommandResult handleTelemetry(String[] parts) {
+    private ColonyCommand parseTelemetry(String[] parts) {
         if (parts.length < 3) {
-            return CommandResult.error("Usage: /colony telemetry <brief|full|off>");
+            throw new IllegalArgumentException("Usage: /colony telemetry <brief|full|off>");
         }
         TelemetryMode mode = parseMode(parts[2]);
-        engine.setTelemetryMode(mode);
-        return CommandResult.ok("Telemetry mode set to " + mode.name());
+        return ColonyCommand.coalescing("telemetry", sim -> {
+            sim.setTelemetryMode(mode);
+            return CommandResult.ok("Telemetry mode set to " + mode.name());
+        });
+    }
+
+    private ColonyCommand parsePerf(String[] parts) {
+        if (parts.length >= 3 && !"reset".equalsIgnoreCase(parts[2])) {
+            throw new IllegalArgumentException("Usage: /colony perf [reset]");
+        }
+        boolean reset = parts.length >= 3;
+        return sim -> CommandResult.ok(sim.perf(reset));
     }
 
     private TelemetryMode parseModeArg(String[] parts, int index) {
@@ -6,13 +6,20 @@ public final class ColonistsConfig {
     public Limits limits = new Limits();
     public Time time = new Time();
     public Save save = new Save();
+    public Tasks tasks = new Tasks();
     public Threat threat = new Threat();
+    public Telemetry telemetry = new Telemetry();
+    public Host host = new Host();
 
     public static final class Sim {
         public int tickHz = 5;
         public boolean aiStaggerEnabled = true;
         public int aiAgentsPerTick = 2;
+        public String assignmentMode = "greedy";
+        public int matchBudgetMicros = 500;
         public int pathReplanIntervalMs = 1000;
+        public boolean verifyAggregates = false;
+        public boolean dedicatedThread = false;
     }
 
     public static final class Limits {
@@ -35,6 +42,15 @@ public final class ColonistsConfig {
         public boolean autosaveEnabled = true;
         public int autosaveSeconds = 300;
         public int backupRotations = 5;
+        public String format = "json";
+        public boolean journalEnabled = true;
+        public int journalSeconds = 5;
+        public int journalCompactBytes = 1_048_576;
+    }
+
+    public static final class Tasks {
+        public int archiveCapacity = 200;
+        public int compactionBatchPerTick = 64;
     }
 
     public static final class Threat {
@@ -42,4 +58,18 @@ public final class ColonistsConfig {
         public int baseIntervalSeconds = 900;
         public int triggerCooldownSeconds = 480;
     }
+
+    public static final class Telemetry {
+        public int queueCapacity = 4096;
+        public int flushBytes = 8192;
+        public int flushMillis = 1000;
+        public int retainDays = 7;
+    }
+
+    public static final class Host {
+        public int parallelism = 0;
+        public int roundBudgetMillis = 150;
+        public int maxCatchUpTicks = 5;
+        public int maxColonies = 16;
+    }
 }
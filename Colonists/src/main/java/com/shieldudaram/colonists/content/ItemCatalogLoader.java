@@ -0,0 +1,77 @@
+package com.shieldudaram.colonists.content;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shieldudaram.colonists.model.ItemRegistry;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public final class ItemCatalogLoader {
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    public ItemRegistry load(Path contentRoot) {
+        Set<String> itemIds = new LinkedHashSet<>();
+        try {
+            for (Path file : jsonFiles(contentRoot.resolve("hotspots"))) {
+                for (JsonNode hotspot : entries(file)) {
+                    String family = hotspot.path("family").asText("");
+                    if (!family.isBlank()) {
+                        itemIds.add(family.toLowerCase(Locale.ROOT));
+                    }
+                    for (JsonNode cost : hotspot.path("upgradeCosts")) {
+                        collectIds(cost, itemIds);
+                    }
+                }
+            }
+            for (Path file : jsonFiles(contentRoot.resolve("recipes"))) {
+                for (JsonNode recipe : entries(file)) {
+                    collectIds(recipe.path("inputs"), itemIds);
+                    collectIds(recipe.path("outputs"), itemIds);
+                }
+            }
+        } catch (IOException exception) {
+            throw new IllegalStateException("Failed reading item catalog from " + contentRoot, exception);
+        }
+        return new ItemRegistry(itemIds);
+    }
+
+    private List<Path> jsonFiles(Path categoryPath) throws IOException {
+        if (!Files.exists(categoryPath)) {
+            return List.of();
+        }
+        try (Stream<Path> stream = Files.walk(categoryPath)) {
+            return stream
+                    .filter(path -> path.getFileName().toString().endsWith(".json"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private List<JsonNode> entries(Path file) throws IOException {
+        JsonNode node = mapper.readTree(file.toFile());
+        List<JsonNode> entries = new ArrayList<>();
+        if (node.isArray()) {
+            node.forEach(entries::add);
+        } else {
+            entries.add(node);
+        }
+        return entries;
+    }
+
+    private void collectIds(JsonNode stacks, Set<String> itemIds) {
+        for (JsonNode stack : stacks) {
+            String id = stack.path("id").asText("");
+            if (!id.isBlank()) {
+                itemIds.add(id);
+            }
+        }
+    }
+}
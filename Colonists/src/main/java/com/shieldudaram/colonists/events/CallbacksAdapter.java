@@ -0,0 +1,98 @@
+package com.shieldudaram.colonists.events;
+
+import com.shieldudaram.colonists.sim.ColonyCallbacks;
+
+import java.lang.reflect.Method;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+public final class CallbacksAdapter implements ColonyEventListener {
+    private static final Map<ColonyEventType, Method> CALLBACK_METHODS = callbackMethods();
+
+    private final ColonyCallbacks callbacks;
+
+    public CallbacksAdapter(ColonyCallbacks callbacks) {
+        this.callbacks = Objects.requireNonNull(callbacks, "callbacks");
+    }
+
+    public static void subscribe(ColonyEventBus bus, ColonyCallbacks callbacks) {
+        subscribe(bus, callbacks, callbacks);
+    }
+
+    public static void subscribe(ColonyEventBus bus, ColonyCallbacks dispatchTo, ColonyCallbacks implementation) {
+        Set<ColonyEventType> types = overriddenBy(implementation);
+        if (!types.isEmpty()) {
+            bus.subscribe(types, new CallbacksAdapter(dispatchTo));
+        }
+    }
+
+    public static Set<ColonyEventType> overriddenBy(ColonyCallbacks callbacks) {
+        Set<ColonyEventType> types = EnumSet.noneOf(ColonyEventType.class);
+        Class<?> type = callbacks.getClass();
+        for (Map.Entry<ColonyEventType, Method> entry : CALLBACK_METHODS.entrySet()) {
+            Method method = entry.getValue();
+            try {
+                if (type.getMethod(method.getName(), method.getParameterTypes()).getDeclaringClass() != ColonyCallbacks.class) {
+                    types.add(entry.getKey());
+                }
+            } catch (NoSuchMethodException exception) {
+                throw new IllegalStateException("Missing callback " + method.getName(), exception);
+            }
+        }
+        return types;
+    }
+
+    @Override
+    public void onEvent(ColonyEvent event) {
+        switch (event.type()) {
+            case TASK_CREATED -> callbacks.onTaskCreated(event.subject());
+            case TASK_ASSIGNED -> callbacks.onTaskAssigned(event.subject(), event.actor());
+            case TASK_PREEMPTED -> callbacks.onTaskPreempted(event.subject(), event.actor(), event.detail());
+            case TASK_COMPLETED -> callbacks.onTaskCompleted(event.subject(), event.actor());
+            case HOTSPOT_PLACED -> callbacks.onTaskCreated("hotspot-place-" + event.subject());
+            case HOTSPOT_FIRST_HARVEST -> callbacks.onHotspotFirstHarvest(event.subject(), event.time());
+            case HOTSPOT_HARVESTED -> callbacks.onHotspotHarvested(event.subject(), event.actor(), event.amount());
+            case HOTSPOT_UPGRADED -> callbacks.onHotspotUpgraded(event.subject(), event.from(), event.to());
+            case HOTSPOT_RESET -> callbacks.onHotspotReset(event.subject());
+            case RAID_SCHEDULED -> callbacks.onRaidScheduled(event.detail(), event.time());
+            case RAID_STARTED -> callbacks.onRaidStarted("raid-" + event.time());
+            case RAID_ENDED -> callbacks.onRaidEnded("raid-" + event.time(), event.flag());
+            case CITIZEN_DIED -> callbacks.onCitizenDeath(event.subject(), event.detail());
+            case INSURANCE_CLAIM_PAID -> callbacks.onInsuranceClaimPaid(event.subject(), event.actor());
+            case REPLACEMENT_SPAWNED -> callbacks.onReplacementSpawned(event.subject(), event.actor());
+            case POLICY_CHANGED -> callbacks.onPolicyChanged(event.subject());
+            case CRISIS_STARTED -> callbacks.onCrisisStarted(event.subject());
+            case CRISIS_ENDED -> callbacks.onCrisisEnded(event.subject());
+        }
+    }
+
+    private static Map<ColonyEventType, Method> callbackMethods() {
+        Map<ColonyEventType, Method> methods = new EnumMap<>(ColonyEventType.class);
+        try {
+            methods.put(ColonyEventType.TASK_CREATED, ColonyCallbacks.class.getMethod("onTaskCreated", String.class));
+            methods.put(ColonyEventType.TASK_ASSIGNED, ColonyCallbacks.class.getMethod("onTaskAssigned", String.class, String.class));
+            methods.put(ColonyEventType.TASK_PREEMPTED, ColonyCallbacks.class.getMethod("onTaskPreempted", String.class, String.class, String.class));
+            methods.put(ColonyEventType.TASK_COMPLETED, ColonyCallbacks.class.getMethod("onTaskCompleted", String.class, String.class));
+            methods.put(ColonyEventType.HOTSPOT_PLACED, ColonyCallbacks.class.getMethod("onTaskCreated", String.class));
+            methods.put(ColonyEventType.HOTSPOT_FIRST_HARVEST, ColonyCallbacks.class.getMethod("onHotspotFirstHarvest", String.class, long.class));
+            methods.put(ColonyEventType.HOTSPOT_HARVESTED, ColonyCallbacks.class.getMethod("onHotspotHarvested", String.class, String.class, int.class));
+            methods.put(ColonyEventType.HOTSPOT_UPGRADED, ColonyCallbacks.class.getMethod("onHotspotUpgraded", String.class, int.class, int.class));
+            methods.put(ColonyEventType.HOTSPOT_RESET, ColonyCallbacks.class.getMethod("onHotspotReset", String.class));
+            methods.put(ColonyEventType.RAID_SCHEDULED, ColonyCallbacks.class.getMethod("onRaidScheduled", String.class, long.class));
+            methods.put(ColonyEventType.RAID_STARTED, ColonyCallbacks.class.getMethod("onRaidStarted", String.class));
+            methods.put(ColonyEventType.RAID_ENDED, ColonyCallbacks.class.getMethod("onRaidEnded", String.class, boolean.class));
+            methods.put(ColonyEventType.CITIZEN_DIED, ColonyCallbacks.class.getMethod("onCitizenDeath", String.class, String.class));
+            methods.put(ColonyEventType.INSURANCE_CLAIM_PAID, ColonyCallbacks.class.getMethod("onInsuranceClaimPaid", String.class, String.class));
+            methods.put(ColonyEventType.REPLACEMENT_SPAWNED, ColonyCallbacks.class.getMethod("onReplacementSpawned", String.class, String.class));
+            methods.put(ColonyEventType.POLICY_CHANGED, ColonyCallbacks.class.getMethod("onPolicyChanged", String.class));
+            methods.put(ColonyEventType.CRISIS_STARTED, ColonyCallbacks.class.getMethod("onCrisisStarted", String.class));
+            methods.put(ColonyEventType.CRISIS_ENDED, ColonyCallbacks.class.getMethod("onCrisisEnded", String.class));
+        } catch (NoSuchMethodException exception) {
+            throw new IllegalStateException("ColonyCallbacks is missing an event method", exception);
+        }
+        return methods;
+    }
+}
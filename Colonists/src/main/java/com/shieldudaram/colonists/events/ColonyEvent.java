@@ -0,0 +1,74 @@
+package com.shieldudaram.colonists.events;
+
+public final class ColonyEvent {
+    ColonyEventType type;
+    String subject;
+    String actor;
+    String detail;
+    long time;
+    int from;
+    int to;
+    int amount;
+    boolean flag;
+
+    ColonyEvent() {
+    }
+
+    public ColonyEventType type() {
+        return type;
+    }
+
+    public String subject() {
+        return subject;
+    }
+
+    public String actor() {
+        return actor;
+    }
+
+    public String detail() {
+        return detail;
+    }
+
+    public long time() {
+        return time;
+    }
+
+    public int from() {
+        return from;
+    }
+
+    public int to() {
+        return to;
+    }
+
+    public int amount() {
+        return amount;
+    }
+
+    public boolean flag() {
+        return flag;
+    }
+
+    void reset(ColonyEventType type) {
+        this.type = type;
+        this.subject = null;
+        this.actor = null;
+        this.detail = null;
+        this.time = 0L;
+        this.from = 0;
+        this.to = 0;
+        this.amount = 0;
+        this.flag = false;
+    }
+
+    void clear() {
+        reset(null);
+    }
+
+    @Override
+    public String toString() {
+        return type + "[subject=" + subject + ", actor=" + actor + ", detail=" + detail + ", time=" + time
+                + ", from=" + from + ", to=" + to + ", amount=" + amount + ", flag=" + flag + "]";
+    }
+}
@@ -0,0 +1,318 @@
+package com.shieldudaram.colonists.events;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+
+public final class ColonyEventBus {
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private static final Subscription[] NO_SUBSCRIPTIONS = new Subscription[0];
+
+    private ColonyEvent[] ring;
+    private int mask;
+    private int head;
+    private int size;
+    private long interest;
+    private Subscription[] subscriptions = NO_SUBSCRIPTIONS;
+    private boolean delivering;
+    private long emittedCount;
+    private long deliveredCount;
+
+    public ColonyEventBus() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ColonyEventBus(int initialCapacity) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("Event bus capacity must be positive: " + initialCapacity);
+        }
+        int capacity = Integer.highestOneBit(initialCapacity);
+        if (capacity < initialCapacity) {
+            capacity <<= 1;
+        }
+        this.ring = newSlots(capacity, 0);
+        this.mask = capacity - 1;
+    }
+
+    public void subscribe(Set<ColonyEventType> types, ColonyEventListener listener) {
+        Objects.requireNonNull(types, "types");
+        Objects.requireNonNull(listener, "listener");
+        long bits = 0L;
+        for (ColonyEventType type : types) {
+            bits |= type.bit();
+        }
+        Subscription[] next = Arrays.copyOf(subscriptions, subscriptions.length + 1);
+        next[subscriptions.length] = new Subscription(bits, listener);
+        subscriptions = next;
+        interest |= bits;
+    }
+
+    public boolean unsubscribe(ColonyEventListener listener) {
+        for (int index = 0; index < subscriptions.length; index++) {
+            if (subscriptions[index].listener() != listener) {
+                continue;
+            }
+            Subscription[] next = new Subscription[subscriptions.length - 1];
+            System.arraycopy(subscriptions, 0, next, 0, index);
+            System.arraycopy(subscriptions, index + 1, next, index, next.length - index);
+            subscriptions = next;
+            long bits = 0L;
+            for (Subscription subscription : next) {
+                bits |= subscription.types();
+            }
+            interest = bits;
+            return true;
+        }
+        return false;
+    }
+
+    public boolean wants(ColonyEventType type) {
+        return (interest & type.bit()) != 0L;
+    }
+
+    public int pending() {
+        return size;
+    }
+
+    public int capacity() {
+        return ring.length;
+    }
+
+    public long emittedCount() {
+        return emittedCount;
+    }
+
+    public long deliveredCount() {
+        return deliveredCount;
+    }
+
+    public void taskCreated(String taskId) {
+        if ((interest & ColonyEventType.TASK_CREATED.bit()) == 0L) {
+            return;
+        }
+        claim(ColonyEventType.TASK_CREATED).subject = taskId;
+    }
+
+    public void taskAssigned(String taskId, String citizenId) {
+        if ((interest & ColonyEventType.TASK_ASSIGNED.bit()) == 0L) {
+            return;
+        }
+        ColonyEvent event = claim(ColonyEventType.TASK_ASSIGNED);
+        event.subject = taskId;
+        event.actor = citizenId;
+    }
+
+    public void taskPreempted(String taskId, String fromCitizenId, String reason) {
+        if ((interest & ColonyEventType.TASK_PREEMPTED.bit()) == 0L) {
+            return;
+        }
+        ColonyEvent event = claim(ColonyEventType.TASK_PREEMPTED);
+        event.subject = taskId;
+        event.actor = fromCitizenId;
+        event.detail = reason;
+    }
+
+    public void taskCompleted(String taskId, String citizenId) {
+        if ((interest & ColonyEventType.TASK_COMPLETED.bit()) == 0L) {
+            return;
+        }
+        ColonyEvent event = claim(ColonyEventType.TASK_COMPLETED);
+        event.subject = taskId;
+        event.actor = citizenId;
+    }
+
+    public void hotspotPlaced(String hotspotId) {
+        if ((interest & ColonyEventType.HOTSPOT_PLACED.bit()) == 0L) {
+            return;
+        }
+        claim(ColonyEventType.HOTSPOT_PLACED).subject = hotspotId;
+    }
+
+    public void hotspotFirstHarvest(String hotspotId, long resetAtSec) {
+        if ((interest & ColonyEventType.HOTSPOT_FIRST_HARVEST.bit()) == 0L) {
+            return;
+        }
+        ColonyEvent event = claim(ColonyEventType.HOTSPOT_FIRST_HARVEST);
+        event.subject = hotspotId;
+        event.time = resetAtSec;
+    }
+
+    public void hotspotHarvested(String hotspotId, String citizenId, int yieldQty) {
+        if ((interest & ColonyEventType.HOTSPOT_HARVESTED.bit()) == 0L) {
+            return;
+        }
+        ColonyEvent event = claim(ColonyEventType.HOTSPOT_HARVESTED);
+        event.subject = hotspotId;
+        event.actor = citizenId;
+        event.amount = yieldQty;
+    }
+
+    public void hotspotUpgraded(String hotspotId, int fromTier, int toTier) {
+        if ((interest & ColonyEventType.HOTSPOT_UPGRADED.bit()) == 0L) {
+            return;
+        }
+        ColonyEvent event = claim(ColonyEventType.HOTSPOT_UPGRADED);
+        event.subject = hotspotId;
+        event.from = fromTier;
+        event.to = toTier;
+    }
+
+    public void hotspotReset(String hotspotId) {
+        if ((interest & ColonyEventType.HOTSPOT_RESET.bit()) == 0L) {
+            return;
+        }
+        claim(ColonyEventType.HOTSPOT_RESET).subject = hotspotId;
+    }
+
+    public void raidScheduled(String label, long etaSec) {
+        if ((interest & ColonyEventType.RAID_SCHEDULED.bit()) == 0L) {
+            return;
+        }
+        ColonyEvent event = claim(ColonyEventType.RAID_SCHEDULED);
+        event.detail = label;
+        event.time = etaSec;
+    }
+
+    public void raidStarted(long raidAtSec) {
+        if ((interest & ColonyEventType.RAID_STARTED.bit()) == 0L) {
+            return;
+        }
+        claim(ColonyEventType.RAID_STARTED).time = raidAtSec;
+    }
+
+    public void raidEnded(long raidAtSec, boolean success) {
+        if ((interest & ColonyEventType.RAID_ENDED.bit()) == 0L) {
+            return;
+        }
+        ColonyEvent event = claim(ColonyEventType.RAID_ENDED);
+        event.time = raidAtSec;
+        event.flag = success;
+    }
+
+    public void citizenDied(String citizenId, String cause) {
+        if ((interest & ColonyEventType.CITIZEN_DIED.bit()) == 0L) {
+            return;
+        }
+        ColonyEvent event = claim(ColonyEventType.CITIZEN_DIED);
+        event.subject = citizenId;
+        event.detail = cause;
+    }
+
+    public void insuranceClaimPaid(String claimId, String citizenId) {
+        if ((interest & ColonyEventType.INSURANCE_CLAIM_PAID.bit()) == 0L) {
+            return;
+        }
+        ColonyEvent event = claim(ColonyEventType.INSURANCE_CLAIM_PAID);
+        event.subject = claimId;
+        event.actor = citizenId;
+    }
+
+    public void replacementSpawned(String claimId, String newCitizenId) {
+        if ((interest & ColonyEventType.REPLACEMENT_SPAWNED.bit()) == 0L) {
+            return;
+        }
+        ColonyEvent event = claim(ColonyEventType.REPLACEMENT_SPAWNED);
+        event.subject = claimId;
+        event.actor = newCitizenId;
+    }
+
+    public void policyChanged(String policyId) {
+        if ((interest & ColonyEventType.POLICY_CHANGED.bit()) == 0L) {
+            return;
+        }
+        claim(ColonyEventType.POLICY_CHANGED).subject = policyId;
+    }
+
+    public void crisisStarted(String crisisId) {
+        if ((interest & ColonyEventType.CRISIS_STARTED.bit()) == 0L) {
+            return;
+        }
+        claim(ColonyEventType.CRISIS_STARTED).subject = crisisId;
+    }
+
+    public void crisisEnded(String crisisId) {
+        if ((interest & ColonyEventType.CRISIS_ENDED.bit()) == 0L) {
+            return;
+        }
+        claim(ColonyEventType.CRISIS_ENDED).subject = crisisId;
+    }
+
+    public int deliver() {
+        if (delivering || size == 0) {
+            return 0;
+        }
+        delivering = true;
+        int count = 0;
+        try {
+            while (size > 0) {
+                ColonyEvent event = ring[head];
+                try {
+                    dispatch(event);
+                } finally {
+                    event.clear();
+                    head = (head + 1) & mask;
+                    size -= 1;
+                    count += 1;
+                }
+            }
+        } finally {
+            delivering = false;
+            deliveredCount += count;
+        }
+        return count;
+    }
+
+    public void discard() {
+        while (size > 0) {
+            ring[head].clear();
+            head = (head + 1) & mask;
+            size -= 1;
+        }
+    }
+
+    private void dispatch(ColonyEvent event) {
+        long bit = event.type.bit();
+        for (Subscription subscription : subscriptions) {
+            if ((subscription.types() & bit) != 0L) {
+                subscription.listener().onEvent(event);
+            }
+        }
+    }
+
+    private ColonyEvent claim(ColonyEventType type) {
+        if (size == ring.length) {
+            grow();
+        }
+        ColonyEvent event = ring[(head + size) & mask];
+        event.reset(type);
+        size += 1;
+        emittedCount += 1;
+        return event;
+    }
+
+    private void grow() {
+        int capacity = ring.length << 1;
+        if (capacity <= 0) {
+            throw new IllegalStateException("Event bus overflow: " + size + " pending events");
+        }
+        ColonyEvent[] next = newSlots(capacity, size);
+        for (int index = 0; index < size; index++) {
+            next[index] = ring[(head + index) & mask];
+        }
+        ring = next;
+        mask = capacity - 1;
+        head = 0;
+    }
+
+    private static ColonyEvent[] newSlots(int capacity, int from) {
+        ColonyEvent[] slots = new ColonyEvent[capacity];
+        for (int index = from; index < capacity; index++) {
+            slots[index] = new ColonyEvent();
+        }
+        return slots;
+    }
+
+    private record Subscription(long types, ColonyEventListener listener) {
+    }
+}
@@ -0,0 +1,6 @@
+package com.shieldudaram.colonists.events;
+
+@FunctionalInterface
+public interface ColonyEventListener {
+    void onEvent(ColonyEvent event);
+}
@@ -0,0 +1,32 @@
+package com.shieldudaram.colonists.events;
+
+public enum ColonyEventType {
+    TASK_CREATED,
+    TASK_ASSIGNED,
+    TASK_PREEMPTED,
+    TASK_COMPLETED,
+    HOTSPOT_PLACED,
+    HOTSPOT_FIRST_HARVEST,
+    HOTSPOT_HARVESTED,
+    HOTSPOT_UPGRADED,
+    HOTSPOT_RESET,
+    RAID_SCHEDULED,
+    RAID_STARTED,
+    RAID_ENDED,
+    CITIZEN_DIED,
+    INSURANCE_CLAIM_PAID,
+    REPLACEMENT_SPAWNED,
+    POLICY_CHANGED,
+    CRISIS_STARTED,
+    CRISIS_ENDED;
+
+    private final long bit;
+
+    ColonyEventType() {
+        this.bit = 1L << ordinal();
+    }
+
+    public long bit() {
+        return bit;
+    }
+}
@@ -0,0 +1,403 @@
+package com.shieldudaram.colonists.host;
+
+import com.shieldudaram.colonists.commands.CommandResult;
+import com.shieldudaram.colonists.content.ColonistsConfig;
+import com.shieldudaram.colonists.model.ItemRegistry;
+import com.shieldudaram.colonists.sim.ColonistsConstants;
+import com.shieldudaram.colonists.sim.ColonyCallbacks;
+import com.shieldudaram.colonists.sim.ColonySimulationEngine;
+import com.shieldudaram.colonists.telemetry.FailureThrottle;
+import com.shieldudaram.colonists.telemetry.TelemetryLogWriter;
+import com.shieldudaram.colonists.telemetry.TelemetryService;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+public final class ColonyHost implements AutoCloseable {
+    private static final System.Logger LOGGER = System.getLogger(ColonyHost.class.getName());
+    private static final long LIFECYCLE_TIMEOUT_SECONDS = 30L;
+    private static final String LOGS_DIR = "logs";
+    private static final Pattern COLONY_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+    private static final Comparator<HostedColony> FAIRNESS = Comparator
+            .comparingLong(HostedColony::owedTicks).reversed()
+            .thenComparingLong(HostedColony::lastScheduledRound)
+            .thenComparing(HostedColony::id);
+
+    private final Path root;
+    private final ColonistsConfig config;
+    private final ItemRegistry items;
+    private final ForkJoinPool pool;
+    private final ExecutorService lifecycle;
+    private final ExecutorService saves;
+    private final TelemetryLogWriter logWriter;
+    private final int parallelism;
+    private final long roundBudgetNanos;
+    private final int maxCatchUpTicks;
+    private final int maxColonies;
+    private final long roundNanos;
+    private final Map<String, HostedColony> colonies = new ConcurrentHashMap<>();
+    private final Object openLock = new Object();
+    private final FailureThrottle roundFailures = new FailureThrottle(TimeUnit.MINUTES.toNanos(1));
+
+    private volatile boolean closed;
+    private volatile long failedRounds;
+    private volatile RuntimeException lastFailure;
+    private volatile long rounds;
+    private volatile HostRound lastRound;
+    private volatile Thread scheduler;
+
+    public ColonyHost(Path root, ColonistsConfig config, ItemRegistry items) {
+        this.root = Objects.requireNonNull(root, "root");
+        this.config = Objects.requireNonNull(config, "config");
+        this.items = Objects.requireNonNull(items, "items");
+        ColonistsConfig.Host host = config.host == null ? new ColonistsConfig.Host() : config.host;
+        this.parallelism = host.parallelism > 0 ? host.parallelism : Runtime.getRuntime().availableProcessors();
+        this.roundBudgetNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, host.roundBudgetMillis));
+        this.maxCatchUpTicks = Math.max(1, host.maxCatchUpTicks);
+        this.maxColonies = Math.max(1, host.maxColonies);
+        this.roundNanos = 1_000_000_000L / ColonistsConstants.TICK_HZ;
+        this.pool = new ForkJoinPool(parallelism, ColonyHost::newWorker, null, false);
+        this.lifecycle = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "colonists-host-lifecycle");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.saves = Executors.newFixedThreadPool(parallelism, task -> {
+            Thread thread = new Thread(task, "colonists-host-save");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ColonistsConfig.Telemetry telemetry = config.telemetry == null ? new ColonistsConfig.Telemetry() : config.telemetry;
+        this.logWriter = new TelemetryLogWriter(
+                root.resolve(LOGS_DIR),
+                telemetry.queueCapacity,
+                telemetry.flushBytes,
+                telemetry.flushMillis,
+                telemetry.retainDays
+        );
+    }
+
+    public CompletableFuture<CommandResult> openColonyAsync(String colonyId) {
+        return onLifecycleThread(() -> {
+            open(colonyId);
+            return CommandResult.ok("Opened colony " + colonyId);
+        });
+    }
+
+    public CompletableFuture<CommandResult> closeColonyAsync(String colonyId) {
+        return onLifecycleThread(() -> closeColony(colonyId)
+                ? CommandResult.ok("Closed colony " + colonyId)
+                : CommandResult.error("Unknown colony: " + colonyId));
+    }
+
+    public HostedColony open(String colonyId) {
+        if (closed) {
+            throw new IllegalStateException("Colony host is closed");
+        }
+        if (colonyId == null || !COLONY_ID.matcher(colonyId).matches() || LOGS_DIR.equals(colonyId)) {
+            throw new IllegalArgumentException("Invalid colony id: " + colonyId);
+        }
+        synchronized (openLock) {
+            if (closed) {
+                throw new IllegalStateException("Colony host is closed");
+            }
+            HostedColony existing = colonies.get(colonyId);
+            if (existing != null) {
+                return existing;
+            }
+            if (colonies.size() >= maxColonies) {
+                throw new IllegalStateException("Colony limit reached: " + maxColonies);
+            }
+            HostedColony created = create(colonyId);
+            colonies.put(colonyId, created);
+            return created;
+        }
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        if (closed) {
+            throw new IllegalStateException("Colony host is closed");
+        }
+        scheduler = new Thread(this::runRounds, "colonists-host");
+        scheduler.setDaemon(true);
+        scheduler.start();
+    }
+
+    public boolean running() {
+        return scheduler != null && !closed;
+    }
+
+    public long failedRounds() {
+        return failedRounds;
+    }
+
+    public RuntimeException lastFailure() {
+        return lastFailure;
+    }
+
+    public int maxColonies() {
+        return maxColonies;
+    }
+
+    public HostedColony colony(String colonyId) {
+        return colonyId == null ? null : colonies.get(colonyId);
+    }
+
+    public List<String> colonyIds() {
+        List<String> ids = new ArrayList<>(colonies.keySet());
+        ids.sort(null);
+        return ids;
+    }
+
+    public int size() {
+        return colonies.size();
+    }
+
+    public int parallelism() {
+        return parallelism;
+    }
+
+    public CompletableFuture<CommandResult> handleCommand(String colonyId, String rawCommand) {
+        HostedColony colony = colony(colonyId);
+        if (colony == null) {
+            return CompletableFuture.completedFuture(CommandResult.error("Unknown colony: " + colonyId));
+        }
+        return colony.router().submit(rawCommand);
+    }
+
+    public boolean closeColony(String colonyId) {
+        HostedColony colony;
+        synchronized (this) {
+            colony = colonyId == null ? null : colonies.remove(colonyId);
+        }
+        if (colony == null) {
+            return false;
+        }
+        colony.awaitIdle();
+        colony.engine().shutdown();
+        return true;
+    }
+
+    public HostRound tick() {
+        HostRound round = runRound();
+        if (round == null) {
+            throw new IllegalStateException("Colony host is closed");
+        }
+        return round;
+    }
+
+    private HostRound runRound() {
+        long startedAt = System.nanoTime();
+        long round;
+        int colonyCount;
+        long dropped = 0L;
+        int deferred = 0;
+        List<ForkJoinTask<Long>> work;
+        synchronized (this) {
+            if (closed) {
+                return null;
+            }
+            round = rounds + 1;
+            rounds = round;
+            List<HostedColony> pending = new ArrayList<>(colonies.values());
+            for (HostedColony colony : pending) {
+                colony.accrue();
+            }
+            pending.sort(FAIRNESS);
+            colonyCount = pending.size();
+
+            long budget = roundBudgetNanos * parallelism;
+            long planned = 0L;
+            work = new ArrayList<>(pending.size());
+            for (HostedColony colony : pending) {
+                long estimate = colony.estimatedNanos(maxCatchUpTicks);
+                if (colony.busy() || (work.size() >= parallelism && (planned >= budget || planned + estimate > budget))) {
+                    colony.defer();
+                    deferred += 1;
+                    continue;
+                }
+                planned += estimate;
+                long owed = colony.owedTicks();
+                long granted = colony.schedule(round, maxCatchUpTicks);
+                dropped += owed - granted;
+                work.add(colony.launch(pool, granted));
+            }
+        }
+
+        long ticksRun = 0L;
+        for (ForkJoinTask<Long> task : work) {
+            ticksRun += task.join();
+        }
+        HostRound result = new HostRound(round, colonyCount, work.size(), deferred, ticksRun, dropped, System.nanoTime() - startedAt);
+        synchronized (this) {
+            if (lastRound == null || lastRound.round() < round) {
+                lastRound = result;
+            }
+        }
+        return result;
+    }
+
+    public HostRound lastRound() {
+        return lastRound;
+    }
+
+    public String describe() {
+        HostRound last = lastRound;
+        StringBuilder builder = new StringBuilder()
+                .append("host colonies=").append(colonies.size())
+                .append(" parallelism=").append(parallelism)
+                .append(" rounds=").append(rounds)
+                .append(" steals=").append(pool.getStealCount());
+        if (last != null) {
+            builder.append(" last[scheduled=").append(last.scheduled())
+                    .append(" deferred=").append(last.deferred())
+                    .append(" dropped=").append(last.droppedTicks())
+                    .append(" wall=").append(last.wallNanos() / 1_000L).append("us]");
+        }
+        for (String id : colonyIds()) {
+            HostedColony colony = colonies.get(id);
+            if (colony != null) {
+                builder.append(System.lineSeparator()).append(colony.describe());
+            }
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public void close() {
+        Thread worker;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            worker = scheduler;
+        }
+        if (worker != null) {
+            LockSupport.unpark(worker);
+            try {
+                worker.join();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        lifecycle.shutdown();
+        try {
+            lifecycle.awaitTermination(LIFECYCLE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (openLock) {
+            shutdownColonies();
+        }
+    }
+
+    private void runRounds() {
+        long nextRoundAt = System.nanoTime();
+        while (!closed) {
+            long now = System.nanoTime();
+            if (now < nextRoundAt) {
+                LockSupport.parkNanos(this, nextRoundAt - now);
+                continue;
+            }
+            try {
+                runRound();
+            } catch (RuntimeException exception) {
+                failedRounds += 1;
+                lastFailure = exception;
+                String message = roundFailures.record("host round", exception, System.nanoTime());
+                if (message != null) {
+                    LOGGER.log(System.Logger.Level.WARNING, message, exception);
+                }
+            }
+            nextRoundAt = Math.max(nextRoundAt + roundNanos, System.nanoTime() - roundNanos * maxCatchUpTicks);
+        }
+    }
+
+    private void shutdownColonies() {
+        RuntimeException failure = null;
+        try {
+            for (String id : colonyIds()) {
+                HostedColony colony;
+                synchronized (this) {
+                    colony = colonies.remove(id);
+                }
+                try {
+                    colony.awaitIdle();
+                    colony.engine().shutdown();
+                } catch (RuntimeException exception) {
+                    if (failure == null) {
+                        failure = exception;
+                    } else {
+                        failure.addSuppressed(exception);
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+            saves.shutdown();
+            logWriter.close();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private HostedColony create(String colonyId) {
+        Path colonyRoot = root.resolve(colonyId);
+        ColonySimulationEngine engine = new ColonySimulationEngine(
+                new TelemetryService(logWriter, colonyId),
+                saves,
+                colonyRoot.resolve("saves"),
+                new ColonyCallbacks() {
+                },
+                config,
+                items.copy()
+        );
+        try {
+            if (engine.hasSave()) {
+                engine.load();
+            }
+        } catch (RuntimeException exception) {
+            engine.shutdown();
+            throw exception;
+        }
+        return new HostedColony(colonyId, engine);
+    }
+
+    private CompletableFuture<CommandResult> onLifecycleThread(Supplier<CommandResult> action) {
+        try {
+            return CompletableFuture.supplyAsync(action, lifecycle)
+                    .exceptionally(error -> CommandResult.error(
+                            (error instanceof CompletionException && error.getCause() != null ? error.getCause() : error).getMessage()));
+        } catch (RejectedExecutionException exception) {
+            return CompletableFuture.completedFuture(CommandResult.error("Colony host is closed"));
+        }
+    }
+
+    private static ForkJoinWorkerThread newWorker(ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("colonists-host-" + thread.getPoolIndex());
+        return thread;
+    }
+}
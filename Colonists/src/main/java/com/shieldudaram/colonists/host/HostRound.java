@@ -0,0 +1,7 @@
+package com.shieldudaram.colonists.host;
+
+public record HostRound(long round, int colonies, int scheduled, int deferred, long ticksRun, long droppedTicks, long wallNanos) {
+    public boolean saturated() {
+        return deferred > 0 || droppedTicks > 0L;
+    }
+}
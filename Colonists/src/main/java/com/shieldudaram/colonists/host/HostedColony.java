@@ -0,0 +1,157 @@
+package com.shieldudaram.colonists.host;
+
+import com.shieldudaram.colonists.commands.ColonyCommandRouter;
+import com.shieldudaram.colonists.sim.ColonySimulationEngine;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+public final class HostedColony {
+    private static final int COST_SMOOTHING = 8;
+
+    private final String id;
+    private final ColonySimulationEngine engine;
+    private final ColonyCommandRouter router;
+
+    private long owedTicks;
+    private long lastScheduledRound;
+    private volatile long ticks;
+    private volatile long totalNanos;
+    private volatile long averageNanos;
+    private volatile long overBudgetTicks;
+    private volatile long deferredRounds;
+    private volatile long droppedTicks;
+    private volatile long failedTicks;
+    private volatile RuntimeException lastFailure;
+    private volatile ForkJoinTask<Long> inFlight;
+
+    HostedColony(String id, ColonySimulationEngine engine) {
+        this.id = Objects.requireNonNull(id, "id");
+        this.engine = Objects.requireNonNull(engine, "engine");
+        this.router = new ColonyCommandRouter(engine);
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public ColonySimulationEngine engine() {
+        return engine;
+    }
+
+    public ColonyCommandRouter router() {
+        return router;
+    }
+
+    public long ticks() {
+        return ticks;
+    }
+
+    public long totalNanos() {
+        return totalNanos;
+    }
+
+    public long averageNanos() {
+        return averageNanos;
+    }
+
+    public long overBudgetTicks() {
+        return overBudgetTicks;
+    }
+
+    public long deferredRounds() {
+        return deferredRounds;
+    }
+
+    public long droppedTicks() {
+        return droppedTicks;
+    }
+
+    public long failedTicks() {
+        return failedTicks;
+    }
+
+    public RuntimeException lastFailure() {
+        return lastFailure;
+    }
+
+    long owedTicks() {
+        return owedTicks;
+    }
+
+    long lastScheduledRound() {
+        return lastScheduledRound;
+    }
+
+    void accrue() {
+        owedTicks += 1;
+    }
+
+    long estimatedNanos(int maxCatchUpTicks) {
+        return averageNanos * Math.min(owedTicks, maxCatchUpTicks);
+    }
+
+    void defer() {
+        deferredRounds += 1;
+    }
+
+    long schedule(long round, int maxCatchUpTicks) {
+        long granted = Math.min(owedTicks, maxCatchUpTicks);
+        droppedTicks += owedTicks - granted;
+        owedTicks = 0L;
+        lastScheduledRound = round;
+        return granted;
+    }
+
+    ForkJoinTask<Long> launch(ForkJoinPool pool, long count) {
+        ForkJoinTask<Long> task = pool.submit(() -> runTicks(count));
+        inFlight = task;
+        return task;
+    }
+
+    boolean busy() {
+        ForkJoinTask<Long> task = inFlight;
+        return task != null && !task.isDone();
+    }
+
+    void awaitIdle() {
+        ForkJoinTask<Long> task = inFlight;
+        if (task != null) {
+            task.quietlyJoin();
+        }
+    }
+
+    long runTicks(long count) {
+        long budgetNanos = engine.telemetry().metrics().budgetNanos();
+        for (long index = 0; index < count; index++) {
+            long startedAt = System.nanoTime();
+            try {
+                engine.tick();
+            } catch (RuntimeException exception) {
+                failedTicks += 1;
+                lastFailure = exception;
+                engine.telemetry().warnFailure("colony tick", exception);
+            }
+            long elapsed = System.nanoTime() - startedAt;
+            ticks += 1;
+            totalNanos += elapsed;
+            averageNanos = averageNanos == 0L ? elapsed : averageNanos + (elapsed - averageNanos) / COST_SMOOTHING;
+            if (elapsed > budgetNanos) {
+                overBudgetTicks += 1;
+            }
+        }
+        return count;
+    }
+
+    String describe() {
+        return "colony " + id
+                + " t=" + engine.state().worldTimeSec() + "s"
+                + " ticks=" + ticks
+                + " avg=" + averageNanos / 1_000L + "us"
+                + " overBudget=" + overBudgetTicks
+                + " deferredRounds=" + deferredRounds
+                + " droppedTicks=" + droppedTicks
+                + " failed=" + failedTicks;
+    }
+}
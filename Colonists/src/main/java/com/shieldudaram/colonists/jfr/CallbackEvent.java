@@ -0,0 +1,25 @@
+package com.shieldudaram.colonists.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("colonists.Callback")
+@Label("Colony Callback")
+@Category({"Colonists", "Simulation"})
+@Description("Dispatch of a ColonyCallbacks method")
+@StackTrace(false)
+public final class CallbackEvent extends Event {
+    private static final EventType TYPE = EventType.getEventType(CallbackEvent.class);
+
+    @Label("Callback")
+    public String callback;
+
+    public static boolean recording() {
+        return TYPE.isEnabled();
+    }
+}
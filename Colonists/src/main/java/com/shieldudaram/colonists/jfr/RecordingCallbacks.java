@@ -0,0 +1,234 @@
+package com.shieldudaram.colonists.jfr;
+
+import com.shieldudaram.colonists.sim.ColonyCallbacks;
+import com.shieldudaram.colonists.sim.ColonyContext;
+
+import java.util.Objects;
+
+public final class RecordingCallbacks implements ColonyCallbacks {
+    private final ColonyCallbacks delegate;
+
+    public RecordingCallbacks(ColonyCallbacks delegate) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+    }
+
+    public ColonyCallbacks delegate() {
+        return delegate;
+    }
+
+    @Override
+    public void onPreTick(ColonyContext context) {
+        if (!CallbackEvent.recording()) {
+            delegate.onPreTick(context);
+            return;
+        }
+        CallbackEvent event = begin("onPreTick");
+        delegate.onPreTick(context);
+        event.commit();
+    }
+
+    @Override
+    public void onPostTick(ColonyContext context) {
+        if (!CallbackEvent.recording()) {
+            delegate.onPostTick(context);
+            return;
+        }
+        CallbackEvent event = begin("onPostTick");
+        delegate.onPostTick(context);
+        event.commit();
+    }
+
+    @Override
+    public void onTaskCreated(String taskId) {
+        if (!CallbackEvent.recording()) {
+            delegate.onTaskCreated(taskId);
+            return;
+        }
+        CallbackEvent event = begin("onTaskCreated");
+        delegate.onTaskCreated(taskId);
+        event.commit();
+    }
+
+    @Override
+    public void onTaskAssigned(String taskId, String citizenId) {
+        if (!CallbackEvent.recording()) {
+            delegate.onTaskAssigned(taskId, citizenId);
+            return;
+        }
+        CallbackEvent event = begin("onTaskAssigned");
+        delegate.onTaskAssigned(taskId, citizenId);
+        event.commit();
+    }
+
+    @Override
+    public void onTaskPreempted(String taskId, String fromCitizenId, String reason) {
+        if (!CallbackEvent.recording()) {
+            delegate.onTaskPreempted(taskId, fromCitizenId, reason);
+            return;
+        }
+        CallbackEvent event = begin("onTaskPreempted");
+        delegate.onTaskPreempted(taskId, fromCitizenId, reason);
+        event.commit();
+    }
+
+    @Override
+    public void onTaskCompleted(String taskId, String citizenId) {
+        if (!CallbackEvent.recording()) {
+            delegate.onTaskCompleted(taskId, citizenId);
+            return;
+        }
+        CallbackEvent event = begin("onTaskCompleted");
+        delegate.onTaskCompleted(taskId, citizenId);
+        event.commit();
+    }
+
+    @Override
+    public void onHotspotFirstHarvest(String hotspotId, long resetAtSec) {
+        if (!CallbackEvent.recording()) {
+            delegate.onHotspotFirstHarvest(hotspotId, resetAtSec);
+            return;
+        }
+        CallbackEvent event = begin("onHotspotFirstHarvest");
+        delegate.onHotspotFirstHarvest(hotspotId, resetAtSec);
+        event.commit();
+    }
+
+    @Override
+    public void onHotspotHarvested(String hotspotId, String citizenId, int yieldQty) {
+        if (!CallbackEvent.recording()) {
+            delegate.onHotspotHarvested(hotspotId, citizenId, yieldQty);
+            return;
+        }
+        CallbackEvent event = begin("onHotspotHarvested");
+        delegate.onHotspotHarvested(hotspotId, citizenId, yieldQty);
+        event.commit();
+    }
+
+    @Override
+    public void onHotspotUpgraded(String hotspotId, int fromTier, int toTier) {
+        if (!CallbackEvent.recording()) {
+            delegate.onHotspotUpgraded(hotspotId, fromTier, toTier);
+            return;
+        }
+        CallbackEvent event = begin("onHotspotUpgraded");
+        delegate.onHotspotUpgraded(hotspotId, fromTier, toTier);
+        event.commit();
+    }
+
+    @Override
+    public void onHotspotReset(String hotspotId) {
+        if (!CallbackEvent.recording()) {
+            delegate.onHotspotReset(hotspotId);
+            return;
+        }
+        CallbackEvent event = begin("onHotspotReset");
+        delegate.onHotspotReset(hotspotId);
+        event.commit();
+    }
+
+    @Override
+    public void onRaidScheduled(String raidId, long etaSec) {
+        if (!CallbackEvent.recording()) {
+            delegate.onRaidScheduled(raidId, etaSec);
+            return;
+        }
+        CallbackEvent event = begin("onRaidScheduled");
+        delegate.onRaidScheduled(raidId, etaSec);
+        event.commit();
+    }
+
+    @Override
+    public void onRaidStarted(String raidId) {
+        if (!CallbackEvent.recording()) {
+            delegate.onRaidStarted(raidId);
+            return;
+        }
+        CallbackEvent event = begin("onRaidStarted");
+        delegate.onRaidStarted(raidId);
+        event.commit();
+    }
+
+    @Override
+    public void onRaidEnded(String raidId, boolean success) {
+        if (!CallbackEvent.recording()) {
+            delegate.onRaidEnded(raidId, success);
+            return;
+        }
+        CallbackEvent event = begin("onRaidEnded");
+        delegate.onRaidEnded(raidId, success);
+        event.commit();
+    }
+
+    @Override
+    public void onCitizenDeath(String citizenId, String cause) {
+        if (!CallbackEvent.recording()) {
+            delegate.onCitizenDeath(citizenId, cause);
+            return;
+        }
+        CallbackEvent event = begin("onCitizenDeath");
+        delegate.onCitizenDeath(citizenId, cause);
+        event.commit();
+    }
+
+    @Override
+    public void onInsuranceClaimPaid(String claimId, String citizenId) {
+        if (!CallbackEvent.recording()) {
+            delegate.onInsuranceClaimPaid(claimId, citizenId);
+            return;
+        }
+        CallbackEvent event = begin("onInsuranceClaimPaid");
+        delegate.onInsuranceClaimPaid(claimId, citizenId);
+        event.commit();
+    }
+
+    @Override
+    public void onReplacementSpawned(String claimId, String newCitizenId) {
+        if (!CallbackEvent.recording()) {
+            delegate.onReplacementSpawned(claimId, newCitizenId);
+            return;
+        }
+        CallbackEvent event = begin("onReplacementSpawned");
+        delegate.onReplacementSpawned(claimId, newCitizenId);
+        event.commit();
+    }
+
+    @Override
+    public void onPolicyChanged(String policyId) {
+        if (!CallbackEvent.recording()) {
+            delegate.onPolicyChanged(policyId);
+            return;
+        }
+        CallbackEvent event = begin("onPolicyChanged");
+        delegate.onPolicyChanged(policyId);
+        event.commit();
+    }
+
+    @Override
+    public void onCrisisStarted(String crisisId) {
+        if (!CallbackEvent.recording()) {
+            delegate.onCrisisStarted(crisisId);
+            return;
+        }
+        CallbackEvent event = begin("onCrisisStarted");
+        delegate.onCrisisStarted(crisisId);
+        event.commit();
+    }
+
+    @Override
+    public void onCrisisEnded(String crisisId) {
+        if (!CallbackEvent.recording()) {
+            delegate.onCrisisEnded(crisisId);
+            return;
+        }
+        CallbackEvent event = begin("onCrisisEnded");
+        delegate.onCrisisEnded(crisisId);
+        event.commit();
+    }
+
+    private static CallbackEvent begin(String callback) {
+        CallbackEvent event = new CallbackEvent();
+        event.callback = callback;
+        event.begin();
+        return event;
+    }
+}
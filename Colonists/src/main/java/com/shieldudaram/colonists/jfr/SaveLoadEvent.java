@@ -0,0 +1,28 @@
+package com.shieldudaram.colonists.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("colonists.SaveLoad")
+@Label("Save Load")
+@Category({"Colonists", "Persistence"})
+@Description("Colony save read from disk and applied")
+@StackTrace(false)
+public final class SaveLoadEvent extends Event {
+    private static final EventType TYPE = EventType.getEventType(SaveLoadEvent.class);
+
+    @Label("Path")
+    public String path;
+
+    @Label("Schema Version")
+    public int schemaVersion;
+
+    public static boolean recording() {
+        return TYPE.isEnabled();
+    }
+}
@@ -0,0 +1,33 @@
+package com.shieldudaram.colonists.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("colonists.SaveWrite")
+@Label("Save Write")
+@Category({"Colonists", "Persistence"})
+@Description("Colony save written to disk")
+@StackTrace(false)
+public final class SaveWriteEvent extends Event {
+    private static final EventType TYPE = EventType.getEventType(SaveWriteEvent.class);
+
+    @Label("Path")
+    public String path;
+
+    @Label("Format")
+    public String format;
+
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+
+    public static boolean recording() {
+        return TYPE.isEnabled();
+    }
+}
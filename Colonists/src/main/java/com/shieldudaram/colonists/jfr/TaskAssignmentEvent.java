@@ -0,0 +1,37 @@
+package com.shieldudaram.colonists.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("colonists.TaskAssignment")
+@Label("Task Assignment")
+@Category({"Colonists", "Simulation"})
+@Description("Task broker pass assigning queued tasks to citizens")
+@StackTrace(false)
+public final class TaskAssignmentEvent extends Event {
+    private static final EventType TYPE = EventType.getEventType(TaskAssignmentEvent.class);
+
+    @Label("Mode")
+    public String mode;
+
+    @Label("Citizens")
+    public int citizens;
+
+    @Label("Scheduled Citizens")
+    public int scheduled;
+
+    @Label("Queued Tasks")
+    public int queuedTasks;
+
+    @Label("Assigned Tasks")
+    public int assigned;
+
+    public static boolean recording() {
+        return TYPE.isEnabled();
+    }
+}
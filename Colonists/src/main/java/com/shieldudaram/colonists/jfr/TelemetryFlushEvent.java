@@ -0,0 +1,28 @@
+package com.shieldudaram.colonists.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("colonists.TelemetryFlush")
+@Label("Telemetry Flush")
+@Category({"Colonists", "Telemetry"})
+@Description("Buffered telemetry lines flushed to the day log")
+@StackTrace(false)
+public final class TelemetryFlushEvent extends Event {
+    private static final EventType TYPE = EventType.getEventType(TelemetryFlushEvent.class);
+
+    @Label("Characters")
+    public int chars;
+
+    @Label("Dropped Lines")
+    public long droppedLines;
+
+    public static boolean recording() {
+        return TYPE.isEnabled();
+    }
+}
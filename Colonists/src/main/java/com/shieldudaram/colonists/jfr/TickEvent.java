@@ -0,0 +1,30 @@
+package com.shieldudaram.colonists.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("colonists.Tick")
+@Label("Colony Tick")
+@Category({"Colonists", "Simulation"})
+@Description("One unpaused colony simulation tick")
+@StackTrace(false)
+public final class TickEvent extends Event {
+    private static final EventType TYPE = EventType.getEventType(TickEvent.class);
+
+    @Label("Tick")
+    public long tick;
+
+    @Label("World Time")
+    @Timespan(Timespan.SECONDS)
+    public long worldTimeSec;
+
+    public static boolean recording() {
+        return TYPE.isEnabled();
+    }
+}
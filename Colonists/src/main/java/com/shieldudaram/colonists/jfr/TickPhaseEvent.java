@@ -0,0 +1,28 @@
+package com.shieldudaram.colonists.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("colonists.TickPhase")
+@Label("Colony Tick Phase")
+@Category({"Colonists", "Simulation"})
+@Description("One phase of a colony simulation tick")
+@StackTrace(false)
+public final class TickPhaseEvent extends Event {
+    private static final EventType TYPE = EventType.getEventType(TickPhaseEvent.class);
+
+    @Label("Tick")
+    public long tick;
+
+    @Label("Phase")
+    public String phase;
+
+    public static boolean recording() {
+        return TYPE.isEnabled();
+    }
+}
@@ -10,6 +10,7 @@ public final class CitizenState {
     private final EnumMap<Role, Integer> skills;
     private final CitizenNeeds needs;
     private long preemptLockUntilSec;
+    int registryIndex = -1;
 
     public CitizenState(String id, Role primaryRole) {
         this(id, primaryRole, defaultSkills(), new CitizenNeeds(100.0, 100.0, 100.0), 0L);
@@ -0,0 +1,34 @@
+package com.shieldudaram.colonists.model;
+
+import java.util.List;
+import java.util.Objects;
+
+public record ColonyChanges(
+        List<String> changedTasks,
+        List<String> removedTasks,
+        List<String> changedHotspots,
+        List<String> changedZones,
+        List<String> removedZones,
+        List<String> changedStructures,
+        List<String> removedStructures
+) {
+    public ColonyChanges {
+        changedTasks = List.copyOf(Objects.requireNonNull(changedTasks, "changedTasks"));
+        removedTasks = List.copyOf(Objects.requireNonNull(removedTasks, "removedTasks"));
+        changedHotspots = List.copyOf(Objects.requireNonNull(changedHotspots, "changedHotspots"));
+        changedZones = List.copyOf(Objects.requireNonNull(changedZones, "changedZones"));
+        removedZones = List.copyOf(Objects.requireNonNull(removedZones, "removedZones"));
+        changedStructures = List.copyOf(Objects.requireNonNull(changedStructures, "changedStructures"));
+        removedStructures = List.copyOf(Objects.requireNonNull(removedStructures, "removedStructures"));
+    }
+
+    public boolean isEmpty() {
+        return changedTasks.isEmpty()
+                && removedTasks.isEmpty()
+                && changedHotspots.isEmpty()
+                && changedZones.isEmpty()
+                && removedZones.isEmpty()
+                && changedStructures.isEmpty()
+                && removedStructures.isEmpty();
+    }
+}
@@ -2,11 +2,19 @@ package com.shieldudaram.colonists.model;
 
 import com.shieldudaram.colonists.sim.ColonistsConstants;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 public final class ColonyState {
     private long worldTimeSec;
@@ -15,43 +23,93 @@ public final class ColonyState {
     private PolicyWeights taskWeights;
     private int populationCap;
     private final List<CitizenState> citizens;
+    private final List<CitizenState> citizenView;
+    private final Map<String, CitizenState> citizenById;
     private final List<HotspotState> hotspots;
-    private final List<ColonyTask> tasks;
+    private final List<HotspotState> hotspotView;
+    private final Map<String, HotspotState> hotspotById;
+    private final Map<String, ColonyTask> tasks;
+    private final Collection<ColonyTask> taskView;
+    private final TaskQueue taskQueue;
+    private final TaskReservations taskReservations;
+    private final TaskArchive taskArchive;
+    private final ArrayDeque<ColonyTask> terminalTasks;
+    private long nextTaskSequence;
     private final List<ColonyZone> zones;
+    private final List<ColonyZone> zoneView;
+    private final Map<String, ColonyZone> zoneById;
     private final List<PlacedStructure> structures;
+    private final List<PlacedStructure> structureView;
+    private final Map<String, PlacedStructure> structureById;
+    private final SpatialIndex spatialIndex;
     private final RaidState raidState;
     private final InsuranceState insuranceState;
-
-    private int stockWood;
-    private int stockStone;
-    private int stockFiber;
-    private int stockFood;
-    private int stockHide;
-    private int stockCrystal;
-    private int stockOre;
-    private int stockHerbs;
+    private final TimingWheel timers;
+
+    private final int[] completedStructures;
+    private final int[] hotspotsByFamily;
+    private final Map<String, Integer> hotspotsByZone;
+    private int nonHomeZones;
+    private int upgradedHotspots;
+    private final ItemRegistry items;
+    private final Inventory inventory;
+    private final Set<String> changedTasks;
+    private final Set<String> removedTasks;
+    private final Set<String> changedHotspots;
+    private final Set<String> changedZones;
+    private final Set<String> removedZones;
+    private final Set<String> changedStructures;
+    private final Set<String> removedStructures;
+    private boolean trackChanges;
+    private long journalSequence;
 
     public ColonyState() {
+        this(ItemRegistry.defaults());
+    }
+
+    public ColonyState(ItemRegistry items) {
         this.worldTimeSec = 0L;
         this.paused = false;
         this.activePolicy = PolicyId.RECOVERY;
         this.taskWeights = new PolicyWeights(defaultTaskWeights());
         this.populationCap = 2;
         this.citizens = new ArrayList<>();
+        this.citizenView = Collections.unmodifiableList(citizens);
+        this.citizenById = new HashMap<>();
         this.hotspots = new ArrayList<>();
-        this.tasks = new ArrayList<>();
+        this.hotspotView = Collections.unmodifiableList(hotspots);
+        this.hotspotById = new HashMap<>();
+        this.tasks = new LinkedHashMap<>();
+        this.taskView = Collections.unmodifiableCollection(tasks.values());
+        this.taskQueue = new TaskQueue(taskWeights);
+        this.taskReservations = new TaskReservations();
+        this.taskArchive = new TaskArchive(ColonistsConstants.TASK_ARCHIVE_CAPACITY);
+        this.terminalTasks = new ArrayDeque<>();
         this.zones = new ArrayList<>();
+        this.zoneView = Collections.unmodifiableList(zones);
+        this.zoneById = new HashMap<>();
         this.structures = new ArrayList<>();
+        this.structureView = Collections.unmodifiableList(structures);
+        this.structureById = new HashMap<>();
+        this.spatialIndex = new SpatialIndex(ColonistsConstants.HOTSPOT_SPACING_METERS);
         this.raidState = new RaidState();
         this.insuranceState = new InsuranceState(0);
-        this.stockWood = 100;
-        this.stockStone = 70;
-        this.stockFiber = 30;
-        this.stockFood = 40;
-        this.stockHide = 10;
-        this.stockCrystal = 0;
-        this.stockOre = 0;
-        this.stockHerbs = 0;
+        this.timers = new TimingWheel(0L);
+        this.completedStructures = new int[BlueprintId.values().length];
+        this.hotspotsByFamily = new int[HotspotFamily.values().length];
+        this.hotspotsByZone = new HashMap<>();
+        this.items = Objects.requireNonNull(items, "items");
+        this.inventory = new Inventory(items);
+        this.changedTasks = new LinkedHashSet<>();
+        this.removedTasks = new LinkedHashSet<>();
+        this.changedHotspots = new LinkedHashSet<>();
+        this.changedZones = new LinkedHashSet<>();
+        this.removedZones = new LinkedHashSet<>();
+        this.changedStructures = new LinkedHashSet<>();
+        this.removedStructures = new LinkedHashSet<>();
+        for (Map.Entry<String, Integer> entry : ColonistsConstants.startupStockpile().entrySet()) {
+            inventory.add(ItemRegistry.handle(items.register(entry.getKey()), 1, 1), entry.getValue());
+        }
     }
 
     public long worldTimeSec() {
@@ -60,6 +118,7 @@ public final class ColonyState {
 
     public void setWorldTimeSec(long worldTimeSec) {
         this.worldTimeSec = Math.max(0L, worldTimeSec);
+        timers.advanceTo(this.worldTimeSec);
     }
 
     public boolean paused() {
@@ -84,6 +143,7 @@ public final class ColonyState {
 
     public void setTaskWeights(PolicyWeights taskWeights) {
         this.taskWeights = Objects.requireNonNull(taskWeights, "taskWeights");
+        taskQueue.rekey(taskWeights);
     }
 
     public int populationCap() {
@@ -99,23 +159,234 @@ public final class ColonyState {
     }
 
     public List<CitizenState> citizens() {
-        return citizens;
+        return citizenView;
+    }
+
+    public CitizenState citizen(String citizenId) {
+        return citizenById.get(citizenId);
+    }
+
+    public int citizenIndex(String citizenId) {
+        CitizenState citizen = citizenById.get(citizenId);
+        return citizen == null ? -1 : citizen.registryIndex;
+    }
+
+    public void addCitizen(CitizenState citizen) {
+        requireUnique(citizenById, citizen.id(), "citizen");
+        citizen.registryIndex = citizens.size();
+        citizens.add(citizen);
+        citizenById.put(citizen.id(), citizen);
+    }
+
+    public CitizenState removeCitizen(String citizenId) {
+        CitizenState citizen = citizenById.remove(citizenId);
+        if (citizen == null) {
+            return null;
+        }
+        citizens.remove(citizen.registryIndex);
+        for (int index = citizen.registryIndex; index < citizens.size(); index++) {
+            citizens.get(index).registryIndex = index;
+        }
+        citizen.registryIndex = -1;
+        return citizen;
+    }
+
+    public void clearCitizens() {
+        for (CitizenState citizen : citizens) {
+            citizen.registryIndex = -1;
+        }
+        citizens.clear();
+        citizenById.clear();
     }
 
     public List<HotspotState> hotspots() {
-        return hotspots;
+        return hotspotView;
+    }
+
+    public HotspotState hotspot(String hotspotId) {
+        return hotspotById.get(hotspotId);
+    }
+
+    public void addHotspot(HotspotState hotspot) {
+        requireUnowned(hotspot.owner, hotspot.id());
+        requireUnique(hotspotById, hotspot.id(), "hotspot");
+        hotspots.add(hotspot);
+        hotspotById.put(hotspot.id(), hotspot);
+        spatialIndex.hotspots().add(hotspot);
+        hotspot.owner = this;
+        countHotspot(hotspot, 1);
+    }
+
+    public void clearHotspots() {
+        for (HotspotState hotspot : hotspots) {
+            hotspot.owner = null;
+        }
+        hotspots.clear();
+        hotspotById.clear();
+        spatialIndex.hotspots().clear();
+        Arrays.fill(hotspotsByFamily, 0);
+        hotspotsByZone.clear();
+        upgradedHotspots = 0;
+    }
+
+    public Collection<ColonyTask> tasks() {
+        return taskView;
     }
 
-    public List<ColonyTask> tasks() {
-        return tasks;
+    public ColonyTask task(String taskId) {
+        return tasks.get(taskId);
+    }
+
+    public TaskQueue taskQueue() {
+        return taskQueue;
+    }
+
+    public TaskReservations taskReservations() {
+        return taskReservations;
+    }
+
+    public TaskArchive taskArchive() {
+        return taskArchive;
+    }
+
+    public void addTask(ColonyTask task) {
+        if (task.owner != null) {
+            throw new IllegalStateException("Task already belongs to a colony: " + task.id());
+        }
+        if (tasks.containsKey(task.id())) {
+            throw new IllegalStateException("Duplicate task id: " + task.id());
+        }
+        task.owner = this;
+        task.sequence = nextTaskSequence++;
+        tasks.put(task.id(), task);
+        onTaskChanged(task);
+    }
+
+    public void clearTasks() {
+        taskQueue.clear();
+        taskReservations.clear();
+        for (ColonyTask task : tasks.values()) {
+            task.owner = null;
+            task.archivePending = false;
+        }
+        tasks.clear();
+        terminalTasks.clear();
+    }
+
+    public int pendingArchiveCount() {
+        return terminalTasks.size();
+    }
+
+    public int compactTasks(int budget) {
+        int archived = 0;
+        while (archived < budget && !terminalTasks.isEmpty()) {
+            ColonyTask task = terminalTasks.pollFirst();
+            task.archivePending = false;
+            if (task.owner != this || !isTerminal(task)) {
+                continue;
+            }
+            tasks.remove(task.id());
+            task.owner = null;
+            if (trackChanges) {
+                changedTasks.remove(task.id());
+                removedTasks.add(task.id());
+            }
+            taskArchive.archive(task, task.closedAtSec);
+            archived += 1;
+        }
+        return archived;
     }
 
     public List<ColonyZone> zones() {
-        return zones;
+        return zoneView;
+    }
+
+    public ColonyZone zone(String zoneId) {
+        return zoneById.get(zoneId);
+    }
+
+    public void addZone(ColonyZone zone) {
+        requireUnique(zoneById, zone.id(), "zone");
+        requireUnowned(zone.owner, zone.id());
+        zones.add(zone);
+        zoneById.put(zone.id(), zone);
+        spatialIndex.addZone(zone);
+        zone.owner = this;
+        countZone(zone, 1);
+    }
+
+    public boolean removeZone(String zoneId) {
+        ColonyZone zone = zoneById.remove(zoneId);
+        if (zone == null) {
+            return false;
+        }
+        zones.remove(zone);
+        spatialIndex.removeZone(zone);
+        countZone(zone, -1);
+        zone.owner = null;
+        if (trackChanges) {
+            changedZones.remove(zoneId);
+            removedZones.add(zoneId);
+        }
+        return true;
+    }
+
+    public void clearZones() {
+        for (ColonyZone zone : zones) {
+            zone.owner = null;
+        }
+        zones.clear();
+        zoneById.clear();
+        spatialIndex.clearZones();
+        nonHomeZones = 0;
     }
 
     public List<PlacedStructure> structures() {
-        return structures;
+        return structureView;
+    }
+
+    public PlacedStructure structure(String structureId) {
+        return structureById.get(structureId);
+    }
+
+    public void addStructure(PlacedStructure structure) {
+        requireUnique(structureById, structure.id(), "structure");
+        requireUnowned(structure.owner, structure.id());
+        structures.add(structure);
+        structureById.put(structure.id(), structure);
+        spatialIndex.structures().add(structure);
+        structure.owner = this;
+        countStructure(structure, 1);
+    }
+
+    public boolean removeStructure(String structureId) {
+        PlacedStructure structure = structureById.remove(structureId);
+        if (structure == null) {
+            return false;
+        }
+        structures.remove(structure);
+        spatialIndex.structures().remove(structure);
+        countStructure(structure, -1);
+        structure.owner = null;
+        if (trackChanges) {
+            changedStructures.remove(structureId);
+            removedStructures.add(structureId);
+        }
+        return true;
+    }
+
+    public void clearStructures() {
+        for (PlacedStructure structure : structures) {
+            structure.owner = null;
+        }
+        structures.clear();
+        structureById.clear();
+        spatialIndex.structures().clear();
+        Arrays.fill(completedStructures, 0);
+    }
+
+    public SpatialIndex spatialIndex() {
+        return spatialIndex;
     }
 
     public RaidState raidState() {
@@ -126,183 +397,224 @@ public final class ColonyState {
         return insuranceState;
     }
 
-    public int stockWood() {
-        return stockWood;
+    public TimingWheel timers() {
+        return timers;
+    }
+
+    public void rebuildTimers() {
+        timers.reset(worldTimeSec);
+        for (HotspotState hotspot : hotspots) {
+            if (hotspot.resetAtSec() != null) {
+                timers.schedule(TimerKind.HOTSPOT_RESET, hotspot.id(), hotspot.resetAtSec());
+            }
+        }
+        if (raidState.nextRaidAtSec() > 0L) {
+            timers.schedule(TimerKind.RAID, RaidState.TIMER_ID, raidState.nextRaidAtSec());
+        }
+        for (CitizenState citizen : citizens) {
+            if (citizen.preemptLockUntilSec() > worldTimeSec) {
+                timers.schedule(TimerKind.PREEMPT_UNLOCK, citizen.id(), citizen.preemptLockUntilSec());
+            }
+        }
+    }
+
+    public ItemRegistry items() {
+        return items;
+    }
+
+    public Inventory inventory() {
+        return inventory;
+    }
+
+    public int stock(String itemId) {
+        return inventory.total(items.baseHandle(itemId));
     }
 
-    public int stockStone() {
-        return stockStone;
+    public void addStock(ItemKey key, int amount) {
+        inventory.add(items.handle(key), amount);
     }
 
-    public int stockFiber() {
-        return stockFiber;
+    public boolean changeTracking() {
+        return trackChanges;
     }
 
-    public int stockFood() {
-        return stockFood;
+    public void setChangeTracking(boolean enabled) {
+        trackChanges = enabled;
+        discardChanges();
     }
 
-    public int stockHide() {
-        return stockHide;
+    public ColonyChanges drainChanges() {
+        ColonyChanges changes = new ColonyChanges(
+                new ArrayList<>(changedTasks),
+                new ArrayList<>(removedTasks),
+                new ArrayList<>(changedHotspots),
+                new ArrayList<>(changedZones),
+                new ArrayList<>(removedZones),
+                new ArrayList<>(changedStructures),
+                new ArrayList<>(removedStructures)
+        );
+        discardChanges();
+        return changes;
     }
 
-    public int stockCrystal() {
-        return stockCrystal;
+    public void discardChanges() {
+        changedTasks.clear();
+        removedTasks.clear();
+        changedHotspots.clear();
+        changedZones.clear();
+        removedZones.clear();
+        changedStructures.clear();
+        removedStructures.clear();
     }
 
-    public int stockOre() {
-        return stockOre;
+    public long journalSequence() {
+        return journalSequence;
     }
 
-    public int stockHerbs() {
-        return stockHerbs;
+    public void setJournalSequence(long journalSequence) {
+        this.journalSequence = Math.max(0L, journalSequence);
+    }
+
+    public long nextJournalSequence() {
+        journalSequence += 1;
+        return journalSequence;
     }
 
     public int nonHomeZoneCount() {
-        int count = 0;
-        for (ColonyZone zone : zones) {
-            if (zone.type() != ZoneType.HOME) {
-                count += 1;
-            }
-        }
-        return count;
+        return nonHomeZones;
     }
 
     public int countCompletedStructures(BlueprintId blueprintId) {
-        int count = 0;
-        for (PlacedStructure structure : structures) {
-            if (structure.blueprintId() == blueprintId && structure.complete()) {
-                count += 1;
-            }
-        }
-        return count;
+        return completedStructures[blueprintId.ordinal()];
     }
 
     public int upgradedHotspotCount() {
-        int count = 0;
-        for (HotspotState hotspot : hotspots) {
-            if (hotspot.tier() > 1) {
-                count += 1;
-            }
-        }
-        return count;
+        return upgradedHotspots;
     }
 
     public int familyCount(HotspotFamily family) {
-        int count = 0;
-        for (HotspotState hotspot : hotspots) {
-            if (hotspot.family() == family) {
-                count += 1;
-            }
-        }
-        return count;
+        return hotspotsByFamily[family.ordinal()];
     }
 
     public int hotspotsInZone(String zoneId) {
-        int count = 0;
+        return hotspotsByZone.getOrDefault(zoneId, 0);
+    }
+
+    public List<String> verifyAggregates() {
+        List<String> problems = new ArrayList<>();
+        int expectedNonHome = 0;
+        for (ColonyZone zone : zones) {
+            if (zone.type() != ZoneType.HOME) {
+                expectedNonHome += 1;
+            }
+        }
+        if (expectedNonHome != nonHomeZones) {
+            problems.add("nonHomeZones=" + nonHomeZones + " recount=" + expectedNonHome);
+        }
+        int[] expectedCompleted = new int[BlueprintId.values().length];
+        for (PlacedStructure structure : structures) {
+            if (structure.complete()) {
+                expectedCompleted[structure.blueprintId().ordinal()] += 1;
+            }
+        }
+        for (BlueprintId blueprintId : BlueprintId.values()) {
+            int counted = completedStructures[blueprintId.ordinal()];
+            if (counted != expectedCompleted[blueprintId.ordinal()]) {
+                problems.add("completed " + blueprintId + "=" + counted + " recount=" + expectedCompleted[blueprintId.ordinal()]);
+            }
+        }
+        int expectedUpgraded = 0;
+        int[] expectedFamilies = new int[HotspotFamily.values().length];
+        Map<String, Integer> expectedZones = new HashMap<>();
         for (HotspotState hotspot : hotspots) {
-            if (zoneId.equals(hotspot.zoneId())) {
-                count += 1;
+            if (hotspot.tier() > 1) {
+                expectedUpgraded += 1;
             }
+            expectedFamilies[hotspot.family().ordinal()] += 1;
+            expectedZones.merge(hotspot.zoneId(), 1, Integer::sum);
+        }
+        if (expectedUpgraded != upgradedHotspots) {
+            problems.add("upgradedHotspots=" + upgradedHotspots + " recount=" + expectedUpgraded);
         }
-        return count;
-    }
-
-    public boolean consumeStock(String id, int amount) {
-        if (amount <= 0) {
-            return true;
-        }
-        return switch (id) {
-            case "wood" -> consumeWood(amount);
-            case "stone" -> consumeStone(amount);
-            case "fiber" -> consumeFiber(amount);
-            case "food" -> consumeFood(amount);
-            case "hide" -> consumeHide(amount);
-            case "crystal" -> consumeCrystal(amount);
-            case "ore" -> consumeOre(amount);
-            case "herbs" -> consumeHerbs(amount);
-            default -> false;
-        };
-    }
-
-    public void addStock(String id, int amount) {
-        int safeAmount = Math.max(0, amount);
-        switch (id) {
-            case "wood" -> stockWood += safeAmount;
-            case "stone" -> stockStone += safeAmount;
-            case "fiber" -> stockFiber += safeAmount;
-            case "food" -> stockFood += safeAmount;
-            case "hide" -> stockHide += safeAmount;
-            case "crystal" -> stockCrystal += safeAmount;
-            case "ore" -> stockOre += safeAmount;
-            case "herbs" -> stockHerbs += safeAmount;
-            default -> {
+        for (HotspotFamily family : HotspotFamily.values()) {
+            int counted = hotspotsByFamily[family.ordinal()];
+            if (counted != expectedFamilies[family.ordinal()]) {
+                problems.add("hotspots " + family + "=" + counted + " recount=" + expectedFamilies[family.ordinal()]);
             }
         }
+        if (!expectedZones.equals(hotspotsByZone)) {
+            problems.add("hotspotsByZone=" + hotspotsByZone + " recount=" + expectedZones);
+        }
+        return problems;
     }
 
-    private boolean consumeWood(int amount) {
-        if (stockWood < amount) {
-            return false;
+    void onHotspotChanged(HotspotState hotspot) {
+        if (trackChanges) {
+            changedHotspots.add(hotspot.id());
         }
-        stockWood -= amount;
-        return true;
     }
 
-    private boolean consumeStone(int amount) {
-        if (stockStone < amount) {
-            return false;
+    void countHotspot(HotspotState hotspot, int delta) {
+        if (trackChanges && delta > 0) {
+            changedHotspots.add(hotspot.id());
+        }
+        hotspotsByFamily[hotspot.family().ordinal()] += delta;
+        if (hotspot.tier() > 1) {
+            upgradedHotspots += delta;
+        }
+        int inZone = hotspotsByZone.getOrDefault(hotspot.zoneId(), 0) + delta;
+        if (inZone == 0) {
+            hotspotsByZone.remove(hotspot.zoneId());
+        } else {
+            hotspotsByZone.put(hotspot.zoneId(), inZone);
         }
-        stockStone -= amount;
-        return true;
     }
 
-    private boolean consumeFiber(int amount) {
-        if (stockFiber < amount) {
-            return false;
+    void countZone(ColonyZone zone, int delta) {
+        if (trackChanges && delta > 0) {
+            changedZones.add(zone.id());
+        }
+        if (zone.type() != ZoneType.HOME) {
+            nonHomeZones += delta;
         }
-        stockFiber -= amount;
-        return true;
     }
 
-    private boolean consumeFood(int amount) {
-        if (stockFood < amount) {
-            return false;
+    void countStructure(PlacedStructure structure, int delta) {
+        if (trackChanges && delta > 0) {
+            changedStructures.add(structure.id());
+        }
+        if (structure.complete()) {
+            completedStructures[structure.blueprintId().ordinal()] += delta;
         }
-        stockFood -= amount;
-        return true;
     }
 
-    private boolean consumeHide(int amount) {
-        if (stockHide < amount) {
-            return false;
+    void onTaskChanged(ColonyTask task) {
+        if (trackChanges) {
+            changedTasks.add(task.id());
+        }
+        taskQueue.refresh(task);
+        taskReservations.refresh(task);
+        if (!task.archivePending && isTerminal(task)) {
+            task.archivePending = true;
+            task.closedAtSec = worldTimeSec;
+            terminalTasks.addLast(task);
         }
-        stockHide -= amount;
-        return true;
     }
 
-    private boolean consumeCrystal(int amount) {
-        if (stockCrystal < amount) {
-            return false;
+    private static void requireUnowned(ColonyState owner, String id) {
+        if (owner != null) {
+            throw new IllegalStateException("Entity already belongs to a colony: " + id);
         }
-        stockCrystal -= amount;
-        return true;
     }
 
-    private boolean consumeOre(int amount) {
-        if (stockOre < amount) {
-            return false;
+    private static void requireUnique(Map<String, ?> byId, String id, String kind) {
+        if (byId.containsKey(id)) {
+            throw new IllegalStateException("Duplicate " + kind + " id: " + id);
         }
-        stockOre -= amount;
-        return true;
     }
 
-    private boolean consumeHerbs(int amount) {
-        if (stockHerbs < amount) {
-            return false;
-        }
-        stockHerbs -= amount;
-        return true;
+    private static boolean isTerminal(ColonyTask task) {
+        return task.status() == TaskStatus.DONE || task.status() == TaskStatus.FAILED;
     }
 
     private static Map<TaskType, Double> defaultTaskWeights() {
@@ -12,14 +12,38 @@ public final class ColonyTask {
     private int pathRetryCount;
     private long quarantineUntilSec;
     private double basePriority;
+    ColonyState owner;
+    long sequence;
+    int queueSlot;
+    int queueIndex = -1;
+    double queueKey;
+    boolean archivePending;
+    long closedAtSec;
 
     public ColonyTask(String id, TaskType type, String targetId, double basePriority, boolean emergency) {
+        this(id, type, targetId, basePriority, emergency, TaskStatus.QUEUED, null, 0, 0L);
+    }
+
+    public ColonyTask(
+            String id,
+            TaskType type,
+            String targetId,
+            double basePriority,
+            boolean emergency,
+            TaskStatus status,
+            String reservedByCitizenId,
+            int pathRetryCount,
+            long quarantineUntilSec
+    ) {
         this.id = Objects.requireNonNull(id, "id");
         this.type = Objects.requireNonNull(type, "type");
         this.targetId = Objects.requireNonNull(targetId, "targetId");
         this.basePriority = Math.max(0.0, basePriority);
         this.emergency = emergency;
-        this.status = TaskStatus.QUEUED;
+        this.status = Objects.requireNonNull(status, "status");
+        this.reservedByCitizenId = reservedByCitizenId;
+        this.pathRetryCount = Math.max(0, pathRetryCount);
+        this.quarantineUntilSec = Math.max(0L, quarantineUntilSec);
     }
 
     public String id() {
@@ -44,6 +68,7 @@ public final class ColonyTask {
 
     public void setStatus(TaskStatus status) {
         this.status = Objects.requireNonNull(status, "status");
+        changed();
     }
 
     public String reservedByCitizenId() {
@@ -53,6 +78,7 @@ public final class ColonyTask {
     public void reserve(String citizenId) {
         reservedByCitizenId = Objects.requireNonNull(citizenId, "citizenId");
         status = TaskStatus.RESERVED;
+        changed();
     }
 
     public void clearReservation() {
@@ -60,6 +86,7 @@ public final class ColonyTask {
         if (status == TaskStatus.RESERVED || status == TaskStatus.RUNNING || status == TaskStatus.PREEMPTED) {
             status = TaskStatus.QUEUED;
         }
+        changed();
     }
 
     public int pathRetryCount() {
@@ -80,6 +107,7 @@ public final class ColonyTask {
 
     public void setQuarantineUntilSec(long quarantineUntilSec) {
         this.quarantineUntilSec = Math.max(0L, quarantineUntilSec);
+        changed();
     }
 
     public boolean isQuarantined(long nowSec) {
@@ -92,5 +120,12 @@ public final class ColonyTask {
 
     public void setBasePriority(double basePriority) {
         this.basePriority = Math.max(0.0, basePriority);
+        changed();
+    }
+
+    private void changed() {
+        if (owner != null) {
+            owner.onTaskChanged(this);
+        }
     }
 }
@@ -9,6 +9,8 @@ public final class ColonyZone {
     private final int minZ;
     private final int maxX;
     private final int maxZ;
+    long spatialSequence;
+    ColonyState owner;
 
     public ColonyZone(String id, ZoneType type, int minX, int minZ, int maxX, int maxZ) {
         this.id = Objects.requireNonNull(id, "id");
@@ -28,7 +30,30 @@ public final class ColonyZone {
     }
 
     public void setType(ZoneType type) {
-        this.type = Objects.requireNonNull(type, "type");
+        Objects.requireNonNull(type, "type");
+        if (owner != null) {
+            owner.countZone(this, -1);
+        }
+        this.type = type;
+        if (owner != null) {
+            owner.countZone(this, 1);
+        }
+    }
+
+    public int minX() {
+        return minX;
+    }
+
+    public int minZ() {
+        return minZ;
+    }
+
+    public int maxX() {
+        return maxX;
+    }
+
+    public int maxZ() {
+        return maxZ;
     }
 
     public boolean contains(int x, int z) {
@@ -14,6 +14,7 @@ public final class HotspotState {
     private String zoneId;
     private int x;
     private int z;
+    ColonyState owner;
 
     public HotspotState(
             String id,
@@ -54,7 +55,9 @@ public final class HotspotState {
     }
 
     public void setTier(int tier) {
+        uncount();
         this.tier = clampTier(tier);
+        recount();
     }
 
     public int capacityMax() {
@@ -64,6 +67,7 @@ public final class HotspotState {
     public void setCapacityMax(int capacityMax) {
         this.capacityMax = Math.max(1, capacityMax);
         this.capacityNow = Math.min(this.capacityNow, this.capacityMax);
+        changed();
     }
 
     public int capacityNow() {
@@ -72,6 +76,7 @@ public final class HotspotState {
 
     public void setCapacityNow(int capacityNow) {
         this.capacityNow = Math.max(0, Math.min(capacityNow, capacityMax));
+        changed();
     }
 
     public double degradation() {
@@ -80,6 +85,7 @@ public final class HotspotState {
 
     public void setDegradation(double degradation) {
         this.degradation = clampDegradation(degradation);
+        changed();
     }
 
     public Long cycleStartedAtSec() {
@@ -88,6 +94,7 @@ public final class HotspotState {
 
     public void setCycleStartedAtSec(Long cycleStartedAtSec) {
         this.cycleStartedAtSec = cycleStartedAtSec;
+        changed();
     }
 
     public Long resetAtSec() {
@@ -96,6 +103,7 @@ public final class HotspotState {
 
     public void setResetAtSec(Long resetAtSec) {
         this.resetAtSec = resetAtSec;
+        changed();
     }
 
     public String zoneId() {
@@ -103,7 +111,10 @@ public final class HotspotState {
     }
 
     public void setZoneId(String zoneId) {
-        this.zoneId = Objects.requireNonNull(zoneId, "zoneId");
+        Objects.requireNonNull(zoneId, "zoneId");
+        uncount();
+        this.zoneId = zoneId;
+        recount();
     }
 
     public int x() {
@@ -114,6 +125,24 @@ public final class HotspotState {
         return z;
     }
 
+    private void changed() {
+        if (owner != null) {
+            owner.onHotspotChanged(this);
+        }
+    }
+
+    private void uncount() {
+        if (owner != null) {
+            owner.countHotspot(this, -1);
+        }
+    }
+
+    private void recount() {
+        if (owner != null) {
+            owner.countHotspot(this, 1);
+        }
+    }
+
     private static int clampTier(int tier) {
         return Math.max(1, Math.min(3, tier));
     }
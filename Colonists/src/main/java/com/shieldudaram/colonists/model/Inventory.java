@@ -0,0 +1,290 @@
+package com.shieldudaram.colonists.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+public final class Inventory {
+    private final ItemRegistry registry;
+    private int[] counts;
+    private int[] reserved;
+    private final Map<String, Reservation> reservations;
+    private int[] undoHandles;
+    private int[] undoQuantities;
+    private int undoSize;
+    private long modCount;
+
+    public Inventory(ItemRegistry registry) {
+        this.registry = Objects.requireNonNull(registry, "registry");
+        this.counts = new int[registry.slotCount()];
+        this.reserved = new int[counts.length];
+        this.reservations = new LinkedHashMap<>();
+        this.undoHandles = new int[16];
+        this.undoQuantities = new int[16];
+    }
+
+    public long modCount() {
+        return modCount;
+    }
+
+    public ItemRegistry registry() {
+        return registry;
+    }
+
+    public int count(int handle) {
+        return handle >= 0 && handle < counts.length ? counts[handle] : 0;
+    }
+
+    public int available(int handle) {
+        return handle >= 0 && handle < counts.length ? counts[handle] - reserved[handle] : 0;
+    }
+
+    public int total(int baseHandle) {
+        if (baseHandle < 0 || baseHandle >= counts.length) {
+            return 0;
+        }
+        int total = 0;
+        for (int slot = 0; slot < ItemRegistry.SLOTS_PER_ITEM; slot++) {
+            total += counts[baseHandle + slot];
+        }
+        return total;
+    }
+
+    public int availableAtLeast(int baseHandle, int minTier, int minQuality) {
+        if (baseHandle < 0 || baseHandle >= counts.length) {
+            return 0;
+        }
+        int total = 0;
+        for (int tier = minTier; tier <= ItemRegistry.TIERS; tier++) {
+            for (int quality = minQuality; quality <= ItemRegistry.QUALITIES; quality++) {
+                total += available(ItemRegistry.handle(baseHandle, tier, quality));
+            }
+        }
+        return total;
+    }
+
+    public void add(int handle, int quantity) {
+        if (quantity <= 0) {
+            return;
+        }
+        ensureCapacity(handle);
+        counts[handle] += quantity;
+        modCount += 1;
+    }
+
+    public void addAll(int[] handles, int[] quantities, int size) {
+        for (int index = 0; index < size; index++) {
+            add(handles[index], quantities[index]);
+        }
+    }
+
+    public boolean consume(int handle, int quantity) {
+        if (quantity <= 0) {
+            return true;
+        }
+        if (available(handle) < quantity) {
+            return false;
+        }
+        counts[handle] -= quantity;
+        modCount += 1;
+        return true;
+    }
+
+    public boolean canAfford(ItemCost cost) {
+        undoSize = 0;
+        if (!take(cost)) {
+            return false;
+        }
+        rollback();
+        return true;
+    }
+
+    public boolean canAffordAll(ItemCost[] costs, int size) {
+        undoSize = 0;
+        for (int index = 0; index < size; index++) {
+            if (!take(costs[index])) {
+                return false;
+            }
+        }
+        rollback();
+        return true;
+    }
+
+    public boolean consume(ItemCost cost) {
+        undoSize = 0;
+        if (!take(cost)) {
+            return false;
+        }
+        for (int index = 0; index < undoSize; index++) {
+            reserved[undoHandles[index]] -= undoQuantities[index];
+            counts[undoHandles[index]] -= undoQuantities[index];
+        }
+        undoSize = 0;
+        modCount += 1;
+        return true;
+    }
+
+    public boolean canAfford(List<ItemRequirement> requirements) {
+        return canAfford(registry.resolve(requirements));
+    }
+
+    public boolean consume(List<ItemRequirement> requirements) {
+        return consume(registry.resolve(requirements));
+    }
+
+    public boolean reserve(String holderId, List<ItemRequirement> requirements) {
+        return reserve(holderId, registry.resolve(requirements));
+    }
+
+    public boolean reserve(String holderId, ItemCost cost) {
+        Objects.requireNonNull(holderId, "holderId");
+        if (reservations.containsKey(holderId)) {
+            throw new IllegalStateException("Holder already has a reservation: " + holderId);
+        }
+        undoSize = 0;
+        if (!take(cost)) {
+            return false;
+        }
+        reservations.put(holderId, new Reservation(
+                Arrays.copyOf(undoHandles, undoSize),
+                Arrays.copyOf(undoQuantities, undoSize)
+        ));
+        undoSize = 0;
+        modCount += 1;
+        return true;
+    }
+
+    public boolean commit(String holderId) {
+        Reservation reservation = reservations.remove(holderId);
+        if (reservation == null) {
+            return false;
+        }
+        for (int index = 0; index < reservation.handles.length; index++) {
+            reserved[reservation.handles[index]] -= reservation.quantities[index];
+            counts[reservation.handles[index]] -= reservation.quantities[index];
+        }
+        modCount += 1;
+        return true;
+    }
+
+    public boolean release(String holderId) {
+        Reservation reservation = reservations.remove(holderId);
+        if (reservation == null) {
+            return false;
+        }
+        for (int index = 0; index < reservation.handles.length; index++) {
+            reserved[reservation.handles[index]] -= reservation.quantities[index];
+        }
+        modCount += 1;
+        return true;
+    }
+
+    public boolean hasReservation(String holderId) {
+        return reservations.containsKey(holderId);
+    }
+
+    public Map<String, List<ItemStack>> reservations() {
+        Map<String, List<ItemStack>> view = new LinkedHashMap<>();
+        for (Map.Entry<String, Reservation> entry : reservations.entrySet()) {
+            Reservation reservation = entry.getValue();
+            List<ItemStack> stacks = new ArrayList<>(reservation.handles.length);
+            for (int index = 0; index < reservation.handles.length; index++) {
+                stacks.add(new ItemStack(registry.key(reservation.handles[index]), reservation.quantities[index]));
+            }
+            view.put(entry.getKey(), stacks);
+        }
+        return view;
+    }
+
+    public boolean restoreReservation(String holderId, List<ItemStack> stacks) {
+        int[] handles = new int[stacks.size()];
+        int[] quantities = new int[stacks.size()];
+        for (int index = 0; index < stacks.size(); index++) {
+            handles[index] = registry.handle(stacks.get(index).key());
+            quantities[index] = stacks.get(index).qty();
+            ensureCapacity(handles[index]);
+            if (available(handles[index]) < quantities[index]) {
+                for (int undo = 0; undo < index; undo++) {
+                    reserved[handles[undo]] -= quantities[undo];
+                }
+                return false;
+            }
+            reserved[handles[index]] += quantities[index];
+        }
+        reservations.put(holderId, new Reservation(handles, quantities));
+        modCount += 1;
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+        Arrays.fill(reserved, 0);
+        reservations.clear();
+        modCount += 1;
+    }
+
+    public List<ItemStack> stacks() {
+        List<ItemStack> stacks = new ArrayList<>();
+        for (int handle = 0; handle < counts.length; handle++) {
+            if (counts[handle] > 0) {
+                stacks.add(new ItemStack(registry.key(handle), counts[handle]));
+            }
+        }
+        return stacks;
+    }
+
+    private boolean take(ItemCost cost) {
+        for (int index = 0; index < cost.bases.length; index++) {
+            int remaining = cost.quantities[index];
+            int base = cost.bases[index];
+            for (int tier = cost.minTiers[index]; tier <= ItemRegistry.TIERS && remaining > 0; tier++) {
+                for (int quality = cost.minQualities[index]; quality <= ItemRegistry.QUALITIES && remaining > 0; quality++) {
+                    int handle = ItemRegistry.handle(base, tier, quality);
+                    int free = available(handle);
+                    if (free <= 0) {
+                        continue;
+                    }
+                    int taken = Math.min(free, remaining);
+                    reserved[handle] += taken;
+                    remaining -= taken;
+                    recordUndo(handle, taken);
+                }
+            }
+            if (remaining > 0) {
+                rollback();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void recordUndo(int handle, int quantity) {
+        if (undoSize == undoHandles.length) {
+            undoHandles = Arrays.copyOf(undoHandles, undoSize * 2);
+            undoQuantities = Arrays.copyOf(undoQuantities, undoSize * 2);
+        }
+        undoHandles[undoSize] = handle;
+        undoQuantities[undoSize] = quantity;
+        undoSize += 1;
+    }
+
+    private void rollback() {
+        for (int index = undoSize - 1; index >= 0; index--) {
+            reserved[undoHandles[index]] -= undoQuantities[index];
+        }
+        undoSize = 0;
+    }
+
+    private void ensureCapacity(int handle) {
+        if (handle >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(handle + 1, registry.slotCount()));
+            reserved = Arrays.copyOf(reserved, counts.length);
+        }
+    }
+
+    private record Reservation(int[] handles, int[] quantities) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.shieldudaram.colonists.model;
+
+public final class ItemCost {
+    final int[] bases;
+    final int[] minTiers;
+    final int[] minQualities;
+    final int[] quantities;
+
+    ItemCost(int[] bases, int[] minTiers, int[] minQualities, int[] quantities) {
+        this.bases = bases;
+        this.minTiers = minTiers;
+        this.minQualities = minQualities;
+        this.quantities = quantities;
+    }
+
+    public int size() {
+        return bases.length;
+    }
+
+    public int baseHandle(int index) {
+        return bases[index];
+    }
+
+    public int quantity(int index) {
+        return quantities[index];
+    }
+}
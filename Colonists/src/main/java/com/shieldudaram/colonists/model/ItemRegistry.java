@@ -0,0 +1,115 @@
+package com.shieldudaram.colonists.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+public final class ItemRegistry {
+    public static final int TIERS = 3;
+    public static final int QUALITIES = 5;
+    public static final int SLOTS_PER_ITEM = TIERS * QUALITIES;
+
+    private final Map<String, Integer> baseById;
+    private final List<String> ids;
+    private final int[] familyBase;
+
+    public ItemRegistry(Collection<String> itemIds) {
+        this.baseById = new HashMap<>();
+        this.ids = new ArrayList<>();
+        this.familyBase = new int[HotspotFamily.values().length];
+        for (HotspotFamily family : HotspotFamily.values()) {
+            familyBase[family.ordinal()] = register(family.name().toLowerCase(Locale.ROOT));
+        }
+        for (String itemId : itemIds) {
+            register(itemId);
+        }
+    }
+
+    private ItemRegistry(ItemRegistry source) {
+        this.baseById = new HashMap<>(source.baseById);
+        this.ids = new ArrayList<>(source.ids);
+        this.familyBase = source.familyBase.clone();
+    }
+
+    public static ItemRegistry defaults() {
+        return new ItemRegistry(List.of("planks", "stone_block", "herb_pack"));
+    }
+
+    public ItemRegistry copy() {
+        return new ItemRegistry(this);
+    }
+
+    public int register(String itemId) {
+        Objects.requireNonNull(itemId, "itemId");
+        if (itemId.isBlank()) {
+            throw new IllegalArgumentException("itemId must not be blank");
+        }
+        Integer existing = baseById.get(itemId);
+        if (existing != null) {
+            return existing;
+        }
+        int base = ids.size() * SLOTS_PER_ITEM;
+        ids.add(itemId);
+        baseById.put(itemId, base);
+        return base;
+    }
+
+    public int itemCount() {
+        return ids.size();
+    }
+
+    public int slotCount() {
+        return ids.size() * SLOTS_PER_ITEM;
+    }
+
+    public List<String> ids() {
+        return Collections.unmodifiableList(ids);
+    }
+
+    public int baseHandle(String itemId) {
+        Integer base = baseById.get(itemId);
+        return base == null ? -1 : base;
+    }
+
+    public int familyHandle(HotspotFamily family) {
+        return familyBase[family.ordinal()];
+    }
+
+    public int handle(ItemKey key) {
+        return handle(register(key.id()), key.tier(), key.quality());
+    }
+
+    public static int handle(int baseHandle, int tier, int quality) {
+        return baseHandle + ((tier - 1) * QUALITIES) + (quality - 1);
+    }
+
+    public String id(int handle) {
+        return ids.get(handle / SLOTS_PER_ITEM);
+    }
+
+    public ItemKey key(int handle) {
+        int slot = handle % SLOTS_PER_ITEM;
+        return new ItemKey(id(handle), (slot / QUALITIES) + 1, (slot % QUALITIES) + 1);
+    }
+
+    public ItemCost resolve(List<ItemRequirement> requirements) {
+        int size = requirements.size();
+        int[] bases = new int[size];
+        int[] minTiers = new int[size];
+        int[] minQualities = new int[size];
+        int[] quantities = new int[size];
+        for (int index = 0; index < size; index++) {
+            ItemRequirement requirement = requirements.get(index);
+            bases[index] = register(requirement.id());
+            minTiers[index] = requirement.minTier();
+            minQualities[index] = requirement.minQuality();
+            quantities[index] = requirement.qty();
+        }
+        return new ItemCost(bases, minTiers, minQualities, quantities);
+    }
+}
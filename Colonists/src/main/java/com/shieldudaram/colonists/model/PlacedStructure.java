@@ -11,6 +11,7 @@ public final class PlacedStructure {
     private boolean complete;
     private final long startedAtSec;
     private final long completesAtSec;
+    ColonyState owner;
 
     public PlacedStructure(
             String id,
@@ -57,7 +58,13 @@ public final class PlacedStructure {
     }
 
     public void setComplete(boolean complete) {
+        if (owner != null) {
+            owner.countStructure(this, -1);
+        }
         this.complete = complete;
+        if (owner != null) {
+            owner.countStructure(this, 1);
+        }
     }
 
     public long startedAtSec() {
@@ -1,6 +1,8 @@
 package com.shieldudaram.colonists.model;
 
 public final class RaidState {
+    public static final String TIMER_ID = "raid";
+
     private long nextRaidAtSec;
     private int threatScore;
     private int activeEnemies;
@@ -0,0 +1,163 @@
+package com.shieldudaram.colonists.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+public final class SpatialGrid<T> {
+    private final int cellSize;
+    private final ToIntFunction<T> xOf;
+    private final ToIntFunction<T> zOf;
+    private final Map<Long, List<T>> cells;
+    private int size;
+
+    public SpatialGrid(int cellSize, ToIntFunction<T> xOf, ToIntFunction<T> zOf) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("cellSize must be positive");
+        }
+        this.cellSize = cellSize;
+        this.xOf = Objects.requireNonNull(xOf, "xOf");
+        this.zOf = Objects.requireNonNull(zOf, "zOf");
+        this.cells = new HashMap<>();
+    }
+
+    public int cellSize() {
+        return cellSize;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    void add(T item) {
+        long key = key(cell(xOf.applyAsInt(item)), cell(zOf.applyAsInt(item)));
+        cells.computeIfAbsent(key, ignored -> new ArrayList<>(2)).add(item);
+        size += 1;
+    }
+
+    boolean remove(T item) {
+        long key = key(cell(xOf.applyAsInt(item)), cell(zOf.applyAsInt(item)));
+        List<T> bucket = cells.get(key);
+        if (bucket == null || !bucket.remove(item)) {
+            return false;
+        }
+        if (bucket.isEmpty()) {
+            cells.remove(key);
+        }
+        size -= 1;
+        return true;
+    }
+
+    void clear() {
+        cells.clear();
+        size = 0;
+    }
+
+    public T firstWithin(int x, int z, int radius, Predicate<? super T> filter) {
+        long radiusSquared = (long) radius * radius;
+        int minCx = cell(x - radius);
+        int maxCx = cell(x + radius);
+        int minCz = cell(z - radius);
+        int maxCz = cell(z + radius);
+        for (int cx = minCx; cx <= maxCx; cx++) {
+            for (int cz = minCz; cz <= maxCz; cz++) {
+                List<T> bucket = cells.get(key(cx, cz));
+                if (bucket == null) {
+                    continue;
+                }
+                for (T item : bucket) {
+                    if (distanceSquared(item, x, z) < radiusSquared && filter.test(item)) {
+                        return item;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    public List<T> nearest(int x, int z, int limit, Predicate<? super T> filter) {
+        List<T> found = new ArrayList<>(Math.max(0, limit));
+        if (limit <= 0 || size == 0) {
+            return found;
+        }
+        long[] distances = new long[limit];
+        int originCx = cell(x);
+        int originCz = cell(z);
+        long visitedCells = 0L;
+        for (int ring = 0; ; ring++) {
+            if (found.size() == limit) {
+                long reach = (long) Math.max(0, ring - 1) * cellSize;
+                if (reach * reach > distances[limit - 1]) {
+                    return found;
+                }
+            }
+            long ringCells = ring == 0 ? 1L : 8L * ring;
+            if (visitedCells + ringCells > cells.size()) {
+                return nearestByScan(x, z, limit, filter);
+            }
+            visitedCells += ringCells;
+            for (int cx = originCx - ring; cx <= originCx + ring; cx++) {
+                boolean edgeColumn = cx == originCx - ring || cx == originCx + ring;
+                int step = edgeColumn ? 1 : Math.max(1, 2 * ring);
+                for (int cz = originCz - ring; cz <= originCz + ring; cz += step) {
+                    List<T> bucket = cells.get(key(cx, cz));
+                    if (bucket != null) {
+                        for (T item : bucket) {
+                            if (filter.test(item)) {
+                                offer(found, distances, limit, item, distanceSquared(item, x, z));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public long distanceSquared(T item, int x, int z) {
+        long dx = (long) xOf.applyAsInt(item) - x;
+        long dz = (long) zOf.applyAsInt(item) - z;
+        return dx * dx + dz * dz;
+    }
+
+    private List<T> nearestByScan(int x, int z, int limit, Predicate<? super T> filter) {
+        List<T> found = new ArrayList<>(limit);
+        long[] distances = new long[limit];
+        for (List<T> bucket : cells.values()) {
+            for (T item : bucket) {
+                if (filter.test(item)) {
+                    offer(found, distances, limit, item, distanceSquared(item, x, z));
+                }
+            }
+        }
+        return found;
+    }
+
+    private static <T> void offer(List<T> found, long[] distances, int limit, T item, long distance) {
+        int count = found.size();
+        if (count == limit && distance >= distances[limit - 1]) {
+            return;
+        }
+        int index = count == limit ? limit - 1 : count;
+        if (count == limit) {
+            found.remove(limit - 1);
+        }
+        while (index > 0 && distances[index - 1] > distance) {
+            distances[index] = distances[index - 1];
+            index -= 1;
+        }
+        distances[index] = distance;
+        found.add(index, item);
+    }
+
+    private int cell(int coordinate) {
+        return Math.floorDiv(coordinate, cellSize);
+    }
+
+    static long key(int cx, int cz) {
+        return ((long) cx << 32) | (cz & 0xffffffffL);
+    }
+}
@@ -0,0 +1,114 @@
+package com.shieldudaram.colonists.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class SpatialIndex {
+    private static final int MAX_ZONE_CELLS = 256;
+
+    private final int cellSize;
+    private final SpatialGrid<HotspotState> hotspots;
+    private final SpatialGrid<PlacedStructure> structures;
+    private final Map<Long, List<ColonyZone>> zoneCells;
+    private final List<ColonyZone> largeZones;
+    private long nextZoneSequence;
+
+    SpatialIndex(int cellSize) {
+        this.cellSize = cellSize;
+        this.hotspots = new SpatialGrid<>(cellSize, HotspotState::x, HotspotState::z);
+        this.structures = new SpatialGrid<>(cellSize, PlacedStructure::x, PlacedStructure::z);
+        this.zoneCells = new HashMap<>();
+        this.largeZones = new ArrayList<>();
+    }
+
+    public int cellSize() {
+        return cellSize;
+    }
+
+    public SpatialGrid<HotspotState> hotspots() {
+        return hotspots;
+    }
+
+    public SpatialGrid<PlacedStructure> structures() {
+        return structures;
+    }
+
+    public HotspotState hotspotWithin(int x, int z, int radius) {
+        return hotspots.firstWithin(x, z, radius, hotspot -> true);
+    }
+
+    public HotspotState nearestHotspot(int x, int z, HotspotFamily family) {
+        List<HotspotState> nearest = hotspots.nearest(x, z, 1, hotspot -> hotspot.family() == family);
+        return nearest.isEmpty() ? null : nearest.get(0);
+    }
+
+    public List<PlacedStructure> nearestStructures(int x, int z, int limit) {
+        return structures.nearest(x, z, limit, structure -> true);
+    }
+
+    public ColonyZone zoneAt(int x, int z, ZoneType type) {
+        ColonyZone best = null;
+        List<ColonyZone> bucket = zoneCells.get(SpatialGrid.key(cell(x), cell(z)));
+        if (bucket != null) {
+            best = earliestContaining(bucket, x, z, type, null);
+        }
+        return earliestContaining(largeZones, x, z, type, best);
+    }
+
+    void addZone(ColonyZone zone) {
+        zone.spatialSequence = nextZoneSequence++;
+        if (zoneCellCount(zone) > MAX_ZONE_CELLS) {
+            largeZones.add(zone);
+            return;
+        }
+        for (int cx = cell(zone.minX()); cx <= cell(zone.maxX()); cx++) {
+            for (int cz = cell(zone.minZ()); cz <= cell(zone.maxZ()); cz++) {
+                zoneCells.computeIfAbsent(SpatialGrid.key(cx, cz), ignored -> new ArrayList<>(1)).add(zone);
+            }
+        }
+    }
+
+    void removeZone(ColonyZone zone) {
+        if (zoneCellCount(zone) > MAX_ZONE_CELLS) {
+            largeZones.remove(zone);
+            return;
+        }
+        for (int cx = cell(zone.minX()); cx <= cell(zone.maxX()); cx++) {
+            for (int cz = cell(zone.minZ()); cz <= cell(zone.maxZ()); cz++) {
+                long key = SpatialGrid.key(cx, cz);
+                List<ColonyZone> bucket = zoneCells.get(key);
+                if (bucket != null && bucket.remove(zone) && bucket.isEmpty()) {
+                    zoneCells.remove(key);
+                }
+            }
+        }
+    }
+
+    void clearZones() {
+        zoneCells.clear();
+        largeZones.clear();
+        nextZoneSequence = 0L;
+    }
+
+    private long zoneCellCount(ColonyZone zone) {
+        long width = (long) cell(zone.maxX()) - cell(zone.minX()) + 1;
+        long depth = (long) cell(zone.maxZ()) - cell(zone.minZ()) + 1;
+        return width * depth;
+    }
+
+    private int cell(int coordinate) {
+        return Math.floorDiv(coordinate, cellSize);
+    }
+
+    private static ColonyZone earliestContaining(List<ColonyZone> zones, int x, int z, ZoneType type, ColonyZone best) {
+        for (ColonyZone zone : zones) {
+            if (zone.type() == type && zone.contains(x, z)
+                    && (best == null || zone.spatialSequence < best.spatialSequence)) {
+                best = zone;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,105 @@
+package com.shieldudaram.colonists.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+public final class TaskArchive {
+    private ArchivedTask[] recent;
+    private int head;
+    private int size;
+    private final long[] completedByType;
+    private final long[] failedByType;
+    private long archivedCount;
+
+    public TaskArchive(int capacity) {
+        this.recent = new ArchivedTask[Math.max(1, capacity)];
+        this.completedByType = new long[TaskType.values().length];
+        this.failedByType = new long[TaskType.values().length];
+    }
+
+    public int capacity() {
+        return recent.length;
+    }
+
+    public void setCapacity(int capacity) {
+        List<ArchivedTask> kept = recent();
+        recent = new ArchivedTask[Math.max(1, capacity)];
+        head = 0;
+        size = 0;
+        int skip = Math.max(0, kept.size() - recent.length);
+        for (int index = skip; index < kept.size(); index++) {
+            push(kept.get(index));
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public List<ArchivedTask> recent() {
+        List<ArchivedTask> ordered = new ArrayList<>(size);
+        int start = Math.floorMod(head - size, recent.length);
+        for (int offset = 0; offset < size; offset++) {
+            ordered.add(recent[(start + offset) % recent.length]);
+        }
+        return ordered;
+    }
+
+    public long archivedCount() {
+        return archivedCount;
+    }
+
+    public long completedCount(TaskType type) {
+        return completedByType[type.ordinal()];
+    }
+
+    public long failedCount(TaskType type) {
+        return failedByType[type.ordinal()];
+    }
+
+    public void restoreCounts(TaskType type, long completed, long failed) {
+        completedByType[type.ordinal()] = Math.max(0L, completed);
+        failedByType[type.ordinal()] = Math.max(0L, failed);
+    }
+
+    public void restoreRecent(ArchivedTask task) {
+        push(task);
+    }
+
+    public void clear() {
+        for (int index = 0; index < recent.length; index++) {
+            recent[index] = null;
+        }
+        head = 0;
+        size = 0;
+        for (int index = 0; index < completedByType.length; index++) {
+            completedByType[index] = 0L;
+            failedByType[index] = 0L;
+        }
+    }
+
+    void archive(ColonyTask task, long closedAtSec) {
+        if (task.status() == TaskStatus.DONE) {
+            completedByType[task.type().ordinal()] += 1;
+        } else {
+            failedByType[task.type().ordinal()] += 1;
+        }
+        archivedCount += 1;
+        push(new ArchivedTask(task.id(), task.type(), task.status(), task.reservedByCitizenId(), closedAtSec));
+    }
+
+    private void push(ArchivedTask task) {
+        recent[head] = task;
+        head = (head + 1) % recent.length;
+        size = Math.min(size + 1, recent.length);
+    }
+
+    public record ArchivedTask(String id, TaskType type, TaskStatus status, String citizenId, long closedAtSec) {
+        public ArchivedTask {
+            Objects.requireNonNull(id, "id");
+            Objects.requireNonNull(type, "type");
+            Objects.requireNonNull(status, "status");
+        }
+    }
+}
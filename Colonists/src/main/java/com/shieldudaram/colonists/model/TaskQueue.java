@@ -0,0 +1,292 @@
+package com.shieldudaram.colonists.model;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+public final class TaskQueue {
+    static final int SLOT_NONE = 0;
+    static final int SLOT_REGULAR = 1;
+    static final int SLOT_EMERGENCY = 2;
+    static final int SLOT_QUARANTINED = 3;
+
+    private final Heap regular;
+    private final Heap emergency;
+    private final Heap quarantined;
+    private PolicyWeights weights;
+    private long clockSec;
+    private ColonyTask[] frontier;
+
+    TaskQueue(PolicyWeights weights) {
+        this.regular = new Heap(SLOT_REGULAR);
+        this.emergency = new Heap(SLOT_EMERGENCY);
+        this.quarantined = new Heap(SLOT_QUARANTINED);
+        this.weights = Objects.requireNonNull(weights, "weights");
+        this.frontier = new ColonyTask[8];
+    }
+
+    public ColonyTask peek() {
+        ColonyTask bestRegular = regular.peek();
+        ColonyTask bestEmergency = emergency.peek();
+        if (bestRegular == null) {
+            return bestEmergency;
+        }
+        if (bestEmergency == null) {
+            return bestRegular;
+        }
+        return ranksAbove(bestEmergency, bestRegular) ? bestEmergency : bestRegular;
+    }
+
+    public ColonyTask peekEmergency() {
+        return emergency.peek();
+    }
+
+    public int collectTop(ColonyTask[] out, int limit) {
+        int wanted = Math.min(limit, out.length);
+        if (frontier.length < wanted + 2) {
+            frontier = new ColonyTask[wanted + 2];
+        }
+        int frontierSize = 0;
+        if (regular.size > 0) {
+            frontier[frontierSize++] = regular.entries[0];
+        }
+        if (emergency.size > 0) {
+            frontier[frontierSize++] = emergency.entries[0];
+        }
+        int count = 0;
+        while (count < wanted && frontierSize > 0) {
+            int best = 0;
+            for (int index = 1; index < frontierSize; index++) {
+                if (ranksAbove(frontier[index], frontier[best])) {
+                    best = index;
+                }
+            }
+            ColonyTask task = frontier[best];
+            frontierSize -= 1;
+            frontier[best] = frontier[frontierSize];
+            frontier[frontierSize] = null;
+            out[count++] = task;
+
+            Heap heap = heapFor(task.queueSlot);
+            int child = (task.queueIndex << 1) + 1;
+            if (child < heap.size) {
+                frontier[frontierSize++] = heap.entries[child];
+            }
+            if (child + 1 < heap.size) {
+                frontier[frontierSize++] = heap.entries[child + 1];
+            }
+        }
+        for (int index = 0; index < frontierSize; index++) {
+            frontier[index] = null;
+        }
+        return count;
+    }
+
+    public int size() {
+        return regular.size + emergency.size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int quarantinedCount() {
+        return quarantined.size;
+    }
+
+    public long nextQuarantineExpiry() {
+        ColonyTask next = quarantined.peek();
+        return next == null ? Long.MAX_VALUE : next.quarantineUntilSec();
+    }
+
+    public double scoredPriority(ColonyTask task) {
+        return task.basePriority() * weights.weightFor(task.type());
+    }
+
+    public void releaseQuarantined(long nowSec) {
+        clockSec = Math.max(clockSec, nowSec);
+        ColonyTask next = quarantined.peek();
+        while (next != null && next.quarantineUntilSec() <= clockSec) {
+            quarantined.remove(next);
+            insert(next, targetSlot(next));
+            next = quarantined.peek();
+        }
+    }
+
+    void refresh(ColonyTask task) {
+        int target = targetSlot(task);
+        if (target == task.queueSlot) {
+            double key = keyFor(task, target);
+            if (target != SLOT_NONE && key != task.queueKey) {
+                heapFor(target).update(task, key);
+            }
+            return;
+        }
+        remove(task);
+        insert(task, target);
+    }
+
+    void remove(ColonyTask task) {
+        if (task.queueSlot != SLOT_NONE) {
+            heapFor(task.queueSlot).remove(task);
+        }
+    }
+
+    void rekey(PolicyWeights weights) {
+        this.weights = Objects.requireNonNull(weights, "weights");
+        regular.rebuild(this);
+        emergency.rebuild(this);
+    }
+
+    void clear() {
+        regular.clear();
+        emergency.clear();
+        quarantined.clear();
+        clockSec = 0L;
+    }
+
+    private void insert(ColonyTask task, int slot) {
+        if (slot != SLOT_NONE) {
+            heapFor(slot).add(task, keyFor(task, slot));
+        }
+    }
+
+    private int targetSlot(ColonyTask task) {
+        if (task.status() != TaskStatus.QUEUED) {
+            return SLOT_NONE;
+        }
+        if (task.quarantineUntilSec() > clockSec) {
+            return SLOT_QUARANTINED;
+        }
+        return task.emergency() ? SLOT_EMERGENCY : SLOT_REGULAR;
+    }
+
+    private double keyFor(ColonyTask task, int slot) {
+        if (slot == SLOT_QUARANTINED) {
+            return -(double) task.quarantineUntilSec();
+        }
+        return scoredPriority(task);
+    }
+
+    private Heap heapFor(int slot) {
+        return switch (slot) {
+            case SLOT_REGULAR -> regular;
+            case SLOT_EMERGENCY -> emergency;
+            case SLOT_QUARANTINED -> quarantined;
+            default -> throw new IllegalArgumentException("Unknown queue slot: " + slot);
+        };
+    }
+
+    private static boolean ranksAbove(ColonyTask left, ColonyTask right) {
+        if (left.queueKey != right.queueKey) {
+            return left.queueKey > right.queueKey;
+        }
+        return left.sequence < right.sequence;
+    }
+
+    private static final class Heap {
+        private final int slot;
+        private ColonyTask[] entries;
+        private int size;
+
+        private Heap(int slot) {
+            this.slot = slot;
+            this.entries = new ColonyTask[16];
+        }
+
+        private ColonyTask peek() {
+            return size == 0 ? null : entries[0];
+        }
+
+        private void add(ColonyTask task, double key) {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            task.queueSlot = slot;
+            task.queueKey = key;
+            place(task, size);
+            size += 1;
+            siftUp(task.queueIndex);
+        }
+
+        private void update(ColonyTask task, double key) {
+            double previous = task.queueKey;
+            task.queueKey = key;
+            if (key > previous) {
+                siftUp(task.queueIndex);
+            } else {
+                siftDown(task.queueIndex);
+            }
+        }
+
+        private void remove(ColonyTask task) {
+            int index = task.queueIndex;
+            size -= 1;
+            ColonyTask last = entries[size];
+            entries[size] = null;
+            if (index != size) {
+                place(last, index);
+                siftDown(index);
+                siftUp(last.queueIndex);
+            }
+            task.queueSlot = SLOT_NONE;
+            task.queueIndex = -1;
+        }
+
+        private void rebuild(TaskQueue owner) {
+            for (int index = 0; index < size; index++) {
+                entries[index].queueKey = owner.keyFor(entries[index], slot);
+            }
+            for (int index = (size / 2) - 1; index >= 0; index--) {
+                siftDown(index);
+            }
+        }
+
+        private void clear() {
+            for (int index = 0; index < size; index++) {
+                entries[index].queueSlot = SLOT_NONE;
+                entries[index].queueIndex = -1;
+                entries[index] = null;
+            }
+            size = 0;
+        }
+
+        private void siftUp(int index) {
+            ColonyTask task = entries[index];
+            while (index > 0) {
+                int parentIndex = (index - 1) >>> 1;
+                ColonyTask parent = entries[parentIndex];
+                if (!ranksAbove(task, parent)) {
+                    break;
+                }
+                place(parent, index);
+                index = parentIndex;
+            }
+            place(task, index);
+        }
+
+        private void siftDown(int index) {
+            ColonyTask task = entries[index];
+            int half = size >>> 1;
+            while (index < half) {
+                int childIndex = (index << 1) + 1;
+                ColonyTask child = entries[childIndex];
+                int rightIndex = childIndex + 1;
+                if (rightIndex < size && ranksAbove(entries[rightIndex], child)) {
+                    childIndex = rightIndex;
+                    child = entries[rightIndex];
+                }
+                if (!ranksAbove(child, task)) {
+                    break;
+                }
+                place(child, index);
+                index = childIndex;
+            }
+            place(task, index);
+        }
+
+        private void place(ColonyTask task, int index) {
+            entries[index] = task;
+            task.queueIndex = index;
+        }
+    }
+}
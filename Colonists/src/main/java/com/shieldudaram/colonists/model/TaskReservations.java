@@ -0,0 +1,88 @@
+package com.shieldudaram.colonists.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+public final class TaskReservations {
+    private final Map<String, ColonyTask> taskByCitizen;
+    private final Map<String, String> citizenByTask;
+
+    TaskReservations() {
+        this.taskByCitizen = new HashMap<>();
+        this.citizenByTask = new HashMap<>();
+    }
+
+    public ColonyTask activeTask(String citizenId) {
+        return taskByCitizen.get(citizenId);
+    }
+
+    public String citizenFor(String taskId) {
+        return citizenByTask.get(taskId);
+    }
+
+    public int size() {
+        return taskByCitizen.size();
+    }
+
+    public List<String> verify(Collection<ColonyTask> tasks) {
+        List<String> problems = new ArrayList<>();
+        Map<String, ColonyTask> expected = new HashMap<>();
+        for (ColonyTask task : tasks) {
+            if (!isActive(task)) {
+                if (citizenByTask.containsKey(task.id())) {
+                    problems.add("inactive task still indexed: " + task.id());
+                }
+                continue;
+            }
+            ColonyTask previous = expected.put(task.reservedByCitizenId(), task);
+            if (previous != null) {
+                problems.add("citizen " + task.reservedByCitizenId() + " holds " + previous.id() + " and " + task.id());
+            }
+            if (!task.reservedByCitizenId().equals(citizenByTask.get(task.id()))) {
+                problems.add("task " + task.id() + " missing from task index");
+            }
+        }
+        for (Map.Entry<String, ColonyTask> entry : taskByCitizen.entrySet()) {
+            if (expected.get(entry.getKey()) != entry.getValue()) {
+                problems.add("citizen " + entry.getKey() + " indexed to stale task " + entry.getValue().id());
+            }
+        }
+        if (citizenByTask.size() != taskByCitizen.size()) {
+            problems.add("index sizes differ: tasks=" + citizenByTask.size() + " citizens=" + taskByCitizen.size());
+        }
+        return problems;
+    }
+
+    void refresh(ColonyTask task) {
+        String previous = citizenByTask.get(task.id());
+        String target = isActive(task) ? task.reservedByCitizenId() : null;
+        if (Objects.equals(previous, target)) {
+            return;
+        }
+        if (previous != null) {
+            citizenByTask.remove(task.id());
+            taskByCitizen.remove(previous, task);
+        }
+        if (target != null) {
+            ColonyTask displaced = taskByCitizen.put(target, task);
+            if (displaced != null) {
+                citizenByTask.remove(displaced.id());
+            }
+            citizenByTask.put(task.id(), target);
+        }
+    }
+
+    void clear() {
+        taskByCitizen.clear();
+        citizenByTask.clear();
+    }
+
+    private static boolean isActive(ColonyTask task) {
+        return task.reservedByCitizenId() != null
+                && (task.status() == TaskStatus.RESERVED || task.status() == TaskStatus.RUNNING);
+    }
+}
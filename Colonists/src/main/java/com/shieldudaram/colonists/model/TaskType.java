@@ -7,5 +7,15 @@ public enum TaskType {
     HAUL,
     DEFEND,
     REPAIR,
-    EMERGENCY
+    EMERGENCY;
+
+    public Role role() {
+        return switch (this) {
+            case BUILD, REPAIR -> Role.BUILDER;
+            case FARM -> Role.FARMER;
+            case GATHER -> Role.GATHERER;
+            case HAUL -> Role.HAULER;
+            case DEFEND, EMERGENCY -> Role.GUARD;
+        };
+    }
 }
@@ -0,0 +1,7 @@
+package com.shieldudaram.colonists.model;
+
+public enum TimerKind {
+    HOTSPOT_RESET,
+    RAID,
+    PREEMPT_UNLOCK
+}
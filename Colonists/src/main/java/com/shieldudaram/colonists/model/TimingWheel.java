@@ -0,0 +1,199 @@
+package com.shieldudaram.colonists.model;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+public final class TimingWheel {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_STEP_SECONDS = (long) SLOTS * SLOTS;
+
+    private final Entry[][] wheels;
+    private final EnumMap<TimerKind, Map<String, Long>> deadlines;
+    private final EnumMap<TimerKind, ArrayDeque<String>> due;
+    private Entry overflow;
+    private long currentSec;
+
+    public TimingWheel(long nowSec) {
+        this.wheels = new Entry[LEVELS][SLOTS];
+        this.deadlines = new EnumMap<>(TimerKind.class);
+        this.due = new EnumMap<>(TimerKind.class);
+        for (TimerKind kind : TimerKind.values()) {
+            deadlines.put(kind, new HashMap<>());
+            due.put(kind, new ArrayDeque<>());
+        }
+        this.currentSec = Math.max(0L, nowSec);
+    }
+
+    public long currentSec() {
+        return currentSec;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Map<String, Long> byId : deadlines.values()) {
+            size += byId.size();
+        }
+        return size;
+    }
+
+    public Long deadline(TimerKind kind, String id) {
+        return deadlines.get(kind).get(id);
+    }
+
+    public void schedule(TimerKind kind, String id, long dueSec) {
+        Objects.requireNonNull(kind, "kind");
+        Objects.requireNonNull(id, "id");
+        deadlines.get(kind).put(id, dueSec);
+        place(new Entry(kind, id, dueSec));
+    }
+
+    public void cancel(TimerKind kind, String id) {
+        deadlines.get(kind).remove(id);
+    }
+
+    public long nextDeadline() {
+        for (ArrayDeque<String> ids : due.values()) {
+            if (!ids.isEmpty()) {
+                return currentSec;
+            }
+        }
+        long next = Long.MAX_VALUE;
+        for (Map<String, Long> byId : deadlines.values()) {
+            for (long deadline : byId.values()) {
+                next = Math.min(next, deadline);
+            }
+        }
+        return next;
+    }
+
+    public String pollDue(TimerKind kind) {
+        return due.get(kind).pollFirst();
+    }
+
+    public void advanceTo(long nowSec) {
+        if (nowSec <= currentSec) {
+            return;
+        }
+        if (nowSec - currentSec > MAX_STEP_SECONDS) {
+            reindex(nowSec);
+            return;
+        }
+        while (currentSec < nowSec) {
+            currentSec += 1;
+            int top = 0;
+            while (top < LEVELS && (currentSec & ((1L << (SLOT_BITS * (top + 1))) - 1)) == 0) {
+                top += 1;
+            }
+            if (top == LEVELS) {
+                Entry pending = overflow;
+                overflow = null;
+                placeAll(pending);
+                top = LEVELS - 1;
+            }
+            for (int level = top; level >= 1; level--) {
+                int slot = slotFor(currentSec, level);
+                Entry pending = wheels[level][slot];
+                wheels[level][slot] = null;
+                placeAll(pending);
+            }
+            int slot = slotFor(currentSec, 0);
+            Entry expired = wheels[0][slot];
+            wheels[0][slot] = null;
+            placeAll(expired);
+        }
+    }
+
+    public void reset(long nowSec) {
+        for (Entry[] level : wheels) {
+            Arrays.fill(level, null);
+        }
+        overflow = null;
+        for (TimerKind kind : TimerKind.values()) {
+            deadlines.get(kind).clear();
+            due.get(kind).clear();
+        }
+        currentSec = Math.max(0L, nowSec);
+    }
+
+    private void reindex(long nowSec) {
+        Entry pending = overflow;
+        overflow = null;
+        for (Entry[] level : wheels) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                Entry entry = level[slot];
+                level[slot] = null;
+                while (entry != null) {
+                    Entry next = entry.next;
+                    entry.next = pending;
+                    pending = entry;
+                    entry = next;
+                }
+            }
+        }
+        currentSec = nowSec;
+        placeAll(pending);
+    }
+
+    private void placeAll(Entry entry) {
+        while (entry != null) {
+            Entry next = entry.next;
+            entry.next = null;
+            place(entry);
+            entry = next;
+        }
+    }
+
+    private void place(Entry entry) {
+        long delta = entry.dueSec - currentSec;
+        if (delta <= 0) {
+            expire(entry);
+            return;
+        }
+        int level = 0;
+        while (level < LEVELS && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level += 1;
+        }
+        if (level == LEVELS) {
+            entry.next = overflow;
+            overflow = entry;
+            return;
+        }
+        int slot = slotFor(entry.dueSec, level);
+        entry.next = wheels[level][slot];
+        wheels[level][slot] = entry;
+    }
+
+    private void expire(Entry entry) {
+        Map<String, Long> byId = deadlines.get(entry.kind);
+        Long deadline = byId.get(entry.id);
+        if (deadline == null || deadline != entry.dueSec) {
+            return;
+        }
+        byId.remove(entry.id);
+        due.get(entry.kind).addLast(entry.id);
+    }
+
+    private static int slotFor(long sec, int level) {
+        return (int) ((sec >>> (SLOT_BITS * level)) & SLOT_MASK);
+    }
+
+    private static final class Entry {
+        private final TimerKind kind;
+        private final String id;
+        private final long dueSec;
+        private Entry next;
+
+        private Entry(TimerKind kind, String id, long dueSec) {
+            this.kind = kind;
+            this.id = id;
+            this.dueSec = dueSec;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.shieldudaram.colonists.save;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+public final class AsyncSaveWriter implements AutoCloseable {
+    private final ColonySaveService saveService;
+    private final Path saveDir;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final Object lock = new Object();
+    private final List<ColonyJournalEntry> journal = new ArrayList<>();
+    private final Consumer<RuntimeException> failureListener;
+
+    private ColonySaveV1 pending;
+    private boolean draining;
+    private boolean closed;
+    private boolean needsSnapshot;
+    private long submitted;
+    private long completed;
+    private long written;
+    private long coalesced;
+    private long journalRecords;
+    private long journalBytes;
+    private long failures;
+    private RuntimeException lastFailure;
+
+    public AsyncSaveWriter(ColonySaveService saveService, Path saveDir) {
+        this(saveService, saveDir, failure -> {
+        });
+    }
+
+    public AsyncSaveWriter(ColonySaveService saveService, Path saveDir, Consumer<RuntimeException> failureListener) {
+        this(saveService, saveDir, failureListener, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "colonists-save");
+            thread.setDaemon(true);
+            return thread;
+        }), true);
+    }
+
+    public AsyncSaveWriter(
+            ColonySaveService saveService,
+            Path saveDir,
+            Consumer<RuntimeException> failureListener,
+            Executor executor
+    ) {
+        this(saveService, saveDir, failureListener, executor, false);
+    }
+
+    private AsyncSaveWriter(
+            ColonySaveService saveService,
+            Path saveDir,
+            Consumer<RuntimeException> failureListener,
+            Executor executor,
+            boolean ownsExecutor
+    ) {
+        this.saveService = Objects.requireNonNull(saveService, "saveService");
+        this.saveDir = Objects.requireNonNull(saveDir, "saveDir");
+        this.failureListener = Objects.requireNonNull(failureListener, "failureListener");
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.ownedExecutor = ownsExecutor ? (ExecutorService) executor : null;
+    }
+
+    public void submit(ColonySaveV1 snapshot) {
+        Objects.requireNonNull(snapshot, "snapshot");
+        synchronized (lock) {
+            requireOpen();
+            if (pending != null) {
+                coalesced += 1;
+            }
+            pending = snapshot;
+            needsSnapshot = false;
+            journalBytes = 0L;
+            submitted += 1;
+            startDrain();
+        }
+    }
+
+    public void submitJournal(ColonyJournalEntry entry) {
+        Objects.requireNonNull(entry, "entry");
+        synchronized (lock) {
+            requireOpen();
+            journal.add(entry);
+            submitted += 1;
+            startDrain();
+        }
+    }
+
+    public void flush() {
+        synchronized (lock) {
+            long target = submitted;
+            while (completed < target) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while flushing colony save", exception);
+                }
+            }
+            RuntimeException failure = lastFailure;
+            lastFailure = null;
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    public boolean inFlight() {
+        synchronized (lock) {
+            return draining;
+        }
+    }
+
+    public boolean needsSnapshot() {
+        synchronized (lock) {
+            return needsSnapshot;
+        }
+    }
+
+    public long journalBytes() {
+        synchronized (lock) {
+            return journalBytes;
+        }
+    }
+
+    public long submittedCount() {
+        synchronized (lock) {
+            return submitted;
+        }
+    }
+
+    public long writtenCount() {
+        synchronized (lock) {
+            return written;
+        }
+    }
+
+    public long coalescedCount() {
+        synchronized (lock) {
+            return coalesced;
+        }
+    }
+
+    public long journalRecordCount() {
+        synchronized (lock) {
+            return journalRecords;
+        }
+    }
+
+    public long failureCount() {
+        synchronized (lock) {
+            return failures;
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+        }
+        try {
+            flush();
+        } finally {
+            synchronized (lock) {
+                closed = true;
+            }
+            if (ownedExecutor != null) {
+                ownedExecutor.shutdown();
+            }
+        }
+    }
+
+    private void requireOpen() {
+        if (closed) {
+            throw new IllegalStateException("Save writer is closed");
+        }
+    }
+
+    private void startDrain() {
+        if (draining) {
+            return;
+        }
+        draining = true;
+        executor.execute(this::drain);
+    }
+
+    private void drain() {
+        ColonySaveV1 snapshot;
+        List<ColonyJournalEntry> entries;
+        long covered;
+        synchronized (lock) {
+            snapshot = pending;
+            pending = null;
+            entries = new ArrayList<>(journal);
+            journal.clear();
+            covered = submitted;
+        }
+        while (snapshot != null || !entries.isEmpty()) {
+            if (snapshot != null) {
+                long base = snapshot.journalSequence;
+                entries.removeIf(entry -> entry.sequence <= base);
+            }
+            RuntimeException failure = null;
+            boolean snapshotWritten = false;
+            long appendedBytes = -1L;
+            try {
+                if (snapshot != null) {
+                    saveService.write(snapshot, saveDir);
+                    snapshotWritten = true;
+                }
+                if (!entries.isEmpty()) {
+                    appendedBytes = saveService.appendJournal(entries, saveDir);
+                }
+            } catch (RuntimeException exception) {
+                failure = exception;
+                reportFailure(exception);
+            }
+            synchronized (lock) {
+                completed = covered;
+                if (snapshotWritten) {
+                    written += 1;
+                }
+                if (appendedBytes >= 0L) {
+                    journalRecords += entries.size();
+                    journalBytes = appendedBytes;
+                }
+                if (failure != null) {
+                    lastFailure = failure;
+                    needsSnapshot = true;
+                    failures += 1;
+                }
+                snapshot = pending;
+                pending = null;
+                entries = new ArrayList<>(journal);
+                journal.clear();
+                covered = submitted;
+                if (snapshot == null && entries.isEmpty()) {
+                    draining = false;
+                }
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private void reportFailure(RuntimeException failure) {
+        try {
+            failureListener.accept(failure);
+        } catch (RuntimeException ignored) {
+        }
+    }
+}
@@ -0,0 +1,596 @@
+package com.shieldudaram.colonists.save;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+final class BinarySaveCodec {
+    static final byte[] MAGIC = {'C', 'S', 'A', 'V'};
+    static final int FORMAT_VERSION = 4;
+    private static final int LEGACY_STOCK_FIELDS = 6;
+    private static final int HEADER_BYTES = MAGIC.length + 4 + 4 + 4;
+
+    private BinarySaveCodec() {
+    }
+
+    static boolean matches(byte[] bytes) {
+        if (bytes.length < MAGIC.length) {
+            return false;
+        }
+        for (int index = 0; index < MAGIC.length; index++) {
+            if (bytes[index] != MAGIC[index]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static byte[] encode(ColonySaveV1 save) throws IOException {
+        Writer writer = new Writer();
+        writer.save(save);
+        byte[] strings = writer.stringTable();
+        byte[] body = writer.body.toByteArray();
+
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(strings.length + body.length);
+        payload.write(strings);
+        payload.write(body);
+        byte[] payloadBytes = payload.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payloadBytes);
+
+        ByteArrayOutputStream file = new ByteArrayOutputStream(HEADER_BYTES + payloadBytes.length);
+        DataOutputStream out = new DataOutputStream(file);
+        out.write(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(payloadBytes.length);
+        out.writeInt((int) crc.getValue());
+        out.write(payloadBytes);
+        out.flush();
+        return file.toByteArray();
+    }
+
+    static ColonySaveV1 decode(byte[] bytes) throws IOException {
+        if (!matches(bytes) || bytes.length < HEADER_BYTES) {
+            throw new IOException("Not a binary colony save");
+        }
+        DataInputStream header = new DataInputStream(new ByteArrayInputStream(bytes, MAGIC.length, HEADER_BYTES - MAGIC.length));
+        int version = header.readInt();
+        if (version < 1 || version > FORMAT_VERSION) {
+            throw new IOException("Unsupported binary save version: " + version);
+        }
+        int length = header.readInt();
+        int expectedCrc = header.readInt();
+        if (length < 0 || length != bytes.length - HEADER_BYTES) {
+            throw new IOException("Binary save length mismatch: header " + length + ", actual " + (bytes.length - HEADER_BYTES));
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes, HEADER_BYTES, length);
+        if ((int) crc.getValue() != expectedCrc) {
+            throw new IOException("Binary save checksum mismatch");
+        }
+        Reader reader = new Reader(new DataInputStream(new ByteArrayInputStream(bytes, HEADER_BYTES, length)), version);
+        return reader.save();
+    }
+
+    private static final class Writer {
+        private final Map<String, Integer> stringIds = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(1 << 16);
+        private final DataOutputStream out = new DataOutputStream(body);
+
+        private byte[] stringTable() throws IOException {
+            ByteArrayOutputStream table = new ByteArrayOutputStream();
+            DataOutputStream tableOut = new DataOutputStream(table);
+            writeVarInt(tableOut, strings.size());
+            for (String value : strings) {
+                tableOut.writeUTF(value);
+            }
+            tableOut.flush();
+            return table.toByteArray();
+        }
+
+        private void save(ColonySaveV1 save) throws IOException {
+            writeVarInt(out, save.schemaVersion);
+            writeVarLong(out, save.worldTimeSec);
+            colony(save.colony);
+            writeVarInt(out, save.citizens == null ? 0 : save.citizens.size());
+            if (save.citizens != null) {
+                for (ColonySaveV1.CitizenEnvelope citizen : save.citizens) {
+                    citizen(citizen);
+                }
+            }
+            writeVarInt(out, save.hotspots == null ? 0 : save.hotspots.size());
+            if (save.hotspots != null) {
+                for (ColonySaveV1.HotspotEnvelope hotspot : save.hotspots) {
+                    hotspot(hotspot);
+                }
+            }
+            writeVarInt(out, save.tasks == null ? 0 : save.tasks.size());
+            if (save.tasks != null) {
+                for (ColonySaveV1.TaskEnvelope task : save.tasks) {
+                    task(task);
+                }
+            }
+            raid(save.raid);
+            insurance(save.insurance);
+            archive(save.archive);
+            writeVarLong(out, save.journalSequence);
+            out.writeBoolean(save.zones != null);
+            if (save.zones != null) {
+                writeVarInt(out, save.zones.size());
+                for (ColonySaveV1.ZoneEnvelope zone : save.zones) {
+                    zone(zone);
+                }
+            }
+            out.writeBoolean(save.structures != null);
+            if (save.structures != null) {
+                writeVarInt(out, save.structures.size());
+                for (ColonySaveV1.StructureEnvelope structure : save.structures) {
+                    structure(structure);
+                }
+            }
+            out.flush();
+        }
+
+        private void colony(ColonySaveV1.ColonyEnvelope colony) throws IOException {
+            out.writeBoolean(colony != null);
+            if (colony == null) {
+                return;
+            }
+            writeVarInt(out, colony.populationCap);
+            string(colony.activePolicy);
+            out.writeBoolean(colony.stock != null);
+            if (colony.stock != null) {
+                stacks(colony.stock);
+            }
+            out.writeBoolean(colony.reservations != null);
+            if (colony.reservations != null) {
+                writeVarInt(out, colony.reservations.size());
+                for (Map.Entry<String, List<ColonySaveV1.StockEnvelope>> entry : colony.reservations.entrySet()) {
+                    string(entry.getKey());
+                    stacks(entry.getValue());
+                }
+            }
+        }
+
+        private void stacks(List<ColonySaveV1.StockEnvelope> stacks) throws IOException {
+            writeVarInt(out, stacks.size());
+            for (ColonySaveV1.StockEnvelope stack : stacks) {
+                string(stack.id);
+                writeVarInt(out, stack.tier);
+                writeVarInt(out, stack.quality);
+                writeVarInt(out, stack.qty);
+            }
+        }
+
+        private void citizen(ColonySaveV1.CitizenEnvelope citizen) throws IOException {
+            string(citizen.id);
+            string(citizen.primaryRole);
+            writeVarInt(out, citizen.skills == null ? 0 : citizen.skills.size());
+            if (citizen.skills != null) {
+                for (Map.Entry<String, Integer> entry : citizen.skills.entrySet()) {
+                    string(entry.getKey());
+                    writeVarInt(out, entry.getValue());
+                }
+            }
+            out.writeDouble(citizen.food);
+            out.writeDouble(citizen.rest);
+            out.writeDouble(citizen.safety);
+            writeVarLong(out, citizen.preemptLockUntilSec);
+        }
+
+        private void hotspot(ColonySaveV1.HotspotEnvelope hotspot) throws IOException {
+            string(hotspot.id);
+            string(hotspot.family);
+            writeVarInt(out, hotspot.tier);
+            writeVarInt(out, hotspot.capacityMax);
+            writeVarInt(out, hotspot.capacityNow);
+            out.writeDouble(hotspot.degradation);
+            optionalLong(hotspot.cycleStartedAtSec);
+            optionalLong(hotspot.resetAtSec);
+            string(hotspot.zoneId);
+            writeVarInt(out, hotspot.x);
+            writeVarInt(out, hotspot.z);
+        }
+
+        private void task(ColonySaveV1.TaskEnvelope task) throws IOException {
+            string(task.id);
+            string(task.type);
+            string(task.targetId);
+            out.writeDouble(task.basePriority);
+            out.writeBoolean(task.emergency);
+            string(task.status);
+            string(task.reservedByCitizenId);
+            writeVarInt(out, task.pathRetryCount);
+            writeVarLong(out, task.quarantineUntilSec);
+        }
+
+        private void zone(ColonySaveV1.ZoneEnvelope zone) throws IOException {
+            string(zone.id);
+            string(zone.type);
+            writeVarInt(out, zone.minX);
+            writeVarInt(out, zone.minZ);
+            writeVarInt(out, zone.maxX);
+            writeVarInt(out, zone.maxZ);
+        }
+
+        private void structure(ColonySaveV1.StructureEnvelope structure) throws IOException {
+            string(structure.id);
+            string(structure.blueprintId);
+            writeVarInt(out, structure.x);
+            writeVarInt(out, structure.z);
+            writeVarInt(out, structure.rotation);
+            out.writeBoolean(structure.complete);
+            writeVarLong(out, structure.startedAtSec);
+            writeVarLong(out, structure.completesAtSec);
+        }
+
+        private void raid(ColonySaveV1.RaidEnvelope raid) throws IOException {
+            out.writeBoolean(raid != null);
+            if (raid == null) {
+                return;
+            }
+            writeVarLong(out, raid.nextRaidAtSec);
+            writeVarInt(out, raid.threatScore);
+            writeVarInt(out, raid.activeEnemies);
+            writeVarInt(out, raid.raidsSurvived);
+            writeVarLong(out, raid.lastRaidAtSec);
+            writeVarInt(out, raid.threatAtLastRaid);
+        }
+
+        private void insurance(ColonySaveV1.InsuranceEnvelope insurance) throws IOException {
+            out.writeBoolean(insurance != null);
+            if (insurance == null) {
+                return;
+            }
+            writeVarInt(out, insurance.reservePoints);
+            writeVarInt(out, insurance.claims == null ? 0 : insurance.claims.size());
+            if (insurance.claims != null) {
+                for (String claim : insurance.claims) {
+                    string(claim);
+                }
+            }
+        }
+
+        private void archive(ColonySaveV1.TaskArchiveEnvelope archive) throws IOException {
+            out.writeBoolean(archive != null);
+            if (archive == null) {
+                return;
+            }
+            counts(archive.completedByType);
+            counts(archive.failedByType);
+            writeVarInt(out, archive.recent == null ? 0 : archive.recent.size());
+            if (archive.recent != null) {
+                for (ColonySaveV1.ArchivedTaskEnvelope task : archive.recent) {
+                    string(task.id);
+                    string(task.type);
+                    string(task.status);
+                    string(task.citizenId);
+                    writeVarLong(out, task.closedAtSec);
+                }
+            }
+        }
+
+        private void counts(Map<String, Long> counts) throws IOException {
+            writeVarInt(out, counts == null ? 0 : counts.size());
+            if (counts != null) {
+                for (Map.Entry<String, Long> entry : counts.entrySet()) {
+                    string(entry.getKey());
+                    writeVarLong(out, entry.getValue());
+                }
+            }
+        }
+
+        private void optionalLong(Long value) throws IOException {
+            out.writeBoolean(value != null);
+            if (value != null) {
+                writeVarLong(out, value);
+            }
+        }
+
+        private void string(String value) throws IOException {
+            if (value == null) {
+                writeVarInt(out, 0);
+                return;
+            }
+            Integer id = stringIds.get(value);
+            if (id == null) {
+                id = strings.size() + 1;
+                stringIds.put(value, id);
+                strings.add(value);
+            }
+            writeVarInt(out, id);
+        }
+    }
+
+    private static final class Reader {
+        private final DataInputStream in;
+        private final int version;
+        private String[] strings;
+
+        private Reader(DataInputStream in, int version) {
+            this.in = in;
+            this.version = version;
+        }
+
+        private ColonySaveV1 save() throws IOException {
+            int count = readCount();
+            strings = new String[count];
+            for (int index = 0; index < count; index++) {
+                strings[index] = in.readUTF();
+            }
+
+            ColonySaveV1 save = new ColonySaveV1();
+            save.schemaVersion = readVarInt(in);
+            save.worldTimeSec = readVarLong(in);
+            save.colony = colony();
+            int citizens = readCount();
+            for (int index = 0; index < citizens; index++) {
+                save.citizens.add(citizen());
+            }
+            int hotspots = readCount();
+            for (int index = 0; index < hotspots; index++) {
+                save.hotspots.add(hotspot());
+            }
+            int tasks = readCount();
+            for (int index = 0; index < tasks; index++) {
+                save.tasks.add(task());
+            }
+            save.raid = raid();
+            save.insurance = insurance();
+            save.archive = archive();
+            if (version >= 2) {
+                save.journalSequence = readVarLong(in);
+            }
+            if (version >= 3) {
+                if (in.readBoolean()) {
+                    int zones = readCount();
+                    save.zones = new ArrayList<>(zones);
+                    for (int index = 0; index < zones; index++) {
+                        save.zones.add(zone());
+                    }
+                }
+                if (in.readBoolean()) {
+                    int structures = readCount();
+                    save.structures = new ArrayList<>(structures);
+                    for (int index = 0; index < structures; index++) {
+                        save.structures.add(structure());
+                    }
+                }
+            }
+            if (in.available() > 0) {
+                throw new IOException("Trailing bytes in binary save");
+            }
+            return save;
+        }
+
+        private ColonySaveV1.ColonyEnvelope colony() throws IOException {
+            if (!in.readBoolean()) {
+                return null;
+            }
+            ColonySaveV1.ColonyEnvelope colony = new ColonySaveV1.ColonyEnvelope();
+            colony.populationCap = readVarInt(in);
+            colony.activePolicy = string();
+            if (version < 4) {
+                for (int index = 0; index < LEGACY_STOCK_FIELDS; index++) {
+                    readVarInt(in);
+                }
+            }
+            if (in.readBoolean()) {
+                colony.stock = stacks();
+            }
+            if (in.readBoolean()) {
+                int holders = readCount();
+                colony.reservations = new LinkedHashMap<>();
+                for (int index = 0; index < holders; index++) {
+                    String holder = string();
+                    colony.reservations.put(holder, stacks());
+                }
+            }
+            return colony;
+        }
+
+        private List<ColonySaveV1.StockEnvelope> stacks() throws IOException {
+            int count = readCount();
+            List<ColonySaveV1.StockEnvelope> stacks = new ArrayList<>(count);
+            for (int index = 0; index < count; index++) {
+                ColonySaveV1.StockEnvelope stack = new ColonySaveV1.StockEnvelope();
+                stack.id = string();
+                stack.tier = readVarInt(in);
+                stack.quality = readVarInt(in);
+                stack.qty = readVarInt(in);
+                stacks.add(stack);
+            }
+            return stacks;
+        }
+
+        private ColonySaveV1.CitizenEnvelope citizen() throws IOException {
+            ColonySaveV1.CitizenEnvelope citizen = new ColonySaveV1.CitizenEnvelope();
+            citizen.id = string();
+            citizen.primaryRole = string();
+            int skills = readCount();
+            for (int index = 0; index < skills; index++) {
+                String role = string();
+                citizen.skills.put(role, readVarInt(in));
+            }
+            citizen.food = in.readDouble();
+            citizen.rest = in.readDouble();
+            citizen.safety = in.readDouble();
+            citizen.preemptLockUntilSec = readVarLong(in);
+            return citizen;
+        }
+
+        private ColonySaveV1.HotspotEnvelope hotspot() throws IOException {
+            ColonySaveV1.HotspotEnvelope hotspot = new ColonySaveV1.HotspotEnvelope();
+            hotspot.id = string();
+            hotspot.family = string();
+            hotspot.tier = readVarInt(in);
+            hotspot.capacityMax = readVarInt(in);
+            hotspot.capacityNow = readVarInt(in);
+            hotspot.degradation = in.readDouble();
+            hotspot.cycleStartedAtSec = optionalLong();
+            hotspot.resetAtSec = optionalLong();
+            hotspot.zoneId = string();
+            hotspot.x = readVarInt(in);
+            hotspot.z = readVarInt(in);
+            return hotspot;
+        }
+
+        private ColonySaveV1.TaskEnvelope task() throws IOException {
+            ColonySaveV1.TaskEnvelope task = new ColonySaveV1.TaskEnvelope();
+            task.id = string();
+            task.type = string();
+            task.targetId = string();
+            task.basePriority = in.readDouble();
+            task.emergency = in.readBoolean();
+            task.status = string();
+            task.reservedByCitizenId = string();
+            task.pathRetryCount = readVarInt(in);
+            task.quarantineUntilSec = readVarLong(in);
+            return task;
+        }
+
+        private ColonySaveV1.ZoneEnvelope zone() throws IOException {
+            ColonySaveV1.ZoneEnvelope zone = new ColonySaveV1.ZoneEnvelope();
+            zone.id = string();
+            zone.type = string();
+            zone.minX = readVarInt(in);
+            zone.minZ = readVarInt(in);
+            zone.maxX = readVarInt(in);
+            zone.maxZ = readVarInt(in);
+            return zone;
+        }
+
+        private ColonySaveV1.StructureEnvelope structure() throws IOException {
+            ColonySaveV1.StructureEnvelope structure = new ColonySaveV1.StructureEnvelope();
+            structure.id = string();
+            structure.blueprintId = string();
+            structure.x = readVarInt(in);
+            structure.z = readVarInt(in);
+            structure.rotation = readVarInt(in);
+            structure.complete = in.readBoolean();
+            structure.startedAtSec = readVarLong(in);
+            structure.completesAtSec = readVarLong(in);
+            return structure;
+        }
+
+        private ColonySaveV1.RaidEnvelope raid() throws IOException {
+            if (!in.readBoolean()) {
+                return null;
+            }
+            ColonySaveV1.RaidEnvelope raid = new ColonySaveV1.RaidEnvelope();
+            raid.nextRaidAtSec = readVarLong(in);
+            raid.threatScore = readVarInt(in);
+            raid.activeEnemies = readVarInt(in);
+            raid.raidsSurvived = readVarInt(in);
+            raid.lastRaidAtSec = readVarLong(in);
+            raid.threatAtLastRaid = readVarInt(in);
+            return raid;
+        }
+
+        private ColonySaveV1.InsuranceEnvelope insurance() throws IOException {
+            if (!in.readBoolean()) {
+                return null;
+            }
+            ColonySaveV1.InsuranceEnvelope insurance = new ColonySaveV1.InsuranceEnvelope();
+            insurance.reservePoints = readVarInt(in);
+            int claims = readCount();
+            for (int index = 0; index < claims; index++) {
+                insurance.claims.add(string());
+            }
+            return insurance;
+        }
+
+        private ColonySaveV1.TaskArchiveEnvelope archive() throws IOException {
+            if (!in.readBoolean()) {
+                return null;
+            }
+            ColonySaveV1.TaskArchiveEnvelope archive = new ColonySaveV1.TaskArchiveEnvelope();
+            counts(archive.completedByType);
+            counts(archive.failedByType);
+            int recent = readCount();
+            for (int index = 0; index < recent; index++) {
+                ColonySaveV1.ArchivedTaskEnvelope task = new ColonySaveV1.ArchivedTaskEnvelope();
+                task.id = string();
+                task.type = string();
+                task.status = string();
+                task.citizenId = string();
+                task.closedAtSec = readVarLong(in);
+                archive.recent.add(task);
+            }
+            return archive;
+        }
+
+        private void counts(Map<String, Long> counts) throws IOException {
+            int count = readCount();
+            for (int index = 0; index < count; index++) {
+                String key = string();
+                counts.put(key, readVarLong(in));
+            }
+        }
+
+        private Long optionalLong() throws IOException {
+            return in.readBoolean() ? readVarLong(in) : null;
+        }
+
+        private String string() throws IOException {
+            int id = readVarInt(in);
+            if (id == 0) {
+                return null;
+            }
+            if (id > strings.length) {
+                throw new IOException("String reference out of range: " + id);
+            }
+            return strings[id - 1];
+        }
+
+        private int readCount() throws IOException {
+            int count = readVarInt(in);
+            if (count < 0 || count > in.available()) {
+                throw new IOException("Invalid element count: " + count);
+            }
+            return count;
+        }
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        writeVarLong(out, value);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0L) {
+            out.writeByte((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.writeByte((int) zigzag);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        long value = readVarLong(in);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new IOException("Varint out of int range: " + value);
+        }
+        return (int) value;
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long zigzag = 0L;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int next = in.readUnsignedByte();
+            zigzag |= (long) (next & 0x7F) << shift;
+            if ((next & 0x80) == 0) {
+                return (zigzag >>> 1) ^ -(zigzag & 1L);
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
@@ -0,0 +1,21 @@
+package com.shieldudaram.colonists.save;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class ColonyJournalEntry {
+    public long sequence;
+    public long worldTimeSec;
+    public ColonySaveV1.ColonyEnvelope colony;
+    public List<ColonySaveV1.CitizenEnvelope> citizens;
+    public List<ColonySaveV1.HotspotEnvelope> hotspots = new ArrayList<>();
+    public List<ColonySaveV1.TaskEnvelope> tasks = new ArrayList<>();
+    public List<String> removedTasks = new ArrayList<>();
+    public List<ColonySaveV1.ZoneEnvelope> zones = new ArrayList<>();
+    public List<String> removedZones = new ArrayList<>();
+    public List<ColonySaveV1.StructureEnvelope> structures = new ArrayList<>();
+    public List<String> removedStructures = new ArrayList<>();
+    public ColonySaveV1.RaidEnvelope raid;
+    public ColonySaveV1.InsuranceEnvelope insurance;
+    public ColonySaveV1.TaskArchiveEnvelope archive;
+}
@@ -1,54 +1,523 @@
 package com.shieldudaram.colonists.save;
 
+import com.shieldudaram.colonists.model.BlueprintId;
+import com.shieldudaram.colonists.model.CitizenNeeds;
 import com.shieldudaram.colonists.model.CitizenState;
+import com.shieldudaram.colonists.model.ColonyChanges;
 import com.shieldudaram.colonists.model.ColonyState;
+import com.shieldudaram.colonists.model.ColonyTask;
+import com.shieldudaram.colonists.model.ColonyZone;
+import com.shieldudaram.colonists.model.HotspotFamily;
+import com.shieldudaram.colonists.model.HotspotState;
+import com.shieldudaram.colonists.model.ItemKey;
+import com.shieldudaram.colonists.model.ItemStack;
+import com.shieldudaram.colonists.model.PlacedStructure;
 import com.shieldudaram.colonists.model.PolicyId;
+import com.shieldudaram.colonists.model.RaidState;
+import com.shieldudaram.colonists.model.Role;
+import com.shieldudaram.colonists.model.TaskArchive;
+import com.shieldudaram.colonists.model.TaskStatus;
+import com.shieldudaram.colonists.model.TaskType;
+import com.shieldudaram.colonists.model.ZoneType;
 import com.shieldudaram.colonists.sim.ColonistsConstants;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 public final class ColonySaveMapper {
     public ColonySaveV1 toSave(ColonyState state) {
         ColonySaveV1 save = new ColonySaveV1();
         save.schemaVersion = ColonistsConstants.SCHEMA_VERSION;
         save.worldTimeSec = state.worldTimeSec();
-        save.colony = new ColonySaveV1.ColonyEnvelope();
-        save.colony.populationCap = state.populationCap();
-        save.colony.activePolicy = state.activePolicy().name();
-        save.colony.stockWood = state.stockWood();
-        save.colony.stockStone = state.stockStone();
-        save.colony.stockFiber = state.stockFiber();
-        save.colony.stockFood = state.stockFood();
-        save.colony.stockHide = state.stockHide();
-        save.colony.stockCrystal = state.stockCrystal();
-        save.citizens = new ArrayList<>(state.citizens());
-        save.hotspots = new ArrayList<>(state.hotspots());
-        save.tasks = new ArrayList<>(state.tasks());
-        save.raid = state.raidState();
-        save.insurance = new ColonySaveV1.InsuranceEnvelope();
-        save.insurance.reservePoints = state.insuranceState().reservePoints();
-        save.insurance.claims = new ArrayList<>(state.insuranceState().claimHistory());
+        save.journalSequence = state.journalSequence();
+        save.colony = toColonyEnvelope(state);
+        save.citizens = toCitizenEnvelopes(state);
+        save.hotspots = new ArrayList<>(state.hotspots().size());
+        for (HotspotState hotspot : state.hotspots()) {
+            save.hotspots.add(toEnvelope(hotspot));
+        }
+        save.tasks = new ArrayList<>(state.tasks().size());
+        for (ColonyTask task : state.tasks()) {
+            save.tasks.add(toEnvelope(task));
+        }
+        save.zones = new ArrayList<>(state.zones().size());
+        for (ColonyZone zone : state.zones()) {
+            save.zones.add(toEnvelope(zone));
+        }
+        save.structures = new ArrayList<>(state.structures().size());
+        for (PlacedStructure structure : state.structures()) {
+            save.structures.add(toEnvelope(structure));
+        }
+        save.raid = toEnvelope(state.raidState());
+        save.insurance = toInsuranceEnvelope(state);
+        save.archive = toEnvelope(state.taskArchive(), Integer.MAX_VALUE);
         return save;
     }
 
+    public ColonyJournalEntry toJournalEntry(
+            ColonyState state,
+            ColonyChanges changes,
+            boolean includeColony,
+            int newlyArchived
+    ) {
+        ColonyJournalEntry entry = new ColonyJournalEntry();
+        entry.sequence = state.nextJournalSequence();
+        entry.worldTimeSec = state.worldTimeSec();
+        if (includeColony) {
+            entry.colony = toColonyEnvelope(state);
+        }
+        entry.citizens = toCitizenEnvelopes(state);
+        for (String hotspotId : changes.changedHotspots()) {
+            HotspotState hotspot = state.hotspot(hotspotId);
+            if (hotspot != null) {
+                entry.hotspots.add(toEnvelope(hotspot));
+            }
+        }
+        for (String taskId : changes.changedTasks()) {
+            ColonyTask task = state.task(taskId);
+            if (task != null) {
+                entry.tasks.add(toEnvelope(task));
+            }
+        }
+        entry.removedTasks.addAll(changes.removedTasks());
+        for (String zoneId : changes.changedZones()) {
+            ColonyZone zone = state.zone(zoneId);
+            if (zone != null) {
+                entry.zones.add(toEnvelope(zone));
+            }
+        }
+        entry.removedZones.addAll(changes.removedZones());
+        for (String structureId : changes.changedStructures()) {
+            PlacedStructure structure = state.structure(structureId);
+            if (structure != null) {
+                entry.structures.add(toEnvelope(structure));
+            }
+        }
+        entry.removedStructures.addAll(changes.removedStructures());
+        entry.raid = toEnvelope(state.raidState());
+        entry.insurance = toInsuranceEnvelope(state);
+        if (newlyArchived > 0) {
+            entry.archive = toEnvelope(state.taskArchive(), newlyArchived);
+        }
+        return entry;
+    }
+
+    public void applyJournal(ColonySaveV1 save, List<ColonyJournalEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        EntityEnvelopes envelopes = replay(save, entries);
+        save.hotspots = new ArrayList<>(envelopes.hotspots());
+        save.tasks = new ArrayList<>(envelopes.tasks());
+        if (envelopes.zones() != null) {
+            save.zones = new ArrayList<>(envelopes.zones());
+        }
+        if (envelopes.structures() != null) {
+            save.structures = new ArrayList<>(envelopes.structures());
+        }
+    }
+
     public void applySave(ColonyState state, ColonySaveV1 save) {
+        applySave(state, save, List.of());
+    }
+
+    public void applySave(ColonyState state, ColonySaveV1 save, List<ColonyJournalEntry> entries) {
         if (save.schemaVersion != ColonistsConstants.SCHEMA_VERSION) {
             throw new IllegalStateException(
                     "Unsupported schema version " + save.schemaVersion + ", expected " + ColonistsConstants.SCHEMA_VERSION
             );
         }
+        EntityEnvelopes envelopes = replay(save, entries);
 
         state.setWorldTimeSec(save.worldTimeSec);
+        state.setJournalSequence(save.journalSequence);
         state.setPopulationCap(save.colony.populationCap);
         state.setActivePolicy(PolicyId.valueOf(save.colony.activePolicy));
-        state.citizens().clear();
-        state.hotspots().clear();
-        state.tasks().clear();
-        state.citizens().addAll(save.citizens);
-        state.hotspots().addAll(save.hotspots);
-        state.tasks().addAll(save.tasks);
+        applyStock(state, save.colony);
+        state.clearCitizens();
+        state.clearHotspots();
+        state.clearTasks();
+        for (ColonySaveV1.CitizenEnvelope citizen : save.citizens) {
+            state.addCitizen(fromEnvelope(citizen));
+        }
+        for (ColonySaveV1.HotspotEnvelope hotspot : envelopes.hotspots()) {
+            state.addHotspot(fromEnvelope(hotspot));
+        }
+        for (ColonySaveV1.TaskEnvelope task : envelopes.tasks()) {
+            state.addTask(fromEnvelope(task));
+        }
+        if (envelopes.zones() != null) {
+            state.clearZones();
+            for (ColonySaveV1.ZoneEnvelope zone : envelopes.zones()) {
+                state.addZone(fromEnvelope(zone));
+            }
+        }
+        if (envelopes.structures() != null) {
+            state.clearStructures();
+            for (ColonySaveV1.StructureEnvelope structure : envelopes.structures()) {
+                state.addStructure(fromEnvelope(structure));
+            }
+        }
+        if (save.raid != null) {
+            applyRaid(state.raidState(), save.raid);
+        }
+        state.taskArchive().clear();
+        if (save.archive != null) {
+            applyArchive(state.taskArchive(), save.archive);
+        }
+    }
+
+    private EntityEnvelopes replay(ColonySaveV1 save, List<ColonyJournalEntry> entries) {
+        if (entries.isEmpty()) {
+            return new EntityEnvelopes(save.hotspots, save.tasks, save.zones, save.structures);
+        }
+        Map<String, ColonySaveV1.HotspotEnvelope> hotspots = new LinkedHashMap<>();
+        for (ColonySaveV1.HotspotEnvelope hotspot : save.hotspots) {
+            hotspots.put(hotspot.id, hotspot);
+        }
+        Map<String, ColonySaveV1.TaskEnvelope> tasks = new LinkedHashMap<>();
+        for (ColonySaveV1.TaskEnvelope task : save.tasks) {
+            tasks.put(task.id, task);
+        }
+        Map<String, ColonySaveV1.ZoneEnvelope> zones = new LinkedHashMap<>();
+        if (save.zones != null) {
+            for (ColonySaveV1.ZoneEnvelope zone : save.zones) {
+                zones.put(zone.id, zone);
+            }
+        }
+        Map<String, ColonySaveV1.StructureEnvelope> structures = new LinkedHashMap<>();
+        if (save.structures != null) {
+            for (ColonySaveV1.StructureEnvelope structure : save.structures) {
+                structures.put(structure.id, structure);
+            }
+        }
+        for (ColonyJournalEntry entry : entries) {
+            save.worldTimeSec = entry.worldTimeSec;
+            save.journalSequence = entry.sequence;
+            if (entry.colony != null) {
+                save.colony = entry.colony;
+            }
+            if (entry.citizens != null) {
+                save.citizens = entry.citizens;
+            }
+            for (ColonySaveV1.HotspotEnvelope hotspot : entry.hotspots) {
+                hotspots.put(hotspot.id, hotspot);
+            }
+            for (String taskId : entry.removedTasks) {
+                tasks.remove(taskId);
+            }
+            for (ColonySaveV1.TaskEnvelope task : entry.tasks) {
+                tasks.put(task.id, task);
+            }
+            for (String zoneId : entry.removedZones) {
+                zones.remove(zoneId);
+            }
+            for (ColonySaveV1.ZoneEnvelope zone : entry.zones) {
+                zones.put(zone.id, zone);
+            }
+            for (String structureId : entry.removedStructures) {
+                structures.remove(structureId);
+            }
+            for (ColonySaveV1.StructureEnvelope structure : entry.structures) {
+                structures.put(structure.id, structure);
+            }
+            if (entry.raid != null) {
+                save.raid = entry.raid;
+            }
+            if (entry.insurance != null) {
+                save.insurance = entry.insurance;
+            }
+            if (entry.archive != null) {
+                if (save.archive == null) {
+                    save.archive = new ColonySaveV1.TaskArchiveEnvelope();
+                }
+                save.archive.completedByType = entry.archive.completedByType;
+                save.archive.failedByType = entry.archive.failedByType;
+                save.archive.recent.addAll(entry.archive.recent);
+            }
+        }
+        return new EntityEnvelopes(
+                hotspots.values(),
+                tasks.values(),
+                save.zones != null || !zones.isEmpty() ? zones.values() : null,
+                save.structures != null || !structures.isEmpty() ? structures.values() : null
+        );
+    }
+
+    private void applyStock(ColonyState state, ColonySaveV1.ColonyEnvelope colony) {
+        state.inventory().clear();
+        if (colony.stock == null) {
+            return;
+        }
+        for (ItemStack stack : fromEnvelopes(colony.stock)) {
+            state.addStock(stack.key(), stack.qty());
+        }
+        if (colony.reservations != null) {
+            for (Map.Entry<String, List<ColonySaveV1.StockEnvelope>> entry : colony.reservations.entrySet()) {
+                if (!state.inventory().restoreReservation(entry.getKey(), fromEnvelopes(entry.getValue()))) {
+                    throw new IllegalStateException("Reservation exceeds saved stock: " + entry.getKey());
+                }
+            }
+        }
+    }
+
+    private ColonySaveV1.ColonyEnvelope toColonyEnvelope(ColonyState state) {
+        ColonySaveV1.ColonyEnvelope colony = new ColonySaveV1.ColonyEnvelope();
+        colony.populationCap = state.populationCap();
+        colony.activePolicy = state.activePolicy().name();
+        colony.stock = toEnvelopes(state.inventory().stacks());
+        colony.reservations = new LinkedHashMap<>();
+        for (Map.Entry<String, List<ItemStack>> entry : state.inventory().reservations().entrySet()) {
+            colony.reservations.put(entry.getKey(), toEnvelopes(entry.getValue()));
+        }
+        return colony;
+    }
+
+    private List<ColonySaveV1.CitizenEnvelope> toCitizenEnvelopes(ColonyState state) {
+        List<ColonySaveV1.CitizenEnvelope> citizens = new ArrayList<>(state.citizens().size());
         for (CitizenState citizen : state.citizens()) {
-            citizen.setPreemptLockUntilSec(Math.max(0, citizen.preemptLockUntilSec()));
+            citizens.add(toEnvelope(citizen));
         }
+        return citizens;
+    }
+
+    private ColonySaveV1.InsuranceEnvelope toInsuranceEnvelope(ColonyState state) {
+        ColonySaveV1.InsuranceEnvelope insurance = new ColonySaveV1.InsuranceEnvelope();
+        insurance.reservePoints = state.insuranceState().reservePoints();
+        insurance.claims = new ArrayList<>(state.insuranceState().claimHistory());
+        return insurance;
+    }
+
+    private List<ColonySaveV1.StockEnvelope> toEnvelopes(List<ItemStack> stacks) {
+        List<ColonySaveV1.StockEnvelope> envelopes = new ArrayList<>(stacks.size());
+        for (ItemStack stack : stacks) {
+            ColonySaveV1.StockEnvelope envelope = new ColonySaveV1.StockEnvelope();
+            envelope.id = stack.key().id();
+            envelope.tier = stack.key().tier();
+            envelope.quality = stack.key().quality();
+            envelope.qty = stack.qty();
+            envelopes.add(envelope);
+        }
+        return envelopes;
+    }
+
+    private List<ItemStack> fromEnvelopes(List<ColonySaveV1.StockEnvelope> envelopes) {
+        List<ItemStack> stacks = new ArrayList<>(envelopes.size());
+        for (ColonySaveV1.StockEnvelope envelope : envelopes) {
+            stacks.add(new ItemStack(new ItemKey(envelope.id, envelope.tier, envelope.quality), envelope.qty));
+        }
+        return stacks;
+    }
+
+    private ColonySaveV1.CitizenEnvelope toEnvelope(CitizenState citizen) {
+        ColonySaveV1.CitizenEnvelope envelope = new ColonySaveV1.CitizenEnvelope();
+        envelope.id = citizen.id();
+        envelope.primaryRole = citizen.primaryRole().name();
+        for (Role role : Role.values()) {
+            envelope.skills.put(role.name(), citizen.skill(role));
+        }
+        envelope.food = citizen.needs().food();
+        envelope.rest = citizen.needs().rest();
+        envelope.safety = citizen.needs().safety();
+        envelope.preemptLockUntilSec = citizen.preemptLockUntilSec();
+        return envelope;
+    }
+
+    private CitizenState fromEnvelope(ColonySaveV1.CitizenEnvelope envelope) {
+        Map<Role, Integer> skills = new EnumMap<>(Role.class);
+        if (envelope.skills != null) {
+            for (Map.Entry<String, Integer> entry : envelope.skills.entrySet()) {
+                skills.put(Role.valueOf(entry.getKey()), entry.getValue());
+            }
+        }
+        return new CitizenState(
+                envelope.id,
+                Role.valueOf(envelope.primaryRole),
+                skills,
+                new CitizenNeeds(envelope.food, envelope.rest, envelope.safety),
+                envelope.preemptLockUntilSec
+        );
+    }
+
+    private ColonySaveV1.HotspotEnvelope toEnvelope(HotspotState hotspot) {
+        ColonySaveV1.HotspotEnvelope envelope = new ColonySaveV1.HotspotEnvelope();
+        envelope.id = hotspot.id();
+        envelope.family = hotspot.family().name();
+        envelope.tier = hotspot.tier();
+        envelope.capacityMax = hotspot.capacityMax();
+        envelope.capacityNow = hotspot.capacityNow();
+        envelope.degradation = hotspot.degradation();
+        envelope.cycleStartedAtSec = hotspot.cycleStartedAtSec();
+        envelope.resetAtSec = hotspot.resetAtSec();
+        envelope.zoneId = hotspot.zoneId();
+        envelope.x = hotspot.x();
+        envelope.z = hotspot.z();
+        return envelope;
+    }
+
+    private HotspotState fromEnvelope(ColonySaveV1.HotspotEnvelope envelope) {
+        return new HotspotState(
+                envelope.id,
+                HotspotFamily.valueOf(envelope.family),
+                envelope.tier,
+                envelope.capacityMax,
+                envelope.capacityNow,
+                envelope.degradation,
+                envelope.cycleStartedAtSec,
+                envelope.resetAtSec,
+                envelope.zoneId,
+                envelope.x,
+                envelope.z
+        );
+    }
+
+    private ColonySaveV1.TaskEnvelope toEnvelope(ColonyTask task) {
+        ColonySaveV1.TaskEnvelope envelope = new ColonySaveV1.TaskEnvelope();
+        envelope.id = task.id();
+        envelope.type = task.type().name();
+        envelope.targetId = task.targetId();
+        envelope.basePriority = task.basePriority();
+        envelope.emergency = task.emergency();
+        envelope.status = task.status().name();
+        envelope.reservedByCitizenId = task.reservedByCitizenId();
+        envelope.pathRetryCount = task.pathRetryCount();
+        envelope.quarantineUntilSec = task.quarantineUntilSec();
+        return envelope;
+    }
+
+    private ColonyTask fromEnvelope(ColonySaveV1.TaskEnvelope envelope) {
+        return new ColonyTask(
+                envelope.id,
+                TaskType.valueOf(envelope.type),
+                envelope.targetId,
+                envelope.basePriority,
+                envelope.emergency,
+                TaskStatus.valueOf(envelope.status),
+                envelope.reservedByCitizenId,
+                envelope.pathRetryCount,
+                envelope.quarantineUntilSec
+        );
+    }
+
+    private ColonySaveV1.RaidEnvelope toEnvelope(RaidState raid) {
+        ColonySaveV1.RaidEnvelope envelope = new ColonySaveV1.RaidEnvelope();
+        envelope.nextRaidAtSec = raid.nextRaidAtSec();
+        envelope.threatScore = raid.threatScore();
+        envelope.activeEnemies = raid.activeEnemies();
+        envelope.raidsSurvived = raid.raidsSurvived();
+        envelope.lastRaidAtSec = raid.lastRaidAtSec();
+        envelope.threatAtLastRaid = raid.threatAtLastRaid();
+        return envelope;
+    }
+
+    private void applyRaid(RaidState raid, ColonySaveV1.RaidEnvelope envelope) {
+        raid.setNextRaidAtSec(envelope.nextRaidAtSec);
+        raid.setThreatScore(envelope.threatScore);
+        raid.setActiveEnemies(envelope.activeEnemies);
+        raid.setRaidsSurvived(envelope.raidsSurvived);
+        raid.setLastRaidAtSec(envelope.lastRaidAtSec);
+        raid.setThreatAtLastRaid(envelope.threatAtLastRaid);
+    }
+
+    private ColonySaveV1.ZoneEnvelope toEnvelope(ColonyZone zone) {
+        ColonySaveV1.ZoneEnvelope envelope = new ColonySaveV1.ZoneEnvelope();
+        envelope.id = zone.id();
+        envelope.type = zone.type().name();
+        envelope.minX = zone.minX();
+        envelope.minZ = zone.minZ();
+        envelope.maxX = zone.maxX();
+        envelope.maxZ = zone.maxZ();
+        return envelope;
+    }
+
+    private ColonyZone fromEnvelope(ColonySaveV1.ZoneEnvelope envelope) {
+        return new ColonyZone(
+                envelope.id,
+                ZoneType.valueOf(envelope.type),
+                envelope.minX,
+                envelope.minZ,
+                envelope.maxX,
+                envelope.maxZ
+        );
+    }
+
+    private ColonySaveV1.StructureEnvelope toEnvelope(PlacedStructure structure) {
+        ColonySaveV1.StructureEnvelope envelope = new ColonySaveV1.StructureEnvelope();
+        envelope.id = structure.id();
+        envelope.blueprintId = structure.blueprintId().name();
+        envelope.x = structure.x();
+        envelope.z = structure.z();
+        envelope.rotation = structure.rotation();
+        envelope.complete = structure.complete();
+        envelope.startedAtSec = structure.startedAtSec();
+        envelope.completesAtSec = structure.completesAtSec();
+        return envelope;
+    }
+
+    private PlacedStructure fromEnvelope(ColonySaveV1.StructureEnvelope envelope) {
+        return new PlacedStructure(
+                envelope.id,
+                BlueprintId.valueOf(envelope.blueprintId),
+                envelope.x,
+                envelope.z,
+                envelope.rotation,
+                envelope.complete,
+                envelope.startedAtSec,
+                envelope.completesAtSec
+        );
+    }
+
+    private ColonySaveV1.TaskArchiveEnvelope toEnvelope(TaskArchive archive, int recentLimit) {
+        ColonySaveV1.TaskArchiveEnvelope envelope = new ColonySaveV1.TaskArchiveEnvelope();
+        for (TaskType type : TaskType.values()) {
+            if (archive.completedCount(type) > 0) {
+                envelope.completedByType.put(type.name(), archive.completedCount(type));
+            }
+            if (archive.failedCount(type) > 0) {
+                envelope.failedByType.put(type.name(), archive.failedCount(type));
+            }
+        }
+        List<TaskArchive.ArchivedTask> recent = archive.recent();
+        for (TaskArchive.ArchivedTask task : recent.subList(Math.max(0, recent.size() - recentLimit), recent.size())) {
+            ColonySaveV1.ArchivedTaskEnvelope entry = new ColonySaveV1.ArchivedTaskEnvelope();
+            entry.id = task.id();
+            entry.type = task.type().name();
+            entry.status = task.status().name();
+            entry.citizenId = task.citizenId();
+            entry.closedAtSec = task.closedAtSec();
+            envelope.recent.add(entry);
+        }
+        return envelope;
+    }
+
+    private void applyArchive(TaskArchive archive, ColonySaveV1.TaskArchiveEnvelope envelope) {
+        for (TaskType type : TaskType.values()) {
+            archive.restoreCounts(
+                    type,
+                    envelope.completedByType.getOrDefault(type.name(), 0L),
+                    envelope.failedByType.getOrDefault(type.name(), 0L)
+            );
+        }
+        for (ColonySaveV1.ArchivedTaskEnvelope entry : envelope.recent) {
+            archive.restoreRecent(new TaskArchive.ArchivedTask(
+                    entry.id,
+                    TaskType.valueOf(entry.type),
+                    TaskStatus.valueOf(entry.status),
+                    entry.citizenId,
+                    entry.closedAtSec
+            ));
+        }
+    }
+
+    private record EntityEnvelopes(
+            Collection<ColonySaveV1.HotspotEnvelope> hotspots,
+            Collection<ColonySaveV1.TaskEnvelope> tasks,
+            Collection<ColonySaveV1.ZoneEnvelope> zones,
+            Collection<ColonySaveV1.StructureEnvelope> structures
+    ) {
     }
 }
@@ -1,47 +1,170 @@
 package com.shieldudaram.colonists.save;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.shieldudaram.colonists.jfr.SaveLoadEvent;
+import com.shieldudaram.colonists.jfr.SaveWriteEvent;
 import com.shieldudaram.colonists.model.ColonyState;
 import com.shieldudaram.colonists.sim.ColonistsConstants;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.CRC32;
 
 public final class ColonySaveService {
-    private final ObjectMapper mapper;
+    private static final System.Logger LOGGER = System.getLogger(ColonySaveService.class.getName());
+    private static final String ACTIVE_FILE = "active-save.sav";
+    private static final String LEGACY_ACTIVE_FILE = "active-save.json";
+    private static final String EXPORT_FILE = "active-save.export.json";
+    private static final String JOURNAL_FILE = "active-save.journal";
+    private static final int JOURNAL_RECORD_HEADER_BYTES = 8;
+
+    private final JsonFactory jsonFactory;
     private final ColonySaveMapper mapperService;
+    private final SaveMigrations migrations;
+    private final SaveFormat format;
 
     public ColonySaveService() {
-        this.mapper = JsonMapper.builder()
-                .configure(SerializationFeature.INDENT_OUTPUT, true)
+        this(SaveFormat.JSON);
+    }
+
+    public ColonySaveService(SaveFormat format) {
+        this.format = Objects.requireNonNull(format, "format");
+        this.jsonFactory = JsonFactory.builder()
+                .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
                 .build();
         this.mapperService = new ColonySaveMapper();
+        this.migrations = SaveMigrations.defaults(jsonFactory);
+    }
+
+    public SaveFormat format() {
+        return format;
     }
 
     public void save(ColonyState state, Path saveDir) {
+        write(snapshot(state), saveDir);
+    }
+
+    public ColonySaveV1 snapshot(ColonyState state) {
+        return mapperService.toSave(state);
+    }
+
+    public byte[] encode(ColonySaveV1 save) {
+        try {
+            return format == SaveFormat.BINARY ? BinarySaveCodec.encode(save) : writeJsonBytes(save);
+        } catch (IOException exception) {
+            throw new IllegalStateException("Failed to encode colony save", exception);
+        }
+    }
+
+    public ColonySaveV1 decode(byte[] bytes) {
+        try {
+            return decodeBytes(bytes);
+        } catch (IOException exception) {
+            throw new IllegalStateException("Failed to decode colony save", exception);
+        }
+    }
+
+    public void write(ColonySaveV1 save, Path saveDir) {
+        SaveWriteEvent event = null;
+        if (SaveWriteEvent.recording()) {
+            event = new SaveWriteEvent();
+            event.begin();
+        }
         try {
             Files.createDirectories(saveDir);
-            Path active = saveDir.resolve("active-save.json");
+            adoptLegacyNames(saveDir);
+            Path active = saveDir.resolve(ACTIVE_FILE);
+            Path temp = saveDir.resolve(ACTIVE_FILE + ".tmp");
+            try (FileChannel channel = FileChannel.open(
+                    temp,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE
+            )) {
+                if (format == SaveFormat.BINARY) {
+                    ByteBuffer bytes = ByteBuffer.wrap(BinarySaveCodec.encode(save));
+                    while (bytes.hasRemaining()) {
+                        channel.write(bytes);
+                    }
+                } else {
+                    writeJson(Channels.newOutputStream(channel), save);
+                }
+                channel.force(true);
+                if (event != null) {
+                    event.bytes = channel.size();
+                }
+            }
             rotateBackups(saveDir, active);
-            ColonySaveV1 save = mapperService.toSave(state);
-            mapper.writeValue(active.toFile(), save);
+            moveAtomically(temp, active);
+            Files.deleteIfExists(saveDir.resolve(JOURNAL_FILE));
+            syncDirectory(saveDir);
+            if (event != null) {
+                event.path = active.toString();
+                event.format = format.name();
+                event.commit();
+            }
         } catch (IOException exception) {
             throw new IllegalStateException("Failed to save colony", exception);
         }
     }
 
-    public void load(ColonyState state, Path saveDir) {
-        Path active = saveDir.resolve("active-save.json");
-        if (!Files.exists(active)) {
-            throw new IllegalStateException("No save file found at " + active);
+    public boolean exists(Path saveDir) {
+        if (Files.exists(saveDir.resolve(ACTIVE_FILE)) || Files.exists(saveDir.resolve(LEGACY_ACTIVE_FILE))) {
+            return true;
+        }
+        for (int index = 1; index <= ColonistsConstants.AUTOSAVE_ROTATIONS; index++) {
+            if (Files.exists(backupPath(saveDir, index)) || Files.exists(legacyBackupPath(saveDir, index))) {
+                return true;
+            }
         }
+        return false;
+    }
 
+    public void load(ColonyState state, Path saveDir) {
+        SaveLoadEvent event = null;
+        if (SaveLoadEvent.recording()) {
+            event = new SaveLoadEvent();
+            event.begin();
+        }
         try {
-            ColonySaveV1 save = mapper.readValue(active.toFile(), ColonySaveV1.class);
+            adoptLegacyNames(saveDir);
+        } catch (IOException exception) {
+            throw new IllegalStateException("Failed to rename legacy save files in " + saveDir, exception);
+        }
+        List<Path> candidates = new ArrayList<>(ColonistsConstants.AUTOSAVE_ROTATIONS + 1);
+        candidates.add(saveDir.resolve(ACTIVE_FILE));
+        for (int index = 1; index <= ColonistsConstants.AUTOSAVE_ROTATIONS; index++) {
+            candidates.add(backupPath(saveDir, index));
+        }
+
+        IOException lastFailure = null;
+        for (Path candidate : candidates) {
+            if (!Files.exists(candidate)) {
+                continue;
+            }
+            ColonySaveV1 save;
+            try {
+                save = readCurrent(candidate);
+            } catch (IOException exception) {
+                lastFailure = exception;
+                continue;
+            }
             if (save.schemaVersion != ColonistsConstants.SCHEMA_VERSION) {
                 throw new IllegalStateException(
                         "Save schema mismatch. Expected " + ColonistsConstants.SCHEMA_VERSION
@@ -49,19 +172,259 @@ public final class ColonySaveService {
                                 + ". Restore from backup in " + saveDir
                 );
             }
-            mapperService.applySave(state, save);
+            mapperService.applySave(state, save, applicableJournal(save, saveDir));
+            state.rebuildTimers();
+            state.discardChanges();
+            if (event != null) {
+                event.path = candidate.toString();
+                event.schemaVersion = save.schemaVersion;
+                event.commit();
+            }
+            return;
+        }
+        if (lastFailure != null) {
+            throw new IllegalStateException("Failed to load colony save", lastFailure);
+        }
+        throw new IllegalStateException("No save file found at " + saveDir.resolve(ACTIVE_FILE));
+    }
+
+    public long appendJournal(List<ColonyJournalEntry> entries, Path saveDir) {
+        try {
+            Files.createDirectories(saveDir);
+            try (FileChannel channel = FileChannel.open(
+                    saveDir.resolve(JOURNAL_FILE),
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND
+            )) {
+                for (ColonyJournalEntry entry : entries) {
+                    ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+                    try (JsonGenerator generator = jsonFactory.createGenerator(bytes)) {
+                        JsonSaveCodec.writeJournalEntry(generator, entry);
+                    }
+                    byte[] payload = bytes.toByteArray();
+                    CRC32 crc = new CRC32();
+                    crc.update(payload);
+                    ByteBuffer record = ByteBuffer.allocate(JOURNAL_RECORD_HEADER_BYTES + payload.length);
+                    record.putInt(payload.length);
+                    record.putInt((int) crc.getValue());
+                    record.put(payload);
+                    record.flip();
+                    while (record.hasRemaining()) {
+                        channel.write(record);
+                    }
+                }
+                channel.force(true);
+                return channel.size();
+            }
+        } catch (IOException exception) {
+            throw new IllegalStateException("Failed to append colony journal", exception);
+        }
+    }
+
+    public long journalSize(Path saveDir) {
+        try {
+            Path journal = saveDir.resolve(JOURNAL_FILE);
+            return Files.exists(journal) ? Files.size(journal) : 0L;
+        } catch (IOException exception) {
+            throw new IllegalStateException("Failed to inspect colony journal", exception);
+        }
+    }
+
+    public Path exportJson(Path saveDir) {
+        try {
+            adoptLegacyNames(saveDir);
+        } catch (IOException exception) {
+            throw new IllegalStateException("Failed to rename legacy save files in " + saveDir, exception);
+        }
+        Path active = saveDir.resolve(ACTIVE_FILE);
+        if (!Files.exists(active)) {
+            throw new IllegalStateException("No save file found at " + active);
+        }
+        Path export = saveDir.resolve(EXPORT_FILE);
+        try {
+            ColonySaveV1 save = readCurrent(active);
+            mapperService.applyJournal(save, applicableJournal(save, saveDir));
+            try (OutputStream out = Files.newOutputStream(export)) {
+                writeJson(out, save);
+            }
+            return export;
         } catch (IOException exception) {
-            throw new IllegalStateException("Failed to load colony save", exception);
+            throw new IllegalStateException("Failed to export colony save", exception);
+        }
+    }
+
+    private List<ColonyJournalEntry> applicableJournal(ColonySaveV1 save, Path saveDir) {
+        List<ColonyJournalEntry> entries = readJournal(saveDir);
+        List<ColonyJournalEntry> applicable = new ArrayList<>(entries.size());
+        long expected = save.journalSequence + 1;
+        for (ColonyJournalEntry entry : entries) {
+            if (entry.sequence < expected) {
+                continue;
+            }
+            if (entry.sequence != expected) {
+                break;
+            }
+            applicable.add(entry);
+            expected += 1;
+        }
+        return applicable;
+    }
+
+    private List<ColonyJournalEntry> readJournal(Path saveDir) {
+        Path journal = saveDir.resolve(JOURNAL_FILE);
+        List<ColonyJournalEntry> entries = new ArrayList<>();
+        if (!Files.exists(journal)) {
+            return entries;
+        }
+        ByteBuffer buffer;
+        try {
+            buffer = ByteBuffer.wrap(Files.readAllBytes(journal));
+        } catch (IOException exception) {
+            return entries;
+        }
+        while (buffer.remaining() >= JOURNAL_RECORD_HEADER_BYTES) {
+            int length = buffer.getInt();
+            int expectedCrc = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                break;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.array(), buffer.position(), length);
+            if ((int) crc.getValue() != expectedCrc) {
+                break;
+            }
+            try {
+                try (JsonParser parser = jsonFactory.createParser(buffer.array(), buffer.position(), length)) {
+                    parser.nextToken();
+                    entries.add(JsonSaveCodec.readJournalEntry(parser));
+                }
+            } catch (IOException exception) {
+                break;
+            }
+            buffer.position(buffer.position() + length);
+        }
+        return entries;
+    }
+
+    private ColonySaveV1 readCurrent(Path path) throws IOException {
+        if (isBinary(path)) {
+            ColonySaveV1 save = read(path);
+            if (save.schemaVersion >= ColonistsConstants.SCHEMA_VERSION) {
+                return save;
+            }
+            Path converted = path.resolveSibling(path.getFileName() + ".json.tmp");
+            try (OutputStream out = Files.newOutputStream(converted)) {
+                writeJson(out, save);
+            }
+            try {
+                migrate(path, converted, save.schemaVersion);
+            } finally {
+                Files.deleteIfExists(converted);
+            }
+        } else {
+            int version = migrations.readVersion(path);
+            if (version < ColonistsConstants.SCHEMA_VERSION) {
+                migrate(path, path, version);
+            }
+        }
+        return read(path);
+    }
+
+    private void migrate(Path path, Path source, int fromVersion) throws IOException {
+        Path backup = path.resolveSibling(path.getFileName() + ".v" + fromVersion + ".bak");
+        if (!Files.exists(backup)) {
+            Files.copy(path, backup);
+        }
+        Path migrated = path.resolveSibling(path.getFileName() + ".migrated.tmp");
+        migrations.migrate(source, migrated, fromVersion, ColonistsConstants.SCHEMA_VERSION);
+        moveAtomically(migrated, path);
+    }
+
+    private static boolean isBinary(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return BinarySaveCodec.matches(in.readNBytes(BinarySaveCodec.MAGIC.length));
+        }
+    }
+
+    private ColonySaveV1 read(Path path) throws IOException {
+        return decodeBytes(Files.readAllBytes(path));
+    }
+
+    private ColonySaveV1 decodeBytes(byte[] bytes) throws IOException {
+        if (BinarySaveCodec.matches(bytes)) {
+            return BinarySaveCodec.decode(bytes);
+        }
+        try (JsonParser parser = jsonFactory.createParser(bytes)) {
+            parser.nextToken();
+            return JsonSaveCodec.readSave(parser);
+        }
+    }
+
+    private byte[] writeJsonBytes(ColonySaveV1 save) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        writeJson(bytes, save);
+        return bytes.toByteArray();
+    }
+
+    private void writeJson(OutputStream out, ColonySaveV1 save) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(out).useDefaultPrettyPrinter()) {
+            JsonSaveCodec.writeSave(generator, save);
         }
     }
 
     private void rotateBackups(Path saveDir, Path active) throws IOException {
-        for (int index = ColonistsConstants.AUTOSAVE_ROTATIONS; index >= 1; index--) {
-            Path source = index == 1 ? active : saveDir.resolve("backup-" + (index - 1) + ".json");
-            Path target = saveDir.resolve("backup-" + index + ".json");
+        Files.deleteIfExists(backupPath(saveDir, ColonistsConstants.AUTOSAVE_ROTATIONS));
+        for (int index = ColonistsConstants.AUTOSAVE_ROTATIONS; index >= 2; index--) {
+            Path source = backupPath(saveDir, index - 1);
             if (Files.exists(source)) {
-                Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(source, backupPath(saveDir, index));
+            }
+        }
+        if (Files.exists(active)) {
+            Path backup = backupPath(saveDir, 1);
+            try {
+                Files.createLink(backup, active);
+            } catch (UnsupportedOperationException | IOException exception) {
+                Files.copy(active, backup, StandardCopyOption.REPLACE_EXISTING);
             }
         }
     }
+
+    private static Path backupPath(Path saveDir, int index) {
+        return saveDir.resolve("backup-" + index + ".sav");
+    }
+
+    private static Path legacyBackupPath(Path saveDir, int index) {
+        return saveDir.resolve("backup-" + index + ".json");
+    }
+
+    private static void adoptLegacyNames(Path saveDir) throws IOException {
+        adoptLegacyName(saveDir.resolve(LEGACY_ACTIVE_FILE), saveDir.resolve(ACTIVE_FILE));
+        for (int index = 1; index <= ColonistsConstants.AUTOSAVE_ROTATIONS; index++) {
+            adoptLegacyName(legacyBackupPath(saveDir, index), backupPath(saveDir, index));
+        }
+    }
+
+    private static void adoptLegacyName(Path legacy, Path current) throws IOException {
+        if (Files.exists(legacy) && !Files.exists(current)) {
+            moveAtomically(legacy, current);
+        }
+    }
+
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException exception) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void syncDirectory(Path saveDir) {
+        try (FileChannel channel = FileChannel.open(saveDir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException exception) {
+            LOGGER.log(System.Logger.Level.WARNING, "Failed to sync save directory " + saveDir, exception);
+        }
+    }
 }
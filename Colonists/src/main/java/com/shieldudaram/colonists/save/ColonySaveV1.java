@@ -1,22 +1,23 @@
 package com.shieldudaram.colonists.save;
 
-import com.shieldudaram.colonists.model.CitizenState;
-import com.shieldudaram.colonists.model.ColonyTask;
-import com.shieldudaram.colonists.model.HotspotState;
-import com.shieldudaram.colonists.model.RaidState;
-
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public final class ColonySaveV1 {
     public int schemaVersion;
     public long worldTimeSec;
+    public long journalSequence;
     public ColonyEnvelope colony;
-    public List<CitizenState> citizens;
-    public List<HotspotState> hotspots;
-    public List<ColonyTask> tasks;
-    public RaidState raid;
+    public List<CitizenEnvelope> citizens;
+    public List<HotspotEnvelope> hotspots;
+    public List<TaskEnvelope> tasks;
+    public List<ZoneEnvelope> zones;
+    public List<StructureEnvelope> structures;
+    public RaidEnvelope raid;
     public InsuranceEnvelope insurance;
+    public TaskArchiveEnvelope archive;
 
     public ColonySaveV1() {
         this.citizens = new ArrayList<>();
@@ -27,12 +28,94 @@ public final class ColonySaveV1 {
     public static final class ColonyEnvelope {
         public int populationCap;
         public String activePolicy;
-        public int stockWood;
-        public int stockStone;
-        public int stockFiber;
-        public int stockFood;
-        public int stockHide;
-        public int stockCrystal;
+        public List<StockEnvelope> stock;
+        public Map<String, List<StockEnvelope>> reservations;
+    }
+
+    public static final class StockEnvelope {
+        public String id;
+        public int tier;
+        public int quality;
+        public int qty;
+    }
+
+    public static final class CitizenEnvelope {
+        public String id;
+        public String primaryRole;
+        public Map<String, Integer> skills = new LinkedHashMap<>();
+        public double food;
+        public double rest;
+        public double safety;
+        public long preemptLockUntilSec;
+    }
+
+    public static final class HotspotEnvelope {
+        public String id;
+        public String family;
+        public int tier;
+        public int capacityMax;
+        public int capacityNow;
+        public double degradation;
+        public Long cycleStartedAtSec;
+        public Long resetAtSec;
+        public String zoneId;
+        public int x;
+        public int z;
+    }
+
+    public static final class TaskEnvelope {
+        public String id;
+        public String type;
+        public String targetId;
+        public double basePriority;
+        public boolean emergency;
+        public String status;
+        public String reservedByCitizenId;
+        public int pathRetryCount;
+        public long quarantineUntilSec;
+    }
+
+    public static final class ZoneEnvelope {
+        public String id;
+        public String type;
+        public int minX;
+        public int minZ;
+        public int maxX;
+        public int maxZ;
+    }
+
+    public static final class StructureEnvelope {
+        public String id;
+        public String blueprintId;
+        public int x;
+        public int z;
+        public int rotation;
+        public boolean complete;
+        public long startedAtSec;
+        public long completesAtSec;
+    }
+
+    public static final class RaidEnvelope {
+        public long nextRaidAtSec;
+        public int threatScore;
+        public int activeEnemies;
+        public int raidsSurvived;
+        public long lastRaidAtSec;
+        public int threatAtLastRaid;
+    }
+
+    public static final class TaskArchiveEnvelope {
+        public Map<String, Long> completedByType = new LinkedHashMap<>();
+        public Map<String, Long> failedByType = new LinkedHashMap<>();
+        public List<ArchivedTaskEnvelope> recent = new ArrayList<>();
+    }
+
+    public static final class ArchivedTaskEnvelope {
+        public String id;
+        public String type;
+        public String status;
+        public String citizenId;
+        public long closedAtSec;
     }
 
     public static final class InsuranceEnvelope {
@@ -0,0 +1,59 @@
+package com.shieldudaram.colonists.save;
+
+import com.shieldudaram.colonists.model.ColonyChanges;
+import com.shieldudaram.colonists.model.ColonyState;
+import com.shieldudaram.colonists.model.PolicyId;
+
+import java.util.Objects;
+
+public final class JournalRecorder {
+    private final ColonySaveMapper mapper;
+    private boolean hasBase;
+    private long inventoryModCount;
+    private long archivedCount;
+    private int populationCap;
+    private PolicyId activePolicy;
+
+    public JournalRecorder() {
+        this.mapper = new ColonySaveMapper();
+    }
+
+    public boolean hasBase() {
+        return hasBase;
+    }
+
+    public void invalidate() {
+        hasBase = false;
+    }
+
+    public ColonySaveV1 snapshot(ColonyState state) {
+        Objects.requireNonNull(state, "state");
+        state.discardChanges();
+        ColonySaveV1 snapshot = mapper.toSave(state);
+        markBase(state);
+        return snapshot;
+    }
+
+    public ColonyJournalEntry capture(ColonyState state) {
+        if (!hasBase) {
+            throw new IllegalStateException("Journal has no base snapshot");
+        }
+        ColonyChanges changes = state.drainChanges();
+        boolean colonyChanged = state.inventory().modCount() != inventoryModCount
+                || state.populationCap() != populationCap
+                || state.activePolicy() != activePolicy;
+        long archived = state.taskArchive().archivedCount() - archivedCount;
+        int newlyArchived = (int) Math.min(state.taskArchive().size(), archived);
+        ColonyJournalEntry entry = mapper.toJournalEntry(state, changes, colonyChanged, newlyArchived);
+        markBase(state);
+        return entry;
+    }
+
+    private void markBase(ColonyState state) {
+        hasBase = true;
+        inventoryModCount = state.inventory().modCount();
+        archivedCount = state.taskArchive().archivedCount();
+        populationCap = state.populationCap();
+        activePolicy = state.activePolicy();
+    }
+}
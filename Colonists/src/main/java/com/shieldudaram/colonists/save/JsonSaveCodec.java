@@ -0,0 +1,695 @@
+package com.shieldudaram.colonists.save;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+final class JsonSaveCodec {
+    private JsonSaveCodec() {
+    }
+
+    static void writeSave(JsonGenerator out, ColonySaveV1 save) throws IOException {
+        out.writeStartObject();
+        out.writeNumberField("schemaVersion", save.schemaVersion);
+        out.writeNumberField("worldTimeSec", save.worldTimeSec);
+        out.writeNumberField("journalSequence", save.journalSequence);
+        out.writeFieldName("colony");
+        writeColony(out, save.colony);
+        out.writeFieldName("citizens");
+        writeCitizens(out, save.citizens);
+        out.writeFieldName("hotspots");
+        writeHotspots(out, save.hotspots);
+        out.writeFieldName("tasks");
+        writeTasks(out, save.tasks);
+        out.writeFieldName("zones");
+        writeZones(out, save.zones);
+        out.writeFieldName("structures");
+        writeStructures(out, save.structures);
+        out.writeFieldName("raid");
+        writeRaid(out, save.raid);
+        out.writeFieldName("insurance");
+        writeInsurance(out, save.insurance);
+        out.writeFieldName("archive");
+        writeArchive(out, save.archive);
+        out.writeEndObject();
+    }
+
+    static ColonySaveV1 readSave(JsonParser in) throws IOException {
+        expectStart(in, JsonToken.START_OBJECT);
+        ColonySaveV1 save = new ColonySaveV1();
+        while (in.nextToken() == JsonToken.FIELD_NAME) {
+            String field = in.currentName();
+            in.nextToken();
+            switch (field) {
+                case "schemaVersion" -> save.schemaVersion = in.getValueAsInt();
+                case "worldTimeSec" -> save.worldTimeSec = in.getValueAsLong();
+                case "journalSequence" -> save.journalSequence = in.getValueAsLong();
+                case "colony" -> save.colony = readColony(in);
+                case "citizens" -> readCitizens(in, save.citizens);
+                case "hotspots" -> readHotspots(in, save.hotspots);
+                case "tasks" -> readTasks(in, save.tasks);
+                case "zones" -> save.zones = readZones(in);
+                case "structures" -> save.structures = readStructures(in);
+                case "raid" -> save.raid = readRaid(in);
+                case "insurance" -> save.insurance = readInsurance(in);
+                case "archive" -> save.archive = readArchive(in);
+                default -> in.skipChildren();
+            }
+        }
+        return save;
+    }
+
+    static void writeJournalEntry(JsonGenerator out, ColonyJournalEntry entry) throws IOException {
+        out.writeStartObject();
+        out.writeNumberField("sequence", entry.sequence);
+        out.writeNumberField("worldTimeSec", entry.worldTimeSec);
+        out.writeFieldName("colony");
+        writeColony(out, entry.colony);
+        out.writeFieldName("citizens");
+        writeCitizens(out, entry.citizens);
+        out.writeFieldName("hotspots");
+        writeHotspots(out, entry.hotspots);
+        out.writeFieldName("tasks");
+        writeTasks(out, entry.tasks);
+        out.writeFieldName("removedTasks");
+        writeStrings(out, entry.removedTasks);
+        out.writeFieldName("zones");
+        writeZones(out, entry.zones);
+        out.writeFieldName("removedZones");
+        writeStrings(out, entry.removedZones);
+        out.writeFieldName("structures");
+        writeStructures(out, entry.structures);
+        out.writeFieldName("removedStructures");
+        writeStrings(out, entry.removedStructures);
+        out.writeFieldName("raid");
+        writeRaid(out, entry.raid);
+        out.writeFieldName("insurance");
+        writeInsurance(out, entry.insurance);
+        out.writeFieldName("archive");
+        writeArchive(out, entry.archive);
+        out.writeEndObject();
+    }
+
+    static ColonyJournalEntry readJournalEntry(JsonParser in) throws IOException {
+        expectStart(in, JsonToken.START_OBJECT);
+        ColonyJournalEntry entry = new ColonyJournalEntry();
+        while (in.nextToken() == JsonToken.FIELD_NAME) {
+            String field = in.currentName();
+            in.nextToken();
+            switch (field) {
+                case "sequence" -> entry.sequence = in.getValueAsLong();
+                case "worldTimeSec" -> entry.worldTimeSec = in.getValueAsLong();
+                case "colony" -> entry.colony = readColony(in);
+                case "citizens" -> {
+                    if (in.currentToken() != JsonToken.VALUE_NULL) {
+                        entry.citizens = new ArrayList<>();
+                        readCitizens(in, entry.citizens);
+                    }
+                }
+                case "hotspots" -> readHotspots(in, entry.hotspots);
+                case "tasks" -> readTasks(in, entry.tasks);
+                case "removedTasks" -> readStrings(in, entry.removedTasks);
+                case "zones" -> {
+                    List<ColonySaveV1.ZoneEnvelope> zones = readZones(in);
+                    if (zones != null) {
+                        entry.zones = zones;
+                    }
+                }
+                case "removedZones" -> readStrings(in, entry.removedZones);
+                case "structures" -> {
+                    List<ColonySaveV1.StructureEnvelope> structures = readStructures(in);
+                    if (structures != null) {
+                        entry.structures = structures;
+                    }
+                }
+                case "removedStructures" -> readStrings(in, entry.removedStructures);
+                case "raid" -> entry.raid = readRaid(in);
+                case "insurance" -> entry.insurance = readInsurance(in);
+                case "archive" -> entry.archive = readArchive(in);
+                default -> in.skipChildren();
+            }
+        }
+        return entry;
+    }
+
+    private static void writeColony(JsonGenerator out, ColonySaveV1.ColonyEnvelope colony) throws IOException {
+        if (colony == null) {
+            out.writeNull();
+            return;
+        }
+        out.writeStartObject();
+        out.writeNumberField("populationCap", colony.populationCap);
+        writeStringField(out, "activePolicy", colony.activePolicy);
+        out.writeFieldName("stock");
+        writeStacks(out, colony.stock);
+        out.writeFieldName("reservations");
+        if (colony.reservations == null) {
+            out.writeNull();
+        } else {
+            out.writeStartObject();
+            for (Map.Entry<String, List<ColonySaveV1.StockEnvelope>> entry : colony.reservations.entrySet()) {
+                out.writeFieldName(entry.getKey());
+                writeStacks(out, entry.getValue());
+            }
+            out.writeEndObject();
+        }
+        out.writeEndObject();
+    }
+
+    private static ColonySaveV1.ColonyEnvelope readColony(JsonParser in) throws IOException {
+        if (in.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expectStart(in, JsonToken.START_OBJECT);
+        ColonySaveV1.ColonyEnvelope colony = new ColonySaveV1.ColonyEnvelope();
+        while (in.nextToken() == JsonToken.FIELD_NAME) {
+            String field = in.currentName();
+            in.nextToken();
+            switch (field) {
+                case "populationCap" -> colony.populationCap = in.getValueAsInt();
+                case "activePolicy" -> colony.activePolicy = readString(in);
+                case "stock" -> colony.stock = readStacks(in);
+                case "reservations" -> {
+                    if (in.currentToken() != JsonToken.VALUE_NULL) {
+                        expectStart(in, JsonToken.START_OBJECT);
+                        colony.reservations = new LinkedHashMap<>();
+                        while (in.nextToken() == JsonToken.FIELD_NAME) {
+                            String holder = in.currentName();
+                            in.nextToken();
+                            colony.reservations.put(holder, readStacks(in));
+                        }
+                    }
+                }
+                default -> in.skipChildren();
+            }
+        }
+        return colony;
+    }
+
+    private static void writeStacks(JsonGenerator out, List<ColonySaveV1.StockEnvelope> stacks) throws IOException {
+        if (stacks == null) {
+            out.writeNull();
+            return;
+        }
+        out.writeStartArray();
+        for (ColonySaveV1.StockEnvelope stack : stacks) {
+            out.writeStartObject();
+            writeStringField(out, "id", stack.id);
+            out.writeNumberField("tier", stack.tier);
+            out.writeNumberField("quality", stack.quality);
+            out.writeNumberField("qty", stack.qty);
+            out.writeEndObject();
+        }
+        out.writeEndArray();
+    }
+
+    private static List<ColonySaveV1.StockEnvelope> readStacks(JsonParser in) throws IOException {
+        if (in.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expectStart(in, JsonToken.START_ARRAY);
+        List<ColonySaveV1.StockEnvelope> stacks = new ArrayList<>();
+        while (in.nextToken() == JsonToken.START_OBJECT) {
+            ColonySaveV1.StockEnvelope stack = new ColonySaveV1.StockEnvelope();
+            while (in.nextToken() == JsonToken.FIELD_NAME) {
+                String field = in.currentName();
+                in.nextToken();
+                switch (field) {
+                    case "id" -> stack.id = readString(in);
+                    case "tier" -> stack.tier = in.getValueAsInt();
+                    case "quality" -> stack.quality = in.getValueAsInt();
+                    case "qty" -> stack.qty = in.getValueAsInt();
+                    default -> in.skipChildren();
+                }
+            }
+            stacks.add(stack);
+        }
+        return stacks;
+    }
+
+    private static void writeCitizens(JsonGenerator out, List<ColonySaveV1.CitizenEnvelope> citizens) throws IOException {
+        if (citizens == null) {
+            out.writeNull();
+            return;
+        }
+        out.writeStartArray();
+        for (ColonySaveV1.CitizenEnvelope citizen : citizens) {
+            out.writeStartObject();
+            writeStringField(out, "id", citizen.id);
+            writeStringField(out, "primaryRole", citizen.primaryRole);
+            out.writeFieldName("skills");
+            out.writeStartObject();
+            for (Map.Entry<String, Integer> skill : citizen.skills.entrySet()) {
+                out.writeNumberField(skill.getKey(), skill.getValue());
+            }
+            out.writeEndObject();
+            out.writeNumberField("food", citizen.food);
+            out.writeNumberField("rest", citizen.rest);
+            out.writeNumberField("safety", citizen.safety);
+            out.writeNumberField("preemptLockUntilSec", citizen.preemptLockUntilSec);
+            out.writeEndObject();
+        }
+        out.writeEndArray();
+    }
+
+    private static void readCitizens(JsonParser in, List<ColonySaveV1.CitizenEnvelope> citizens) throws IOException {
+        if (in.currentToken() == JsonToken.VALUE_NULL) {
+            return;
+        }
+        expectStart(in, JsonToken.START_ARRAY);
+        while (in.nextToken() == JsonToken.START_OBJECT) {
+            ColonySaveV1.CitizenEnvelope citizen = new ColonySaveV1.CitizenEnvelope();
+            while (in.nextToken() == JsonToken.FIELD_NAME) {
+                String field = in.currentName();
+                in.nextToken();
+                switch (field) {
+                    case "id" -> citizen.id = readString(in);
+                    case "primaryRole" -> citizen.primaryRole = readString(in);
+                    case "skills" -> {
+                        if (in.currentToken() != JsonToken.VALUE_NULL) {
+                            expectStart(in, JsonToken.START_OBJECT);
+                            while (in.nextToken() == JsonToken.FIELD_NAME) {
+                                String role = in.currentName();
+                                in.nextToken();
+                                citizen.skills.put(role, in.getValueAsInt());
+                            }
+                        }
+                    }
+                    case "food" -> citizen.food = in.getValueAsDouble();
+                    case "rest" -> citizen.rest = in.getValueAsDouble();
+                    case "safety" -> citizen.safety = in.getValueAsDouble();
+                    case "preemptLockUntilSec" -> citizen.preemptLockUntilSec = in.getValueAsLong();
+                    default -> in.skipChildren();
+                }
+            }
+            citizens.add(citizen);
+        }
+    }
+
+    private static void writeHotspots(JsonGenerator out, List<ColonySaveV1.HotspotEnvelope> hotspots) throws IOException {
+        if (hotspots == null) {
+            out.writeNull();
+            return;
+        }
+        out.writeStartArray();
+        for (ColonySaveV1.HotspotEnvelope hotspot : hotspots) {
+            out.writeStartObject();
+            writeStringField(out, "id", hotspot.id);
+            writeStringField(out, "family", hotspot.family);
+            out.writeNumberField("tier", hotspot.tier);
+            out.writeNumberField("capacityMax", hotspot.capacityMax);
+            out.writeNumberField("capacityNow", hotspot.capacityNow);
+            out.writeNumberField("degradation", hotspot.degradation);
+            writeLongField(out, "cycleStartedAtSec", hotspot.cycleStartedAtSec);
+            writeLongField(out, "resetAtSec", hotspot.resetAtSec);
+            writeStringField(out, "zoneId", hotspot.zoneId);
+            out.writeNumberField("x", hotspot.x);
+            out.writeNumberField("z", hotspot.z);
+            out.writeEndObject();
+        }
+        out.writeEndArray();
+    }
+
+    private static void readHotspots(JsonParser in, List<ColonySaveV1.HotspotEnvelope> hotspots) throws IOException {
+        if (in.currentToken() == JsonToken.VALUE_NULL) {
+            return;
+        }
+        expectStart(in, JsonToken.START_ARRAY);
+        while (in.nextToken() == JsonToken.START_OBJECT) {
+            ColonySaveV1.HotspotEnvelope hotspot = new ColonySaveV1.HotspotEnvelope();
+            while (in.nextToken() == JsonToken.FIELD_NAME) {
+                String field = in.currentName();
+                in.nextToken();
+                switch (field) {
+                    case "id" -> hotspot.id = readString(in);
+                    case "family" -> hotspot.family = readString(in);
+                    case "tier" -> hotspot.tier = in.getValueAsInt();
+                    case "capacityMax" -> hotspot.capacityMax = in.getValueAsInt();
+                    case "capacityNow" -> hotspot.capacityNow = in.getValueAsInt();
+                    case "degradation" -> hotspot.degradation = in.getValueAsDouble();
+                    case "cycleStartedAtSec" -> hotspot.cycleStartedAtSec = readLong(in);
+                    case "resetAtSec" -> hotspot.resetAtSec = readLong(in);
+                    case "zoneId" -> hotspot.zoneId = readString(in);
+                    case "x" -> hotspot.x = in.getValueAsInt();
+                    case "z" -> hotspot.z = in.getValueAsInt();
+                    default -> in.skipChildren();
+                }
+            }
+            hotspots.add(hotspot);
+        }
+    }
+
+    private static void writeTasks(JsonGenerator out, List<ColonySaveV1.TaskEnvelope> tasks) throws IOException {
+        if (tasks == null) {
+            out.writeNull();
+            return;
+        }
+        out.writeStartArray();
+        for (ColonySaveV1.TaskEnvelope task : tasks) {
+            out.writeStartObject();
+            writeStringField(out, "id", task.id);
+            writeStringField(out, "type", task.type);
+            writeStringField(out, "targetId", task.targetId);
+            out.writeNumberField("basePriority", task.basePriority);
+            out.writeBooleanField("emergency", task.emergency);
+            writeStringField(out, "status", task.status);
+            writeStringField(out, "reservedByCitizenId", task.reservedByCitizenId);
+            out.writeNumberField("pathRetryCount", task.pathRetryCount);
+            out.writeNumberField("quarantineUntilSec", task.quarantineUntilSec);
+            out.writeEndObject();
+        }
+        out.writeEndArray();
+    }
+
+    private static void readTasks(JsonParser in, List<ColonySaveV1.TaskEnvelope> tasks) throws IOException {
+        if (in.currentToken() == JsonToken.VALUE_NULL) {
+            return;
+        }
+        expectStart(in, JsonToken.START_ARRAY);
+        while (in.nextToken() == JsonToken.START_OBJECT) {
+            ColonySaveV1.TaskEnvelope task = new ColonySaveV1.TaskEnvelope();
+            while (in.nextToken() == JsonToken.FIELD_NAME) {
+                String field = in.currentName();
+                in.nextToken();
+                switch (field) {
+                    case "id" -> task.id = readString(in);
+                    case "type" -> task.type = readString(in);
+                    case "targetId" -> task.targetId = readString(in);
+                    case "basePriority" -> task.basePriority = in.getValueAsDouble();
+                    case "emergency" -> task.emergency = in.getValueAsBoolean();
+                    case "status" -> task.status = readString(in);
+                    case "reservedByCitizenId" -> task.reservedByCitizenId = readString(in);
+                    case "pathRetryCount" -> task.pathRetryCount = in.getValueAsInt();
+                    case "quarantineUntilSec" -> task.quarantineUntilSec = in.getValueAsLong();
+                    default -> in.skipChildren();
+                }
+            }
+            tasks.add(task);
+        }
+    }
+
+    private static void writeZones(JsonGenerator out, List<ColonySaveV1.ZoneEnvelope> zones) throws IOException {
+        if (zones == null) {
+            out.writeNull();
+            return;
+        }
+        out.writeStartArray();
+        for (ColonySaveV1.ZoneEnvelope zone : zones) {
+            out.writeStartObject();
+            writeStringField(out, "id", zone.id);
+            writeStringField(out, "type", zone.type);
+            out.writeNumberField("minX", zone.minX);
+            out.writeNumberField("minZ", zone.minZ);
+            out.writeNumberField("maxX", zone.maxX);
+            out.writeNumberField("maxZ", zone.maxZ);
+            out.writeEndObject();
+        }
+        out.writeEndArray();
+    }
+
+    private static List<ColonySaveV1.ZoneEnvelope> readZones(JsonParser in) throws IOException {
+        if (in.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expectStart(in, JsonToken.START_ARRAY);
+        List<ColonySaveV1.ZoneEnvelope> zones = new ArrayList<>();
+        while (in.nextToken() == JsonToken.START_OBJECT) {
+            ColonySaveV1.ZoneEnvelope zone = new ColonySaveV1.ZoneEnvelope();
+            while (in.nextToken() == JsonToken.FIELD_NAME) {
+                String field = in.currentName();
+                in.nextToken();
+                switch (field) {
+                    case "id" -> zone.id = readString(in);
+                    case "type" -> zone.type = readString(in);
+                    case "minX" -> zone.minX = in.getValueAsInt();
+                    case "minZ" -> zone.minZ = in.getValueAsInt();
+                    case "maxX" -> zone.maxX = in.getValueAsInt();
+                    case "maxZ" -> zone.maxZ = in.getValueAsInt();
+                    default -> in.skipChildren();
+                }
+            }
+            zones.add(zone);
+        }
+        return zones;
+    }
+
+    private static void writeStructures(JsonGenerator out, List<ColonySaveV1.StructureEnvelope> structures) throws IOException {
+        if (structures == null) {
+            out.writeNull();
+            return;
+        }
+        out.writeStartArray();
+        for (ColonySaveV1.StructureEnvelope structure : structures) {
+            out.writeStartObject();
+            writeStringField(out, "id", structure.id);
+            writeStringField(out, "blueprintId", structure.blueprintId);
+            out.writeNumberField("x", structure.x);
+            out.writeNumberField("z", structure.z);
+            out.writeNumberField("rotation", structure.rotation);
+            out.writeBooleanField("complete", structure.complete);
+            out.writeNumberField("startedAtSec", structure.startedAtSec);
+            out.writeNumberField("completesAtSec", structure.completesAtSec);
+            out.writeEndObject();
+        }
+        out.writeEndArray();
+    }
+
+    private static List<ColonySaveV1.StructureEnvelope> readStructures(JsonParser in) throws IOException {
+        if (in.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expectStart(in, JsonToken.START_ARRAY);
+        List<ColonySaveV1.StructureEnvelope> structures = new ArrayList<>();
+        while (in.nextToken() == JsonToken.START_OBJECT) {
+            ColonySaveV1.StructureEnvelope structure = new ColonySaveV1.StructureEnvelope();
+            while (in.nextToken() == JsonToken.FIELD_NAME) {
+                String field = in.currentName();
+                in.nextToken();
+                switch (field) {
+                    case "id" -> structure.id = readString(in);
+                    case "blueprintId" -> structure.blueprintId = readString(in);
+                    case "x" -> structure.x = in.getValueAsInt();
+                    case "z" -> structure.z = in.getValueAsInt();
+                    case "rotation" -> structure.rotation = in.getValueAsInt();
+                    case "complete" -> structure.complete = in.getValueAsBoolean();
+                    case "startedAtSec" -> structure.startedAtSec = in.getValueAsLong();
+                    case "completesAtSec" -> structure.completesAtSec = in.getValueAsLong();
+                    default -> in.skipChildren();
+                }
+            }
+            structures.add(structure);
+        }
+        return structures;
+    }
+
+    private static void writeRaid(JsonGenerator out, ColonySaveV1.RaidEnvelope raid) throws IOException {
+        if (raid == null) {
+            out.writeNull();
+            return;
+        }
+        out.writeStartObject();
+        out.writeNumberField("nextRaidAtSec", raid.nextRaidAtSec);
+        out.writeNumberField("threatScore", raid.threatScore);
+        out.writeNumberField("activeEnemies", raid.activeEnemies);
+        out.writeNumberField("raidsSurvived", raid.raidsSurvived);
+        out.writeNumberField("lastRaidAtSec", raid.lastRaidAtSec);
+        out.writeNumberField("threatAtLastRaid", raid.threatAtLastRaid);
+        out.writeEndObject();
+    }
+
+    private static ColonySaveV1.RaidEnvelope readRaid(JsonParser in) throws IOException {
+        if (in.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expectStart(in, JsonToken.START_OBJECT);
+        ColonySaveV1.RaidEnvelope raid = new ColonySaveV1.RaidEnvelope();
+        while (in.nextToken() == JsonToken.FIELD_NAME) {
+            String field = in.currentName();
+            in.nextToken();
+            switch (field) {
+                case "nextRaidAtSec" -> raid.nextRaidAtSec = in.getValueAsLong();
+                case "threatScore" -> raid.threatScore = in.getValueAsInt();
+                case "activeEnemies" -> raid.activeEnemies = in.getValueAsInt();
+                case "raidsSurvived" -> raid.raidsSurvived = in.getValueAsInt();
+                case "lastRaidAtSec" -> raid.lastRaidAtSec = in.getValueAsLong();
+                case "threatAtLastRaid" -> raid.threatAtLastRaid = in.getValueAsInt();
+                default -> in.skipChildren();
+            }
+        }
+        return raid;
+    }
+
+    private static void writeInsurance(JsonGenerator out, ColonySaveV1.InsuranceEnvelope insurance) throws IOException {
+        if (insurance == null) {
+            out.writeNull();
+            return;
+        }
+        out.writeStartObject();
+        out.writeNumberField("reservePoints", insurance.reservePoints);
+        out.writeFieldName("claims");
+        writeStrings(out, insurance.claims);
+        out.writeEndObject();
+    }
+
+    private static ColonySaveV1.InsuranceEnvelope readInsurance(JsonParser in) throws IOException {
+        if (in.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expectStart(in, JsonToken.START_OBJECT);
+        ColonySaveV1.InsuranceEnvelope insurance = new ColonySaveV1.InsuranceEnvelope();
+        while (in.nextToken() == JsonToken.FIELD_NAME) {
+            String field = in.currentName();
+            in.nextToken();
+            switch (field) {
+                case "reservePoints" -> insurance.reservePoints = in.getValueAsInt();
+                case "claims" -> readStrings(in, insurance.claims);
+                default -> in.skipChildren();
+            }
+        }
+        return insurance;
+    }
+
+    private static void writeArchive(JsonGenerator out, ColonySaveV1.TaskArchiveEnvelope archive) throws IOException {
+        if (archive == null) {
+            out.writeNull();
+            return;
+        }
+        out.writeStartObject();
+        out.writeFieldName("completedByType");
+        writeCounts(out, archive.completedByType);
+        out.writeFieldName("failedByType");
+        writeCounts(out, archive.failedByType);
+        out.writeFieldName("recent");
+        out.writeStartArray();
+        for (ColonySaveV1.ArchivedTaskEnvelope task : archive.recent) {
+            out.writeStartObject();
+            writeStringField(out, "id", task.id);
+            writeStringField(out, "type", task.type);
+            writeStringField(out, "status", task.status);
+            writeStringField(out, "citizenId", task.citizenId);
+            out.writeNumberField("closedAtSec", task.closedAtSec);
+            out.writeEndObject();
+        }
+        out.writeEndArray();
+        out.writeEndObject();
+    }
+
+    private static ColonySaveV1.TaskArchiveEnvelope readArchive(JsonParser in) throws IOException {
+        if (in.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        expectStart(in, JsonToken.START_OBJECT);
+        ColonySaveV1.TaskArchiveEnvelope archive = new ColonySaveV1.TaskArchiveEnvelope();
+        while (in.nextToken() == JsonToken.FIELD_NAME) {
+            String field = in.currentName();
+            in.nextToken();
+            switch (field) {
+                case "completedByType" -> readCounts(in, archive.completedByType);
+                case "failedByType" -> readCounts(in, archive.failedByType);
+                case "recent" -> {
+                    if (in.currentToken() == JsonToken.VALUE_NULL) {
+                        break;
+                    }
+                    expectStart(in, JsonToken.START_ARRAY);
+                    while (in.nextToken() == JsonToken.START_OBJECT) {
+                        ColonySaveV1.ArchivedTaskEnvelope task = new ColonySaveV1.ArchivedTaskEnvelope();
+                        while (in.nextToken() == JsonToken.FIELD_NAME) {
+                            String taskField = in.currentName();
+                            in.nextToken();
+                            switch (taskField) {
+                                case "id" -> task.id = readString(in);
+                                case "type" -> task.type = readString(in);
+                                case "status" -> task.status = readString(in);
+                                case "citizenId" -> task.citizenId = readString(in);
+                                case "closedAtSec" -> task.closedAtSec = in.getValueAsLong();
+                                default -> in.skipChildren();
+                            }
+                        }
+                        archive.recent.add(task);
+                    }
+                }
+                default -> in.skipChildren();
+            }
+        }
+        return archive;
+    }
+
+    private static void writeCounts(JsonGenerator out, Map<String, Long> counts) throws IOException {
+        out.writeStartObject();
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            out.writeNumberField(entry.getKey(), entry.getValue());
+        }
+        out.writeEndObject();
+    }
+
+    private static void readCounts(JsonParser in, Map<String, Long> counts) throws IOException {
+        if (in.currentToken() == JsonToken.VALUE_NULL) {
+            return;
+        }
+        expectStart(in, JsonToken.START_OBJECT);
+        while (in.nextToken() == JsonToken.FIELD_NAME) {
+            String key = in.currentName();
+            in.nextToken();
+            counts.put(key, in.getValueAsLong());
+        }
+    }
+
+    private static void writeStrings(JsonGenerator out, List<String> values) throws IOException {
+        if (values == null) {
+            out.writeNull();
+            return;
+        }
+        out.writeStartArray();
+        for (String value : values) {
+            out.writeString(value);
+        }
+        out.writeEndArray();
+    }
+
+    private static void readStrings(JsonParser in, List<String> values) throws IOException {
+        if (in.currentToken() == JsonToken.VALUE_NULL) {
+            return;
+        }
+        expectStart(in, JsonToken.START_ARRAY);
+        while (in.nextToken() != JsonToken.END_ARRAY) {
+            values.add(readString(in));
+        }
+    }
+
+    private static void writeStringField(JsonGenerator out, String name, String value) throws IOException {
+        if (value == null) {
+            out.writeNullField(name);
+        } else {
+            out.writeStringField(name, value);
+        }
+    }
+
+    private static void writeLongField(JsonGenerator out, String name, Long value) throws IOException {
+        if (value == null) {
+            out.writeNullField(name);
+        } else {
+            out.writeNumberField(name, value);
+        }
+    }
+
+    private static String readString(JsonParser in) throws IOException {
+        return in.currentToken() == JsonToken.VALUE_NULL ? null : in.getValueAsString();
+    }
+
+    private static Long readLong(JsonParser in) throws IOException {
+        return in.currentToken() == JsonToken.VALUE_NULL ? null : in.getValueAsLong();
+    }
+
+    private static void expectStart(JsonParser in, JsonToken expected) throws IOException {
+        if (in.currentToken() != expected) {
+            throw new JsonParseException(in, "Expected " + expected + " but found " + in.currentToken());
+        }
+    }
+}
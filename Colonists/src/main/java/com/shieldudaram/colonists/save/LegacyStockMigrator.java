@@ -0,0 +1,92 @@
+package com.shieldudaram.colonists.save;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+final class LegacyStockMigrator implements SaveMigrator {
+    private static final String[] LEGACY_FIELDS = {
+            "stockWood", "stockStone", "stockFiber", "stockFood", "stockHide", "stockCrystal"
+    };
+    private static final String[] LEGACY_ITEMS = {"wood", "stone", "fiber", "food", "hide", "crystal"};
+
+    @Override
+    public int fromVersion() {
+        return 1;
+    }
+
+    @Override
+    public void migrate(JsonParser in, JsonGenerator out) throws IOException {
+        if (in.currentToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(in, "Expected save object but found " + in.currentToken());
+        }
+        out.writeStartObject();
+        while (in.nextToken() == JsonToken.FIELD_NAME) {
+            String field = in.currentName();
+            in.nextToken();
+            out.writeFieldName(field);
+            switch (field) {
+                case "schemaVersion" -> out.writeNumber(toVersion());
+                case "colony" -> migrateColony(in, out);
+                default -> out.copyCurrentStructure(in);
+            }
+        }
+        out.writeEndObject();
+    }
+
+    private void migrateColony(JsonParser in, JsonGenerator out) throws IOException {
+        if (in.currentToken() != JsonToken.START_OBJECT) {
+            out.copyCurrentStructure(in);
+            return;
+        }
+        int[] legacy = new int[LEGACY_FIELDS.length];
+        boolean hasStock = false;
+        out.writeStartObject();
+        while (in.nextToken() == JsonToken.FIELD_NAME) {
+            String field = in.currentName();
+            in.nextToken();
+            int legacyIndex = legacyIndex(field);
+            if (legacyIndex >= 0) {
+                legacy[legacyIndex] = in.getValueAsInt();
+                continue;
+            }
+            if (field.equals("stock")) {
+                if (in.currentToken() == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                hasStock = true;
+            }
+            out.writeFieldName(field);
+            out.copyCurrentStructure(in);
+        }
+        if (!hasStock) {
+            out.writeFieldName("stock");
+            out.writeStartArray();
+            for (int index = 0; index < legacy.length; index++) {
+                if (legacy[index] <= 0) {
+                    continue;
+                }
+                out.writeStartObject();
+                out.writeStringField("id", LEGACY_ITEMS[index]);
+                out.writeNumberField("tier", 1);
+                out.writeNumberField("quality", 1);
+                out.writeNumberField("qty", legacy[index]);
+                out.writeEndObject();
+            }
+            out.writeEndArray();
+        }
+        out.writeEndObject();
+    }
+
+    private static int legacyIndex(String field) {
+        for (int index = 0; index < LEGACY_FIELDS.length; index++) {
+            if (LEGACY_FIELDS[index].equals(field)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+}
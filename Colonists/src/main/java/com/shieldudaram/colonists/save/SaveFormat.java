@@ -0,0 +1,15 @@
+package com.shieldudaram.colonists.save;
+
+import java.util.Locale;
+
+public enum SaveFormat {
+    JSON,
+    BINARY;
+
+    public static SaveFormat parse(String value) {
+        if (value == null || value.isBlank()) {
+            return JSON;
+        }
+        return SaveFormat.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
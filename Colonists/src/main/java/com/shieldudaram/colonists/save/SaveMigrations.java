@@ -0,0 +1,84 @@
+package com.shieldudaram.colonists.save;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+public final class SaveMigrations {
+    private final JsonFactory jsonFactory;
+    private final Map<Integer, SaveMigrator> migrators = new HashMap<>();
+
+    public SaveMigrations(JsonFactory jsonFactory) {
+        this.jsonFactory = Objects.requireNonNull(jsonFactory, "jsonFactory");
+    }
+
+    public static SaveMigrations defaults(JsonFactory jsonFactory) {
+        return new SaveMigrations(jsonFactory).register(new LegacyStockMigrator());
+    }
+
+    public SaveMigrations register(SaveMigrator migrator) {
+        Objects.requireNonNull(migrator, "migrator");
+        if (migrator.toVersion() <= migrator.fromVersion()) {
+            throw new IllegalArgumentException("Migrator must move forward from schema version " + migrator.fromVersion());
+        }
+        if (migrators.putIfAbsent(migrator.fromVersion(), migrator) != null) {
+            throw new IllegalArgumentException("Duplicate save migrator for schema version " + migrator.fromVersion());
+        }
+        return this;
+    }
+
+    public int readVersion(Path path) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(path.toFile())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Save is not a JSON object: " + path);
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if (field.equals("schemaVersion")) {
+                    return parser.getValueAsInt();
+                }
+                parser.skipChildren();
+            }
+        }
+        throw new IOException("Save has no schema version: " + path);
+    }
+
+    public void migrate(Path source, Path target, int fromVersion, int toVersion) throws IOException {
+        Path input = source;
+        int version = fromVersion;
+        while (version < toVersion) {
+            SaveMigrator migrator = migrators.get(version);
+            if (migrator == null) {
+                throw new IllegalStateException("No save migrator registered for schema version " + version);
+            }
+            Path output = target.resolveSibling(target.getFileName() + ".v" + migrator.toVersion() + ".tmp");
+            try (InputStream in = Files.newInputStream(input);
+                 OutputStream out = Files.newOutputStream(output);
+                 JsonParser parser = jsonFactory.createParser(in);
+                 JsonGenerator generator = jsonFactory.createGenerator(out).useDefaultPrettyPrinter()) {
+                parser.nextToken();
+                migrator.migrate(parser, generator);
+            }
+            if (input != source) {
+                Files.deleteIfExists(input);
+            }
+            input = output;
+            version = migrator.toVersion();
+        }
+        if (input != source) {
+            Files.move(input, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.shieldudaram.colonists.save;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+
+public interface SaveMigrator {
+    int fromVersion();
+
+    default int toVersion() {
+        return fromVersion() + 1;
+    }
+
+    void migrate(JsonParser in, JsonGenerator out) throws IOException;
+}
@@ -0,0 +1,38 @@
+package com.shieldudaram.colonists.sim;
+
+import java.util.Locale;
+
+public record AdvanceReport(
+        long fromSec,
+        long toSec,
+        long ticksRun,
+        long ticksSkipped,
+        long jumps,
+        long wallNanos
+) {
+    public long simulatedSeconds() {
+        return toSec - fromSec;
+    }
+
+    public double simSecondsPerWallSecond() {
+        if (wallNanos <= 0L) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return simulatedSeconds() / (wallNanos / 1_000_000_000.0);
+    }
+
+    public String describe() {
+        return String.format(
+                Locale.ROOT,
+                "advanced t=%ds -> t=%ds (%ds) ticks=%d skipped=%d jumps=%d wall=%.1fms throughput=%.0f sim-s/s",
+                fromSec,
+                toSec,
+                simulatedSeconds(),
+                ticksRun,
+                ticksSkipped,
+                jumps,
+                wallNanos / 1_000_000.0,
+                simSecondsPerWallSecond()
+        );
+    }
+}
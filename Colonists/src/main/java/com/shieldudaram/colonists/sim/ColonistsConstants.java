@@ -8,7 +8,7 @@ import java.util.EnumMap;
 import java.util.Map;
 
 public final class ColonistsConstants {
-    public static final int SCHEMA_VERSION = 1;
+    public static final int SCHEMA_VERSION = 2;
     public static final int TICK_HZ = 5;
     public static final int DAY_LENGTH_MINUTES = 24;
     public static final int AUTOSAVE_SECONDS = 300;
@@ -21,6 +21,9 @@ public final class ColonistsConstants {
     public static final int TASK_PREEMPT_LOCK_SECONDS = 10;
     public static final int TASK_PATH_RETRIES = 2;
     public static final int TASK_QUARANTINE_SECONDS = 60;
+    public static final int TASK_ARCHIVE_CAPACITY = 200;
+    public static final int TASK_COMPACTION_BATCH = 64;
+    public static final int MATCH_BUDGET_MICROS = 500;
 
     public static final int RAID_GRACE_SECONDS = 30 * 60;
     public static final int RAID_BASE_INTERVAL_SECONDS = 15 * 60;
@@ -1,68 +1,147 @@
 package com.shieldudaram.colonists.sim;
 
+import com.shieldudaram.colonists.commands.ColonyCommand;
+import com.shieldudaram.colonists.commands.CommandResult;
+import com.shieldudaram.colonists.content.ColonistsConfig;
+import com.shieldudaram.colonists.events.CallbacksAdapter;
+import com.shieldudaram.colonists.events.ColonyEventBus;
+import com.shieldudaram.colonists.jfr.RecordingCallbacks;
 import com.shieldudaram.colonists.model.BlueprintId;
+import com.shieldudaram.colonists.model.CitizenState;
 import com.shieldudaram.colonists.model.ColonyState;
 import com.shieldudaram.colonists.model.ColonyTask;
 import com.shieldudaram.colonists.model.ColonyZone;
 import com.shieldudaram.colonists.model.HotspotFamily;
 import com.shieldudaram.colonists.model.HotspotState;
+import com.shieldudaram.colonists.model.ItemCost;
+import com.shieldudaram.colonists.model.ItemRegistry;
 import com.shieldudaram.colonists.model.PlacedStructure;
 import com.shieldudaram.colonists.model.PolicyId;
 import com.shieldudaram.colonists.model.PolicyWeights;
 import com.shieldudaram.colonists.model.Role;
+import com.shieldudaram.colonists.model.TaskStatus;
 import com.shieldudaram.colonists.model.TaskType;
 import com.shieldudaram.colonists.model.ZoneType;
+import com.shieldudaram.colonists.save.AsyncSaveWriter;
 import com.shieldudaram.colonists.save.ColonySaveService;
+import com.shieldudaram.colonists.save.ColonySaveV1;
+import com.shieldudaram.colonists.save.JournalRecorder;
+import com.shieldudaram.colonists.save.SaveFormat;
+import com.shieldudaram.colonists.systems.AgentScheduler;
+import com.shieldudaram.colonists.systems.AssignmentMode;
 import com.shieldudaram.colonists.systems.HotspotSystem;
 import com.shieldudaram.colonists.systems.InsuranceSystem;
 import com.shieldudaram.colonists.systems.RaidDirector;
 import com.shieldudaram.colonists.systems.TaskBroker;
+import com.shieldudaram.colonists.systems.TaskMatcher;
+import com.shieldudaram.colonists.systems.TaskRetentionSystem;
 import com.shieldudaram.colonists.systems.ZoneSystem;
 import com.shieldudaram.colonists.telemetry.TelemetryMode;
 import com.shieldudaram.colonists.telemetry.TelemetryService;
+import com.shieldudaram.colonists.telemetry.TickMetrics;
+import com.shieldudaram.colonists.telemetry.TickPhase;
 
 import java.nio.file.Path;
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public final class ColonySimulationEngine {
+    public static final long MAX_WORLD_TIME_SEC = Long.MAX_VALUE / ColonistsConstants.TICK_HZ;
+
     private final ColonyState state;
     private final ColonyCallbacks callbacks;
+    private final ColonyEventBus events;
     private final TaskBroker taskBroker;
     private final ZoneSystem zoneSystem;
     private final HotspotSystem hotspotSystem;
     private final RaidDirector raidDirector;
     private final InsuranceSystem insuranceSystem;
+    private final TaskRetentionSystem taskRetentionSystem;
     private final SkillProgression skillProgression;
     private final ProgressionGateEvaluator progressionGateEvaluator;
     private final BlueprintCatalog blueprintCatalog;
     private final ColonySaveService saveService;
+    private final AsyncSaveWriter saveWriter;
+    private final JournalRecorder journalRecorder;
     private final TelemetryService telemetry;
     private final Path saveDir;
-    private final Deque<Runnable> pauseQueue;
+    private final CommandInbox commands;
+    private final Map<BlueprintId, ItemCost> blueprintCosts;
     private final boolean autosaveEnabled;
+    private final boolean journalEnabled;
+    private final long journalSeconds;
+    private final long journalCompactBytes;
+    private final boolean verifyAggregates;
 
     private long tickCounter;
     private long lastAutosaveAt;
+    private long lastJournalAt;
 
     public ColonySimulationEngine(Path logsDir, Path saveDir, ColonyCallbacks callbacks, boolean autosaveEnabled) {
-        this.state = new ColonyState();
-        this.callbacks = callbacks;
-        this.taskBroker = new TaskBroker();
+        this(logsDir, saveDir, callbacks, configWithAutosave(autosaveEnabled));
+    }
+
+    public ColonySimulationEngine(Path logsDir, Path saveDir, ColonyCallbacks callbacks, ColonistsConfig config) {
+        this(logsDir, saveDir, callbacks, config, ItemRegistry.defaults());
+    }
+
+    public ColonySimulationEngine(
+            Path logsDir,
+            Path saveDir,
+            ColonyCallbacks callbacks,
+            ColonistsConfig config,
+            ItemRegistry items
+    ) {
+        this(new TelemetryService(logsDir, config.telemetry), null, saveDir, callbacks, config, items);
+    }
+
+    public ColonySimulationEngine(
+            TelemetryService telemetry,
+            Executor saveExecutor,
+            Path saveDir,
+            ColonyCallbacks callbacks,
+            ColonistsConfig config,
+            ItemRegistry items
+    ) {
+        this.state = new ColonyState(items);
+        this.callbacks = new RecordingCallbacks(callbacks);
+        this.events = new ColonyEventBus();
+        CallbacksAdapter.subscribe(events, this.callbacks, callbacks);
+        this.taskBroker = new TaskBroker(
+                new AgentScheduler(config.sim.aiStaggerEnabled, config.sim.aiAgentsPerTick),
+                AssignmentMode.parse(config.sim.assignmentMode),
+                new TaskMatcher(config.sim.matchBudgetMicros * 1_000L)
+        );
         this.zoneSystem = new ZoneSystem();
         this.hotspotSystem = new HotspotSystem();
         this.raidDirector = new RaidDirector();
         this.insuranceSystem = new InsuranceSystem();
+        this.taskRetentionSystem = new TaskRetentionSystem(config.tasks.compactionBatchPerTick);
         this.skillProgression = new SkillProgression();
         this.progressionGateEvaluator = new ProgressionGateEvaluator();
         this.blueprintCatalog = new BlueprintCatalog();
-        this.saveService = new ColonySaveService();
-        this.telemetry = new TelemetryService(logsDir);
+        this.saveService = new ColonySaveService(SaveFormat.parse(config.save.format));
+        this.telemetry = Objects.requireNonNull(telemetry, "telemetry");
+        this.saveWriter = saveExecutor == null
+                ? new AsyncSaveWriter(saveService, saveDir, this::reportSaveFailure)
+                : new AsyncSaveWriter(saveService, saveDir, this::reportSaveFailure, saveExecutor);
+        this.journalRecorder = new JournalRecorder();
         this.saveDir = saveDir;
-        this.pauseQueue = new ArrayDeque<>();
-        this.autosaveEnabled = autosaveEnabled;
+        this.commands = new CommandInbox();
+        this.blueprintCosts = new EnumMap<>(BlueprintId.class);
+        this.autosaveEnabled = config.save.autosaveEnabled;
+        this.journalEnabled = config.save.autosaveEnabled && config.save.journalEnabled;
+        this.journalSeconds = Math.max(1, config.save.journalSeconds);
+        this.journalCompactBytes = Math.max(1, config.save.journalCompactBytes);
+        this.verifyAggregates = config.sim.verifyAggregates;
+        state.taskArchive().setCapacity(config.tasks.archiveCapacity);
+        state.setChangeTracking(journalEnabled);
         bootstrap();
     }
 
@@ -74,6 +153,14 @@ public final class ColonySimulationEngine {
         return telemetry;
     }
 
+    public long tickCount() {
+        return tickCounter;
+    }
+
+    public ColonyEventBus events() {
+        return events;
+    }
+
     public void tick() {
         tickCounter += 1;
         long elapsedSeconds = tickCounter / ColonistsConstants.TICK_HZ;
@@ -81,23 +168,79 @@ public final class ColonySimulationEngine {
         ColonyContext context = new ColonyContext(tickCounter, state.worldTimeSec(), state.paused(), 0L);
         callbacks.onPreTick(context);
 
+        TickMetrics metrics = telemetry.metrics();
+        metrics.beginTick(tickCounter, state.worldTimeSec());
+        commands.applyAll(this, state);
+        metrics.lap(TickPhase.COMMANDS);
         if (state.paused()) {
+            events.deliver();
+            metrics.lap(TickPhase.EVENTS);
+            metrics.endTick();
             callbacks.onPostTick(context);
             return;
         }
 
-        executePauseQueue();
         refreshPopulationCap();
-        taskBroker.assignTasks(state, callbacks);
-        hotspotSystem.tick(state, callbacks);
-        raidDirector.tick(state, callbacks);
+        metrics.lap(TickPhase.POPULATION);
+        taskBroker.assignTasks(state, events);
+        metrics.lap(TickPhase.TASK_ASSIGNMENT);
+        taskRetentionSystem.tick(state);
+        metrics.lap(TickPhase.TASK_RETENTION);
+        hotspotSystem.tick(state, events);
+        metrics.lap(TickPhase.HOTSPOTS);
+        raidDirector.tick(state, events);
+        metrics.lap(TickPhase.RAIDS);
+        if (verifyAggregates) {
+            verifyAggregates();
+            metrics.lap(TickPhase.VERIFY);
+        }
 
         maybeAutosave();
+        metrics.lap(TickPhase.AUTOSAVE);
+        events.deliver();
+        metrics.lap(TickPhase.EVENTS);
+        metrics.endTick();
         callbacks.onPostTick(context);
     }
 
+    public CompletableFuture<CommandResult> submit(ColonyCommand command) {
+        return commands.submit(command);
+    }
+
+    public AdvanceReport advanceTo(long targetWorldTimeSec) {
+        if (targetWorldTimeSec > MAX_WORLD_TIME_SEC) {
+            throw new IllegalArgumentException("Target world time exceeds " + MAX_WORLD_TIME_SEC + "s: " + targetWorldTimeSec);
+        }
+        long startedAt = System.nanoTime();
+        long fromSec = state.worldTimeSec();
+        long ticksRun = 0L;
+        long ticksSkipped = 0L;
+        long jumps = 0L;
+        while (state.worldTimeSec() < targetWorldTimeSec) {
+            if (!hasPendingWork()) {
+                long landingTick = Math.min(nextDeadlineSec(), targetWorldTimeSec) * ColonistsConstants.TICK_HZ;
+                if (landingTick - 1 > tickCounter) {
+                    ticksSkipped += landingTick - 1 - tickCounter;
+                    tickCounter = landingTick - 1;
+                    jumps += 1;
+                }
+            }
+            tick();
+            ticksRun += 1;
+        }
+        return new AdvanceReport(fromSec, state.worldTimeSec(), ticksRun, ticksSkipped, jumps, System.nanoTime() - startedAt);
+    }
+
     public void queueWhilePaused(Runnable action) {
-        pauseQueue.add(action);
+        commands.submitWhenRunning(action);
+    }
+
+    public void rejectCommands(Throwable cause) {
+        commands.close(cause);
+    }
+
+    public int pendingCommands() {
+        return commands.pending();
     }
 
     public void setPaused(boolean paused) {
@@ -113,35 +256,30 @@ public final class ColonySimulationEngine {
     }
 
     public HotspotState placeHotspot(HotspotFamily family, int x, int z) {
-        return hotspotSystem.placeHotspot(state, family, x, z, callbacks);
+        return hotspotSystem.placeHotspot(state, family, x, z, events);
     }
 
     public HotspotState upgradeHotspot(String hotspotId) {
-        return hotspotSystem.upgradeHotspot(state, hotspotId, callbacks);
+        return hotspotSystem.upgradeHotspot(state, hotspotId, events);
     }
 
     public HotspotSystem.HarvestResult harvest(String hotspotId, String citizenId) {
-        int gatherSkill = 1;
-        for (var citizen : state.citizens()) {
-            if (citizen.id().equals(citizenId)) {
-                gatherSkill = citizen.skill(Role.GATHERER);
-                break;
-            }
-        }
-        HotspotSystem.HarvestResult result = hotspotSystem.harvest(state, hotspotId, citizenId, gatherSkill, callbacks);
+        CitizenState citizen = state.citizen(citizenId);
+        int gatherSkill = citizen == null ? 1 : citizen.skill(Role.GATHERER);
+        HotspotSystem.HarvestResult result = hotspotSystem.harvest(state, hotspotId, citizenId, gatherSkill, events);
         skillProgression.grantXp(citizenId, Role.GATHERER, ColonistsConstants.XP_GATHERER);
         return result;
     }
 
     public ColonyTask createTask(TaskType type, String targetId, double basePriority, boolean emergency) {
-        return taskBroker.createTask(state, type, targetId, basePriority, emergency, callbacks);
+        return taskBroker.createTask(state, type, targetId, basePriority, emergency, events);
     }
 
     public void applyPolicy(PolicyId policyId) {
         PolicyWeights weights = ColonistsConstants.policyWeights(policyId);
         state.setActivePolicy(policyId);
         state.setTaskWeights(weights);
-        callbacks.onPolicyChanged(policyId.name());
+        events.policyChanged(policyId.name());
     }
 
     public void setPriority(TaskType taskType, double value) {
@@ -154,39 +292,79 @@ public final class ColonySimulationEngine {
             throw new IllegalArgumentException("Unknown blueprint: " + blueprintId);
         }
 
-        for (var requirement : definition.cost()) {
-            if (!hasStock(requirement.id(), requirement.qty())) {
-                throw new IllegalStateException("Missing stock for " + requirement.id());
+        ItemCost cost = blueprintCost(blueprintId);
+        String structureId = "structure-" + UUID.randomUUID();
+        boolean instant = definition.buildTimeSeconds() == 0;
+        boolean paid = instant ? state.inventory().consume(cost) : state.inventory().reserve(structureId, cost);
+        if (!paid) {
+            for (var requirement : definition.cost()) {
+                int available = state.inventory().availableAtLeast(
+                        state.items().baseHandle(requirement.id()),
+                        requirement.minTier(),
+                        requirement.minQuality()
+                );
+                if (available < requirement.qty()) {
+                    throw new IllegalStateException("Missing stock for " + requirement.id());
+                }
             }
-        }
-        for (var requirement : definition.cost()) {
-            state.consumeStock(requirement.id(), requirement.qty());
+            throw new IllegalStateException("Missing stock for blueprint " + blueprintId);
         }
 
         long now = state.worldTimeSec();
         PlacedStructure structure = new PlacedStructure(
-                "structure-" + UUID.randomUUID(),
+                structureId,
                 blueprintId,
                 x,
                 z,
                 rotation,
-                definition.buildTimeSeconds() == 0,
+                instant,
                 now,
                 now + definition.buildTimeSeconds()
         );
-        state.structures().add(structure);
+        state.addStructure(structure);
         createTask(TaskType.BUILD, structure.id(), 1.0, false);
         return structure;
     }
 
     public void completeStructure(String structureId, String citizenId) {
-        for (PlacedStructure structure : state.structures()) {
-            if (structure.id().equals(structureId)) {
-                structure.setComplete(true);
-                skillProgression.grantXp(citizenId, Role.BUILDER, ColonistsConstants.XP_BUILDER);
-                break;
+        PlacedStructure structure = state.structure(structureId);
+        if (structure == null || structure.complete()) {
+            return;
+        }
+        if (!state.inventory().commit(structureId)) {
+            throw new IllegalStateException("No reserved stock for structure " + structureId);
+        }
+        structure.setComplete(true);
+        skillProgression.grantXp(citizenId, Role.BUILDER, ColonistsConstants.XP_BUILDER);
+    }
+
+    public boolean abandonStructure(String structureId) {
+        PlacedStructure structure = state.structure(structureId);
+        if (structure == null) {
+            return false;
+        }
+        if (structure.complete()) {
+            throw new IllegalStateException("Structure is already complete: " + structureId);
+        }
+        state.inventory().release(structureId);
+        for (ColonyTask task : List.copyOf(state.tasks())) {
+            if (task.type() == TaskType.BUILD
+                    && structureId.equals(task.targetId())
+                    && task.status() != TaskStatus.DONE
+                    && task.status() != TaskStatus.FAILED) {
+                task.setStatus(TaskStatus.FAILED);
+                task.clearReservation();
             }
         }
+        return state.removeStructure(structureId);
+    }
+
+    public boolean canAffordBlueprints(List<BlueprintId> blueprintIds) {
+        ItemCost[] costs = new ItemCost[blueprintIds.size()];
+        for (int index = 0; index < costs.length; index++) {
+            costs[index] = blueprintCost(blueprintIds.get(index));
+        }
+        return state.inventory().canAffordAll(costs, costs.length);
     }
 
     public int currentUnlockStageOrdinal() {
@@ -202,25 +380,60 @@ public final class ColonySimulationEngine {
     }
 
     public void resolveRaid(boolean success) {
-        raidDirector.resolveRaid(state, success, callbacks);
+        raidDirector.resolveRaid(state, success, events);
     }
 
     public void handleCitizenDeath(String citizenId, String cause) {
-        for (var citizen : state.citizens()) {
-            if (citizen.id().equals(citizenId)) {
-                insuranceSystem.handleCitizenDeath(state, citizen, cause, callbacks);
-                break;
-            }
+        CitizenState citizen = state.citizen(citizenId);
+        if (citizen != null) {
+            insuranceSystem.handleCitizenDeath(state, citizen, cause, events);
         }
     }
 
     public void saveNow() {
-        saveService.save(state, saveDir);
-        lastAutosaveAt = state.worldTimeSec();
+        requestSave();
+        saveWriter.flush();
+    }
+
+    public void flushSaves() {
+        saveWriter.flush();
+    }
+
+    public AsyncSaveWriter saveWriter() {
+        return saveWriter;
+    }
+
+    public void shutdown() {
+        try {
+            commands.applyAll(this, state);
+            events.deliver();
+        } finally {
+            commands.close(new IllegalStateException("Colony engine is shut down"));
+            try {
+                saveWriter.close();
+            } finally {
+                telemetry.close();
+            }
+        }
+    }
+
+    public Path exportSaveJson() {
+        saveWriter.flush();
+        return saveService.exportJson(saveDir);
+    }
+
+    public boolean hasSave() {
+        saveWriter.flush();
+        return saveService.exists(saveDir);
     }
 
     public void load() {
+        saveWriter.flush();
         saveService.load(state, saveDir);
+        tickCounter = state.worldTimeSec() * ColonistsConstants.TICK_HZ;
+        journalRecorder.invalidate();
+        lastAutosaveAt = state.worldTimeSec();
+        lastJournalAt = state.worldTimeSec();
     }
 
     public void setTelemetryMode(TelemetryMode mode) {
@@ -231,6 +444,14 @@ public final class ColonySimulationEngine {
         return telemetry.status(state, mode);
     }
 
+    public String perf(boolean reset) {
+        String report = telemetry.perf(state);
+        if (reset) {
+            telemetry.metrics().reset();
+        }
+        return report;
+    }
+
     public ZoneType parseZoneType(String value) {
         return zoneSystem.parseZoneType(value);
     }
@@ -258,9 +479,15 @@ public final class ColonySimulationEngine {
         return BlueprintId.valueOf(normalized.replace('-', '_'));
     }
 
+    private static ColonistsConfig configWithAutosave(boolean autosaveEnabled) {
+        ColonistsConfig config = new ColonistsConfig();
+        config.save.autosaveEnabled = autosaveEnabled;
+        return config;
+    }
+
     private void bootstrap() {
         for (int i = 0; i < ColonistsConstants.STARTING_CITIZENS; i++) {
-            state.citizens().add(new com.shieldudaram.colonists.model.CitizenState("citizen-" + (i + 1), Role.BUILDER));
+            state.addCitizen(new CitizenState("citizen-" + (i + 1), Role.BUILDER));
         }
 
         PlacedStructure townCore = new PlacedStructure(
@@ -283,14 +510,20 @@ public final class ColonySimulationEngine {
                 0L,
                 0L
         );
-        state.structures().add(townCore);
-        state.structures().add(house);
+        state.addStructure(townCore);
+        state.addStructure(house);
     }
 
-    private void executePauseQueue() {
-        while (!pauseQueue.isEmpty()) {
-            pauseQueue.removeFirst().run();
+    private void reportSaveFailure(RuntimeException failure) {
+        telemetry.warn("save failed dir=" + saveDir + " error=" + failure);
+    }
+
+    private ItemCost blueprintCost(BlueprintId blueprintId) {
+        var definition = blueprintCatalog.get(blueprintId);
+        if (definition == null) {
+            throw new IllegalArgumentException("Unknown blueprint: " + blueprintId);
         }
+        return blueprintCosts.computeIfAbsent(blueprintId, ignored -> state.items().resolve(definition.cost()));
     }
 
     private void refreshPopulationCap() {
@@ -298,28 +531,62 @@ public final class ColonySimulationEngine {
         int cap = 2 + (houseCount * 2);
         state.setPopulationCap(cap);
         while (state.populationCurrent() > state.populationCap()) {
-            state.citizens().remove(state.citizens().size() - 1);
+            state.removeCitizen(state.citizens().get(state.citizens().size() - 1).id());
+        }
+    }
+
+    private boolean hasPendingWork() {
+        if (commands.runnable(state.paused()) > 0 || events.pending() > 0) {
+            return true;
+        }
+        return !state.paused() && taskBroker.canAssign(state);
+    }
+
+    private long nextDeadlineSec() {
+        if (state.paused()) {
+            return Long.MAX_VALUE;
+        }
+        long next = Math.min(state.timers().nextDeadline(), state.taskQueue().nextQuarantineExpiry());
+        next = Math.min(next, raidDirector.nextTriggerSec(state));
+        long now = state.worldTimeSec();
+        for (PlacedStructure structure : state.structures()) {
+            if (!structure.complete() && structure.completesAtSec() > now) {
+                next = Math.min(next, structure.completesAtSec());
+            }
+        }
+        return next;
+    }
+
+    private void verifyAggregates() {
+        List<String> problems = state.verifyAggregates();
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException("Colony aggregates drifted at tick " + tickCounter + ": " + problems);
         }
     }
 
     private void maybeAutosave() {
         if (!autosaveEnabled) return;
-        if (state.worldTimeSec() - lastAutosaveAt >= ColonistsConstants.AUTOSAVE_SECONDS) {
-            saveNow();
+        long now = state.worldTimeSec();
+        if (!journalEnabled) {
+            if (now - lastAutosaveAt >= ColonistsConstants.AUTOSAVE_SECONDS) {
+                requestSave();
+            }
+            return;
+        }
+        if (now - lastJournalAt < journalSeconds) {
+            return;
+        }
+        lastJournalAt = now;
+        if (!journalRecorder.hasBase() || saveWriter.needsSnapshot() || saveWriter.journalBytes() >= journalCompactBytes) {
+            requestSave();
+            return;
         }
+        saveWriter.submitJournal(journalRecorder.capture(state));
     }
 
-    private boolean hasStock(String id, int qty) {
-        return switch (id) {
-            case "wood" -> state.stockWood() >= qty;
-            case "stone" -> state.stockStone() >= qty;
-            case "fiber" -> state.stockFiber() >= qty;
-            case "food" -> state.stockFood() >= qty;
-            case "hide" -> state.stockHide() >= qty;
-            case "crystal" -> state.stockCrystal() >= qty;
-            case "ore" -> state.stockOre() >= qty;
-            case "herbs" -> state.stockHerbs() >= qty;
-            default -> false;
-        };
+    private void requestSave() {
+        ColonySaveV1 snapshot = journalEnabled ? journalRecorder.snapshot(state) : saveService.snapshot(state);
+        saveWriter.submit(snapshot);
+        lastAutosaveAt = state.worldTimeSec();
     }
 }
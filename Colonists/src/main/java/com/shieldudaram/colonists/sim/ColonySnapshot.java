@@ -0,0 +1,92 @@
+package com.shieldudaram.colonists.sim;
+
+import com.shieldudaram.colonists.model.CitizenState;
+import com.shieldudaram.colonists.model.ColonyState;
+import com.shieldudaram.colonists.model.ColonyTask;
+import com.shieldudaram.colonists.model.HotspotFamily;
+import com.shieldudaram.colonists.model.HotspotState;
+import com.shieldudaram.colonists.model.PolicyId;
+import com.shieldudaram.colonists.model.RaidState;
+import com.shieldudaram.colonists.model.Role;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public record ColonySnapshot(
+        long tick,
+        long worldTimeSec,
+        boolean paused,
+        PolicyId activePolicy,
+        int populationCap,
+        List<CitizenView> citizens,
+        List<HotspotView> hotspots,
+        int taskCount,
+        int queuedTasks,
+        int threatScore,
+        int activeRaidEnemies,
+        long nextRaidAtSec,
+        Map<String, Integer> stock
+) {
+    private static final List<String> STOCK_IDS = List.of("wood", "stone", "fiber", "food", "crystal");
+
+    public ColonySnapshot {
+        citizens = List.copyOf(citizens);
+        hotspots = List.copyOf(hotspots);
+        stock = Map.copyOf(stock);
+    }
+
+    public static ColonySnapshot capture(ColonyState state, long tick) {
+        List<CitizenState> citizenStates = state.citizens();
+        CitizenView[] citizens = new CitizenView[citizenStates.size()];
+        for (int index = 0; index < citizens.length; index++) {
+            CitizenState citizen = citizenStates.get(index);
+            ColonyTask task = state.taskReservations().activeTask(citizen.id());
+            citizens[index] = new CitizenView(citizen.id(), citizen.primaryRole(), task == null ? null : task.id());
+        }
+        List<HotspotState> hotspotStates = state.hotspots();
+        HotspotView[] hotspots = new HotspotView[hotspotStates.size()];
+        for (int index = 0; index < hotspots.length; index++) {
+            HotspotState hotspot = hotspotStates.get(index);
+            hotspots[index] = new HotspotView(
+                    hotspot.id(),
+                    hotspot.family(),
+                    hotspot.tier(),
+                    hotspot.capacityNow(),
+                    hotspot.capacityMax(),
+                    hotspot.x(),
+                    hotspot.z()
+            );
+        }
+        Map<String, Integer> stock = new LinkedHashMap<>();
+        for (String itemId : STOCK_IDS) {
+            stock.put(itemId, state.stock(itemId));
+        }
+        RaidState raid = state.raidState();
+        return new ColonySnapshot(
+                tick,
+                state.worldTimeSec(),
+                state.paused(),
+                state.activePolicy(),
+                state.populationCap(),
+                List.of(citizens),
+                List.of(hotspots),
+                state.tasks().size(),
+                state.taskQueue().size(),
+                raid.threatScore(),
+                raid.activeEnemies(),
+                raid.nextRaidAtSec(),
+                stock
+        );
+    }
+
+    public int populationCurrent() {
+        return citizens.size();
+    }
+
+    public record CitizenView(String id, Role role, String activeTaskId) {
+    }
+
+    public record HotspotView(String id, HotspotFamily family, int tier, int capacityNow, int capacityMax, int x, int z) {
+    }
+}
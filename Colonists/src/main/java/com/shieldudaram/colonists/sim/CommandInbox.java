@@ -0,0 +1,166 @@
+package com.shieldudaram.colonists.sim;
+
+import com.shieldudaram.colonists.commands.ColonyCommand;
+import com.shieldudaram.colonists.commands.CommandResult;
+import com.shieldudaram.colonists.model.ColonyState;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class CommandInbox {
+    static final CommandResult SUPERSEDED = CommandResult.ok("Superseded by a later command.");
+
+    private final Queue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Deque<Entry> deferred = new ArrayDeque<>();
+    private final List<Entry> batch = new ArrayList<>();
+    private final Map<String, Integer> lastByKey = new HashMap<>();
+    private RuntimeException failure;
+    private volatile Throwable closedCause;
+
+    CompletableFuture<CommandResult> submit(ColonyCommand command) {
+        Objects.requireNonNull(command, "command");
+        CompletableFuture<CommandResult> result = new CompletableFuture<>();
+        Throwable cause = closedCause;
+        if (cause != null) {
+            result.completeExceptionally(cause);
+            return result;
+        }
+        enqueue(new Entry(command, result, false));
+        return result;
+    }
+
+    void submitWhenRunning(Runnable action) {
+        Objects.requireNonNull(action, "action");
+        Throwable cause = closedCause;
+        if (cause != null) {
+            throw new IllegalStateException("Command inbox is closed", cause);
+        }
+        enqueue(new Entry(engine -> {
+            action.run();
+            return null;
+        }, null, true));
+    }
+
+    void close(Throwable cause) {
+        Objects.requireNonNull(cause, "cause");
+        if (closedCause == null) {
+            closedCause = cause;
+        }
+        deferred.clear();
+        failQueued();
+    }
+
+    int pending() {
+        return pending.get() + deferred.size();
+    }
+
+    int runnable(boolean paused) {
+        return paused ? pending.get() : pending();
+    }
+
+    int applyAll(ColonySimulationEngine engine, ColonyState state) {
+        for (Entry entry = queue.poll(); entry != null; entry = queue.poll()) {
+            pending.decrementAndGet();
+            batch.add(entry);
+            String key = entry.command().coalesceKey();
+            if (key != null) {
+                lastByKey.put(key, batch.size() - 1);
+            }
+        }
+        int count = 0;
+        try {
+            count += runDeferred(engine, state);
+            for (int index = 0; index < batch.size(); index++) {
+                Entry entry = batch.get(index);
+                String key = entry.command().coalesceKey();
+                if (key != null && lastByKey.get(key) != index) {
+                    entry.result().complete(SUPERSEDED);
+                    continue;
+                }
+                if (entry.whenRunning() && (state.paused() || !deferred.isEmpty())) {
+                    deferred.addLast(entry);
+                    continue;
+                }
+                apply(entry, engine);
+                count += 1;
+            }
+            count += runDeferred(engine, state);
+        } catch (Error error) {
+            for (Entry entry : batch) {
+                if (entry.result() != null && !entry.result().isDone()) {
+                    entry.result().completeExceptionally(error);
+                }
+            }
+            throw error;
+        } finally {
+            batch.clear();
+            lastByKey.clear();
+        }
+        if (failure != null) {
+            RuntimeException thrown = failure;
+            failure = null;
+            throw thrown;
+        }
+        return count;
+    }
+
+    private int runDeferred(ColonySimulationEngine engine, ColonyState state) {
+        int count = 0;
+        while (!deferred.isEmpty() && !state.paused()) {
+            apply(deferred.removeFirst(), engine);
+            count += 1;
+        }
+        return count;
+    }
+
+    private void apply(Entry entry, ColonySimulationEngine engine) {
+        if (entry.result() == null) {
+            try {
+                entry.command().apply(engine);
+            } catch (RuntimeException exception) {
+                if (failure == null) {
+                    failure = exception;
+                }
+            }
+            return;
+        }
+        try {
+            entry.result().complete(entry.command().apply(engine));
+        } catch (Exception exception) {
+            entry.result().complete(CommandResult.error(exception.getMessage()));
+        } catch (Error error) {
+            entry.result().completeExceptionally(error);
+            throw error;
+        }
+    }
+
+    private void enqueue(Entry entry) {
+        pending.incrementAndGet();
+        queue.add(entry);
+        if (closedCause != null) {
+            failQueued();
+        }
+    }
+
+    private void failQueued() {
+        for (Entry entry = queue.poll(); entry != null; entry = queue.poll()) {
+            pending.decrementAndGet();
+            if (entry.result() != null) {
+                entry.result().completeExceptionally(closedCause);
+            }
+        }
+    }
+
+    private record Entry(ColonyCommand command, CompletableFuture<CommandResult> result, boolean whenRunning) {
+    }
+}
@@ -0,0 +1,168 @@
+package com.shieldudaram.colonists.sim;
+
+import java.util.Objects;
+import java.util.concurrent.locks.LockSupport;
+
+public final class SimulationLoop implements AutoCloseable {
+    private static final int MAX_CATCH_UP_TICKS = 5;
+
+    private final ColonySimulationEngine engine;
+    private final long stepNanos;
+
+    private volatile ColonySnapshot snapshot;
+    private volatile boolean running;
+    private volatile boolean closed;
+    private volatile long ticks;
+    private volatile long overruns;
+    private volatile long skippedTicks;
+    private volatile long failedTicks;
+    private volatile long lastTickNanos;
+    private volatile RuntimeException lastFailure;
+    private volatile Throwable deathCause;
+    private volatile boolean deathReported;
+    private Thread thread;
+
+    public SimulationLoop(ColonySimulationEngine engine) {
+        this(engine, 1_000_000_000L / ColonistsConstants.TICK_HZ);
+    }
+
+    SimulationLoop(ColonySimulationEngine engine, long stepNanos) {
+        this.engine = Objects.requireNonNull(engine, "engine");
+        this.stepNanos = Math.max(1L, stepNanos);
+        this.snapshot = ColonySnapshot.capture(engine.state(), engine.tickCount());
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        if (closed) {
+            throw new IllegalStateException("Simulation loop is closed");
+        }
+        running = true;
+        thread = new Thread(this::run, "colonists-sim");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public boolean running() {
+        return running;
+    }
+
+    public boolean onLoopThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    public ColonySnapshot snapshot() {
+        return snapshot;
+    }
+
+    public long ticks() {
+        return ticks;
+    }
+
+    public long overruns() {
+        return overruns;
+    }
+
+    public long skippedTicks() {
+        return skippedTicks;
+    }
+
+    public long failedTicks() {
+        return failedTicks;
+    }
+
+    public long lastTickNanos() {
+        return lastTickNanos;
+    }
+
+    public RuntimeException lastFailure() {
+        return lastFailure;
+    }
+
+    public Throwable deathCause() {
+        return deathCause;
+    }
+
+    public synchronized Throwable takeUnreportedDeath() {
+        if (deathCause == null || deathReported) {
+            return null;
+        }
+        deathReported = true;
+        return deathCause;
+    }
+
+    @Override
+    public void close() {
+        Thread worker;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            running = false;
+            worker = thread;
+        }
+        if (worker != null) {
+            LockSupport.unpark(worker);
+            try {
+                worker.join();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (deathCause == null) {
+            engine.rejectCommands(new IllegalStateException("Simulation loop is closed"));
+        }
+    }
+
+    private void run() {
+        try {
+            runLoop();
+        } catch (Throwable failure) {
+            deathCause = failure;
+            running = false;
+            engine.rejectCommands(new IllegalStateException("Simulation thread died", failure));
+            engine.telemetry().warn("simulation thread died after tick " + ticks + ": " + failure);
+        }
+    }
+
+    private void runLoop() {
+        long nextTickAt = System.nanoTime();
+        while (running) {
+            long now = System.nanoTime();
+            if (now < nextTickAt) {
+                LockSupport.parkNanos(this, nextTickAt - now);
+                continue;
+            }
+            long lag = now - nextTickAt;
+            long skipped = 0L;
+            if (lag >= stepNanos * MAX_CATCH_UP_TICKS) {
+                skipped = lag / stepNanos;
+                nextTickAt += skipped * stepNanos;
+                skippedTicks += skipped;
+            }
+            engine.telemetry().metrics().recordSchedule(lag, skipped);
+            runTick();
+            long elapsed = System.nanoTime() - now;
+            lastTickNanos = elapsed;
+            if (elapsed > stepNanos) {
+                overruns += 1;
+            }
+            nextTickAt += stepNanos;
+        }
+    }
+
+    private void runTick() {
+        try {
+            engine.tick();
+        } catch (RuntimeException exception) {
+            failedTicks += 1;
+            lastFailure = exception;
+            engine.telemetry().warnFailure("simulation tick", exception);
+        }
+        ticks += 1;
+        snapshot = ColonySnapshot.capture(engine.state(), engine.tickCount());
+    }
+}
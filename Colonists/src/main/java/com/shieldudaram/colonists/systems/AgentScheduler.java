@@ -0,0 +1,51 @@
+package com.shieldudaram.colonists.systems;
+
+public final class AgentScheduler {
+    private final boolean staggerEnabled;
+    private final int agentsPerTick;
+    private int cursor;
+    private int windowStart;
+
+    public AgentScheduler(boolean staggerEnabled, int agentsPerTick) {
+        this.staggerEnabled = staggerEnabled;
+        this.agentsPerTick = Math.max(1, agentsPerTick);
+    }
+
+    public static AgentScheduler unstaggered() {
+        return new AgentScheduler(false, 1);
+    }
+
+    public boolean staggerEnabled() {
+        return staggerEnabled;
+    }
+
+    public int agentsPerTick() {
+        return agentsPerTick;
+    }
+
+    public int windowStart() {
+        return windowStart;
+    }
+
+    public int maxTicksBetweenVisits(int population) {
+        if (!staggerEnabled || population <= agentsPerTick) {
+            return 1;
+        }
+        return (population + agentsPerTick - 1) / agentsPerTick;
+    }
+
+    public int beginTick(int population) {
+        if (population <= 0) {
+            windowStart = 0;
+            cursor = 0;
+            return 0;
+        }
+        if (!staggerEnabled || population <= agentsPerTick) {
+            windowStart = 0;
+            return population;
+        }
+        windowStart = cursor % population;
+        cursor = (windowStart + agentsPerTick) % population;
+        return agentsPerTick;
+    }
+}
@@ -0,0 +1,15 @@
+package com.shieldudaram.colonists.systems;
+
+import java.util.Locale;
+
+public enum AssignmentMode {
+    GREEDY,
+    BATCH;
+
+    public static AssignmentMode parse(String value) {
+        if (value == null || value.isBlank()) {
+            return GREEDY;
+        }
+        return AssignmentMode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
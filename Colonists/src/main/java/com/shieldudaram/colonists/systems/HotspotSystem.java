@@ -1,22 +1,43 @@
 package com.shieldudaram.colonists.systems;
 
+import com.shieldudaram.colonists.events.ColonyEventBus;
 import com.shieldudaram.colonists.model.ColonyState;
 import com.shieldudaram.colonists.model.ColonyZone;
 import com.shieldudaram.colonists.model.HotspotFamily;
 import com.shieldudaram.colonists.model.HotspotState;
+import com.shieldudaram.colonists.model.ItemCost;
+import com.shieldudaram.colonists.model.ItemRegistry;
+import com.shieldudaram.colonists.model.ItemRequirement;
 import com.shieldudaram.colonists.model.Role;
+import com.shieldudaram.colonists.model.TimerKind;
+import com.shieldudaram.colonists.model.TimingWheel;
 import com.shieldudaram.colonists.model.ZoneType;
 import com.shieldudaram.colonists.sim.ColonistsConstants;
-import com.shieldudaram.colonists.sim.ColonyCallbacks;
 
+import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public final class HotspotSystem {
+    private static final List<ItemRequirement> TIER_TWO_UPGRADE = List.of(
+            new ItemRequirement("wood", 1, 1, 30),
+            new ItemRequirement("stone", 1, 1, 20),
+            new ItemRequirement("fiber", 1, 1, 10)
+    );
+    private static final List<ItemRequirement> TIER_THREE_UPGRADE = List.of(
+            new ItemRequirement("wood", 1, 1, 50),
+            new ItemRequirement("stone", 1, 1, 35),
+            new ItemRequirement("ore", 1, 1, 20),
+            new ItemRequirement("crystal", 1, 1, 10)
+    );
+
     private final AtomicInteger hotspotCounter = new AtomicInteger(1);
+    private ItemRegistry resolvedFor;
+    private ItemCost tierTwoCost;
+    private ItemCost tierThreeCost;
 
-    public HotspotState placeHotspot(ColonyState state, HotspotFamily family, int x, int z, ColonyCallbacks callbacks) {
+    public HotspotState placeHotspot(ColonyState state, HotspotFamily family, int x, int z, ColonyEventBus events) {
         ColonyZone zone = findHotspotZone(state, x, z)
                 .orElseThrow(() -> new IllegalStateException("Hotspot placement requires a HOTSPOT zone"));
 
@@ -28,18 +49,18 @@ public final class HotspotSystem {
             throw new IllegalStateException("Per-zone hotspot cap reached for zone " + zone.id());
         }
 
-        for (HotspotState existing : state.hotspots()) {
-            int dx = existing.x() - x;
-            int dz = existing.z() - z;
-            double distance = Math.sqrt(dx * dx + dz * dz);
-            if (distance < ColonistsConstants.HOTSPOT_SPACING_METERS) {
-                throw new IllegalStateException("Hotspot too close to existing site: " + existing.id());
-            }
+        HotspotState existing = state.spatialIndex().hotspotWithin(x, z, ColonistsConstants.HOTSPOT_SPACING_METERS);
+        if (existing != null) {
+            throw new IllegalStateException("Hotspot too close to existing site: " + existing.id());
         }
 
+        String hotspotId = "hotspot-" + hotspotCounter.getAndIncrement();
+        while (state.hotspot(hotspotId) != null) {
+            hotspotId = "hotspot-" + hotspotCounter.getAndIncrement();
+        }
         ColonistsConstants.HotspotTierProfile profile = ColonistsConstants.tierProfile(1);
         HotspotState hotspot = new HotspotState(
-                "hotspot-" + hotspotCounter.getAndIncrement(),
+                hotspotId,
                 family,
                 1,
                 profile.capacity(),
@@ -51,12 +72,12 @@ public final class HotspotSystem {
                 x,
                 z
         );
-        state.hotspots().add(hotspot);
-        callbacks.onTaskCreated("hotspot-place-" + hotspot.id());
+        state.addHotspot(hotspot);
+        events.hotspotPlaced(hotspot.id());
         return hotspot;
     }
 
-    public HotspotState upgradeHotspot(ColonyState state, String hotspotId, ColonyCallbacks callbacks) {
+    public HotspotState upgradeHotspot(ColonyState state, String hotspotId, ColonyEventBus events) {
         HotspotState hotspot = findHotspot(state, hotspotId)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown hotspot: " + hotspotId));
         if (hotspot.tier() >= 3) {
@@ -73,7 +94,7 @@ public final class HotspotSystem {
         hotspot.setTier(targetTier);
         hotspot.setCapacityMax(profile.capacity());
         hotspot.setCapacityNow(Math.min(profile.capacity(), hotspot.capacityNow() + (profile.capacity() / 5)));
-        callbacks.onHotspotUpgraded(hotspot.id(), previousTier, targetTier);
+        events.hotspotUpgraded(hotspot.id(), previousTier, targetTier);
         return hotspot;
     }
 
@@ -82,7 +103,7 @@ public final class HotspotSystem {
             String hotspotId,
             String citizenId,
             int gatherSkill,
-            ColonyCallbacks callbacks
+            ColonyEventBus events
     ) {
         HotspotState hotspot = findHotspot(state, hotspotId)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown hotspot: " + hotspotId));
@@ -92,7 +113,8 @@ public final class HotspotSystem {
         if (hotspot.cycleStartedAtSec() == null) {
             hotspot.setCycleStartedAtSec(now);
             hotspot.setResetAtSec(now + profile.resetSeconds());
-            callbacks.onHotspotFirstHarvest(hotspot.id(), hotspot.resetAtSec());
+            state.timers().schedule(TimerKind.HOTSPOT_RESET, hotspot.id(), hotspot.resetAtSec());
+            events.hotspotFirstHarvest(hotspot.id(), hotspot.resetAtSec());
         }
 
         int baseYield = profile.baseYield();
@@ -104,93 +126,64 @@ public final class HotspotSystem {
         }
 
         int quality = deterministicQuality(gatherSkill, profile.minQuality(), profile.maxQuality());
-        state.addStock(familyToItemId(hotspot.family()), yield);
-        callbacks.onHotspotHarvested(hotspot.id(), citizenId, yield);
+        int familyHandle = state.items().familyHandle(hotspot.family());
+        state.inventory().add(ItemRegistry.handle(familyHandle, hotspot.tier(), quality), yield);
+        events.hotspotHarvested(hotspot.id(), citizenId, yield);
 
         return new HarvestResult(yield, quality);
     }
 
-    public void tick(ColonyState state, ColonyCallbacks callbacks) {
+    public void tick(ColonyState state, ColonyEventBus events) {
         long now = state.worldTimeSec();
-        for (HotspotState hotspot : state.hotspots()) {
-            Long resetAt = hotspot.resetAtSec();
-            if (resetAt != null && now >= resetAt) {
-                ColonistsConstants.HotspotTierProfile profile = ColonistsConstants.tierProfile(hotspot.tier());
-                hotspot.setCapacityMax(profile.capacity());
-                hotspot.setCapacityNow(profile.capacity());
-                hotspot.setDegradation(1.0);
-                hotspot.setCycleStartedAtSec(null);
-                hotspot.setResetAtSec(null);
-                callbacks.onHotspotReset(hotspot.id());
+        TimingWheel timers = state.timers();
+        for (String hotspotId = timers.pollDue(TimerKind.HOTSPOT_RESET);
+             hotspotId != null;
+             hotspotId = timers.pollDue(TimerKind.HOTSPOT_RESET)) {
+            HotspotState hotspot = findHotspot(state, hotspotId).orElse(null);
+            if (hotspot == null || hotspot.resetAtSec() == null) {
+                continue;
             }
+            long resetAt = hotspot.resetAtSec();
+            if (now < resetAt) {
+                timers.schedule(TimerKind.HOTSPOT_RESET, hotspot.id(), resetAt);
+                continue;
+            }
+            ColonistsConstants.HotspotTierProfile profile = ColonistsConstants.tierProfile(hotspot.tier());
+            hotspot.setCapacityMax(profile.capacity());
+            hotspot.setCapacityNow(profile.capacity());
+            hotspot.setDegradation(1.0);
+            hotspot.setCycleStartedAtSec(null);
+            hotspot.setResetAtSec(null);
+            events.hotspotReset(hotspot.id());
         }
     }
 
+    public Optional<HotspotState> nearestHotspot(ColonyState state, HotspotFamily family, int x, int z) {
+        return Optional.ofNullable(state.spatialIndex().nearestHotspot(x, z, family));
+    }
+
     public HotspotFamily parseFamily(String input) {
         return HotspotFamily.valueOf(input.trim().toUpperCase(Locale.ROOT));
     }
 
     private Optional<ColonyZone> findHotspotZone(ColonyState state, int x, int z) {
-        for (ColonyZone zone : state.zones()) {
-            if (zone.type() == ZoneType.HOTSPOT && zone.contains(x, z)) {
-                return Optional.of(zone);
-            }
-        }
-        return Optional.empty();
+        return Optional.ofNullable(state.spatialIndex().zoneAt(x, z, ZoneType.HOTSPOT));
     }
 
     private Optional<HotspotState> findHotspot(ColonyState state, String id) {
-        return state.hotspots().stream().filter(hotspot -> hotspot.id().equals(id)).findFirst();
+        return Optional.ofNullable(state.hotspot(id));
     }
 
     private boolean payUpgradeCost(ColonyState state, int fromTier, int toTier) {
-        if (fromTier == 1 && toTier == 2) {
-            return pay(state, "wood", 30, "stone", 20, "fiber", 10, null, 0);
-        }
-        if (fromTier == 2 && toTier == 3) {
-            return pay(state, "wood", 50, "stone", 35, "ore", 20, "crystal", 10);
-        }
-        return false;
-    }
-
-    private boolean pay(
-            ColonyState state,
-            String firstId,
-            int firstQty,
-            String secondId,
-            int secondQty,
-            String thirdId,
-            int thirdQty,
-            String fourthId,
-            int fourthQty
-    ) {
-        if (!hasEnough(state, firstId, firstQty)
-                || !hasEnough(state, secondId, secondQty)
-                || !hasEnough(state, thirdId, thirdQty)
-                || (fourthId != null && !hasEnough(state, fourthId, fourthQty))) {
+        if (toTier != fromTier + 1 || toTier < 2 || toTier > 3) {
             return false;
         }
-        state.consumeStock(firstId, firstQty);
-        state.consumeStock(secondId, secondQty);
-        state.consumeStock(thirdId, thirdQty);
-        if (fourthId != null) {
-            state.consumeStock(fourthId, fourthQty);
+        if (resolvedFor != state.items()) {
+            tierTwoCost = state.items().resolve(TIER_TWO_UPGRADE);
+            tierThreeCost = state.items().resolve(TIER_THREE_UPGRADE);
+            resolvedFor = state.items();
         }
-        return true;
-    }
-
-    private boolean hasEnough(ColonyState state, String id, int qty) {
-        return switch (id) {
-            case "wood" -> state.stockWood() >= qty;
-            case "stone" -> state.stockStone() >= qty;
-            case "fiber" -> state.stockFiber() >= qty;
-            case "food" -> state.stockFood() >= qty;
-            case "hide" -> state.stockHide() >= qty;
-            case "crystal" -> state.stockCrystal() >= qty;
-            case "ore" -> state.stockOre() >= qty;
-            case "herbs" -> state.stockHerbs() >= qty;
-            default -> false;
-        };
+        return state.inventory().consume(toTier == 2 ? tierTwoCost : tierThreeCost);
     }
 
     private int deterministicQuality(int gatherSkill, int minQ, int maxQ) {
@@ -201,10 +194,6 @@ public final class HotspotSystem {
         return Math.min(quality, maxQ);
     }
 
-    private String familyToItemId(HotspotFamily family) {
-        return family.name().toLowerCase(Locale.ROOT);
-    }
-
     public record HarvestResult(int quantity, int quality) {
     }
 }
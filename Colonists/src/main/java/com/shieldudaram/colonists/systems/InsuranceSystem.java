@@ -1,27 +1,30 @@
 package com.shieldudaram.colonists.systems;
 
+import com.shieldudaram.colonists.events.ColonyEventBus;
+import com.shieldudaram.colonists.events.ColonyEventType;
 import com.shieldudaram.colonists.model.CitizenNeeds;
 import com.shieldudaram.colonists.model.CitizenState;
 import com.shieldudaram.colonists.model.ColonyState;
 import com.shieldudaram.colonists.model.Role;
-import com.shieldudaram.colonists.sim.ColonyCallbacks;
 
 import java.util.EnumMap;
 import java.util.Map;
 import java.util.UUID;
 
 public final class InsuranceSystem {
-    public CitizenState handleCitizenDeath(ColonyState state, CitizenState deadCitizen, String cause, ColonyCallbacks callbacks) {
-        callbacks.onCitizenDeath(deadCitizen.id(), cause);
+    public CitizenState handleCitizenDeath(ColonyState state, CitizenState deadCitizen, String cause, ColonyEventBus events) {
+        events.citizenDied(deadCitizen.id(), cause);
 
-        String claimId = "claim-" + UUID.randomUUID();
+        boolean announceClaim = events.wants(ColonyEventType.INSURANCE_CLAIM_PAID)
+                || events.wants(ColonyEventType.REPLACEMENT_SPAWNED);
+        String claimId = announceClaim ? "claim-" + UUID.randomUUID() : null;
         state.insuranceState().applyClaim(deadCitizen.id());
-        callbacks.onInsuranceClaimPaid(claimId, deadCitizen.id());
+        events.insuranceClaimPaid(claimId, deadCitizen.id());
 
         CitizenState replacement = createReplacement(deadCitizen);
-        state.citizens().removeIf(citizen -> citizen.id().equals(deadCitizen.id()));
-        state.citizens().add(replacement);
-        callbacks.onReplacementSpawned(claimId, replacement.id());
+        state.removeCitizen(deadCitizen.id());
+        state.addCitizen(replacement);
+        events.replacementSpawned(claimId, replacement.id());
         return replacement;
     }
 
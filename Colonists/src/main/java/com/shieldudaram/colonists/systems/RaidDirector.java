@@ -1,57 +1,84 @@
 package com.shieldudaram.colonists.systems;
 
+import com.shieldudaram.colonists.events.ColonyEventBus;
 import com.shieldudaram.colonists.model.ColonyState;
 import com.shieldudaram.colonists.model.RaidState;
+import com.shieldudaram.colonists.model.TimerKind;
 import com.shieldudaram.colonists.sim.ColonistsConstants;
-import com.shieldudaram.colonists.sim.ColonyCallbacks;
 
 public final class RaidDirector {
-    public void tick(ColonyState state, ColonyCallbacks callbacks) {
+    public void tick(ColonyState state, ColonyEventBus events) {
         RaidState raid = state.raidState();
         long now = state.worldTimeSec();
 
-        int threatScore = (state.populationCurrent() * 4) + (state.nonHomeZoneCount() * 6);
+        int threatScore = threatScore(state);
         raid.setThreatScore(threatScore);
 
         if (raid.nextRaidAtSec() == 0L) {
             long scheduled = now + ColonistsConstants.RAID_GRACE_SECONDS;
             raid.setNextRaidAtSec(scheduled);
-            callbacks.onRaidScheduled("raid-initial", scheduled);
+            state.timers().schedule(TimerKind.RAID, RaidState.TIMER_ID, scheduled);
+            events.raidScheduled("raid-initial", scheduled);
             return;
         }
 
-        boolean scheduledDue = now >= raid.nextRaidAtSec();
+        boolean scheduledDue = state.timers().pollDue(TimerKind.RAID) != null;
+        if (scheduledDue && now < raid.nextRaidAtSec()) {
+            state.timers().schedule(TimerKind.RAID, RaidState.TIMER_ID, raid.nextRaidAtSec());
+            scheduledDue = false;
+        }
         boolean triggeredDue =
                 (threatScore - raid.threatAtLastRaid()) >= 12
                         && (now - raid.lastRaidAtSec()) >= ColonistsConstants.RAID_TRIGGER_COOLDOWN_SECONDS
                         && now >= ColonistsConstants.RAID_GRACE_SECONDS;
 
         if ((scheduledDue || triggeredDue) && raid.activeEnemies() < ColonistsConstants.MAX_ACTIVE_RAID_ENEMIES) {
-            startRaid(state, callbacks);
+            startRaid(state, events);
         }
     }
 
-    public void resolveRaid(ColonyState state, boolean success, ColonyCallbacks callbacks) {
+    public long nextTriggerSec(ColonyState state) {
+        RaidState raid = state.raidState();
+        if (raid.nextRaidAtSec() == 0L) {
+            return state.worldTimeSec();
+        }
+        if (raid.activeEnemies() >= ColonistsConstants.MAX_ACTIVE_RAID_ENEMIES
+                || threatScore(state) - raid.threatAtLastRaid() < 12) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(
+                raid.lastRaidAtSec() + ColonistsConstants.RAID_TRIGGER_COOLDOWN_SECONDS,
+                ColonistsConstants.RAID_GRACE_SECONDS
+        );
+    }
+
+    public void resolveRaid(ColonyState state, boolean success, ColonyEventBus events) {
         RaidState raid = state.raidState();
         if (raid.activeEnemies() <= 0) {
             return;
         }
         raid.setActiveEnemies(0);
+        state.timers().schedule(TimerKind.RAID, RaidState.TIMER_ID, raid.nextRaidAtSec());
         if (success) {
             raid.setRaidsSurvived(raid.raidsSurvived() + 1);
         }
-        callbacks.onRaidEnded("raid-" + raid.lastRaidAtSec(), success);
+        events.raidEnded(raid.lastRaidAtSec(), success);
     }
 
-    private void startRaid(ColonyState state, ColonyCallbacks callbacks) {
+    private void startRaid(ColonyState state, ColonyEventBus events) {
         RaidState raid = state.raidState();
         long now = state.worldTimeSec();
         raid.setActiveEnemies(ColonistsConstants.MAX_ACTIVE_RAID_ENEMIES);
         raid.setLastRaidAtSec(now);
         raid.setThreatAtLastRaid(raid.threatScore());
         raid.setNextRaidAtSec(now + ColonistsConstants.RAID_BASE_INTERVAL_SECONDS);
-        callbacks.onRaidStarted("raid-" + now);
-        callbacks.onRaidScheduled("raid-next", raid.nextRaidAtSec());
+        state.timers().schedule(TimerKind.RAID, RaidState.TIMER_ID, raid.nextRaidAtSec());
+        events.raidStarted(now);
+        events.raidScheduled("raid-next", raid.nextRaidAtSec());
+    }
+
+    private static int threatScore(ColonyState state) {
+        return (state.populationCurrent() * 4) + (state.nonHomeZoneCount() * 6);
     }
 
     public int raidTier(ColonyState state) {
@@ -1,20 +1,64 @@
 package com.shieldudaram.colonists.systems;
 
+import com.shieldudaram.colonists.events.ColonyEventBus;
+import com.shieldudaram.colonists.jfr.TaskAssignmentEvent;
 import com.shieldudaram.colonists.model.CitizenState;
 import com.shieldudaram.colonists.model.ColonyState;
 import com.shieldudaram.colonists.model.ColonyTask;
+import com.shieldudaram.colonists.model.TaskQueue;
 import com.shieldudaram.colonists.model.TaskStatus;
 import com.shieldudaram.colonists.model.TaskType;
+import com.shieldudaram.colonists.model.TimerKind;
+import com.shieldudaram.colonists.model.TimingWheel;
 import com.shieldudaram.colonists.sim.ColonistsConstants;
-import com.shieldudaram.colonists.sim.ColonyCallbacks;
 
-import java.util.Comparator;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
+import java.util.Objects;
 import java.util.UUID;
 
 public final class TaskBroker {
-    public ColonyTask createTask(ColonyState state, TaskType type, String targetId, double basePriority, boolean emergency, ColonyCallbacks callbacks) {
+    private static final int BATCH_CANDIDATES_PER_CITIZEN = 3;
+
+    private final AgentScheduler scheduler;
+    private final AssignmentMode mode;
+    private final TaskMatcher matcher;
+    private CitizenState[] idleCitizens;
+    private ColonyTask[] candidates;
+    private int[] assignment;
+    private int idleCount;
+    private int assignedThisPass;
+
+    public TaskBroker() {
+        this(AgentScheduler.unstaggered());
+    }
+
+    public TaskBroker(AgentScheduler scheduler) {
+        this(scheduler, AssignmentMode.GREEDY, new TaskMatcher(ColonistsConstants.MATCH_BUDGET_MICROS * 1_000L));
+    }
+
+    public TaskBroker(AgentScheduler scheduler, AssignmentMode mode, TaskMatcher matcher) {
+        this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+        this.mode = Objects.requireNonNull(mode, "mode");
+        this.matcher = Objects.requireNonNull(matcher, "matcher");
+        this.idleCitizens = new CitizenState[8];
+        this.candidates = new ColonyTask[8 * BATCH_CANDIDATES_PER_CITIZEN];
+        this.assignment = new int[8];
+    }
+
+    public AgentScheduler scheduler() {
+        return scheduler;
+    }
+
+    public AssignmentMode mode() {
+        return mode;
+    }
+
+    public TaskMatcher matcher() {
+        return matcher;
+    }
+
+    public ColonyTask createTask(ColonyState state, TaskType type, String targetId, double basePriority, boolean emergency, ColonyEventBus events) {
         ColonyTask task = new ColonyTask(
                 "task-" + UUID.randomUUID(),
                 type,
@@ -22,44 +66,75 @@ public final class TaskBroker {
                 basePriority,
                 emergency
         );
-        state.tasks().add(task);
-        callbacks.onTaskCreated(task.id());
+        state.addTask(task);
+        events.taskCreated(task.id());
         return task;
     }
 
-    public void assignTasks(ColonyState state, ColonyCallbacks callbacks) {
+    public void assignTasks(ColonyState state, ColonyEventBus events) {
+        TaskAssignmentEvent event = null;
+        if (TaskAssignmentEvent.recording()) {
+            event = new TaskAssignmentEvent();
+            event.begin();
+        }
+        assignedThisPass = 0;
         long now = state.worldTimeSec();
-        List<ColonyTask> taskPool = state.tasks().stream()
-                .filter(task -> task.status() == TaskStatus.QUEUED)
-                .filter(task -> !task.isQuarantined(now))
-                .sorted(Comparator.comparingDouble((ColonyTask task) -> scoredPriority(state, task)).reversed())
-                .toList();
+        TaskQueue queue = state.taskQueue();
+        queue.releaseQuarantined(now);
 
-        for (CitizenState citizen : state.citizens()) {
-            Optional<ColonyTask> activeTask = activeTaskForCitizen(state, citizen.id());
-            if (activeTask.isPresent()) {
-                ColonyTask current = activeTask.get();
-                Optional<ColonyTask> better = taskPool.stream()
-                        .filter(task -> canPreempt(citizen, task, now))
-                        .filter(task -> scoredPriority(state, task) > scoredPriority(state, current))
-                        .findFirst();
-                if (better.isPresent()) {
-                    ColonyTask replacement = better.get();
-                    current.setStatus(TaskStatus.PREEMPTED);
-                    current.clearReservation();
-                    citizen.setPreemptLockUntilSec(now + ColonistsConstants.TASK_PREEMPT_LOCK_SECONDS);
-                    callbacks.onTaskPreempted(current.id(), citizen.id(), "higher-priority");
-                    reserveTask(replacement, citizen, callbacks);
-                }
+        List<CitizenState> citizens = state.citizens();
+        int population = citizens.size();
+        int scheduled = scheduler.beginTick(population);
+        int start = scheduler.windowStart();
+        for (int offset = 0; offset < population; offset++) {
+            if (queue.isEmpty()) {
+                break;
+            }
+            boolean emergencyOnly = offset >= scheduled;
+            if (emergencyOnly && queue.peekEmergency() == null) {
+                break;
+            }
+            CitizenState citizen = citizens.get((start + offset) % population);
+            if (mode == AssignmentMode.BATCH && !emergencyOnly
+                    && state.taskReservations().activeTask(citizen.id()) == null) {
+                deferIdle(citizen);
                 continue;
             }
+            evaluateCitizen(state, queue, citizen, now, emergencyOnly, events);
+        }
+        evaluateUnlockedCitizens(state, queue, start, scheduled, now, events);
+        if (idleCount > 0) {
+            matchIdleCitizens(queue, events);
+        }
+        if (event != null) {
+            event.mode = mode.name();
+            event.citizens = population;
+            event.scheduled = scheduled;
+            event.queuedTasks = queue.size();
+            event.assigned = assignedThisPass;
+            event.commit();
+        }
+    }
 
-            Optional<ColonyTask> nextTask = taskPool.stream()
-                    .filter(task -> task.reservedByCitizenId() == null)
-                    .findFirst();
-
-            nextTask.ifPresent(task -> reserveTask(task, citizen, callbacks));
+    public boolean canAssign(ColonyState state) {
+        TaskQueue queue = state.taskQueue();
+        if (queue.isEmpty()) {
+            return false;
         }
+        long now = state.worldTimeSec();
+        ColonyTask best = queue.peek();
+        ColonyTask emergency = queue.peekEmergency();
+        for (CitizenState citizen : state.citizens()) {
+            ColonyTask current = state.taskReservations().activeTask(citizen.id());
+            if (current == null) {
+                return true;
+            }
+            ColonyTask better = citizen.preemptLockUntilSec() <= now ? best : emergency;
+            if (better != null && queue.scoredPriority(better) > queue.scoredPriority(current)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public void markPathFailure(ColonyState state, ColonyTask task) {
@@ -72,32 +147,110 @@ public final class TaskBroker {
         }
     }
 
-    public void completeTask(ColonyTask task, String citizenId, ColonyCallbacks callbacks) {
+    public void completeTask(ColonyTask task, String citizenId, ColonyEventBus events) {
         task.setStatus(TaskStatus.DONE);
-        callbacks.onTaskCompleted(task.id(), citizenId);
+        events.taskCompleted(task.id(), citizenId);
     }
 
-    private void reserveTask(ColonyTask task, CitizenState citizen, ColonyCallbacks callbacks) {
-        task.reserve(citizen.id());
-        task.setStatus(TaskStatus.RUNNING);
-        callbacks.onTaskAssigned(task.id(), citizen.id());
+    private void evaluateCitizen(
+            ColonyState state,
+            TaskQueue queue,
+            CitizenState citizen,
+            long now,
+            boolean emergencyOnly,
+            ColonyEventBus events
+    ) {
+        ColonyTask current = state.taskReservations().activeTask(citizen.id());
+        if (current == null) {
+            ColonyTask nextTask = emergencyOnly ? queue.peekEmergency() : queue.peek();
+            if (nextTask != null) {
+                reserveTask(nextTask, citizen, events);
+            }
+            return;
+        }
+
+        boolean unlocked = !emergencyOnly && citizen.preemptLockUntilSec() <= now;
+        ColonyTask better = unlocked ? queue.peek() : queue.peekEmergency();
+        if (better != null && queue.scoredPriority(better) > queue.scoredPriority(current)) {
+            current.setStatus(TaskStatus.PREEMPTED);
+            current.clearReservation();
+            citizen.setPreemptLockUntilSec(now + ColonistsConstants.TASK_PREEMPT_LOCK_SECONDS);
+            state.timers().schedule(TimerKind.PREEMPT_UNLOCK, citizen.id(), citizen.preemptLockUntilSec());
+            events.taskPreempted(current.id(), citizen.id(), "higher-priority");
+            reserveTask(better, citizen, events);
+        }
     }
 
-    private Optional<ColonyTask> activeTaskForCitizen(ColonyState state, String citizenId) {
-        return state.tasks().stream()
-                .filter(task -> citizenId.equals(task.reservedByCitizenId()))
-                .filter(task -> task.status() == TaskStatus.RESERVED || task.status() == TaskStatus.RUNNING)
-                .findFirst();
+    private void evaluateUnlockedCitizens(
+            ColonyState state,
+            TaskQueue queue,
+            int start,
+            int scheduled,
+            long now,
+            ColonyEventBus events
+    ) {
+        TimingWheel timers = state.timers();
+        List<CitizenState> citizens = state.citizens();
+        int population = citizens.size();
+        for (String citizenId = timers.pollDue(TimerKind.PREEMPT_UNLOCK);
+             citizenId != null;
+             citizenId = timers.pollDue(TimerKind.PREEMPT_UNLOCK)) {
+            int index = state.citizenIndex(citizenId);
+            if (index < 0 || queue.isEmpty() || Math.floorMod(index - start, population) < scheduled) {
+                continue;
+            }
+            CitizenState citizen = citizens.get(index);
+            if (citizen.preemptLockUntilSec() > now) {
+                timers.schedule(TimerKind.PREEMPT_UNLOCK, citizen.id(), citizen.preemptLockUntilSec());
+                continue;
+            }
+            if (state.taskReservations().activeTask(citizen.id()) != null) {
+                evaluateCitizen(state, queue, citizen, now, false, events);
+            }
+        }
+    }
+
+    private void deferIdle(CitizenState citizen) {
+        if (idleCount == idleCitizens.length) {
+            idleCitizens = Arrays.copyOf(idleCitizens, idleCount * 2);
+        }
+        idleCitizens[idleCount++] = citizen;
     }
 
-    private boolean canPreempt(CitizenState citizen, ColonyTask candidate, long now) {
-        if (candidate.emergency()) {
-            return true;
+    private void matchIdleCitizens(TaskQueue queue, ColonyEventBus events) {
+        int limit = idleCount * BATCH_CANDIDATES_PER_CITIZEN;
+        if (candidates.length < limit) {
+            candidates = new ColonyTask[limit];
+        }
+        if (assignment.length < idleCount) {
+            assignment = new int[idleCitizens.length];
         }
-        return citizen.preemptLockUntilSec() <= now;
+        int taskCount = queue.collectTop(candidates, limit);
+        if (taskCount > 0) {
+            if (matcher.match(idleCitizens, idleCount, candidates, taskCount, queue, assignment)) {
+                for (int index = 0; index < idleCount; index++) {
+                    if (assignment[index] >= 0) {
+                        reserveTask(candidates[assignment[index]], idleCitizens[index], events);
+                    }
+                }
+            } else {
+                for (int index = 0; index < idleCount; index++) {
+                    ColonyTask nextTask = queue.peek();
+                    if (nextTask != null) {
+                        reserveTask(nextTask, idleCitizens[index], events);
+                    }
+                }
+            }
+        }
+        Arrays.fill(candidates, 0, taskCount, null);
+        Arrays.fill(idleCitizens, 0, idleCount, null);
+        idleCount = 0;
     }
 
-    private double scoredPriority(ColonyState state, ColonyTask task) {
-        return task.basePriority() * state.taskWeights().weightFor(task.type());
+    private void reserveTask(ColonyTask task, CitizenState citizen, ColonyEventBus events) {
+        task.reserve(citizen.id());
+        task.setStatus(TaskStatus.RUNNING);
+        assignedThisPass += 1;
+        events.taskAssigned(task.id(), citizen.id());
     }
 }
@@ -0,0 +1,136 @@
+package com.shieldudaram.colonists.systems;
+
+import com.shieldudaram.colonists.model.CitizenState;
+import com.shieldudaram.colonists.model.ColonyTask;
+import com.shieldudaram.colonists.model.TaskQueue;
+import com.shieldudaram.colonists.model.TaskType;
+
+public final class TaskMatcher {
+    private final long budgetNanos;
+    private double[] benefits;
+    private double[] prices;
+    private int[] objectOwner;
+    private int[] pending;
+    private long solveCount;
+    private long fallbackCount;
+    private long lastSolveNanos;
+
+    public TaskMatcher(long budgetNanos) {
+        this.budgetNanos = Math.max(1L, budgetNanos);
+        this.benefits = new double[0];
+        this.prices = new double[0];
+        this.objectOwner = new int[0];
+        this.pending = new int[0];
+    }
+
+    public long budgetNanos() {
+        return budgetNanos;
+    }
+
+    public long solveCount() {
+        return solveCount;
+    }
+
+    public long fallbackCount() {
+        return fallbackCount;
+    }
+
+    public long lastSolveNanos() {
+        return lastSolveNanos;
+    }
+
+    public static double matchWeight(double scoredPriority, CitizenState citizen, TaskType type) {
+        double skillFactor = 0.5 + (citizen.skill(type.role()) / 10.0);
+        return scoredPriority * skillFactor * citizen.speedMultiplier();
+    }
+
+    public boolean match(
+            CitizenState[] citizens,
+            int citizenCount,
+            ColonyTask[] tasks,
+            int taskCount,
+            TaskQueue queue,
+            int[] assignment
+    ) {
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + budgetNanos;
+        solveCount += 1;
+
+        int objects = taskCount + citizenCount;
+        ensureCapacity(citizenCount, objects);
+        double maxBenefit = 0.0;
+        for (int bidder = 0; bidder < citizenCount; bidder++) {
+            int row = bidder * objects;
+            for (int object = 0; object < taskCount; object++) {
+                double weight = matchWeight(queue.scoredPriority(tasks[object]), citizens[bidder], tasks[object].type());
+                benefits[row + object] = weight;
+                maxBenefit = Math.max(maxBenefit, weight);
+            }
+            for (int object = taskCount; object < objects; object++) {
+                benefits[row + object] = 0.0;
+            }
+            assignment[bidder] = -1;
+            pending[bidder] = bidder;
+        }
+        for (int object = 0; object < objects; object++) {
+            prices[object] = 0.0;
+            objectOwner[object] = -1;
+        }
+
+        double epsilon = Math.max(1e-9, maxBenefit / (100.0 * (citizenCount + 1)));
+        int pendingCount = citizenCount;
+        int iterations = 0;
+        while (pendingCount > 0) {
+            if ((++iterations & 15) == 0 && System.nanoTime() > deadline) {
+                fallbackCount += 1;
+                lastSolveNanos = System.nanoTime() - startedAt;
+                return false;
+            }
+            int bidder = pending[--pendingCount];
+            int row = bidder * objects;
+            int bestObject = -1;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            double secondValue = Double.NEGATIVE_INFINITY;
+            for (int object = 0; object < objects; object++) {
+                double value = benefits[row + object] - prices[object];
+                if (value > bestValue) {
+                    secondValue = bestValue;
+                    bestValue = value;
+                    bestObject = object;
+                } else if (value > secondValue) {
+                    secondValue = value;
+                }
+            }
+            double increment = (secondValue == Double.NEGATIVE_INFINITY ? 0.0 : bestValue - secondValue) + epsilon;
+            prices[bestObject] += increment;
+            int displaced = objectOwner[bestObject];
+            objectOwner[bestObject] = bidder;
+            assignment[bidder] = bestObject;
+            if (displaced >= 0) {
+                assignment[displaced] = -1;
+                pending[pendingCount++] = displaced;
+            }
+        }
+
+        for (int bidder = 0; bidder < citizenCount; bidder++) {
+            if (assignment[bidder] >= taskCount) {
+                assignment[bidder] = -1;
+            }
+        }
+        lastSolveNanos = System.nanoTime() - startedAt;
+        return true;
+    }
+
+    private void ensureCapacity(int bidders, int objects) {
+        if (benefits.length < bidders * objects) {
+            benefits = new double[bidders * objects];
+        }
+        if (prices.length < objects) {
+            prices = new double[objects];
+            objectOwner = new int[objects];
+        }
+        if (pending.length < bidders) {
+            pending = new int[bidders];
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.shieldudaram.colonists.systems;
+
+import com.shieldudaram.colonists.model.ColonyState;
+import com.shieldudaram.colonists.sim.ColonistsConstants;
+
+public final class TaskRetentionSystem {
+    private final int compactionBatch;
+
+    public TaskRetentionSystem() {
+        this(ColonistsConstants.TASK_COMPACTION_BATCH);
+    }
+
+    public TaskRetentionSystem(int compactionBatch) {
+        this.compactionBatch = Math.max(1, compactionBatch);
+    }
+
+    public int tick(ColonyState state) {
+        if (state.pendingArchiveCount() == 0) {
+            return 0;
+        }
+        return state.compactTasks(compactionBatch);
+    }
+}
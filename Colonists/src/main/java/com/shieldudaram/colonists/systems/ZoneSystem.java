@@ -12,22 +12,20 @@ public final class ZoneSystem {
 
     public ColonyZone createZone(ColonyState state, ZoneType type, int x1, int z1, int x2, int z2) {
         String zoneId = "zone-" + zoneCounter.getAndIncrement();
+        while (state.zone(zoneId) != null) {
+            zoneId = "zone-" + zoneCounter.getAndIncrement();
+        }
         ColonyZone zone = new ColonyZone(zoneId, type, x1, z1, x2, z2);
-        state.zones().add(zone);
+        state.addZone(zone);
         return zone;
     }
 
     public boolean clearZone(ColonyState state, String zoneId) {
-        return state.zones().removeIf(zone -> zone.id().equals(zoneId));
+        return state.removeZone(zoneId);
     }
 
     public ColonyZone zoneAt(ColonyState state, int x, int z, ZoneType requiredType) {
-        for (ColonyZone zone : state.zones()) {
-            if (zone.contains(x, z) && zone.type() == requiredType) {
-                return zone;
-            }
-        }
-        return null;
+        return state.spatialIndex().zoneAt(x, z, requiredType);
     }
 
     public ZoneType parseZoneType(String input) {
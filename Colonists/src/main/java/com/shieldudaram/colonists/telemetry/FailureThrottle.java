@@ -0,0 +1,32 @@
+package com.shieldudaram.colonists.telemetry;
+
+public final class FailureThrottle {
+    private final long intervalNanos;
+    private long count;
+    private long unreported;
+    private long lastReportNanos;
+
+    public FailureThrottle(long intervalNanos) {
+        this.intervalNanos = Math.max(0L, intervalNanos);
+    }
+
+    public synchronized String record(String source, Throwable failure, long nowNanos) {
+        count += 1;
+        if (count > 1 && nowNanos - lastReportNanos < intervalNanos) {
+            unreported += 1;
+            return null;
+        }
+        StringBuilder message = new StringBuilder(source).append(" failed (").append(count).append(" total");
+        if (unreported > 0) {
+            message.append(", ").append(unreported).append(" unreported");
+        }
+        message.append("): ").append(failure);
+        unreported = 0L;
+        lastReportNanos = nowNanos;
+        return message.toString();
+    }
+
+    public synchronized long count() {
+        return count;
+    }
+}
@@ -0,0 +1,76 @@
+package com.shieldudaram.colonists.telemetry;
+
+import java.util.Arrays;
+
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long max;
+    private long total;
+
+    public void record(long nanos) {
+        long value = Math.max(0L, nanos);
+        counts[bucketIndex(value)] += 1;
+        count += 1;
+        total += value;
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public long max() {
+        return max;
+    }
+
+    public long mean() {
+        return count == 0L ? 0L : total / count;
+    }
+
+    public long percentile(double percentile) {
+        if (count == 0L) {
+            return 0L;
+        }
+        long target = Math.max(1L, (long) Math.ceil(Math.min(1.0, Math.max(0.0, percentile)) * count));
+        long seen = 0L;
+        for (int index = 0; index < BUCKETS; index++) {
+            seen += counts[index];
+            if (seen >= target) {
+                return Math.min(max, bucketUpperBound(index));
+            }
+        }
+        return max;
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0L);
+        count = 0L;
+        max = 0L;
+        total = 0L;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int sub = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1L;
+    }
+}
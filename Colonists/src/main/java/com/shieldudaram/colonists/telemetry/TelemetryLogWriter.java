@@ -0,0 +1,284 @@
+package com.shieldudaram.colonists.telemetry;
+
+import com.shieldudaram.colonists.jfr.TelemetryFlushEvent;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public final class TelemetryLogWriter implements AutoCloseable {
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final String FILE_PREFIX = "colonists-";
+    private static final String FILE_SUFFIX = ".log";
+    private static final long BARRIER_TIMEOUT_MILLIS = 10_000L;
+    private static final long BARRIER_POLL_MILLIS = 100L;
+
+    private final Path logDir;
+    private final BlockingQueue<LogLine> queue;
+    private final int flushBytes;
+    private final long flushMillis;
+    private final int retainDays;
+    private final LongSupplier clock;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final String lineSeparator = System.lineSeparator();
+
+    private volatile boolean started;
+    private volatile boolean closed;
+    private Thread thread;
+    private BufferedWriter out;
+    private long openDay = Long.MIN_VALUE;
+    private int unflushedChars;
+    private long lastFlushAt;
+
+    public TelemetryLogWriter(Path logDir, int queueCapacity, int flushBytes, long flushMillis, int retainDays) {
+        this(logDir, queueCapacity, flushBytes, flushMillis, retainDays, System::currentTimeMillis);
+    }
+
+    TelemetryLogWriter(Path logDir, int queueCapacity, int flushBytes, long flushMillis, int retainDays, LongSupplier clock) {
+        this.logDir = Objects.requireNonNull(logDir, "logDir");
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.flushBytes = Math.max(1, flushBytes);
+        this.flushMillis = Math.max(1L, flushMillis);
+        this.retainDays = Math.max(1, retainDays);
+        this.clock = Objects.requireNonNull(clock, "clock");
+    }
+
+    public boolean offer(String line) {
+        if (closed) {
+            return false;
+        }
+        if (queue.offer(new LogLine(clock.getAsLong(), line, null, false))) {
+            return true;
+        }
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        if (closed) {
+            throw new IllegalStateException("Telemetry writer is closed");
+        }
+        thread = new Thread(this::run, "colonists-telemetry");
+        thread.setDaemon(true);
+        thread.start();
+        started = true;
+    }
+
+    public boolean started() {
+        return started;
+    }
+
+    synchronized boolean startIfOpen() {
+        if (closed) {
+            return false;
+        }
+        start();
+        return true;
+    }
+
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    public long writtenCount() {
+        return written.get();
+    }
+
+    public int queuedCount() {
+        return queue.size();
+    }
+
+    public void flush() {
+        if (!started || closed) {
+            return;
+        }
+        awaitBarrier(new CountDownLatch(1), false);
+    }
+
+    @Override
+    public void close() {
+        boolean running;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            running = started;
+        }
+        if (running && awaitBarrier(new CountDownLatch(1), true)) {
+            try {
+                thread.join(BARRIER_TIMEOUT_MILLIS);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private boolean awaitBarrier(CountDownLatch barrier, boolean stop) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(BARRIER_TIMEOUT_MILLIS);
+        LogLine line = new LogLine(0L, null, barrier, stop);
+        try {
+            while (!queue.offer(line, BARRIER_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (!thread.isAlive() || System.nanoTime() >= deadline) {
+                    return false;
+                }
+            }
+            while (!barrier.await(BARRIER_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (!thread.isAlive() || System.nanoTime() >= deadline) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while flushing telemetry", exception);
+        }
+    }
+
+    private void run() {
+        List<LogLine> batch = new ArrayList<>();
+        lastFlushAt = System.nanoTime();
+        boolean running = true;
+        while (running) {
+            LogLine first;
+            try {
+                first = queue.poll(flushMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException exception) {
+                break;
+            }
+            if (first != null) {
+                batch.add(first);
+                queue.drainTo(batch);
+            }
+            for (LogLine line : batch) {
+                if (line.barrier() == null) {
+                    write(line);
+                    continue;
+                }
+                flushWriter();
+                if (line.stop()) {
+                    running = false;
+                    closeWriter();
+                }
+                line.barrier().countDown();
+            }
+            batch.clear();
+            if (running && unflushedChars > 0
+                    && System.nanoTime() - lastFlushAt >= TimeUnit.MILLISECONDS.toNanos(flushMillis)) {
+                flushWriter();
+            }
+        }
+        closeWriter();
+    }
+
+    private void write(LogLine line) {
+        try {
+            long day = Math.floorDiv(line.epochMillis(), MILLIS_PER_DAY);
+            if (day != openDay) {
+                rollOver(day);
+            }
+            String text = Instant.ofEpochMilli(line.epochMillis()) + " " + line.text() + lineSeparator;
+            out.write(text);
+            written.incrementAndGet();
+            unflushedChars += text.length();
+            if (unflushedChars >= flushBytes) {
+                flushWriter();
+            }
+        } catch (IOException | UncheckedIOException exception) {
+            dropped.incrementAndGet();
+            closeWriter();
+        }
+    }
+
+    private void rollOver(long day) throws IOException {
+        closeWriter();
+        Files.createDirectories(logDir);
+        Path file = logDir.resolve(FILE_PREFIX + LocalDate.ofEpochDay(day) + FILE_SUFFIX);
+        FileChannel channel = FileChannel.open(
+                file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND
+        );
+        out = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8), flushBytes);
+        openDay = day;
+        rotate();
+    }
+
+    private void rotate() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(logDir)) {
+            files = listing
+                    .filter(path -> path.getFileName().toString().startsWith(FILE_PREFIX) && path.getFileName().toString().endsWith(FILE_SUFFIX))
+                    .sorted(Comparator.comparing(Path::toString).reversed())
+                    .collect(Collectors.toCollection(ArrayList::new));
+        }
+        for (int index = retainDays; index < files.size(); index++) {
+            Files.deleteIfExists(files.get(index));
+        }
+    }
+
+    private void flushWriter() {
+        lastFlushAt = System.nanoTime();
+        if (out == null) {
+            return;
+        }
+        TelemetryFlushEvent event = null;
+        if (TelemetryFlushEvent.recording()) {
+            event = new TelemetryFlushEvent();
+            event.chars = unflushedChars;
+            event.droppedLines = dropped.get();
+            event.begin();
+        }
+        try {
+            out.flush();
+        } catch (IOException exception) {
+            closeWriter();
+        }
+        unflushedChars = 0;
+        if (event != null) {
+            event.commit();
+        }
+    }
+
+    private void closeWriter() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException ignored) {
+        }
+        out = null;
+        openDay = Long.MIN_VALUE;
+        unflushedChars = 0;
+    }
+
+    private record LogLine(long epochMillis, String text, CountDownLatch barrier, boolean stop) {
+    }
+}
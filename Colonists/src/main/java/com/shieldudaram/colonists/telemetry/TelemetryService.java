@@ -1,29 +1,48 @@
 package com.shieldudaram.colonists.telemetry;
 
+import com.shieldudaram.colonists.content.ColonistsConfig;
 import com.shieldudaram.colonists.model.ColonyState;
+import com.shieldudaram.colonists.sim.ColonistsConstants;
 
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
-import java.time.Instant;
-import java.time.ZoneOffset;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
 import java.util.Locale;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
-public final class TelemetryService {
-    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd").withZone(ZoneOffset.UTC);
+public final class TelemetryService implements AutoCloseable {
+    private static final long FAILURE_REPORT_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
 
     private TelemetryMode mode = TelemetryMode.BRIEF;
-    private final Path logDir;
+    private final TelemetryLogWriter logWriter;
+    private final boolean ownsWriter;
+    private final String linePrefix;
+    private final TickMetrics metrics;
+    private final Map<String, FailureThrottle> failures = new ConcurrentHashMap<>();
 
     public TelemetryService(Path logDir) {
-        this.logDir = logDir;
+        this(logDir, new ColonistsConfig.Telemetry());
+    }
+
+    public TelemetryService(Path logDir, ColonistsConfig.Telemetry config) {
+        this.logWriter = new TelemetryLogWriter(
+                logDir,
+                config.queueCapacity,
+                config.flushBytes,
+                config.flushMillis,
+                config.retainDays
+        );
+        this.ownsWriter = true;
+        this.linePrefix = "";
+        this.metrics = new TickMetrics(1_000_000_000L / ColonistsConstants.TICK_HZ);
+    }
+
+    public TelemetryService(TelemetryLogWriter sharedWriter, String source) {
+        this.logWriter = Objects.requireNonNull(sharedWriter, "sharedWriter");
+        this.ownsWriter = false;
+        this.linePrefix = "[" + Objects.requireNonNull(source, "source") + "] ";
+        this.metrics = new TickMetrics(1_000_000_000L / ColonistsConstants.TICK_HZ);
     }
 
     public TelemetryMode mode() {
@@ -32,6 +51,26 @@ public final class TelemetryService {
 
     public void setMode(TelemetryMode mode) {
         this.mode = mode;
+        metrics.setEnabled(mode != TelemetryMode.OFF);
+    }
+
+    public TickMetrics metrics() {
+        return metrics;
+    }
+
+    public String perf(ColonyState state) {
+        if (!metrics.enabled()) {
+            return "Perf metrics are off. Use /colony telemetry brief to enable them.";
+        }
+        StringBuilder report = new StringBuilder(String.format(
+                Locale.ROOT,
+                "perf ticks=%d overruns=%d budget=%.1fms",
+                metrics.ticks(),
+                metrics.overruns(),
+                millis(metrics.budgetNanos())
+        ));
+        appendPerf(report, state);
+        return report.toString();
     }
 
     public String status(ColonyState state, TelemetryMode requestedMode) {
@@ -61,43 +100,110 @@ public final class TelemetryService {
                 + " tasks=" + state.tasks().size() + "\n"
                 + " raid.activeEnemies=" + state.raidState().activeEnemies() + "\n"
                 + " raid.nextRaidAtSec=" + state.raidState().nextRaidAtSec() + "\n"
-                + " stock=[wood=" + state.stockWood()
-                + ", stone=" + state.stockStone()
-                + ", fiber=" + state.stockFiber()
-                + ", food=" + state.stockFood()
-                + "]";
+                + " stock=[wood=" + state.stock("wood")
+                + ", stone=" + state.stock("stone")
+                + ", fiber=" + state.stock("fiber")
+                + ", food=" + state.stock("food")
+                + "]\n"
+                + " telemetry.droppedLines=" + logWriter.droppedCount()
+                + perfSection(state);
     }
 
     public void log(String line) {
         if (mode == TelemetryMode.OFF) {
             return;
         }
-        try {
-            Files.createDirectories(logDir);
-            String dayFile = "colonists-" + DAY_FORMAT.format(Instant.now()) + ".log";
-            Path logFile = logDir.resolve(dayFile);
-            String timestamped = Instant.now() + " " + line + System.lineSeparator();
-            Files.writeString(
-                    logFile,
-                    timestamped,
-                    StandardCharsets.UTF_8,
-                    StandardOpenOption.CREATE,
-                    StandardOpenOption.APPEND
-            );
-            rotate();
-        } catch (IOException ignored) {
+        if (!logWriter.started() && !logWriter.startIfOpen()) {
+            return;
+        }
+        logWriter.offer(linePrefix + line);
+    }
+
+    public void warn(String line) {
+        if (!logWriter.started() && !logWriter.startIfOpen()) {
+            return;
+        }
+        logWriter.offer(linePrefix + "WARN " + line);
+    }
+
+    public void warnFailure(String source, Throwable failure) {
+        String message = failures
+                .computeIfAbsent(source, ignored -> new FailureThrottle(FAILURE_REPORT_INTERVAL_NANOS))
+                .record(source, failure, System.nanoTime());
+        if (message != null) {
+            warn(message);
         }
     }
 
-    private void rotate() throws IOException {
-        List<Path> files = Files.list(logDir)
-                .filter(path -> path.getFileName().toString().startsWith("colonists-") && path.getFileName().toString().endsWith(".log"))
-                .sorted(Comparator.comparing(Path::toString).reversed())
-                .collect(Collectors.toCollection(ArrayList::new));
+    public long droppedLines() {
+        return logWriter.droppedCount();
+    }
 
-        int keep = 7;
-        for (int index = keep; index < files.size(); index++) {
-            Files.deleteIfExists(files.get(index));
+    public void flush() {
+        logWriter.flush();
+    }
+
+    @Override
+    public void close() {
+        if (ownsWriter) {
+            logWriter.close();
         }
     }
+
+    private String perfSection(ColonyState state) {
+        if (!metrics.enabled()) {
+            return "";
+        }
+        StringBuilder section = new StringBuilder(String.format(
+                Locale.ROOT,
+                "\n perf.ticks=%d\n perf.overruns=%d",
+                metrics.ticks(),
+                metrics.overruns()
+        ));
+        appendPerf(section, state);
+        return section.toString();
+    }
+
+    private void appendPerf(StringBuilder report, ColonyState state) {
+        for (TickPhase phase : TickPhase.values()) {
+            LatencyHistogram histogram = metrics.histogram(phase);
+            report.append(String.format(
+                    Locale.ROOT,
+                    "\n %-16s p50=%.1fus p99=%.1fus max=%.1fus",
+                    phase.name().toLowerCase(Locale.ROOT),
+                    micros(histogram.percentile(0.50)),
+                    micros(histogram.percentile(0.99)),
+                    micros(histogram.max())
+            ));
+        }
+        LatencyHistogram lag = metrics.scheduleLag();
+        if (lag.count() > 0) {
+            report.append(String.format(
+                    Locale.ROOT,
+                    "\n %-16s p50=%.1fus p99=%.1fus max=%.1fus skipped=%d",
+                    "schedule_lag",
+                    micros(lag.percentile(0.50)),
+                    micros(lag.percentile(0.99)),
+                    micros(lag.max()),
+                    metrics.skippedTicks()
+            ));
+        }
+        report.append(String.format(
+                Locale.ROOT,
+                "\n entities citizens=%d hotspots=%d tasks=%d zones=%d structures=%d",
+                state.citizens().size(),
+                state.hotspots().size(),
+                state.tasks().size(),
+                state.zones().size(),
+                state.structures().size()
+        ));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1_000.0;
+    }
 }
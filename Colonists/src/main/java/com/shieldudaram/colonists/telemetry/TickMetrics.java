@@ -0,0 +1,134 @@
+package com.shieldudaram.colonists.telemetry;
+
+import com.shieldudaram.colonists.jfr.TickEvent;
+import com.shieldudaram.colonists.jfr.TickPhaseEvent;
+
+public final class TickMetrics {
+    private static final TickPhase[] PHASES = TickPhase.values();
+
+    private final LatencyHistogram[] histograms = new LatencyHistogram[PHASES.length];
+    private final LatencyHistogram scheduleLag = new LatencyHistogram();
+    private final long budgetNanos;
+    private boolean enabled = true;
+    private long overruns;
+    private long skippedTicks;
+    private long tick;
+    private long tickStartedAt;
+    private long phaseStartedAt;
+    private boolean measuring;
+    private TickEvent tickEvent;
+    private TickPhaseEvent phaseEvent;
+
+    public TickMetrics(long budgetNanos) {
+        this.budgetNanos = Math.max(1L, budgetNanos);
+        for (int index = 0; index < histograms.length; index++) {
+            histograms[index] = new LatencyHistogram();
+        }
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long budgetNanos() {
+        return budgetNanos;
+    }
+
+    public void beginTick(long tick, long worldTimeSec) {
+        this.tick = tick;
+        measuring = enabled;
+        if (measuring) {
+            tickStartedAt = System.nanoTime();
+            phaseStartedAt = tickStartedAt;
+        }
+        if (TickEvent.recording()) {
+            tickEvent = new TickEvent();
+            tickEvent.tick = tick;
+            tickEvent.worldTimeSec = worldTimeSec;
+            tickEvent.begin();
+        }
+        beginPhaseEvent();
+    }
+
+    public void lap(TickPhase phase) {
+        if (measuring && enabled) {
+            long now = System.nanoTime();
+            histograms[phase.ordinal()].record(now - phaseStartedAt);
+            phaseStartedAt = now;
+        }
+        if (phaseEvent != null) {
+            phaseEvent.phase = phase.name();
+            phaseEvent.commit();
+            phaseEvent = null;
+        }
+        beginPhaseEvent();
+    }
+
+    public void endTick() {
+        phaseEvent = null;
+        if (tickEvent != null) {
+            tickEvent.commit();
+            tickEvent = null;
+        }
+        boolean measured = measuring && enabled;
+        measuring = false;
+        if (!measured) {
+            return;
+        }
+        long elapsed = System.nanoTime() - tickStartedAt;
+        histograms[TickPhase.TOTAL.ordinal()].record(elapsed);
+        if (elapsed > budgetNanos) {
+            overruns += 1;
+        }
+    }
+
+    public void recordSchedule(long lagNanos, long skipped) {
+        if (!enabled) {
+            return;
+        }
+        scheduleLag.record(lagNanos);
+        skippedTicks += skipped;
+    }
+
+    public LatencyHistogram histogram(TickPhase phase) {
+        return histograms[phase.ordinal()];
+    }
+
+    public long ticks() {
+        return histograms[TickPhase.TOTAL.ordinal()].count();
+    }
+
+    public long overruns() {
+        return overruns;
+    }
+
+    public LatencyHistogram scheduleLag() {
+        return scheduleLag;
+    }
+
+    public long skippedTicks() {
+        return skippedTicks;
+    }
+
+    public void reset() {
+        for (LatencyHistogram histogram : histograms) {
+            histogram.reset();
+        }
+        scheduleLag.reset();
+        overruns = 0L;
+        skippedTicks = 0L;
+    }
+
+    private void beginPhaseEvent() {
+        if (!TickPhaseEvent.recording()) {
+            return;
+        }
+        phaseEvent = new TickPhaseEvent();
+        phaseEvent.tick = tick;
+        phaseEvent.begin();
+    }
+}
@@ -0,0 +1,14 @@
+package com.shieldudaram.colonists.telemetry;
+
+public enum TickPhase {
+    COMMANDS,
+    POPULATION,
+    TASK_ASSIGNMENT,
+    TASK_RETENTION,
+    HOTSPOTS,
+    RAIDS,
+    VERIFY,
+    AUTOSAVE,
+    EVENTS,
+    TOTAL
+}
@@ -0,0 +1,71 @@
+package com.shieldudaram.colonists;
+
+import com.shieldudaram.colonists.commands.CommandResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColonistsRuntimeTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void commandRepliesAreDeliveredOnTheTickingThread() {
+        ColonistsRuntime runtime = ColonistsRuntime.headless(tempDir);
+        try {
+            AtomicReference<Thread> repliedOn = new AtomicReference<>();
+            CompletableFuture<CommandResult> status = runtime.handleCommand("/colony status");
+            status.thenAccept(result -> repliedOn.set(Thread.currentThread()));
+            assertFalse(status.isDone());
+
+            runtime.tick();
+
+            assertTrue(status.join().success());
+            assertSame(Thread.currentThread(), repliedOn.get());
+        } finally {
+            runtime.shutdown();
+        }
+    }
+
+    @Test
+    void colonyCommandsRequireAnOpenedColony() throws Exception {
+        ColonistsRuntime runtime = ColonistsRuntime.headless(tempDir);
+        try {
+            CommandResult unknown = runtime.handleCommand("typo", "/colony status").join();
+            assertFalse(unknown.success());
+            assertTrue(await(runtime, runtime.openColony("alpha")).success());
+            assertFalse(await(runtime, runtime.openColony("../escape")).success());
+            assertEquals(List.of("alpha"), runtime.host().colonyIds());
+
+            long ticksBefore = runtime.host().colony("alpha").ticks();
+            CompletableFuture<CommandResult> status = runtime.handleCommand("alpha", "/colony status");
+            runtime.tick();
+
+            assertTrue(status.join().success());
+            assertEquals(ticksBefore + 1L, runtime.host().colony("alpha").ticks());
+            assertTrue(await(runtime, runtime.closeColony("alpha")).success());
+            assertFalse(await(runtime, runtime.closeColony("alpha")).success());
+        } finally {
+            runtime.shutdown();
+        }
+    }
+
+    private static CommandResult await(ColonistsRuntime runtime, CompletableFuture<CommandResult> reply) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!reply.isDone() && System.nanoTime() < deadline) {
+            Thread.sleep(1L);
+            runtime.tick();
+        }
+        return reply.join();
+    }
+}
@@ -0,0 +1,99 @@
+package com.shieldudaram.colonists.commands;
+
+import com.shieldudaram.colonists.content.ColonistsConfig;
+import com.shieldudaram.colonists.events.ColonyEventType;
+import com.shieldudaram.colonists.model.PolicyId;
+import com.shieldudaram.colonists.sim.ColonyCallbacks;
+import com.shieldudaram.colonists.sim.ColonySimulationEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColonyCommandRouterTest {
+    @TempDir
+    Path tempDir;
+
+    private ColonySimulationEngine engine;
+    private ColonyCommandRouter router;
+
+    @BeforeEach
+    void setUp() {
+        ColonistsConfig config = new ColonistsConfig();
+        config.save.autosaveEnabled = false;
+        engine = new ColonySimulationEngine(tempDir.resolve("logs"), tempDir.resolve("saves"), new ColonyCallbacks() {
+        }, config);
+        router = new ColonyCommandRouter(engine);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void submittedCommandsApplyAtTheNextTickInOrder() {
+        CompletableFuture<CommandResult> mark1 = router.submit("/colony zone mark1 0 0");
+        CompletableFuture<CommandResult> mark2 = router.submit("/colony zone mark2 20 20");
+        CompletableFuture<CommandResult> zone = router.submit("/colony zone create hotspot");
+        CompletableFuture<CommandResult> invalid = router.submit("/colony policy set Nope");
+
+        assertTrue(invalid.isDone());
+        assertFalse(invalid.join().success());
+        assertFalse(zone.isDone());
+        assertEquals(3, engine.pendingCommands());
+        assertTrue(engine.state().zones().isEmpty());
+
+        engine.tick();
+
+        assertEquals("mark1 set", mark1.join().message());
+        assertEquals("mark2 set", mark2.join().message());
+        assertTrue(zone.join().success());
+        assertEquals(1, engine.state().zones().size());
+        assertEquals(0, engine.pendingCommands());
+    }
+
+    @Test
+    void burstsOfTheSameSettingAreCoalescedToTheLastOne() {
+        List<String> policies = new ArrayList<>();
+        engine.events().subscribe(EnumSet.of(ColonyEventType.POLICY_CHANGED), event -> policies.add(event.subject()));
+        CompletableFuture<CommandResult> first = router.submit("/colony policy set Fortify");
+        CompletableFuture<CommandResult> second = router.submit("/colony policy set Recovery");
+
+        engine.tick();
+
+        assertEquals(PolicyId.RECOVERY, engine.state().activePolicy());
+        assertEquals(List.of("RECOVERY"), policies);
+        assertEquals("Superseded by a later command.", first.join().message());
+        assertEquals("Policy updated: RECOVERY", second.join().message());
+    }
+
+    @Test
+    void actionsQueuedWhilePausedWaitForResume() {
+        List<String> applied = new ArrayList<>();
+        router.submit("/colony pause");
+        engine.tick();
+        engine.queueWhilePaused(() -> applied.add("deferred"));
+        CompletableFuture<CommandResult> status = router.submit("/colony status");
+
+        engine.tick();
+        assertTrue(status.join().success());
+        assertTrue(applied.isEmpty());
+        assertEquals(1, engine.pendingCommands());
+
+        router.submit("/colony resume");
+        engine.tick();
+        assertEquals(List.of("deferred"), applied);
+        assertFalse(engine.state().paused());
+    }
+}
@@ -0,0 +1,33 @@
+package com.shieldudaram.colonists.content;
+
+import com.shieldudaram.colonists.model.ItemRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemCatalogLoaderTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void recipeOutputsAndCostsBecomeRegisteredItems() throws IOException {
+        Path recipes = tempDir.resolve("recipes");
+        Files.createDirectories(recipes);
+        Files.writeString(
+                recipes.resolve("custom.json"),
+                "[{\"id\":\"recipe-glass\",\"inputs\":[{\"id\":\"sand\",\"minTier\":1,\"minQuality\":1,\"qty\":2}],"
+                        + "\"outputs\":[{\"id\":\"glass\",\"tier\":1,\"quality\":1,\"qty\":1}]}]"
+        );
+
+        ItemRegistry registry = new ItemCatalogLoader().load(tempDir);
+
+        assertTrue(registry.baseHandle("sand") >= 0);
+        assertTrue(registry.baseHandle("glass") >= 0);
+        assertTrue(registry.baseHandle("wood") >= 0);
+    }
+}
@@ -0,0 +1,97 @@
+package com.shieldudaram.colonists.events;
+
+import com.shieldudaram.colonists.content.ColonistsConfig;
+import com.shieldudaram.colonists.model.HotspotFamily;
+import com.shieldudaram.colonists.model.HotspotState;
+import com.shieldudaram.colonists.model.TaskType;
+import com.shieldudaram.colonists.model.ZoneType;
+import com.shieldudaram.colonists.sim.ColonyCallbacks;
+import com.shieldudaram.colonists.sim.ColonySimulationEngine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColonyEventBusTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void eventsWithoutSubscribersAreNotQueued() {
+        ColonyEventBus bus = new ColonyEventBus(4);
+        bus.subscribe(EnumSet.of(ColonyEventType.RAID_STARTED), event -> {
+        });
+
+        bus.taskCreated("task-1");
+        bus.hotspotHarvested("hotspot-1", "citizen-1", 3);
+
+        assertFalse(bus.wants(ColonyEventType.TASK_CREATED));
+        assertEquals(0, bus.pending());
+        assertEquals(0L, bus.emittedCount());
+    }
+
+    @Test
+    void batchIsDeliveredInOrderToMatchingListenersAndGrowsWhenFull() {
+        ColonyEventBus bus = new ColonyEventBus(2);
+        List<String> tasks = new ArrayList<>();
+        List<String> all = new ArrayList<>();
+        bus.subscribe(EnumSet.of(ColonyEventType.TASK_ASSIGNED), event -> tasks.add(event.subject() + ">" + event.actor()));
+        bus.subscribe(EnumSet.allOf(ColonyEventType.class), event -> {
+            all.add(event.type() + ":" + event.time());
+            if (event.type() == ColonyEventType.RAID_STARTED) {
+                bus.raidEnded(event.time(), true);
+            }
+        });
+
+        bus.taskAssigned("task-1", "citizen-1");
+        bus.raidStarted(60L);
+        bus.taskAssigned("task-2", "citizen-2");
+        assertEquals(3, bus.pending());
+        assertTrue(all.isEmpty());
+
+        assertEquals(4, bus.deliver());
+        assertEquals(List.of("task-1>citizen-1", "task-2>citizen-2"), tasks);
+        assertEquals(List.of("TASK_ASSIGNED:0", "RAID_STARTED:60", "TASK_ASSIGNED:0", "RAID_ENDED:60"), all);
+        assertEquals(4, bus.capacity());
+        assertEquals(0, bus.pending());
+        assertEquals(0, bus.deliver());
+    }
+
+    @Test
+    void callbacksAdapterOnlySubscribesOverriddenMethodsAndDispatchesAtEndOfTick() {
+        List<String> created = new ArrayList<>();
+        ColonyCallbacks callbacks = new ColonyCallbacks() {
+            @Override
+            public void onTaskCreated(String taskId) {
+                created.add(taskId);
+            }
+        };
+        assertEquals(EnumSet.of(ColonyEventType.TASK_CREATED, ColonyEventType.HOTSPOT_PLACED), CallbacksAdapter.overriddenBy(callbacks));
+
+        ColonistsConfig config = new ColonistsConfig();
+        config.save.autosaveEnabled = false;
+        ColonySimulationEngine engine = new ColonySimulationEngine(tempDir.resolve("logs"), tempDir.resolve("saves"), callbacks, config);
+        try {
+            engine.createZone(ZoneType.HOTSPOT, 0, 0, 20, 20);
+            HotspotState hotspot = engine.placeHotspot(HotspotFamily.WOOD, 5, 5);
+            String taskId = engine.createTask(TaskType.GATHER, hotspot.id(), 1.0, false).id();
+            engine.applyPolicy(engine.parsePolicyId("recovery"));
+            assertTrue(created.isEmpty());
+            assertEquals(2, engine.events().pending());
+
+            engine.tick();
+
+            assertEquals(List.of("hotspot-place-" + hotspot.id(), taskId), created);
+            assertEquals(0, engine.events().pending());
+        } finally {
+            engine.shutdown();
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.shieldudaram.colonists.host;
+
+import com.shieldudaram.colonists.commands.CommandResult;
+import com.shieldudaram.colonists.content.ColonistsConfig;
+import com.shieldudaram.colonists.model.ItemRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColonyHostTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void routesCommandsByColonyIdAndKeepsSavesSeparate() throws Exception {
+        try (ColonyHost host = new ColonyHost(tempDir, config(2, 150), ItemRegistry.defaults())) {
+            HostedColony alpha = host.open("alpha");
+            HostedColony beta = host.open("beta");
+            assertSame(alpha, host.open("alpha"));
+            assertThrows(IllegalArgumentException.class, () -> host.open("../escape"));
+
+            var paused = host.handleCommand("alpha", "/colony pause");
+            host.tick();
+            assertTrue(paused.get(5, TimeUnit.SECONDS).success());
+            for (int round = 0; round < 10; round++) {
+                host.tick();
+            }
+
+            assertTrue(alpha.engine().state().paused());
+            assertFalse(beta.engine().state().paused());
+            assertEquals(11L, alpha.ticks());
+            assertEquals(11L, beta.ticks());
+
+            CommandResult unknown = host.handleCommand("gamma", "/colony status").get(5, TimeUnit.SECONDS);
+            assertFalse(unknown.success());
+
+            beta.engine().saveNow();
+            assertTrue(hasFiles(tempDir.resolve("beta").resolve("saves")));
+            assertFalse(hasFiles(tempDir.resolve("alpha").resolve("saves")));
+            assertTrue(host.closeColony("beta"));
+            assertEquals(1, host.size());
+        }
+    }
+
+    @Test
+    void saturatedRoundsDeferColoniesFairly() {
+        try (ColonyHost host = new ColonyHost(tempDir, config(1, 0), ItemRegistry.defaults())) {
+            HostedColony alpha = host.open("alpha");
+            HostedColony beta = host.open("beta");
+            HostedColony gamma = host.open("gamma");
+
+            for (int round = 0; round < 3; round++) {
+                HostRound result = host.tick();
+                assertEquals(1, result.scheduled());
+                assertEquals(2, result.deferred());
+                assertTrue(result.saturated());
+            }
+
+            assertEquals(6L, alpha.ticks() + beta.ticks() + gamma.ticks());
+            assertEquals(1L, alpha.ticks());
+            assertEquals(2L, beta.ticks());
+            assertEquals(3L, gamma.ticks());
+            assertEquals(6L, alpha.deferredRounds() + beta.deferredRounds() + gamma.deferredRounds());
+            assertEquals(0L, alpha.droppedTicks() + beta.droppedTicks() + gamma.droppedTicks());
+        }
+    }
+
+    @Test
+    void openingStopsAtTheColonyLimit() {
+        ColonistsConfig config = config(1, 150);
+        config.host.maxColonies = 2;
+        try (ColonyHost host = new ColonyHost(tempDir, config, ItemRegistry.defaults())) {
+            host.open("alpha");
+            host.open("beta");
+
+            assertThrows(IllegalStateException.class, () -> host.open("gamma"));
+            assertSame(host.colony("alpha"), host.open("alpha"));
+            assertEquals(2, host.size());
+            assertTrue(host.closeColony("beta"));
+            host.open("gamma");
+            assertEquals(List.of("alpha", "gamma"), host.colonyIds());
+        }
+    }
+
+    @Test
+    void asyncOpenAndCloseReportResults() throws Exception {
+        try (ColonyHost host = new ColonyHost(tempDir, config(1, 150), ItemRegistry.defaults())) {
+            CommandResult opened = host.openColonyAsync("alpha").get(5, TimeUnit.SECONDS);
+            CommandResult invalid = host.openColonyAsync("../escape").get(5, TimeUnit.SECONDS);
+            CommandResult closed = host.closeColonyAsync("alpha").get(5, TimeUnit.SECONDS);
+            CommandResult missing = host.closeColonyAsync("alpha").get(5, TimeUnit.SECONDS);
+
+            assertTrue(opened.success());
+            assertFalse(invalid.success());
+            assertTrue(closed.success());
+            assertFalse(missing.success());
+            assertEquals(0, host.size());
+        }
+    }
+
+    @Test
+    void statusCallsDoNotWaitForARoundInProgress() throws Exception {
+        ColonyHost host = new ColonyHost(tempDir, config(1, 150), ItemRegistry.defaults());
+        HostedColony alpha = host.open("alpha");
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            host.start();
+            alpha.engine().submit(sim -> {
+                entered.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+                return CommandResult.ok("released");
+            });
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            CompletableFuture<String> status = CompletableFuture.supplyAsync(() -> host.running() + host.describe());
+            assertTrue(status.get(1, TimeUnit.SECONDS).startsWith("true"));
+            assertTrue(alpha.busy());
+        } finally {
+            release.countDown();
+            host.close();
+        }
+    }
+
+    @Test
+    void startedHostRunsRoundsOnItsOwnThread() throws Exception {
+        ColonyHost host = new ColonyHost(tempDir, config(1, 150), ItemRegistry.defaults());
+        HostedColony alpha = host.open("alpha");
+        try {
+            host.start();
+            assertTrue(host.running());
+            String thread = alpha.router().submit("/colony status")
+                    .thenApply(result -> Thread.currentThread().getName())
+                    .get(5, TimeUnit.SECONDS);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (alpha.ticks() < 3L && System.nanoTime() < deadline) {
+                Thread.sleep(5L);
+            }
+
+            assertTrue(thread.startsWith("colonists-host"));
+            assertTrue(alpha.ticks() >= 3L);
+            assertEquals(0L, host.failedRounds());
+        } finally {
+            host.close();
+        }
+        assertFalse(host.running());
+        assertEquals(0, host.size());
+    }
+
+    @Test
+    void failedColonyTicksAreReportedToTheColonyTelemetry() throws IOException {
+        try (ColonyHost host = new ColonyHost(tempDir, config(1, 150), ItemRegistry.defaults())) {
+            HostedColony alpha = host.open("alpha");
+            alpha.engine().queueWhilePaused(() -> {
+                throw new IllegalStateException("bad action");
+            });
+
+            host.tick();
+            alpha.engine().telemetry().flush();
+
+            assertEquals(1L, alpha.failedTicks());
+            assertTrue(hostLog().contains("[alpha] WARN colony tick failed (1 total)"));
+        }
+    }
+
+    @Test
+    void hostedColoniesShareTheHostLogAndSaveThreads() throws IOException {
+        try (ColonyHost host = new ColonyHost(tempDir, config(2, 150), ItemRegistry.defaults())) {
+            HostedColony alpha = host.open("alpha");
+            HostedColony beta = host.open("beta");
+            assertThrows(IllegalArgumentException.class, () -> host.open("logs"));
+
+            alpha.engine().telemetry().warn("from alpha");
+            beta.engine().telemetry().warn("from beta");
+            alpha.engine().saveNow();
+            beta.engine().saveNow();
+            alpha.engine().telemetry().flush();
+
+            String log = hostLog();
+            assertTrue(log.contains("[alpha] WARN from alpha"));
+            assertTrue(log.contains("[beta] WARN from beta"));
+            assertFalse(Files.exists(tempDir.resolve("alpha").resolve("logs")));
+            assertTrue(hasFiles(tempDir.resolve("alpha").resolve("saves")));
+            assertTrue(hasFiles(tempDir.resolve("beta").resolve("saves")));
+            assertTrue(host.closeColony("alpha"));
+            beta.engine().saveNow();
+        }
+    }
+
+    private String hostLog() throws IOException {
+        StringBuilder log = new StringBuilder();
+        try (Stream<Path> files = Files.list(tempDir.resolve("logs"))) {
+            for (Path file : files.toList()) {
+                log.append(Files.readString(file));
+            }
+        }
+        return log.toString();
+    }
+
+    private static boolean hasFiles(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return false;
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.findAny().isPresent();
+        }
+    }
+
+    private static ColonistsConfig config(int parallelism, int roundBudgetMillis) {
+        ColonistsConfig config = new ColonistsConfig();
+        config.save.autosaveEnabled = false;
+        config.host.parallelism = parallelism;
+        config.host.roundBudgetMillis = roundBudgetMillis;
+        return config;
+    }
+}
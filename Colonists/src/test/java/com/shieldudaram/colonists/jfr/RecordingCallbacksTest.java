@@ -0,0 +1,68 @@
+package com.shieldudaram.colonists.jfr;
+
+import com.shieldudaram.colonists.content.ColonistsConfig;
+import com.shieldudaram.colonists.model.TaskType;
+import com.shieldudaram.colonists.sim.ColonyCallbacks;
+import com.shieldudaram.colonists.sim.ColonySimulationEngine;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecordingCallbacksTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void engineEmitsEventsOnlyWhileRecording() throws IOException {
+        List<String> created = new ArrayList<>();
+        ColonyCallbacks callbacks = new ColonyCallbacks() {
+            @Override
+            public void onTaskCreated(String taskId) {
+                created.add(taskId);
+            }
+        };
+        ColonistsConfig config = new ColonistsConfig();
+        config.save.autosaveEnabled = false;
+        ColonySimulationEngine engine = new ColonySimulationEngine(tempDir.resolve("logs"), tempDir.resolve("saves"), callbacks, config);
+        assertFalse(TickEvent.recording());
+
+        Path dump = tempDir.resolve("colonists.jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : List.of("colonists.Tick", "colonists.TickPhase", "colonists.TaskAssignment", "colonists.Callback")) {
+                recording.enable(name).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            assertTrue(TickEvent.recording());
+            engine.createTask(TaskType.GATHER, "hotspot-1", 1.0, false);
+            engine.tick();
+            recording.stop();
+            recording.dump(dump);
+        } finally {
+            engine.shutdown();
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        assertEquals(1L, count(events, "colonists.Tick"));
+        assertEquals(1L, count(events, "colonists.TaskAssignment"));
+        assertTrue(count(events, "colonists.TickPhase") >= 7L);
+        assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals("colonists.Callback")
+                && "onTaskCreated".equals(event.getString("callback"))));
+        assertEquals(1, created.size());
+    }
+
+    private static long count(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name)).count();
+    }
+}
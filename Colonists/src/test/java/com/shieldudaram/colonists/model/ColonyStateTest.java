@@ -0,0 +1,76 @@
+package com.shieldudaram.colonists.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColonyStateTest {
+    @Test
+    void registriesKeepIdIndexesInStepWithOrderedLists() {
+        ColonyState state = new ColonyState();
+        for (int index = 1; index <= 4; index++) {
+            state.addCitizen(new CitizenState("citizen-" + index, Role.BUILDER));
+        }
+        state.removeCitizen("citizen-2");
+        state.addCitizen(new CitizenState("citizen-5", Role.FARMER));
+
+        assertEquals(4, state.citizens().size());
+        for (int index = 0; index < state.citizens().size(); index++) {
+            CitizenState citizen = state.citizens().get(index);
+            assertSame(citizen, state.citizen(citizen.id()));
+            assertEquals(index, state.citizenIndex(citizen.id()));
+        }
+        assertEquals("citizen-5", state.citizens().get(3).id());
+        assertNull(state.citizen("citizen-2"));
+        assertEquals(-1, state.citizenIndex("citizen-2"));
+        assertThrows(IllegalStateException.class, () -> state.addCitizen(new CitizenState("citizen-1", Role.GUARD)));
+        assertThrows(UnsupportedOperationException.class, () -> state.citizens().clear());
+
+        state.addZone(new ColonyZone("zone-1", ZoneType.HOME, 0, 0, 10, 10));
+        state.addStructure(new PlacedStructure("structure-1", BlueprintId.HOUSE, 2, 2, 0, true, 0L, 0L));
+        assertSame(state.zones().get(0), state.zone("zone-1"));
+        assertSame(state.structures().get(0), state.structure("structure-1"));
+        assertTrue(state.removeZone("zone-1"));
+        assertFalse(state.removeZone("zone-1"));
+        assertNull(state.zone("zone-1"));
+    }
+
+    @Test
+    void aggregateCountersFollowEveryMutationPath() {
+        ColonyState state = new ColonyState();
+        state.addZone(new ColonyZone("zone-1", ZoneType.HOTSPOT, 0, 0, 20, 20));
+        state.addZone(new ColonyZone("zone-2", ZoneType.HOME, 30, 30, 40, 40));
+        HotspotState wood = new HotspotState("hotspot-1", HotspotFamily.WOOD, 1, 10, 10, 1.0, null, null, "zone-1", 5, 5);
+        state.addHotspot(wood);
+        PlacedStructure house = new PlacedStructure("structure-1", BlueprintId.HOUSE, 32, 32, 0, false, 0L, 90L);
+        state.addStructure(house);
+
+        assertEquals(1, state.nonHomeZoneCount());
+        assertEquals(1, state.familyCount(HotspotFamily.WOOD));
+        assertEquals(1, state.hotspotsInZone("zone-1"));
+        assertEquals(0, state.countCompletedStructures(BlueprintId.HOUSE));
+
+        house.setComplete(true);
+        wood.setTier(2);
+        wood.setZoneId("zone-2");
+        state.zone("zone-2").setType(ZoneType.FARM);
+
+        assertEquals(1, state.countCompletedStructures(BlueprintId.HOUSE));
+        assertEquals(1, state.upgradedHotspotCount());
+        assertEquals(0, state.hotspotsInZone("zone-1"));
+        assertEquals(1, state.hotspotsInZone("zone-2"));
+        assertEquals(2, state.nonHomeZoneCount());
+
+        state.removeZone("zone-1");
+        state.clearHotspots();
+        assertEquals(1, state.nonHomeZoneCount());
+        assertEquals(0, state.familyCount(HotspotFamily.WOOD));
+        assertEquals(0, state.upgradedHotspotCount());
+        assertTrue(state.verifyAggregates().isEmpty());
+    }
+}
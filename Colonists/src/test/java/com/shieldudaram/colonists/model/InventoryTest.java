@@ -0,0 +1,104 @@
+package com.shieldudaram.colonists.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InventoryTest {
+    @Test
+    void handlesAreDenseAndRoundTripTierAndQuality() {
+        ItemRegistry registry = ItemRegistry.defaults();
+        int planks = registry.baseHandle("planks");
+        assertEquals(0, planks % ItemRegistry.SLOTS_PER_ITEM);
+
+        ItemKey key = new ItemKey("planks", 2, 4);
+        int handle = registry.handle(key);
+        assertEquals(planks + 5 + 3, handle);
+        assertEquals(key, registry.key(handle));
+
+        int before = registry.slotCount();
+        int glass = registry.handle(new ItemKey("glass", 1, 1));
+        assertEquals(before, glass);
+        assertEquals(before + ItemRegistry.SLOTS_PER_ITEM, registry.slotCount());
+    }
+
+    @Test
+    void copiesRegisterNewItemsIndependently() {
+        ItemRegistry catalog = ItemRegistry.defaults();
+        ItemRegistry first = catalog.copy();
+        ItemRegistry second = catalog.copy();
+
+        int glass = first.handle(new ItemKey("glass", 1, 1));
+
+        assertEquals(catalog.slotCount(), glass);
+        assertEquals(catalog.slotCount() + ItemRegistry.SLOTS_PER_ITEM, first.slotCount());
+        assertEquals(catalog.slotCount(), second.slotCount());
+        assertEquals(-1, second.baseHandle("glass"));
+        assertEquals(catalog.baseHandle("planks"), second.baseHandle("planks"));
+        assertEquals(catalog.familyHandle(HotspotFamily.WOOD), second.familyHandle(HotspotFamily.WOOD));
+    }
+
+    @Test
+    void costsConsumeLowestAcceptableStacksAtomically() {
+        ItemRegistry registry = ItemRegistry.defaults();
+        Inventory inventory = new Inventory(registry);
+        int wood = registry.familyHandle(HotspotFamily.WOOD);
+        int stone = registry.familyHandle(HotspotFamily.STONE);
+        inventory.add(ItemRegistry.handle(wood, 1, 1), 5);
+        inventory.add(ItemRegistry.handle(wood, 2, 3), 10);
+        inventory.add(ItemRegistry.handle(stone, 1, 1), 2);
+
+        ItemCost tooExpensive = registry.resolve(List.of(
+                new ItemRequirement("wood", 1, 1, 12),
+                new ItemRequirement("stone", 1, 1, 3)
+        ));
+        assertFalse(inventory.canAfford(tooExpensive));
+        assertFalse(inventory.consume(tooExpensive));
+        assertEquals(15, inventory.total(wood));
+        assertEquals(2, inventory.total(stone));
+
+        ItemCost affordable = registry.resolve(List.of(
+                new ItemRequirement("wood", 1, 1, 12),
+                new ItemRequirement("stone", 1, 1, 2)
+        ));
+        assertTrue(inventory.consume(affordable));
+        assertEquals(0, inventory.count(ItemRegistry.handle(wood, 1, 1)));
+        assertEquals(3, inventory.count(ItemRegistry.handle(wood, 2, 3)));
+        assertEquals(0, inventory.total(stone));
+
+        ItemCost fineWood = registry.resolve(List.of(new ItemRequirement("wood", 2, 4, 1)));
+        assertFalse(inventory.canAfford(fineWood));
+
+        inventory.add(registry.handle(new ItemKey("herb_pack", 1, 2)), 3);
+        assertEquals(3, inventory.total(registry.baseHandle("herb_pack")));
+    }
+
+    @Test
+    void reservationsHoldStockUntilCommittedOrReleased() {
+        ItemRegistry registry = ItemRegistry.defaults();
+        Inventory inventory = new Inventory(registry);
+        int wood = registry.familyHandle(HotspotFamily.WOOD);
+        inventory.add(ItemRegistry.handle(wood, 1, 1), 50);
+        ItemCost house = registry.resolve(List.of(new ItemRequirement("wood", 1, 1, 35)));
+
+        assertTrue(inventory.reserve("structure-1", house));
+        assertEquals(50, inventory.total(wood));
+        assertEquals(15, inventory.availableAtLeast(wood, 1, 1));
+        assertFalse(inventory.reserve("structure-2", house));
+        assertFalse(inventory.consume(ItemRegistry.handle(wood, 1, 1), 16));
+        assertFalse(inventory.canAffordAll(new ItemCost[]{house, house}, 2));
+
+        assertTrue(inventory.release("structure-1"));
+        assertTrue(inventory.canAffordAll(new ItemCost[]{house}, 1));
+        assertFalse(inventory.canAffordAll(new ItemCost[]{house, house}, 2));
+        assertTrue(inventory.reserve("structure-2", house));
+        assertTrue(inventory.commit("structure-2"));
+        assertFalse(inventory.commit("structure-2"));
+        assertEquals(15, inventory.total(wood));
+        assertEquals(15, inventory.availableAtLeast(wood, 1, 1));
+    }
+}
@@ -0,0 +1,82 @@
+package com.shieldudaram.colonists.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SpatialIndexTest {
+    @Test
+    void nearestQueriesMatchBruteForceDistances() {
+        ColonyState state = new ColonyState();
+        Random random = new Random(11L);
+        HotspotFamily[] families = HotspotFamily.values();
+        for (int index = 0; index < 500; index++) {
+            state.addHotspot(new HotspotState(
+                    "hotspot-" + index,
+                    families[index % families.length],
+                    1,
+                    10,
+                    10,
+                    1.0,
+                    null,
+                    null,
+                    "zone-1",
+                    random.nextInt(2_000) - 1_000,
+                    random.nextInt(2_000) - 1_000
+            ));
+        }
+        SpatialGrid<HotspotState> grid = state.spatialIndex().hotspots();
+
+        for (int probe = 0; probe < 50; probe++) {
+            int x = random.nextInt(2_400) - 1_200;
+            int z = random.nextInt(2_400) - 1_200;
+            HotspotFamily family = families[probe % families.length];
+            List<HotspotState> expected = new ArrayList<>();
+            for (HotspotState hotspot : state.hotspots()) {
+                if (hotspot.family() == family) {
+                    expected.add(hotspot);
+                }
+            }
+            expected.sort(Comparator.comparingLong(hotspot -> grid.distanceSquared(hotspot, x, z)));
+
+            List<HotspotState> nearest = grid.nearest(x, z, 5, hotspot -> hotspot.family() == family);
+            assertEquals(5, nearest.size());
+            for (int rank = 0; rank < nearest.size(); rank++) {
+                assertEquals(
+                        grid.distanceSquared(expected.get(rank), x, z),
+                        grid.distanceSquared(nearest.get(rank), x, z)
+                );
+            }
+            assertEquals(
+                    grid.distanceSquared(expected.get(0), x, z),
+                    grid.distanceSquared(state.spatialIndex().nearestHotspot(x, z, family), x, z)
+            );
+        }
+    }
+
+    @Test
+    void spacingAndZoneContainmentUseTheGrid() {
+        ColonyState state = new ColonyState();
+        state.addHotspot(new HotspotState("hotspot-1", HotspotFamily.WOOD, 1, 10, 10, 1.0, null, null, "zone-1", 0, 0));
+
+        assertNotNull(state.spatialIndex().hotspotWithin(11, 0, 12));
+        assertNull(state.spatialIndex().hotspotWithin(12, 0, 12));
+        assertNull(state.spatialIndex().hotspotWithin(9, 9, 12));
+
+        state.addZone(new ColonyZone("zone-large", ZoneType.HOTSPOT, -5_000, -5_000, 5_000, 5_000));
+        state.addZone(new ColonyZone("zone-small", ZoneType.HOTSPOT, 0, 0, 20, 20));
+        assertEquals("zone-large", state.spatialIndex().zoneAt(10, 10, ZoneType.HOTSPOT).id());
+
+        state.removeZone("zone-large");
+        assertEquals("zone-small", state.spatialIndex().zoneAt(10, 10, ZoneType.HOTSPOT).id());
+        assertNull(state.spatialIndex().zoneAt(21, 10, ZoneType.HOTSPOT));
+        assertNull(state.spatialIndex().zoneAt(10, 10, ZoneType.HOME));
+    }
+}
@@ -0,0 +1,45 @@
+package com.shieldudaram.colonists.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TimingWheelTest {
+    @Test
+    void timersFireExactlyAtTheirDeadlineAcrossWheelLevels() {
+        TimingWheel wheel = new TimingWheel(0L);
+        long[] deadlines = {1L, 63L, 64L, 65L, 4_095L, 4_096L, 300_000L};
+        for (long deadline : deadlines) {
+            wheel.schedule(TimerKind.HOTSPOT_RESET, "t" + deadline, deadline);
+        }
+
+        int fired = 0;
+        for (long now = 1; now <= 300_000L; now++) {
+            wheel.advanceTo(now);
+            for (String id = wheel.pollDue(TimerKind.HOTSPOT_RESET); id != null; id = wheel.pollDue(TimerKind.HOTSPOT_RESET)) {
+                assertEquals("t" + now, id);
+                fired += 1;
+            }
+        }
+        assertEquals(deadlines.length, fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void rescheduledAndCancelledTimersDoNotFireStaleEntries() {
+        TimingWheel wheel = new TimingWheel(0L);
+        wheel.schedule(TimerKind.PREEMPT_UNLOCK, "citizen-1", 10L);
+        wheel.schedule(TimerKind.PREEMPT_UNLOCK, "citizen-1", 20L);
+        wheel.schedule(TimerKind.RAID, RaidState.TIMER_ID, 15L);
+        wheel.cancel(TimerKind.RAID, RaidState.TIMER_ID);
+
+        wheel.advanceTo(19L);
+        assertNull(wheel.pollDue(TimerKind.PREEMPT_UNLOCK));
+        assertNull(wheel.pollDue(TimerKind.RAID));
+
+        wheel.advanceTo(1_000_000L);
+        assertEquals("citizen-1", wheel.pollDue(TimerKind.PREEMPT_UNLOCK));
+        assertNull(wheel.pollDue(TimerKind.PREEMPT_UNLOCK));
+    }
+}
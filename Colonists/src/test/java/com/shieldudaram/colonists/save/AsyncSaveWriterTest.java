@@ -0,0 +1,89 @@
+package com.shieldudaram.colonists.save;
+
+import com.shieldudaram.colonists.model.ColonyState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncSaveWriterTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void flushPersistsLatestSnapshotAndCoalescesBacklog() {
+        Path saveDir = tempDir.resolve("saves");
+        ColonySaveService service = new ColonySaveService();
+        ColonyState state = new ColonyState();
+        try (AsyncSaveWriter writer = new AsyncSaveWriter(service, saveDir)) {
+            for (int second = 1; second <= 20; second++) {
+                state.setWorldTimeSec(second);
+                writer.submit(service.snapshot(state));
+            }
+            writer.flush();
+
+            assertFalse(writer.inFlight());
+            assertEquals(20L, writer.submittedCount());
+            assertEquals(20L, writer.writtenCount() + writer.coalescedCount());
+            assertTrue(Files.exists(saveDir.resolve("active-save.sav")));
+        }
+
+        ColonyState loaded = new ColonyState();
+        service.load(loaded, saveDir);
+        assertEquals(20L, loaded.worldTimeSec());
+    }
+
+    @Test
+    void backgroundFailuresAreReportedWhenTheyHappen() throws Exception {
+        Path blocked = Files.writeString(tempDir.resolve("blocked"), "not a directory");
+        ColonySaveService service = new ColonySaveService();
+        List<RuntimeException> reported = new CopyOnWriteArrayList<>();
+        AsyncSaveWriter writer = new AsyncSaveWriter(service, blocked, reported::add);
+        writer.submit(service.snapshot(new ColonyState()));
+
+        assertThrows(RuntimeException.class, writer::flush);
+        assertEquals(1, reported.size());
+        assertEquals(1L, writer.failureCount());
+        writer.close();
+    }
+
+    @Test
+    void writersOnASharedExecutorLeaveItRunningWhenClosed() {
+        ColonySaveService service = new ColonySaveService();
+        ExecutorService shared = Executors.newSingleThreadExecutor();
+        try {
+            AsyncSaveWriter first = new AsyncSaveWriter(service, tempDir.resolve("first"), failure -> {
+            }, shared);
+            AsyncSaveWriter second = new AsyncSaveWriter(service, tempDir.resolve("second"), failure -> {
+            }, shared);
+            first.submit(service.snapshot(new ColonyState()));
+            second.submit(service.snapshot(new ColonyState()));
+            first.close();
+            second.close();
+
+            assertFalse(shared.isShutdown());
+            assertTrue(Files.exists(tempDir.resolve("first").resolve("active-save.sav")));
+            assertTrue(Files.exists(tempDir.resolve("second").resolve("active-save.sav")));
+        } finally {
+            shared.shutdown();
+        }
+    }
+
+    @Test
+    void submitAfterCloseFails() {
+        ColonySaveService service = new ColonySaveService();
+        AsyncSaveWriter writer = new AsyncSaveWriter(service, tempDir.resolve("saves"));
+        writer.close();
+        assertThrows(IllegalStateException.class, () -> writer.submit(service.snapshot(new ColonyState())));
+    }
+}
@@ -1,14 +1,38 @@
 package com.shieldudaram.colonists.save;
 
+import com.shieldudaram.colonists.events.ColonyEventBus;
+import com.shieldudaram.colonists.model.BlueprintId;
+import com.shieldudaram.colonists.model.CitizenState;
 import com.shieldudaram.colonists.model.ColonyState;
+import com.shieldudaram.colonists.model.ColonyTask;
+import com.shieldudaram.colonists.model.ColonyZone;
+import com.shieldudaram.colonists.model.HotspotFamily;
+import com.shieldudaram.colonists.model.HotspotState;
+import com.shieldudaram.colonists.model.ItemKey;
+import com.shieldudaram.colonists.model.ItemRequirement;
+import com.shieldudaram.colonists.model.PlacedStructure;
+import com.shieldudaram.colonists.model.Role;
+import com.shieldudaram.colonists.model.TaskStatus;
+import com.shieldudaram.colonists.model.TaskType;
+import com.shieldudaram.colonists.model.TimerKind;
+import com.shieldudaram.colonists.model.ZoneType;
+import com.shieldudaram.colonists.systems.HotspotSystem;
+import com.shieldudaram.colonists.systems.TaskBroker;
+import com.shieldudaram.colonists.systems.ZoneSystem;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ColonySaveServiceTest {
     @TempDir
@@ -25,4 +49,317 @@ class ColonySaveServiceTest {
         ColonySaveService service = new ColonySaveService();
         assertThrows(IllegalStateException.class, () -> service.load(new ColonyState(), saveDir));
     }
+
+    @Test
+    void corruptActiveSaveFallsBackToNewestBackup() throws IOException {
+        Path saveDir = tempDir.resolve("saves");
+        ColonySaveService service = new ColonySaveService();
+        ColonyState state = new ColonyState();
+        state.setWorldTimeSec(10L);
+        service.save(state, saveDir);
+        state.setWorldTimeSec(20L);
+        service.save(state, saveDir);
+        Files.writeString(saveDir.resolve("active-save.sav"), "{\"schemaVersion\":");
+
+        ColonyState loaded = new ColonyState();
+        service.load(loaded, saveDir);
+
+        assertEquals(10L, loaded.worldTimeSec());
+    }
+
+    @Test
+    void backupsRotateByRenameAndTempFileIsRemoved() throws Exception {
+        Path saveDir = tempDir.resolve("saves");
+        ColonySaveService service = new ColonySaveService();
+        ColonyState state = new ColonyState();
+        for (long second = 1L; second <= 3L; second++) {
+            state.setWorldTimeSec(second);
+            service.save(state, saveDir);
+        }
+
+        ColonyState newest = new ColonyState();
+        service.load(newest, saveDir);
+        assertEquals(3L, newest.worldTimeSec());
+        assertTrue(Files.exists(saveDir.resolve("backup-1.sav")));
+        assertTrue(Files.exists(saveDir.resolve("backup-2.sav")));
+        assertFalse(Files.exists(saveDir.resolve("active-save.sav.tmp")));
+        assertEquals(2L, service.decode(Files.readAllBytes(saveDir.resolve("backup-1.sav"))).worldTimeSec);
+        assertEquals(1L, service.decode(Files.readAllBytes(saveDir.resolve("backup-2.sav"))).worldTimeSec);
+    }
+
+    @Test
+    void legacyJsonFileNamesAreAdopted() throws IOException {
+        Path saveDir = tempDir.resolve("legacy-names");
+        ColonySaveService service = new ColonySaveService();
+        ColonyState state = new ColonyState();
+        state.setWorldTimeSec(4L);
+        service.save(state, saveDir);
+        state.setWorldTimeSec(8L);
+        service.save(state, saveDir);
+        Files.move(saveDir.resolve("active-save.sav"), saveDir.resolve("active-save.json"));
+        Files.move(saveDir.resolve("backup-1.sav"), saveDir.resolve("backup-1.json"));
+
+        ColonyState loaded = new ColonyState();
+        service.load(loaded, saveDir);
+
+        assertEquals(8L, loaded.worldTimeSec());
+        assertFalse(Files.exists(saveDir.resolve("active-save.json")));
+        assertFalse(Files.exists(saveDir.resolve("backup-1.json")));
+        assertEquals(4L, service.decode(Files.readAllBytes(saveDir.resolve("backup-1.sav"))).worldTimeSec);
+    }
+
+    @Test
+    void reservationIndexSurvivesSaveAndLoad() {
+        Path saveDir = tempDir.resolve("saves");
+        ColonyState state = new ColonyState();
+        state.addCitizen(new CitizenState("citizen-1", Role.BUILDER));
+        state.addCitizen(new CitizenState("citizen-2", Role.FARMER));
+        TaskBroker broker = new TaskBroker();
+        ColonyEventBus events = new ColonyEventBus();
+        ColonyTask build = broker.createTask(state, TaskType.BUILD, "a", 1.0, false, events);
+        ColonyTask farm = broker.createTask(state, TaskType.FARM, "b", 1.0, false, events);
+        broker.assignTasks(state, events);
+        broker.completeTask(build, "citizen-2", events);
+
+        ColonySaveService service = new ColonySaveService();
+        service.save(state, saveDir);
+        ColonyState loaded = new ColonyState();
+        service.load(loaded, saveDir);
+
+        assertEquals(2, loaded.tasks().size());
+        assertEquals(farm.id(), loaded.taskReservations().activeTask("citizen-1").id());
+        assertEquals(TaskStatus.RUNNING, loaded.taskReservations().activeTask("citizen-1").status());
+        assertNull(loaded.taskReservations().activeTask("citizen-2"));
+        assertEquals("citizen-1", loaded.taskReservations().citizenFor(farm.id()));
+        assertTrue(loaded.taskReservations().verify(loaded.tasks()).isEmpty());
+    }
+
+    @Test
+    void hotspotResetTimerIsRebuiltOnLoad() {
+        Path saveDir = tempDir.resolve("timers");
+        ColonyEventBus events = new ColonyEventBus();
+        HotspotSystem hotspotSystem = new HotspotSystem();
+        ColonyState original = new ColonyState();
+        new ZoneSystem().createZone(original, ZoneType.HOTSPOT, 0, 0, 20, 20);
+        HotspotState placed = hotspotSystem.placeHotspot(original, HotspotFamily.WOOD, 5, 5, events);
+        original.setWorldTimeSec(10);
+        hotspotSystem.harvest(original, placed.id(), "citizen-1", 1, events);
+        long resetAt = placed.resetAtSec();
+
+        ColonySaveService service = new ColonySaveService();
+        service.save(original, saveDir);
+        ColonyState restored = new ColonyState();
+        service.load(restored, saveDir);
+
+        assertEquals(Long.valueOf(resetAt), restored.timers().deadline(TimerKind.HOTSPOT_RESET, placed.id()));
+        restored.setWorldTimeSec(resetAt);
+        hotspotSystem.tick(restored, events);
+        HotspotState hotspot = restored.hotspots().get(0);
+        assertNull(hotspot.resetAtSec());
+        assertEquals(hotspot.capacityMax(), hotspot.capacityNow());
+    }
+
+    @Test
+    void tieredStockSurvivesSaveAndLoad() {
+        Path saveDir = tempDir.resolve("stock");
+        ColonyState original = new ColonyState();
+        original.addStock(new ItemKey("wood", 3, 5), 7);
+        original.addStock(new ItemKey("planks", 1, 2), 4);
+        original.inventory().reserve("structure-1", List.of(new ItemRequirement("wood", 2, 1, 5)));
+
+        ColonySaveService service = new ColonySaveService();
+        service.save(original, saveDir);
+        ColonyState restored = new ColonyState();
+        restored.inventory().clear();
+        service.load(restored, saveDir);
+
+        assertEquals(original.inventory().stacks(), restored.inventory().stacks());
+        assertEquals(original.inventory().reservations(), restored.inventory().reservations());
+        assertEquals(107, restored.stock("wood"));
+        assertEquals(4, restored.stock("planks"));
+    }
+
+    @Test
+    void binarySaveRoundTripsAndExportsAsJson() throws IOException {
+        Path saveDir = tempDir.resolve("binary");
+        ColonyState original = new ColonyState();
+        original.addCitizen(new CitizenState("citizen-1", Role.BUILDER));
+        original.addStock(new ItemKey("wood", 2, 4), 9);
+        original.inventory().reserve("structure-1", List.of(new ItemRequirement("wood", 2, 1, 3)));
+        TaskBroker broker = new TaskBroker();
+        ColonyEventBus events = new ColonyEventBus();
+        ColonyTask build = broker.createTask(original, TaskType.BUILD, "structure-1", 1.5, true, events);
+        broker.assignTasks(original, events);
+        original.setWorldTimeSec(42L);
+
+        ColonySaveService service = new ColonySaveService(SaveFormat.BINARY);
+        service.save(original, saveDir);
+        byte[] bytes = Files.readAllBytes(saveDir.resolve("active-save.sav"));
+        assertTrue(BinarySaveCodec.matches(bytes));
+
+        ColonyState restored = new ColonyState();
+        new ColonySaveService().load(restored, saveDir);
+        assertEquals(42L, restored.worldTimeSec());
+        assertEquals(original.inventory().stacks(), restored.inventory().stacks());
+        assertEquals(original.inventory().reservations(), restored.inventory().reservations());
+        assertEquals(build.id(), restored.taskReservations().activeTask("citizen-1").id());
+        assertTrue(restored.task(build.id()).emergency());
+
+        Path export = service.exportJson(saveDir);
+        assertTrue(Files.readString(export).contains("\"worldTimeSec\" : 42"));
+    }
+
+    @Test
+    void zonesAndStructuresSurviveSaveInBothFormats() {
+        for (SaveFormat format : SaveFormat.values()) {
+            Path saveDir = tempDir.resolve(format.name().toLowerCase());
+            ColonyState original = new ColonyState();
+            ColonyZone zone = new ZoneSystem().createZone(original, ZoneType.FARM, 4, 6, -2, 10);
+            original.addStructure(new PlacedStructure("structure-1", BlueprintId.HOUSE, 3, -7, 90, false, 12L, 40L));
+
+            new ColonySaveService(format).save(original, saveDir);
+            ColonyState restored = new ColonyState();
+            new ColonySaveService().load(restored, saveDir);
+
+            ColonyZone restoredZone = restored.zone(zone.id());
+            assertEquals(ZoneType.FARM, restoredZone.type());
+            assertEquals(-2, restoredZone.minX());
+            assertEquals(10, restoredZone.maxZ());
+            PlacedStructure structure = restored.structure("structure-1");
+            assertEquals(BlueprintId.HOUSE, structure.blueprintId());
+            assertEquals(90, structure.rotation());
+            assertFalse(structure.complete());
+            assertEquals(40L, structure.completesAtSec());
+        }
+    }
+
+    @Test
+    void saveWithoutZonesKeepsExistingZones() throws IOException {
+        Path saveDir = tempDir.resolve("legacy");
+        Files.createDirectories(saveDir);
+        String legacy = "{\"schemaVersion\":1,\"worldTimeSec\":7,\"colony\":{\"populationCap\":3,\"activePolicy\":\"FORTIFY\"},\"citizens\":[],\"hotspots\":[],\"tasks\":[],\"raid\":{},\"insurance\":{},\"extra\":{\"ignored\":[1,2]}}";
+        Files.writeString(saveDir.resolve("active-save.json"), legacy);
+        ColonyState state = new ColonyState();
+        ColonyZone zone = new ZoneSystem().createZone(state, ZoneType.HOME, 0, 0, 8, 8);
+
+        new ColonySaveService().load(state, saveDir);
+
+        assertEquals(7L, state.worldTimeSec());
+        assertEquals(zone, state.zone(zone.id()));
+    }
+
+    @Test
+    void corruptBinarySaveFallsBackToBackup() throws IOException {
+        Path saveDir = tempDir.resolve("binary-corrupt");
+        ColonySaveService service = new ColonySaveService(SaveFormat.BINARY);
+        ColonyState state = new ColonyState();
+        state.setWorldTimeSec(5L);
+        service.save(state, saveDir);
+        state.setWorldTimeSec(6L);
+        service.save(state, saveDir);
+        Path active = saveDir.resolve("active-save.sav");
+        byte[] bytes = Files.readAllBytes(active);
+        bytes[bytes.length - 1] ^= 0x5A;
+        Files.write(active, bytes);
+
+        ColonyState loaded = new ColonyState();
+        service.load(loaded, saveDir);
+
+        assertEquals(5L, loaded.worldTimeSec());
+    }
+
+    @Test
+    void journalReplaysChangesOnTopOfSnapshot() throws IOException {
+        Path saveDir = tempDir.resolve("journal");
+        ColonyEventBus events = new ColonyEventBus();
+        ColonyState state = new ColonyState();
+        state.setChangeTracking(true);
+        state.addCitizen(new CitizenState("citizen-1", Role.BUILDER));
+        TaskBroker broker = new TaskBroker();
+        ColonyTask build = broker.createTask(state, TaskType.BUILD, "a", 1.0, false, events);
+        ColonySaveService service = new ColonySaveService();
+        JournalRecorder recorder = new JournalRecorder();
+        service.write(recorder.snapshot(state), saveDir);
+
+        broker.assignTasks(state, events);
+        state.addStock(new ItemKey("planks", 2, 3), 6);
+        state.setWorldTimeSec(5L);
+        service.appendJournal(List.of(recorder.capture(state)), saveDir);
+        broker.completeTask(build, "citizen-1", events);
+        state.compactTasks(10);
+        ColonyTask haul = broker.createTask(state, TaskType.HAUL, "b", 1.0, false, events);
+        state.setWorldTimeSec(10L);
+        service.appendJournal(List.of(recorder.capture(state)), saveDir);
+        Path journal = saveDir.resolve("active-save.journal");
+        Files.write(journal, new byte[]{0, 0, 1, 0, 7}, StandardOpenOption.APPEND);
+
+        ColonyState loaded = new ColonyState();
+        service.load(loaded, saveDir);
+
+        assertEquals(10L, loaded.worldTimeSec());
+        assertEquals(2L, loaded.journalSequence());
+        assertEquals(6, loaded.stock("planks"));
+        assertNull(loaded.task(build.id()));
+        assertEquals(TaskStatus.QUEUED, loaded.task(haul.id()).status());
+        assertEquals(1L, loaded.taskArchive().completedCount(TaskType.BUILD));
+
+        service.write(recorder.snapshot(state), saveDir);
+        assertFalse(Files.exists(journal));
+    }
+
+    @Test
+    void journalReplaysHotspotHarvestsAndResets() {
+        Path saveDir = tempDir.resolve("journal-hotspots");
+        ColonyEventBus events = new ColonyEventBus();
+        ColonyState state = new ColonyState();
+        state.setChangeTracking(true);
+        HotspotSystem hotspots = new HotspotSystem();
+        new ZoneSystem().createZone(state, ZoneType.HOTSPOT, 0, 0, 20, 20);
+        HotspotState harvested = hotspots.placeHotspot(state, HotspotFamily.WOOD, 5, 5, events);
+        HotspotState reset = hotspots.placeHotspot(state, HotspotFamily.STONE, 18, 18, events);
+        ColonySaveService service = new ColonySaveService();
+        JournalRecorder recorder = new JournalRecorder();
+        state.setWorldTimeSec(10L);
+        hotspots.harvest(state, reset.id(), "citizen-1", 1, events);
+        service.write(recorder.snapshot(state), saveDir);
+
+        state.setWorldTimeSec(reset.resetAtSec());
+        hotspots.tick(state, events);
+        hotspots.harvest(state, harvested.id(), "citizen-1", 1, events);
+        service.appendJournal(List.of(recorder.capture(state)), saveDir);
+
+        ColonyState loaded = new ColonyState();
+        service.load(loaded, saveDir);
+
+        for (HotspotState expected : List.of(harvested, reset)) {
+            HotspotState actual = loaded.hotspot(expected.id());
+            assertEquals(expected.capacityNow(), actual.capacityNow());
+            assertEquals(expected.degradation(), actual.degradation());
+            assertEquals(expected.cycleStartedAtSec(), actual.cycleStartedAtSec());
+            assertEquals(expected.resetAtSec(), actual.resetAtSec());
+        }
+        assertTrue(harvested.capacityNow() < harvested.capacityMax());
+        assertNull(reset.resetAtSec());
+    }
+
+    @Test
+    void journalRecordsCoveredBySnapshotAreSkipped() {
+        Path saveDir = tempDir.resolve("journal-stale");
+        ColonyState state = new ColonyState();
+        state.setChangeTracking(true);
+        ColonySaveService service = new ColonySaveService();
+        JournalRecorder recorder = new JournalRecorder();
+        service.write(recorder.snapshot(state), saveDir);
+        state.setWorldTimeSec(3L);
+        ColonyJournalEntry stale = recorder.capture(state);
+        state.setWorldTimeSec(8L);
+        ColonySaveV1 snapshot = recorder.snapshot(state);
+        service.write(snapshot, saveDir);
+        service.appendJournal(List.of(stale), saveDir);
+
+        ColonyState loaded = new ColonyState();
+        service.load(loaded, saveDir);
+
+        assertEquals(8L, loaded.worldTimeSec());
+    }
 }
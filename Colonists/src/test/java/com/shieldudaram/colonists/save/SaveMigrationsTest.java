@@ -0,0 +1,128 @@
+package com.shieldudaram.colonists.save;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.shieldudaram.colonists.model.ColonyState;
+import com.shieldudaram.colonists.model.PolicyId;
+import com.shieldudaram.colonists.model.Role;
+import com.shieldudaram.colonists.model.TaskType;
+import com.shieldudaram.colonists.sim.ColonistsConstants;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SaveMigrationsTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void goldenSaveOfEveryVersionLoads() throws IOException {
+        SaveMigrations migrations = SaveMigrations.defaults(new JsonFactory());
+        for (int version = 1; version <= ColonistsConstants.SCHEMA_VERSION; version++) {
+            Path saveDir = installGolden(version);
+            ColonyState state = new ColonyState();
+            new ColonySaveService().load(state, saveDir);
+
+            assertEquals(3600L, state.worldTimeSec());
+            assertEquals(4, state.populationCap());
+            assertEquals(PolicyId.FORTIFY, state.activePolicy());
+            assertEquals(12, state.stock("wood"));
+            assertEquals(30, state.stock("food"));
+            assertEquals(2, state.stock("crystal"));
+            assertEquals(3, state.citizen("citizen-1").skill(Role.GATHERER));
+            assertEquals(25, state.hotspot("hotspot-1").capacityNow());
+            assertEquals(TaskType.GATHER, state.task("task-1").type());
+            assertEquals(7200L, state.raidState().nextRaidAtSec());
+            assertEquals(ColonistsConstants.SCHEMA_VERSION, migrations.readVersion(saveDir.resolve("active-save.sav")));
+        }
+    }
+
+    @Test
+    void migratedSaveIsBackedUpOnce() throws IOException {
+        Path saveDir = installGolden(1);
+        byte[] original = golden(1);
+        ColonySaveService service = new ColonySaveService();
+        service.load(new ColonyState(), saveDir);
+        service.load(new ColonyState(), saveDir);
+
+        try (Stream<Path> files = Files.list(saveDir)) {
+            assertEquals(1L, files.filter(path -> path.getFileName().toString().endsWith(".bak")).count());
+        }
+        assertArrayEquals(original, Files.readAllBytes(saveDir.resolve("active-save.sav.v1.bak")));
+    }
+
+    @Test
+    void legacyStockIsConvertedAndUnknownFieldsAreKept() throws IOException {
+        Path source = tempDir.resolve("v1.json");
+        String legacy = new String(golden(1)).replace("\"worldTimeSec\"", "\"modData\" : { \"flags\" : [ 1, 2 ] },\n  \"worldTimeSec\"");
+        Files.writeString(source, legacy);
+        Path target = tempDir.resolve("v2.json");
+
+        SaveMigrations migrations = SaveMigrations.defaults(new JsonFactory());
+        migrations.migrate(source, target, 1, 2);
+
+        String migrated = Files.readString(target);
+        assertEquals(2, migrations.readVersion(target));
+        assertTrue(migrated.contains("\"flags\" : [ 1, 2 ]"));
+        assertFalse(migrated.contains("stockWood"));
+        assertTrue(migrated.contains("\"id\" : \"wood\""));
+        assertEquals(legacy, Files.readString(source));
+    }
+
+    @Test
+    void legacyBinarySaveIsMigrated() throws IOException {
+        Path saveDir = tempDir.resolve("binary");
+        Files.createDirectories(saveDir);
+        ColonySaveV1 save = new ColonySaveService().snapshot(new ColonyState());
+        save.schemaVersion = 1;
+        save.worldTimeSec = 99L;
+        Files.write(saveDir.resolve("active-save.json"), BinarySaveCodec.encode(save));
+
+        ColonyState state = new ColonyState();
+        new ColonySaveService(SaveFormat.BINARY).load(state, saveDir);
+
+        assertEquals(99L, state.worldTimeSec());
+        assertTrue(BinarySaveCodec.matches(Files.readAllBytes(saveDir.resolve("active-save.sav.v1.bak"))));
+    }
+
+    @Test
+    void missingMigratorFailsLoad() throws IOException {
+        Path saveDir = tempDir.resolve("ancient");
+        Files.createDirectories(saveDir);
+        Files.writeString(saveDir.resolve("active-save.json"), "{\"schemaVersion\":0,\"worldTimeSec\":0}");
+
+        assertThrows(IllegalStateException.class, () -> new ColonySaveService().load(new ColonyState(), saveDir));
+    }
+
+    @Test
+    void duplicateMigratorIsRejected() {
+        SaveMigrations migrations = SaveMigrations.defaults(new JsonFactory());
+        assertThrows(IllegalArgumentException.class, () -> migrations.register(new LegacyStockMigrator()));
+    }
+
+    private Path installGolden(int version) throws IOException {
+        Path saveDir = tempDir.resolve("v" + version);
+        Files.createDirectories(saveDir);
+        Files.write(saveDir.resolve("active-save.json"), golden(version));
+        return saveDir;
+    }
+
+    private static byte[] golden(int version) throws IOException {
+        try (InputStream in = SaveMigrationsTest.class.getResourceAsStream("golden/save-v" + version + ".json")) {
+            if (in == null) {
+                throw new IllegalStateException("Missing golden save for schema version " + version);
+            }
+            return in.readAllBytes();
+        }
+    }
+}
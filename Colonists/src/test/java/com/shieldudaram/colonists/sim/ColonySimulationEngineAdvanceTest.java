@@ -0,0 +1,177 @@
+package com.shieldudaram.colonists.sim;
+
+import com.shieldudaram.colonists.content.ColonistsConfig;
+import com.shieldudaram.colonists.model.BlueprintId;
+import com.shieldudaram.colonists.model.ColonyTask;
+import com.shieldudaram.colonists.model.HotspotFamily;
+import com.shieldudaram.colonists.model.HotspotState;
+import com.shieldudaram.colonists.model.PlacedStructure;
+import com.shieldudaram.colonists.model.TaskType;
+import com.shieldudaram.colonists.model.ZoneType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColonySimulationEngineAdvanceTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void advanceToSkipsIdleTimeAndMatchesTickingState() {
+        ColonySimulationEngine ticked = engine("ticked");
+        ColonySimulationEngine advanced = engine("advanced");
+        try {
+            for (int index = 0; index < 1800 * ColonistsConstants.TICK_HZ; index++) {
+                ticked.tick();
+            }
+            AdvanceReport report = advanced.advanceTo(1800L);
+
+            assertEquals(0L, report.fromSec());
+            assertEquals(1800L, report.toSec());
+            assertEquals(1800L, advanced.state().worldTimeSec());
+            assertEquals(ticked.state().worldTimeSec(), advanced.state().worldTimeSec());
+            assertEquals(ticked.state().raidState().nextRaidAtSec(), advanced.state().raidState().nextRaidAtSec());
+            assertEquals(ticked.state().populationCurrent(), advanced.state().populationCurrent());
+            assertTrue(report.jumps() > 0L);
+            assertTrue(report.ticksRun() < 100L);
+            assertEquals(1800L * ColonistsConstants.TICK_HZ, report.ticksRun() + report.ticksSkipped());
+        } finally {
+            ticked.shutdown();
+            advanced.shutdown();
+        }
+    }
+
+    @Test
+    void advanceToLandsOnHotspotReset() {
+        List<Long> landed = new ArrayList<>();
+        ColonySimulationEngine engine = engine("hotspot", landed);
+        try {
+            engine.createZone(ZoneType.HOTSPOT, 0, 0, 20, 20);
+            HotspotState hotspot = engine.placeHotspot(HotspotFamily.WOOD, 5, 5);
+            engine.harvest(hotspot.id(), "citizen-1");
+            long resetAt = hotspot.resetAtSec();
+
+            AdvanceReport report = engine.advanceTo(resetAt + 30L);
+
+            assertTrue(landed.contains(resetAt));
+            assertNull(hotspot.resetAtSec());
+            assertEquals(hotspot.capacityMax(), hotspot.capacityNow());
+            assertTrue(report.ticksSkipped() > 0L);
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void advanceToLandsOnQuarantineExpiry() {
+        List<Long> landed = new ArrayList<>();
+        ColonySimulationEngine engine = engine("quarantine", landed);
+        try {
+            ColonyTask task = engine.createTask(TaskType.BUILD, "target", 1.0, false);
+            task.setQuarantineUntilSec(300L);
+            assertEquals(1, engine.state().taskQueue().quarantinedCount());
+
+            engine.advanceTo(600L);
+
+            assertTrue(landed.contains(300L));
+            assertEquals(0, engine.state().taskQueue().quarantinedCount());
+            assertTrue(landed.size() < 600);
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void advanceToLandsOnStructureCompletion() {
+        List<Long> landed = new ArrayList<>();
+        ColonySimulationEngine engine = engine("structure", landed);
+        try {
+            engine.state().addStructure(new PlacedStructure("structure-1", BlueprintId.HOUSE, 4, 4, 0, false, 0L, 450L));
+
+            AdvanceReport report = engine.advanceTo(900L);
+
+            assertTrue(landed.contains(450L));
+            assertTrue(report.ticksSkipped() > 0L);
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void queuedTasksBeyondIdleCitizensDoNotBlockJumps() {
+        ColonySimulationEngine engine = engine("backlog");
+        try {
+            int citizens = engine.state().populationCurrent();
+            assertTrue(citizens > 0);
+            for (int index = 0; index < citizens + 3; index++) {
+                engine.createTask(TaskType.BUILD, "target-" + index, 1.0, false);
+            }
+
+            AdvanceReport report = engine.advanceTo(3600L);
+
+            assertEquals(3600L, engine.state().worldTimeSec());
+            assertTrue(engine.state().taskQueue().size() > 0);
+            assertTrue(report.jumps() > 0L);
+            assertTrue(report.ticksSkipped() > report.ticksRun());
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void pausedColonyWithDeferredActionsJumpsToTheTarget() {
+        ColonySimulationEngine engine = engine("paused", new ArrayList<>());
+        try {
+            engine.setPaused(true);
+            engine.tick();
+            engine.queueWhilePaused(() -> {
+            });
+            engine.tick();
+            assertEquals(1, engine.pendingCommands());
+
+            AdvanceReport report = engine.advanceTo(3600L);
+
+            assertEquals(3600L, engine.state().worldTimeSec());
+            assertEquals(1, engine.pendingCommands());
+            assertTrue(report.ticksRun() < 10L);
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void advanceToRejectsTargetsBeyondTheTickRange() {
+        ColonySimulationEngine engine = engine("overflow", new ArrayList<>());
+        try {
+            assertThrows(IllegalArgumentException.class, () -> engine.advanceTo(Long.MAX_VALUE));
+            assertEquals(0L, engine.state().worldTimeSec());
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    private ColonySimulationEngine engine(String name) {
+        return engine(name, new ArrayList<>());
+    }
+
+    private ColonySimulationEngine engine(String name, List<Long> landed) {
+        ColonistsConfig config = new ColonistsConfig();
+        config.save.autosaveEnabled = false;
+        return new ColonySimulationEngine(tempDir.resolve(name).resolve("logs"), tempDir.resolve(name).resolve("saves"), new ColonyCallbacks() {
+            @Override
+            public void onPostTick(ColonyContext context) {
+                if (!landed.contains(context.simTimeSec())) {
+                    landed.add(context.simTimeSec());
+                }
+            }
+        }, config);
+    }
+}
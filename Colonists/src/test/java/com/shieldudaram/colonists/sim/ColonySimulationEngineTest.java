@@ -0,0 +1,69 @@
+package com.shieldudaram.colonists.sim;
+
+import com.shieldudaram.colonists.content.ColonistsConfig;
+import com.shieldudaram.colonists.model.BlueprintId;
+import com.shieldudaram.colonists.model.ColonyTask;
+import com.shieldudaram.colonists.model.PlacedStructure;
+import com.shieldudaram.colonists.model.TaskStatus;
+import com.shieldudaram.colonists.model.TaskType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColonySimulationEngineTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void abandoningAStructureReleasesItsReservation() {
+        ColonySimulationEngine engine = engine();
+        try {
+            int wood = engine.state().stock("wood");
+            PlacedStructure house = engine.placeBlueprint(BlueprintId.HOUSE, 20, 20, 0);
+            assertTrue(engine.state().inventory().hasReservation(house.id()));
+            assertEquals(wood, engine.state().stock("wood"));
+
+            assertTrue(engine.abandonStructure(house.id()));
+
+            assertFalse(engine.state().inventory().hasReservation(house.id()));
+            assertNull(engine.state().structure(house.id()));
+            assertEquals(wood, engine.state().stock("wood"));
+            for (ColonyTask task : engine.state().tasks()) {
+                if (task.type() == TaskType.BUILD && task.targetId().equals(house.id())) {
+                    assertEquals(TaskStatus.FAILED, task.status());
+                }
+            }
+            assertFalse(engine.abandonStructure(house.id()));
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void completingAStructureRequiresItsReservation() {
+        ColonySimulationEngine engine = engine();
+        try {
+            PlacedStructure house = engine.placeBlueprint(BlueprintId.HOUSE, 20, 20, 0);
+            engine.state().inventory().release(house.id());
+
+            assertThrows(IllegalStateException.class, () -> engine.completeStructure(house.id(), "citizen-1"));
+            assertFalse(house.complete());
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    private ColonySimulationEngine engine() {
+        ColonistsConfig config = new ColonistsConfig();
+        config.save.autosaveEnabled = false;
+        return new ColonySimulationEngine(tempDir.resolve("logs"), tempDir.resolve("saves"), new ColonyCallbacks() {
+        }, config);
+    }
+}
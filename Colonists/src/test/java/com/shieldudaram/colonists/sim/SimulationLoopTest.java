@@ -0,0 +1,151 @@
+package com.shieldudaram.colonists.sim;
+
+import com.shieldudaram.colonists.commands.CommandResult;
+import com.shieldudaram.colonists.content.ColonistsConfig;
+import com.shieldudaram.colonists.model.TaskType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SimulationLoopTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void loopAppliesCommandsOnItsThreadAndPublishesSnapshots() throws Exception {
+        ColonySimulationEngine engine = engine();
+        SimulationLoop loop = new SimulationLoop(engine, TimeUnit.MILLISECONDS.toNanos(2));
+        ColonySnapshot initial = loop.snapshot();
+        assertEquals(0L, initial.tick());
+        try {
+            loop.start();
+            CommandResult onLoop = engine.submit(sim -> CommandResult.ok(String.valueOf(loop.onLoopThread())))
+                    .get(5, TimeUnit.SECONDS);
+            assertEquals("true", onLoop.message());
+            AtomicReference<String> taskId = new AtomicReference<>();
+            CommandResult created = engine.submit(sim -> {
+                taskId.set(sim.createTask(TaskType.BUILD, "target", 1.0, false).id());
+                return CommandResult.ok(String.valueOf(sim.tickCount()));
+            }).get(5, TimeUnit.SECONDS);
+            long createdAt = Long.parseLong(created.message());
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (loop.snapshot().tick() < createdAt + 2 && System.nanoTime() < deadline) {
+                Thread.sleep(1L);
+            }
+
+            ColonySnapshot snapshot = loop.snapshot();
+            assertNotSame(initial, snapshot);
+            assertTrue(snapshot.tick() >= createdAt + 2);
+            assertEquals(1, snapshot.taskCount());
+            assertTrue(snapshot.citizens().stream().anyMatch(citizen -> taskId.get().equals(citizen.activeTaskId())));
+            assertThrows(UnsupportedOperationException.class, () -> snapshot.citizens().clear());
+            assertEquals(0L, loop.failedTicks());
+        } finally {
+            loop.close();
+            engine.shutdown();
+        }
+        assertFalse(loop.running());
+        assertTrue(engine.submit(sim -> CommandResult.ok("late")).isCompletedExceptionally());
+    }
+
+    @Test
+    void closingTheLoopFailsCommandsItWillNeverRun() {
+        ColonySimulationEngine engine = engine();
+        SimulationLoop loop = new SimulationLoop(engine, TimeUnit.MILLISECONDS.toNanos(2));
+        try {
+            CompletableFuture<CommandResult> pending = engine.submit(sim -> CommandResult.ok("never"));
+            loop.close();
+
+            assertTrue(pending.isCompletedExceptionally());
+            assertEquals(0, engine.pendingCommands());
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void failedTicksAreReportedToTelemetry() throws Exception {
+        ColonySimulationEngine engine = engine();
+        SimulationLoop loop = new SimulationLoop(engine, TimeUnit.MILLISECONDS.toNanos(2));
+        try {
+            loop.start();
+            engine.queueWhilePaused(() -> {
+                throw new IllegalStateException("bad action");
+            });
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (loop.failedTicks() == 0L && System.nanoTime() < deadline) {
+                Thread.sleep(1L);
+            }
+            loop.close();
+            engine.telemetry().flush();
+
+            assertEquals(1L, loop.failedTicks());
+            assertTrue(logText().contains("WARN simulation tick failed (1 total): java.lang.IllegalStateException: bad action"));
+        } finally {
+            loop.close();
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void errorOnTheLoopThreadIsRecordedAndReportedOnce() throws Exception {
+        ColonySimulationEngine engine = engine();
+        SimulationLoop loop = new SimulationLoop(engine, TimeUnit.MILLISECONDS.toNanos(2));
+        try {
+            loop.start();
+            CompletableFuture<CommandResult> fatal = engine.submit(sim -> {
+                throw new AssertionError("boom");
+            });
+            CompletableFuture<CommandResult> next = engine.submit(sim -> CommandResult.ok("after"));
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> fatal.get(5, TimeUnit.SECONDS));
+            assertTrue(failure.getCause() instanceof AssertionError);
+            assertThrows(ExecutionException.class, () -> next.get(5, TimeUnit.SECONDS));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (loop.running() && System.nanoTime() < deadline) {
+                Thread.sleep(1L);
+            }
+
+            assertFalse(loop.running());
+            assertTrue(loop.deathCause() instanceof AssertionError);
+            assertSame(loop.deathCause(), loop.takeUnreportedDeath());
+            assertNull(loop.takeUnreportedDeath());
+            assertTrue(engine.submit(sim -> CommandResult.ok("late")).isCompletedExceptionally());
+        } finally {
+            loop.close();
+            engine.shutdown();
+        }
+    }
+
+    private String logText() throws IOException {
+        StringBuilder text = new StringBuilder();
+        try (Stream<Path> files = Files.list(tempDir.resolve("logs"))) {
+            for (Path file : files.toList()) {
+                text.append(Files.readString(file));
+            }
+        }
+        return text.toString();
+    }
+
+    private ColonySimulationEngine engine() {
+        ColonistsConfig config = new ColonistsConfig();
+        config.save.autosaveEnabled = false;
+        return new ColonySimulationEngine(tempDir.resolve("logs"), tempDir.resolve("saves"), new ColonyCallbacks() {
+        }, config);
+    }
+}
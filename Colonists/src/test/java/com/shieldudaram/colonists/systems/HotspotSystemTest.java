@@ -1,10 +1,10 @@
 package com.shieldudaram.colonists.systems;
 
+import com.shieldudaram.colonists.events.ColonyEventBus;
 import com.shieldudaram.colonists.model.ColonyState;
 import com.shieldudaram.colonists.model.HotspotFamily;
 import com.shieldudaram.colonists.model.HotspotState;
 import com.shieldudaram.colonists.model.ZoneType;
-import com.shieldudaram.colonists.sim.ColonyCallbacks;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -20,12 +20,10 @@ class HotspotSystemTest {
         HotspotSystem hotspotSystem = new HotspotSystem();
 
         zoneSystem.createZone(state, ZoneType.HOTSPOT, 0, 0, 20, 20);
-        HotspotState hotspot = hotspotSystem.placeHotspot(state, HotspotFamily.WOOD, 5, 5, new ColonyCallbacks() {
-        });
+        HotspotState hotspot = hotspotSystem.placeHotspot(state, HotspotFamily.WOOD, 5, 5, new ColonyEventBus());
 
         state.setWorldTimeSec(10);
-        HotspotSystem.HarvestResult result = hotspotSystem.harvest(state, hotspot.id(), "citizen-1", 1, new ColonyCallbacks() {
-        });
+        HotspotSystem.HarvestResult result = hotspotSystem.harvest(state, hotspot.id(), "citizen-1", 1, new ColonyEventBus());
 
         assertTrue(result.quantity() > 0);
         assertNotNull(hotspot.cycleStartedAtSec());
@@ -33,8 +31,7 @@ class HotspotSystemTest {
 
         long resetAt = hotspot.resetAtSec();
         state.setWorldTimeSec(resetAt);
-        hotspotSystem.tick(state, new ColonyCallbacks() {
-        });
+        hotspotSystem.tick(state, new ColonyEventBus());
 
         assertEquals(hotspot.capacityMax(), hotspot.capacityNow());
         assertEquals(1.0, hotspot.degradation());
@@ -1,39 +1,159 @@
 package com.shieldudaram.colonists.systems;
 
+import com.shieldudaram.colonists.events.ColonyEventBus;
 import com.shieldudaram.colonists.model.CitizenState;
 import com.shieldudaram.colonists.model.ColonyState;
 import com.shieldudaram.colonists.model.ColonyTask;
+import com.shieldudaram.colonists.model.PolicyId;
 import com.shieldudaram.colonists.model.Role;
 import com.shieldudaram.colonists.model.TaskStatus;
 import com.shieldudaram.colonists.model.TaskType;
-import com.shieldudaram.colonists.sim.ColonyCallbacks;
+import com.shieldudaram.colonists.sim.ColonistsConstants;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class TaskBrokerTest {
     @Test
     void emergencyTaskCanPreemptEvenWithLock() {
         ColonyState state = new ColonyState();
         CitizenState citizen = new CitizenState("citizen-1", Role.BUILDER);
-        state.citizens().add(citizen);
+        state.addCitizen(citizen);
         state.setWorldTimeSec(100);
 
         TaskBroker broker = new TaskBroker();
-        ColonyTask low = broker.createTask(state, TaskType.BUILD, "a", 0.5, false, new ColonyCallbacks() {
-        });
+        ColonyTask low = broker.createTask(state, TaskType.BUILD, "a", 0.5, false, new ColonyEventBus());
         low.reserve(citizen.id());
         low.setStatus(TaskStatus.RUNNING);
 
         citizen.setPreemptLockUntilSec(state.worldTimeSec() + 100);
-        ColonyTask emergency = broker.createTask(state, TaskType.EMERGENCY, "b", 2.0, true, new ColonyCallbacks() {
-        });
+        ColonyTask emergency = broker.createTask(state, TaskType.EMERGENCY, "b", 2.0, true, new ColonyEventBus());
 
-        broker.assignTasks(state, new ColonyCallbacks() {
-        });
+        broker.assignTasks(state, new ColonyEventBus());
 
         assertEquals(TaskStatus.QUEUED, low.status());
         assertEquals(citizen.id(), emergency.reservedByCitizenId());
         assertEquals(TaskStatus.RUNNING, emergency.status());
+        assertEquals(emergency, state.taskReservations().activeTask(citizen.id()));
+        assertTrue(state.taskReservations().verify(state.tasks()).isEmpty());
+    }
+
+    @Test
+    void canAssignOnlyWhenACitizenCouldTakeOrPreemptATask() {
+        ColonyState state = new ColonyState();
+        CitizenState citizen = new CitizenState("citizen-1", Role.BUILDER);
+        state.addCitizen(citizen);
+        state.setWorldTimeSec(100);
+        TaskBroker broker = new TaskBroker();
+        ColonyEventBus events = new ColonyEventBus();
+
+        broker.createTask(state, TaskType.BUILD, "a", 1.0, false, events);
+        assertTrue(broker.canAssign(state));
+        broker.assignTasks(state, events);
+        broker.createTask(state, TaskType.BUILD, "b", 1.0, false, events);
+        assertFalse(broker.canAssign(state));
+
+        citizen.setPreemptLockUntilSec(state.worldTimeSec() + 100);
+        broker.createTask(state, TaskType.BUILD, "c", 5.0, false, events);
+        assertFalse(broker.canAssign(state));
+        state.setWorldTimeSec(200);
+        assertTrue(broker.canAssign(state));
+    }
+
+    @Test
+    void idleCitizensTakeHighestScoredTasksAndPolicyChangesReorderQueue() {
+        ColonyState state = new ColonyState();
+        CitizenState first = new CitizenState("citizen-1", Role.BUILDER);
+        state.addCitizen(first);
+
+        TaskBroker broker = new TaskBroker();
+        ColonyEventBus events = new ColonyEventBus();
+        ColonyTask build = broker.createTask(state, TaskType.BUILD, "a", 1.0, false, events);
+        ColonyTask defend = broker.createTask(state, TaskType.DEFEND, "b", 1.0, false, events);
+        ColonyTask farm = broker.createTask(state, TaskType.FARM, "c", 1.0, false, events);
+
+        assertEquals(farm, state.taskQueue().peek());
+        state.setTaskWeights(ColonistsConstants.policyWeights(PolicyId.FORTIFY));
+        assertEquals(defend, state.taskQueue().peek());
+
+        broker.assignTasks(state, events);
+        assertEquals(first.id(), defend.reservedByCitizenId());
+        assertEquals(2, state.taskQueue().size());
+        assertNull(build.reservedByCitizenId());
+    }
+
+    @Test
+    void quarantinedTasksReturnToQueueWhenQuarantineExpires() {
+        ColonyState state = new ColonyState();
+        CitizenState citizen = new CitizenState("citizen-1", Role.BUILDER);
+        state.addCitizen(citizen);
+
+        TaskBroker broker = new TaskBroker();
+        ColonyEventBus events = new ColonyEventBus();
+        ColonyTask task = broker.createTask(state, TaskType.HAUL, "a", 1.0, false, events);
+        task.setQuarantineUntilSec(50);
+
+        state.setWorldTimeSec(10);
+        broker.assignTasks(state, events);
+        assertNull(task.reservedByCitizenId());
+        assertEquals(1, state.taskQueue().quarantinedCount());
+
+        state.setWorldTimeSec(50);
+        broker.assignTasks(state, events);
+        assertEquals(citizen.id(), task.reservedByCitizenId());
+        assertEquals(TaskStatus.RUNNING, task.status());
+    }
+
+    @Test
+    void staggeredSchedulerVisitsEveryCitizenAndLetsEmergenciesBypass() {
+        ColonyState state = new ColonyState();
+        for (int index = 1; index <= 3; index++) {
+            state.addCitizen(new CitizenState("citizen-" + index, Role.BUILDER));
+        }
+        TaskBroker broker = new TaskBroker(new AgentScheduler(true, 2));
+        ColonyEventBus events = new ColonyEventBus();
+        for (int index = 0; index < 3; index++) {
+            broker.createTask(state, TaskType.HAUL, "haul-" + index, 1.0, false, events);
+        }
+
+        broker.assignTasks(state, events);
+        assertEquals(2, state.taskReservations().size());
+        assertNull(state.taskReservations().activeTask("citizen-3"));
+
+        broker.assignTasks(state, events);
+        assertEquals(3, state.taskReservations().size());
+        assertEquals(2, broker.scheduler().maxTicksBetweenVisits(state.populationCurrent()));
+
+        ColonyTask emergency = broker.createTask(state, TaskType.EMERGENCY, "fire", 2.0, true, events);
+        state.citizens().get(0).setPreemptLockUntilSec(1000);
+        broker.assignTasks(state, events);
+        assertEquals(TaskStatus.RUNNING, emergency.status());
+        assertTrue(state.taskReservations().verify(state.tasks()).isEmpty());
+    }
+
+    @Test
+    void batchMatchingPairsCitizensWithTheirStrongestRoles() {
+        ColonyState state = new ColonyState();
+        CitizenState builder = new CitizenState("citizen-1", Role.BUILDER);
+        builder.setSkill(Role.BUILDER, 10);
+        CitizenState farmer = new CitizenState("citizen-2", Role.FARMER);
+        farmer.setSkill(Role.FARMER, 10);
+        state.addCitizen(builder);
+        state.addCitizen(farmer);
+
+        TaskBroker broker = new TaskBroker(AgentScheduler.unstaggered(), AssignmentMode.BATCH, new TaskMatcher(50_000_000L));
+        ColonyEventBus events = new ColonyEventBus();
+        ColonyTask build = broker.createTask(state, TaskType.BUILD, "a", 1.0, false, events);
+        ColonyTask farm = broker.createTask(state, TaskType.FARM, "b", 1.0, false, events);
+        broker.createTask(state, TaskType.GATHER, "c", 0.5, false, events);
+
+        broker.assignTasks(state, events);
+
+        assertEquals(builder.id(), build.reservedByCitizenId());
+        assertEquals(farmer.id(), farm.reservedByCitizenId());
+        assertEquals(0, broker.matcher().fallbackCount());
     }
 }
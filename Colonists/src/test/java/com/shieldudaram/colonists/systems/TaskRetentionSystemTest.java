@@ -0,0 +1,50 @@
+package com.shieldudaram.colonists.systems;
+
+import com.shieldudaram.colonists.events.ColonyEventBus;
+import com.shieldudaram.colonists.model.ColonyState;
+import com.shieldudaram.colonists.model.ColonyTask;
+import com.shieldudaram.colonists.model.TaskArchive;
+import com.shieldudaram.colonists.model.TaskStatus;
+import com.shieldudaram.colonists.model.TaskType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TaskRetentionSystemTest {
+    @Test
+    void terminalTasksAreArchivedIncrementallyIntoBoundedHistory() {
+        ColonyState state = new ColonyState();
+        state.taskArchive().setCapacity(2);
+        TaskBroker broker = new TaskBroker();
+        TaskRetentionSystem retention = new TaskRetentionSystem(2);
+        ColonyEventBus events = new ColonyEventBus();
+
+        ColonyTask first = broker.createTask(state, TaskType.BUILD, "a", 1.0, false, events);
+        ColonyTask second = broker.createTask(state, TaskType.BUILD, "b", 1.0, false, events);
+        ColonyTask third = broker.createTask(state, TaskType.HAUL, "c", 1.0, false, events);
+        ColonyTask live = broker.createTask(state, TaskType.FARM, "d", 1.0, false, events);
+        state.setWorldTimeSec(42);
+        broker.completeTask(first, "citizen-1", events);
+        broker.completeTask(second, "citizen-1", events);
+        third.setStatus(TaskStatus.FAILED);
+
+        assertEquals(2, retention.tick(state));
+        assertEquals(2, state.tasks().size());
+        assertNull(state.task(first.id()));
+        assertEquals(1, retention.tick(state));
+        assertEquals(0, retention.tick(state));
+
+        assertEquals(1, state.tasks().size());
+        assertEquals(live, state.task(live.id()));
+        assertEquals(2, state.taskArchive().completedCount(TaskType.BUILD));
+        assertEquals(1, state.taskArchive().failedCount(TaskType.HAUL));
+        List<TaskArchive.ArchivedTask> recent = state.taskArchive().recent();
+        assertEquals(2, recent.size());
+        assertEquals(second.id(), recent.get(0).id());
+        assertEquals(third.id(), recent.get(1).id());
+        assertEquals(42L, recent.get(1).closedAtSec());
+    }
+}
@@ -0,0 +1,21 @@
+package com.shieldudaram.colonists.telemetry;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class FailureThrottleTest {
+    @Test
+    void reportsFirstFailureThenCountsUntilTheIntervalPasses() {
+        FailureThrottle throttle = new FailureThrottle(100L);
+        IllegalStateException failure = new IllegalStateException("boom");
+
+        assertEquals("tick failed (1 total): " + failure, throttle.record("tick", failure, 1_000L));
+        assertNull(throttle.record("tick", failure, 1_050L));
+        assertNull(throttle.record("tick", failure, 1_099L));
+        assertEquals("tick failed (4 total, 2 unreported): " + failure, throttle.record("tick", failure, 1_100L));
+        assertNull(throttle.record("tick", failure, 1_150L));
+        assertEquals(5L, throttle.count());
+    }
+}
@@ -0,0 +1,57 @@
+package com.shieldudaram.colonists.telemetry;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+    @Test
+    void bucketsCoverEveryValueContiguously() {
+        long[] samples = {0L, 15L, 16L, 31L, 32L, 1_000L, 123_456_789L, Long.MAX_VALUE};
+        for (long sample : samples) {
+            int index = LatencyHistogram.bucketIndex(sample);
+            assertTrue(LatencyHistogram.bucketUpperBound(index) >= sample);
+            if (index > 0) {
+                assertTrue(LatencyHistogram.bucketUpperBound(index - 1) < sample);
+            }
+        }
+    }
+
+    @Test
+    void percentilesStayWithinBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1L; value <= 10_000L; value++) {
+            histogram.record(value * 1_000L);
+        }
+
+        assertEquals(10_000L, histogram.count());
+        assertEquals(10_000_000L, histogram.max());
+        long p50 = histogram.percentile(0.50);
+        long p99 = histogram.percentile(0.99);
+        assertTrue(Math.abs(p50 - 5_000_000L) <= 5_000_000L / 16, "p50=" + p50);
+        assertTrue(Math.abs(p99 - 9_900_000L) <= 9_900_000L / 16, "p99=" + p99);
+
+        histogram.reset();
+        assertEquals(0L, histogram.count());
+        assertEquals(0L, histogram.percentile(0.99));
+    }
+
+    @Test
+    void disabledMetricsRecordNothing() {
+        TickMetrics metrics = new TickMetrics(1L);
+        metrics.setEnabled(false);
+        metrics.beginTick(1L, 0L);
+        metrics.lap(TickPhase.HOTSPOTS);
+        metrics.endTick();
+        assertEquals(0L, metrics.ticks());
+        assertEquals(0L, metrics.histogram(TickPhase.HOTSPOTS).count());
+
+        metrics.setEnabled(true);
+        metrics.beginTick(2L, 0L);
+        metrics.lap(TickPhase.HOTSPOTS);
+        metrics.endTick();
+        assertEquals(1L, metrics.ticks());
+        assertEquals(1L, metrics.histogram(TickPhase.HOTSPOTS).count());
+    }
+}
@@ -0,0 +1,82 @@
+package com.shieldudaram.colonists.telemetry;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TelemetryLogWriterTest {
+    private static final long DAY_MILLIS = 86_400_000L;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void fullQueueDropsAndCountsLines() throws IOException {
+        AtomicLong clock = new AtomicLong(10L);
+        try (TelemetryLogWriter writer = new TelemetryLogWriter(tempDir, 2, 64, 1000L, 7, clock::get)) {
+            assertTrue(writer.offer("one"));
+            assertTrue(writer.offer("two"));
+            assertFalse(writer.offer("three"));
+            assertEquals(1L, writer.droppedCount());
+
+            writer.start();
+            writer.flush();
+
+            List<String> lines = Files.readAllLines(tempDir.resolve("colonists-1970-01-01.log"));
+            assertEquals(List.of("1970-01-01T00:00:00.010Z one", "1970-01-01T00:00:00.010Z two"), lines);
+            assertEquals(2L, writer.writtenCount());
+        }
+    }
+
+    @Test
+    void dayRolloverOpensNewFileAndRotatesOldOnes() throws IOException {
+        AtomicLong clock = new AtomicLong(0L);
+        TelemetryLogWriter writer = new TelemetryLogWriter(tempDir, 16, 1024, 1000L, 2, clock::get);
+        writer.start();
+        for (int day = 0; day < 3; day++) {
+            clock.set(day * DAY_MILLIS + 5L);
+            writer.offer("day " + day);
+        }
+        writer.close();
+
+        assertFalse(Files.exists(tempDir.resolve("colonists-1970-01-01.log")));
+        assertEquals(List.of("1970-01-02T00:00:00.005Z day 1"), Files.readAllLines(tempDir.resolve("colonists-1970-01-02.log")));
+        assertEquals(List.of("1970-01-03T00:00:00.005Z day 2"), Files.readAllLines(tempDir.resolve("colonists-1970-01-03.log")));
+        assertFalse(writer.offer("late"));
+    }
+
+    @Test
+    void closeReturnsWhenTheWriterThreadHasDied() {
+        TelemetryLogWriter writer = new TelemetryLogWriter(tempDir, 16, 1024, 1000L, 7, () -> Long.MAX_VALUE);
+        writer.start();
+        writer.offer("unwritable timestamp");
+
+        long startedAt = System.nanoTime();
+        writer.flush();
+        writer.close();
+
+        assertTrue(System.nanoTime() - startedAt < TimeUnit.SECONDS.toNanos(5));
+        assertFalse(writer.startIfOpen());
+    }
+
+    @Test
+    void logAfterCloseIsDropped() {
+        TelemetryService telemetry = new TelemetryService(tempDir);
+        telemetry.close();
+
+        telemetry.log("late");
+        telemetry.warn("late");
+
+        assertEquals(0L, telemetry.droppedLines());
+    }
+}
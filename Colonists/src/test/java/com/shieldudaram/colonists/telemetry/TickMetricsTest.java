@@ -0,0 +1,28 @@
+package com.shieldudaram.colonists.telemetry;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TickMetricsTest {
+    @Test
+    void enablingMidTickWaitsForTheNextTick() {
+        TickMetrics metrics = new TickMetrics(1_000L);
+        metrics.setEnabled(false);
+        metrics.beginTick(1L, 0L);
+        metrics.setEnabled(true);
+        metrics.lap(TickPhase.COMMANDS);
+        metrics.endTick();
+
+        assertEquals(0L, metrics.histogram(TickPhase.COMMANDS).count());
+        assertEquals(0L, metrics.ticks());
+        assertEquals(0L, metrics.overruns());
+
+        metrics.beginTick(2L, 0L);
+        metrics.lap(TickPhase.COMMANDS);
+        metrics.endTick();
+
+        assertEquals(1L, metrics.histogram(TickPhase.COMMANDS).count());
+        assertEquals(1L, metrics.ticks());
+    }
+}